@@ -0,0 +1,3 @@
+package br.jeanjacintho.tideflow.ai_service.audio;
+
+public record AudioChunk(int index, long startMillis, long durationMillis, byte[] wav) {}
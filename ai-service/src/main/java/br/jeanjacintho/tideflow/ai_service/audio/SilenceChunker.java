@@ -0,0 +1,168 @@
+package br.jeanjacintho.tideflow.ai_service.audio;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+@Component
+public class SilenceChunker {
+
+    private final int frameMillis;
+    private final double silenceThreshold;
+    private final int minSilenceMillis;
+    private final int minChunkMillis;
+    private final int maxChunkMillis;
+
+    public SilenceChunker(@Value("${whisper.chunking.frame-ms:30}") int frameMillis,
+                          @Value("${whisper.chunking.silence-threshold:500}") double silenceThreshold,
+                          @Value("${whisper.chunking.min-silence-ms:400}") int minSilenceMillis,
+                          @Value("${whisper.chunking.min-chunk-ms:10000}") int minChunkMillis,
+                          @Value("${whisper.chunking.max-chunk-ms:30000}") int maxChunkMillis) {
+        this.frameMillis = frameMillis;
+        this.silenceThreshold = silenceThreshold;
+        this.minSilenceMillis = minSilenceMillis;
+        this.minChunkMillis = minChunkMillis;
+        this.maxChunkMillis = Math.max(maxChunkMillis, minChunkMillis);
+    }
+
+    public Reader open(InputStream input) throws IOException, UnsupportedAudioFileException {
+        BufferedInputStream buffered = new BufferedInputStream(input);
+        try {
+            return new Reader(buffered, WavFormat.read(buffered));
+        } catch (IOException | UnsupportedAudioFileException e) {
+            buffered.close();
+            throw e;
+        }
+    }
+
+    public final class Reader implements AutoCloseable {
+
+        private final InputStream input;
+        private final WavFormat format;
+        private final byte[] frame;
+        private final int minSilenceFrames;
+        private final int minChunkBytes;
+        private final int maxChunkBytes;
+        private final ByteArrayOutputStream current = new ByteArrayOutputStream();
+
+        private long remaining;
+        private long emittedBytes;
+        private int index;
+        private int silentFrames;
+        private int quietestOffset;
+        private double quietestEnergy = Double.MAX_VALUE;
+
+        private Reader(InputStream input, WavFormat format) {
+            this.input = input;
+            this.format = format;
+            this.remaining = format.dataLength();
+            this.frame = new byte[Math.max(format.blockAlign(), format.millisToBytes(frameMillis))];
+            this.minSilenceFrames = Math.max(1, minSilenceMillis / frameMillis);
+            this.minChunkBytes = format.millisToBytes(minChunkMillis);
+            this.maxChunkBytes = format.millisToBytes(maxChunkMillis);
+        }
+
+        public WavFormat format() {
+            return format;
+        }
+
+        public AudioChunk next() throws IOException {
+            while (remaining > 0) {
+                int read = input.readNBytes(frame, 0, (int) Math.min(frame.length, remaining));
+                if (read <= 0) {
+                    remaining = 0;
+                    break;
+                }
+                read -= read % format.blockAlign();
+                remaining -= read;
+
+                double energy = rms(frame, 0, read);
+                current.write(frame, 0, read);
+                silentFrames = energy < silenceThreshold ? silentFrames + 1 : 0;
+
+                if (current.size() >= minChunkBytes && energy <= quietestEnergy) {
+                    quietestEnergy = energy;
+                    quietestOffset = current.size();
+                }
+
+                if (current.size() >= minChunkBytes && silentFrames >= minSilenceFrames) {
+                    AudioChunk chunk = emit(current.size());
+                    if (chunk != null) {
+                        return chunk;
+                    }
+                } else if (current.size() >= maxChunkBytes) {
+                    AudioChunk chunk = emit(quietestOffset > 0 ? quietestOffset : current.size());
+                    if (chunk != null) {
+                        return chunk;
+                    }
+                }
+            }
+
+            while (current.size() > 0) {
+                AudioChunk chunk = emit(current.size());
+                if (chunk != null) {
+                    return chunk;
+                }
+            }
+            return null;
+        }
+
+        private AudioChunk emit(int cut) {
+            byte[] buffered = current.toByteArray();
+            current.reset();
+            current.write(buffered, cut, buffered.length - cut);
+
+            long startBytes = emittedBytes;
+            emittedBytes += cut;
+            silentFrames = 0;
+            quietestOffset = 0;
+            quietestEnergy = Double.MAX_VALUE;
+
+            if (!hasVoice(buffered, cut)) {
+                return null;
+            }
+            return new AudioChunk(
+                    index++,
+                    format.bytesToMillis(startBytes),
+                    format.bytesToMillis(cut),
+                    format.toWav(buffered, 0, cut)
+            );
+        }
+
+        private boolean hasVoice(byte[] pcm, int length) {
+            for (int offset = 0; offset < length; offset += frame.length) {
+                if (rms(pcm, offset, Math.min(frame.length, length - offset)) >= silenceThreshold) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void close() {
+            try {
+                input.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    static double rms(byte[] pcm, int offset, int length) {
+        int samples = length / 2;
+        if (samples == 0) {
+            return 0.0;
+        }
+
+        double sum = 0.0;
+        for (int i = offset; i + 1 < offset + length; i += 2) {
+            short sample = (short) ((pcm[i] & 0xFF) | (pcm[i + 1] << 8));
+            sum += (double) sample * sample;
+        }
+        return Math.sqrt(sum / samples);
+    }
+}
@@ -0,0 +1,104 @@
+package br.jeanjacintho.tideflow.ai_service.audio;
+
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+public record WavFormat(int channels, int sampleRate, int bitsPerSample, long dataLength) {
+
+    private static final int PCM_FORMAT = 1;
+    private static final int HEADER_SIZE = 44;
+    private static final long UNKNOWN_LENGTH = 0xFFFFFFFFL;
+
+    public static WavFormat read(InputStream input) throws IOException, UnsupportedAudioFileException {
+        byte[] riff = readBytes(input, 12);
+        if (!"RIFF".equals(ascii(riff, 0)) || !"WAVE".equals(ascii(riff, 8))) {
+            throw new UnsupportedAudioFileException("Áudio não está em formato WAV");
+        }
+
+        Integer channels = null;
+        int sampleRate = 0;
+        int bitsPerSample = 0;
+
+        while (true) {
+            byte[] chunkHeader = readBytes(input, 8);
+            String chunkId = ascii(chunkHeader, 0);
+            long chunkSize = ByteBuffer.wrap(chunkHeader, 4, 4).order(ByteOrder.LITTLE_ENDIAN).getInt() & 0xFFFFFFFFL;
+
+            if ("fmt ".equals(chunkId)) {
+                ByteBuffer fmt = ByteBuffer.wrap(readBytes(input, (int) chunkSize)).order(ByteOrder.LITTLE_ENDIAN);
+                int audioFormat = fmt.getShort() & 0xFFFF;
+                channels = fmt.getShort() & 0xFFFF;
+                sampleRate = fmt.getInt();
+                fmt.getInt();
+                fmt.getShort();
+                bitsPerSample = fmt.getShort() & 0xFFFF;
+
+                if (audioFormat != PCM_FORMAT || bitsPerSample != 16 || channels == 0 || sampleRate <= 0) {
+                    throw new UnsupportedAudioFileException("Apenas WAV PCM de 16 bits é suportado");
+                }
+                skip(input, chunkSize % 2);
+            } else if ("data".equals(chunkId)) {
+                if (channels == null) {
+                    throw new UnsupportedAudioFileException("WAV sem bloco fmt antes dos dados");
+                }
+                long dataLength = chunkSize == 0 || chunkSize == UNKNOWN_LENGTH ? Long.MAX_VALUE : chunkSize;
+                return new WavFormat(channels, sampleRate, bitsPerSample, dataLength);
+            } else {
+                skip(input, chunkSize + chunkSize % 2);
+            }
+        }
+    }
+
+    public int blockAlign() {
+        return channels * bitsPerSample / 8;
+    }
+
+    public long bytesToMillis(long bytes) {
+        return bytes * 1000 / ((long) sampleRate * blockAlign());
+    }
+
+    public int millisToBytes(int millis) {
+        long frames = (long) sampleRate * millis / 1000;
+        return (int) (frames * blockAlign());
+    }
+
+    public byte[] toWav(byte[] pcm, int offset, int length) {
+        ByteBuffer wav = ByteBuffer.allocate(HEADER_SIZE + length).order(ByteOrder.LITTLE_ENDIAN);
+        wav.put("RIFF".getBytes(StandardCharsets.US_ASCII));
+        wav.putInt(36 + length);
+        wav.put("WAVE".getBytes(StandardCharsets.US_ASCII));
+        wav.put("fmt ".getBytes(StandardCharsets.US_ASCII));
+        wav.putInt(16);
+        wav.putShort((short) PCM_FORMAT);
+        wav.putShort((short) channels);
+        wav.putInt(sampleRate);
+        wav.putInt(sampleRate * blockAlign());
+        wav.putShort((short) blockAlign());
+        wav.putShort((short) bitsPerSample);
+        wav.put("data".getBytes(StandardCharsets.US_ASCII));
+        wav.putInt(length);
+        wav.put(pcm, offset, length);
+        return wav.array();
+    }
+
+    private static byte[] readBytes(InputStream input, int length) throws IOException {
+        byte[] bytes = input.readNBytes(length);
+        if (bytes.length < length) {
+            throw new EOFException("Cabeçalho WAV incompleto");
+        }
+        return bytes;
+    }
+
+    private static void skip(InputStream input, long bytes) throws IOException {
+        input.skipNBytes(bytes);
+    }
+
+    private static String ascii(byte[] bytes, int offset) {
+        return new String(bytes, offset, 4, StandardCharsets.US_ASCII);
+    }
+}
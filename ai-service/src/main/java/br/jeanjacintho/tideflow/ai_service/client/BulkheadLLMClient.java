@@ -0,0 +1,28 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class BulkheadLLMClient extends DelegatingLLMClient {
+
+    private final LLMClient delegate;
+    private final ProviderBulkhead bulkhead;
+
+    public BulkheadLLMClient(LLMClient delegate, ProviderBulkhead bulkhead) {
+        this.delegate = delegate;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    protected Mono<String> around(LLMOperation operation, List<?> arguments, Function<LLMClient, Mono<String>> call) {
+        return bulkhead.execute(Mono.defer(() -> call.apply(delegate)));
+    }
+
+    @Override
+    protected Flux<String> aroundStream(LLMOperation operation, List<?> arguments, Function<LLMClient, Flux<String>> call) {
+        return bulkhead.executeMany(Flux.defer(() -> call.apply(delegate)));
+    }
+}
@@ -0,0 +1,28 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class CachingLLMClient extends DelegatingLLMClient {
+
+    private final LLMClient delegate;
+    private final LLMResponseCache responseCache;
+
+    public CachingLLMClient(LLMClient delegate, LLMResponseCache responseCache) {
+        this.delegate = delegate;
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    protected Mono<String> around(LLMOperation operation, List<?> arguments, Function<LLMClient, Mono<String>> call) {
+        return responseCache.lookup(operation, arguments, () -> call.apply(delegate));
+    }
+
+    @Override
+    protected Flux<String> aroundStream(LLMOperation operation, List<?> arguments, Function<LLMClient, Flux<String>> call) {
+        return Flux.defer(() -> call.apply(delegate));
+    }
+}
@@ -0,0 +1,66 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public abstract class DelegatingLLMClient implements LLMClient {
+
+    protected abstract Mono<String> around(LLMOperation operation, List<?> arguments,
+                                           Function<LLMClient, Mono<String>> call);
+
+    protected abstract Flux<String> aroundStream(LLMOperation operation, List<?> arguments,
+                                                 Function<LLMClient, Flux<String>> call);
+
+    @Override
+    public Mono<String> generateResponse(String prompt) {
+        return around(LLMOperation.GENERATE_RESPONSE, Arrays.asList(prompt),
+                client -> client.generateResponse(prompt));
+    }
+
+    @Override
+    public Mono<String> chatWithHistory(List<Map<String, String>> messages) {
+        return around(LLMOperation.CHAT_WITH_HISTORY, messages,
+                client -> client.chatWithHistory(messages));
+    }
+
+    @Override
+    public Flux<String> streamChatWithHistory(List<Map<String, String>> messages) {
+        return aroundStream(LLMOperation.STREAM_CHAT_WITH_HISTORY, messages,
+                client -> client.streamChatWithHistory(messages));
+    }
+
+    @Override
+    public Mono<String> extractMemories(String userMessage, String aiResponse) {
+        return around(LLMOperation.EXTRACT_MEMORIES, Arrays.asList(userMessage, aiResponse),
+                client -> client.extractMemories(userMessage, aiResponse));
+    }
+
+    @Override
+    public Mono<String> generateProactiveQuestion(String memoriaConteudo, String memoriaTipo) {
+        return around(LLMOperation.GENERATE_PROACTIVE_QUESTION, Arrays.asList(memoriaConteudo, memoriaTipo),
+                client -> client.generateProactiveQuestion(memoriaConteudo, memoriaTipo));
+    }
+
+    @Override
+    public Mono<String> extractEmotionalAnalysis(String userMessage) {
+        return around(LLMOperation.EXTRACT_EMOTIONAL_ANALYSIS, Arrays.asList(userMessage),
+                client -> client.extractEmotionalAnalysis(userMessage));
+    }
+
+    @Override
+    public Mono<String> extractEmotionalAnalysisAndMemories(String userMessage, String aiResponse) {
+        return around(LLMOperation.EXTRACT_EMOTIONAL_ANALYSIS_AND_MEMORIES, Arrays.asList(userMessage, aiResponse),
+                client -> client.extractEmotionalAnalysisAndMemories(userMessage, aiResponse));
+    }
+
+    @Override
+    public Mono<String> summarizeConversation(String previousSummary, String transcript, int maxWords) {
+        return around(LLMOperation.SUMMARIZE_CONVERSATION, Arrays.asList(previousSummary, transcript, maxWords),
+                client -> client.summarizeConversation(previousSummary, transcript, maxWords));
+    }
+}
@@ -0,0 +1,41 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class FallbackLLMClient extends DelegatingLLMClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(FallbackLLMClient.class);
+
+    private final LLMClient delegate;
+
+    public FallbackLLMClient(LLMClient delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    protected Mono<String> around(LLMOperation operation, List<?> arguments, Function<LLMClient, Mono<String>> call) {
+        if (!operation.isConversational()) {
+            return Mono.defer(() -> call.apply(delegate));
+        }
+        return Mono.defer(() -> call.apply(delegate))
+                .onErrorResume(error -> {
+                    logger.warn("Falha em {} no LLM, usando resposta padrão: {}", operation.getKey(), error.getMessage());
+                    return Mono.just(operation.getFallback());
+                });
+    }
+
+    @Override
+    protected Flux<String> aroundStream(LLMOperation operation, List<?> arguments, Function<LLMClient, Flux<String>> call) {
+        return Flux.defer(() -> call.apply(delegate))
+                .onErrorResume(error -> {
+                    logger.warn("Falha em {} no LLM, encerrando o stream: {}", operation.getKey(), error.getMessage());
+                    return Flux.empty();
+                });
+    }
+}
@@ -1,11 +1,15 @@
 package br.jeanjacintho.tideflow.ai_service.client;
 
+import br.jeanjacintho.tideflow.ai_service.config.ConditionalOnLLMProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
@@ -15,19 +19,20 @@ import java.util.List;
 import java.util.Map;
 
 @Component
-@org.springframework.boot.autoconfigure.condition.ConditionalOnProperty(name = "llm.provider", havingValue = "gemini")
+@ConditionalOnLLMProvider("gemini")
 public class GeminiClient implements LLMClient {
 
     private static final Logger logger = LoggerFactory.getLogger(GeminiClient.class);
 
     private final WebClient webClient;
     private final String apiKey;
-    private final String modelName;
+    private final LLMModelTiers.Models models;
     private final int timeout;
 
     public GeminiClient(WebClient geminiWebClient,
                        @Value("${gemini.api.key}") String apiKey,
                        @Value("${gemini.model.name:gemini-2.0-flash}") String modelName,
+                       LLMModelTiers modelTiers,
                        @Value("${timeout}") int timeout) {
         if (apiKey == null || apiKey.trim().isEmpty()) {
             throw new IllegalArgumentException(
@@ -36,7 +41,7 @@ public class GeminiClient implements LLMClient {
         }
         this.webClient = geminiWebClient;
         this.apiKey = apiKey;
-        this.modelName = modelName;
+        this.models = modelTiers.forProvider("gemini", modelName);
         this.timeout = timeout;
     }
 
@@ -45,15 +50,14 @@ public class GeminiClient implements LLMClient {
         Map<String, Object> requestBody = buildGenerateRequest(prompt);
 
         return webClient.post()
-                .uri("/v1beta/models/{model}:generateContent", modelName)
+                .uri("/v1beta/models/{model}:generateContent", models.modelFor(LLMOperation.GENERATE_RESPONSE))
                 .header("X-goog-api-key", apiKey)
                 .bodyValue(requestBody)
                 .retrieve()
                 .bodyToMono(Map.class)
                 .timeout(Duration.ofMillis(timeout))
                 .map(this::extractTextFromResponse)
-                .doOnError(this::logError)
-                .onErrorReturn("Desculpe, não consegui processar sua mensagem no momento.");
+                .doOnError(this::logError);
     }
 
     @Override
@@ -61,7 +65,7 @@ public class GeminiClient implements LLMClient {
         Map<String, Object> requestBody = buildChatRequest(messages);
 
         return webClient.post()
-                .uri("/v1beta/models/{model}:generateContent", modelName)
+                .uri("/v1beta/models/{model}:generateContent", models.modelFor(LLMOperation.CHAT_WITH_HISTORY))
                 .header("X-goog-api-key", apiKey)
                 .bodyValue(requestBody)
                 .retrieve()
@@ -77,8 +81,24 @@ public class GeminiClient implements LLMClient {
                     } else {
                         logger.error("Erro ao chamar API do Gemini: {}", error.getMessage());
                     }
-                })
-                .onErrorReturn("Desculpe, não consegui processar sua mensagem no momento.");
+                });
+    }
+
+    @Override
+    public Flux<String> streamChatWithHistory(List<Map<String, String>> messages) {
+        Map<String, Object> requestBody = buildChatRequest(messages);
+
+        return webClient.post()
+                .uri("/v1beta/models/{model}:streamGenerateContent?alt=sse", models.modelFor(LLMOperation.STREAM_CHAT_WITH_HISTORY))
+                .header("X-goog-api-key", apiKey)
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<Map<String, Object>>>() {})
+                .timeout(Duration.ofMillis(timeout))
+                .mapNotNull(ServerSentEvent::data)
+                .map(this::extractStreamDelta)
+                .filter(token -> !token.isEmpty())
+                .doOnError(this::logError);
     }
 
     @Override
@@ -119,7 +139,7 @@ public class GeminiClient implements LLMClient {
         Map<String, Object> requestBody = buildGenerateRequest(prompt);
 
         return webClient.post()
-                .uri("/v1beta/models/{model}:generateContent", modelName)
+                .uri("/v1beta/models/{model}:generateContent", models.modelFor(LLMOperation.EXTRACT_MEMORIES))
                 .header("X-goog-api-key", apiKey)
                 .bodyValue(requestBody)
                 .retrieve()
@@ -127,8 +147,7 @@ public class GeminiClient implements LLMClient {
                 .timeout(Duration.ofMillis(timeout * 2))
                 .map(this::extractTextFromResponse)
                 .map(response -> response != null ? response : "{\"memorias\": []}")
-                .doOnError(this::logError)
-                .onErrorReturn("{\"memorias\": []}");
+                .doOnError(this::logError);
     }
 
     @Override
@@ -144,7 +163,7 @@ public class GeminiClient implements LLMClient {
         Map<String, Object> requestBody = buildGenerateRequest(prompt);
 
         return webClient.post()
-                .uri("/v1beta/models/{model}:generateContent", modelName)
+                .uri("/v1beta/models/{model}:generateContent", models.modelFor(LLMOperation.GENERATE_PROACTIVE_QUESTION))
                 .header("X-goog-api-key", apiKey)
                 .bodyValue(requestBody)
                 .retrieve()
@@ -152,8 +171,7 @@ public class GeminiClient implements LLMClient {
                 .timeout(Duration.ofMillis(timeout))
                 .map(this::extractTextFromResponse)
                 .map(response -> response != null ? response.trim() : "")
-                .doOnError(this::logError)
-                .onErrorReturn("");
+                .doOnError(this::logError);
     }
 
     @Override
@@ -176,7 +194,7 @@ public class GeminiClient implements LLMClient {
         Map<String, Object> requestBody = buildGenerateRequest(prompt);
 
         return webClient.post()
-                .uri("/v1beta/models/{model}:generateContent", modelName)
+                .uri("/v1beta/models/{model}:generateContent", models.modelFor(LLMOperation.EXTRACT_EMOTIONAL_ANALYSIS))
                 .header("X-goog-api-key", apiKey)
                 .bodyValue(requestBody)
                 .retrieve()
@@ -184,20 +202,28 @@ public class GeminiClient implements LLMClient {
                 .timeout(Duration.ofMillis(timeout))
                 .map(this::extractTextFromResponse)
                 .map(response -> response != null ? response : "{}")
-                .doOnError(this::logError)
-                .onErrorReturn("{}");
+                .doOnError(this::logError);
     }
 
     @Override
     public Mono<String> extractEmotionalAnalysisAndMemories(String userMessage, String aiResponse) {
         String prompt = String.format(
-            "Analise a seguinte conversa e extraia duas informações importantes:\n\n" +
-            "1. Análise emocional da mensagem do usuário\n" +
-            "2. Memórias importantes que devem ser lembradas sobre o usuário\n\n" +
+            "Analise a seguinte conversa e extraia as seguintes informações:\n\n" +
+            "1. Risco de autolesão ou suicídio na mensagem do usuário\n" +
+            "2. Análise emocional da mensagem do usuário\n" +
+            "3. Memórias importantes que devem ser lembradas sobre o usuário\n" +
+            "4. Gatilhos que afetam o estado emocional do usuário\n\n" +
             "Usuário: %s\n\n" +
             "IA: %s\n\n" +
             "Retorne APENAS um JSON válido no seguinte formato (sem markdown, sem texto adicional):\n" +
             "{\n" +
+            "  \"risco\": {\n" +
+            "    \"isRiskDetected\": true/false,\n" +
+            "    \"riskLevel\": \"NONE|LOW|MEDIUM|HIGH|CRITICAL\",\n" +
+            "    \"reason\": \"explicação breve do motivo da detecção ou não detecção\",\n" +
+            "    \"context\": \"trecho da mensagem que ajudou na análise\",\n" +
+            "    \"confidence\": 0.0-1.0\n" +
+            "  },\n" +
             "  \"analiseEmocional\": {\n" +
             "    \"primaryEmotional\": \"tristeza|ansiedade|alegria|raiva|medo|neutro\",\n" +
             "    \"intensity\": 0-100,\n" +
@@ -228,6 +254,7 @@ public class GeminiClient implements LLMClient {
             "- Para análise emocional: Seja preciso, considere o tom, palavras-chave e contexto da mensagem do usuário.\n" +
             "- Para memórias: Identifique fatos pessoais, preferências, objetivos, eventos futuros, relacionamentos importantes.\n" +
             "- Para gatilhos: Identifique fatores que afetam o estado emocional (positivos melhoram humor, negativos pioram). Impacto: 1-3 (leve), 4-6 (moderado), 7-10 (forte).\n" +
+            "- Para risco: Marque risco apenas se a mensagem do usuário indicar intenção real de autolesão ou suicídio; uso figurativo, metafórico ou em contexto de ficção/arte NÃO é risco. Se houver ambiguidade, seja conservador e marque LOW ou MEDIUM. Confidence reflete sua certeza (0.0 = incerto, 1.0 = muito certo).\n" +
             "Se não houver informações importantes, retorne arrays vazios mas mantenha a estrutura JSON.",
             userMessage, aiResponse
         );
@@ -235,16 +262,43 @@ public class GeminiClient implements LLMClient {
         Map<String, Object> requestBody = buildGenerateRequest(prompt);
 
         return webClient.post()
-                .uri("/v1beta/models/{model}:generateContent", modelName)
+                .uri("/v1beta/models/{model}:generateContent", models.modelFor(LLMOperation.EXTRACT_EMOTIONAL_ANALYSIS_AND_MEMORIES))
                 .header("X-goog-api-key", apiKey)
                 .bodyValue(requestBody)
                 .retrieve()
                 .bodyToMono(Map.class)
                 .timeout(Duration.ofMillis(timeout * 2))
                 .map(this::extractTextFromResponse)
-                .map(response -> response != null ? response : "{\"analiseEmocional\": {}, \"memorias\": [], \"gatilhos\": []}")
-                .doOnError(this::logError)
-                .onErrorReturn("{\"analiseEmocional\": {}, \"memorias\": [], \"gatilhos\": []}");
+                .map(response -> response != null ? response : "{\"risco\": {}, \"analiseEmocional\": {}, \"memorias\": [], \"gatilhos\": []}")
+                .doOnError(this::logError);
+    }
+
+    @Override
+    public Mono<String> summarizeConversation(String previousSummary, String transcript, int maxWords) {
+        String prompt = String.format(
+            "Atualize o resumo de uma conversa de diário pessoal incorporando as novas mensagens.\n\n" +
+            "Resumo atual: %s\n\n" +
+            "Novas mensagens:\n%s\n\n" +
+            "Escreva um único resumo em português, em terceira pessoa, com no máximo %d palavras. " +
+            "Preserve fatos, sentimentos, pessoas, eventos e objetivos mencionados pelo usuário, " +
+            "além das perguntas que ficaram em aberto. Retorne APENAS o texto do resumo.",
+            previousSummary == null || previousSummary.isBlank() ? "(vazio)" : previousSummary,
+            transcript,
+            maxWords
+        );
+
+        Map<String, Object> requestBody = buildGenerateRequest(prompt);
+
+        return webClient.post()
+                .uri("/v1beta/models/{model}:generateContent", models.modelFor(LLMOperation.SUMMARIZE_CONVERSATION))
+                .header("X-goog-api-key", apiKey)
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToMono(Map.class)
+                .timeout(Duration.ofMillis(timeout))
+                .map(this::extractTextFromResponse)
+                .map(response -> response != null ? response.trim() : "")
+                .doOnError(this::logError);
     }
 
     private Map<String, Object> buildGenerateRequest(String prompt) {
@@ -356,28 +410,53 @@ public class GeminiClient implements LLMClient {
         return sanitized;
     }
 
+    @SuppressWarnings("unchecked")
+    private String extractStreamDelta(Map<String, Object> chunk) {
+        try {
+            List<Map<String, Object>> candidates = (List<Map<String, Object>>) chunk.get("candidates");
+            if (candidates == null || candidates.isEmpty()) {
+                return "";
+            }
+
+            Map<String, Object> content = (Map<String, Object>) candidates.get(0).get("content");
+            if (content == null) {
+                return "";
+            }
+
+            List<Map<String, Object>> parts = (List<Map<String, Object>>) content.get("parts");
+            if (parts == null || parts.isEmpty()) {
+                return "";
+            }
+
+            Object text = parts.get(0).get("text");
+            return text != null ? text.toString() : "";
+        } catch (Exception e) {
+            return "";
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private String extractTextFromResponse(Map<String, Object> response) {
         try {
             List<Map<String, Object>> candidates = (List<Map<String, Object>>) response.get("candidates");
             if (candidates == null || candidates.isEmpty()) {
-                return "Sem resposta";
+                return EMPTY_RESPONSE;
             }
 
             Map<String, Object> candidate = candidates.get(0);
             Map<String, Object> content = (Map<String, Object>) candidate.get("content");
             if (content == null) {
-                return "Sem resposta";
+                return EMPTY_RESPONSE;
             }
 
             List<Map<String, Object>> parts = (List<Map<String, Object>>) content.get("parts");
             if (parts == null || parts.isEmpty()) {
-                return "Sem resposta";
+                return EMPTY_RESPONSE;
             }
 
             Map<String, Object> part = parts.get(0);
             Object text = part.get("text");
-            return text != null ? text.toString() : "Sem resposta";
+            return text != null ? text.toString() : EMPTY_RESPONSE;
         } catch (Exception e) {
             return "Erro ao processar resposta";
         }
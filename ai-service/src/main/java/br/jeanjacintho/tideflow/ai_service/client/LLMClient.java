@@ -1,5 +1,6 @@
 package br.jeanjacintho.tideflow.ai_service.client;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
@@ -7,10 +8,15 @@ import java.util.Map;
 
 public interface LLMClient {
 
+    String FALLBACK_RESPONSE = "Desculpe, não consegui processar sua mensagem no momento.";
+    String EMPTY_RESPONSE = "Sem resposta";
+
     Mono<String> generateResponse(String prompt);
 
     Mono<String> chatWithHistory(List<Map<String, String>> messages);
 
+    Flux<String> streamChatWithHistory(List<Map<String, String>> messages);
+
     Mono<String> extractMemories(String userMessage, String aiResponse);
 
     Mono<String> generateProactiveQuestion(String memoriaConteudo, String memoriaTipo);
@@ -18,4 +24,6 @@ public interface LLMClient {
     Mono<String> extractEmotionalAnalysis(String userMessage);
 
     Mono<String> extractEmotionalAnalysisAndMemories(String userMessage, String aiResponse);
+
+    Mono<String> summarizeConversation(String previousSummary, String transcript, int maxWords);
 }
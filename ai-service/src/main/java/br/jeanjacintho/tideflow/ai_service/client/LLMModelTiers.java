@@ -0,0 +1,107 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+@Component
+public class LLMModelTiers {
+
+    private static final Logger logger = LoggerFactory.getLogger(LLMModelTiers.class);
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Supplier<Duration> queueLatency;
+    private final boolean downgradeEnabled;
+    private final Duration downgradeThreshold;
+    private volatile boolean downgraded;
+
+    public LLMModelTiers(Environment environment,
+                         MeterRegistry meterRegistry,
+                         LLMRequestScheduler requestScheduler,
+                         @Value("${llm.model.downgrade.enabled:true}") boolean downgradeEnabled,
+                         @Value("${llm.model.downgrade.queue-latency:2s}") Duration downgradeThreshold) {
+        this(environment, meterRegistry, requestScheduler::interactiveQueueLatency, downgradeEnabled, downgradeThreshold);
+    }
+
+    LLMModelTiers(Environment environment,
+                  MeterRegistry meterRegistry,
+                  Supplier<Duration> queueLatency,
+                  boolean downgradeEnabled,
+                  Duration downgradeThreshold) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.queueLatency = queueLatency;
+        this.downgradeEnabled = downgradeEnabled;
+        this.downgradeThreshold = downgradeThreshold;
+    }
+
+    public Models forProvider(String provider, String defaultModel) {
+        String chatModel = environment.getProperty(provider + ".model.chat", defaultModel);
+        String analysisModel = environment.getProperty(provider + ".model.analysis", defaultModel);
+
+        Map<LLMOperation, String> models = new EnumMap<>(LLMOperation.class);
+        for (LLMOperation operation : LLMOperation.values()) {
+            String tierModel = operation.isConversational() ? chatModel : analysisModel;
+            models.put(operation, environment.getProperty(provider + ".model." + operation.getKey(), tierModel));
+        }
+        logger.info("Modelos do provedor {}: chat={}, análise={}", provider, chatModel, analysisModel);
+        return new Models(provider, models, analysisModel);
+    }
+
+    boolean shouldDowngrade() {
+        if (!downgradeEnabled) {
+            return false;
+        }
+
+        Duration latency = queueLatency.get();
+        boolean next = downgraded
+                ? latency.compareTo(downgradeThreshold.dividedBy(2)) > 0
+                : latency.compareTo(downgradeThreshold) > 0;
+        if (next != downgraded) {
+            downgraded = next;
+            if (next) {
+                logger.warn("Latência de fila do chat em {}ms, usando o modelo de análise também para o chat", latency.toMillis());
+            } else {
+                logger.info("Latência de fila do chat normalizada, voltando ao modelo de chat");
+            }
+        }
+        return next;
+    }
+
+    public final class Models {
+
+        private final String provider;
+        private final Map<LLMOperation, String> models;
+        private final String fallbackModel;
+
+        private Models(String provider, Map<LLMOperation, String> models, String fallbackModel) {
+            this.provider = provider;
+            this.models = models;
+            this.fallbackModel = fallbackModel;
+        }
+
+        public Set<String> all() {
+            return new LinkedHashSet<>(models.values());
+        }
+
+        public String modelFor(LLMOperation operation) {
+            String model = models.get(operation);
+            if (operation.isConversational() && !model.equals(fallbackModel) && shouldDowngrade()) {
+                meterRegistry.counter("llm.model.downgrades", "provider", provider, "operation", operation.getKey()).increment();
+                return fallbackModel;
+            }
+            return model;
+        }
+    }
+}
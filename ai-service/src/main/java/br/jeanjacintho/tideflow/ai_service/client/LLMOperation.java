@@ -0,0 +1,45 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import java.util.Arrays;
+
+public enum LLMOperation {
+    GENERATE_RESPONSE("generate-response", false, LLMClient.FALLBACK_RESPONSE),
+    CHAT_WITH_HISTORY("chat-with-history", true, LLMClient.FALLBACK_RESPONSE),
+    STREAM_CHAT_WITH_HISTORY("stream-chat-with-history", true, null),
+    EXTRACT_MEMORIES("extract-memories", false, "{\"memorias\": []}"),
+    GENERATE_PROACTIVE_QUESTION("generate-proactive-question", false, ""),
+    EXTRACT_EMOTIONAL_ANALYSIS("extract-emotional-analysis", false, "{}"),
+    EXTRACT_EMOTIONAL_ANALYSIS_AND_MEMORIES("extract-emotional-analysis-and-memories", false,
+            "{\"risco\": {}, \"analiseEmocional\": {}, \"memorias\": [], \"gatilhos\": []}"),
+    SUMMARIZE_CONVERSATION("summarize-conversation", false, "");
+
+    private final String key;
+    private final boolean conversational;
+    private final String fallback;
+
+    LLMOperation(String key, boolean conversational, String fallback) {
+        this.key = key;
+        this.conversational = conversational;
+        this.fallback = fallback;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public boolean isConversational() {
+        return conversational;
+    }
+
+    public String getFallback() {
+        return fallback;
+    }
+
+    public static LLMOperation fromKey(String key) {
+        String normalized = key.trim().toLowerCase();
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(normalized))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Operação de LLM desconhecida: " + key));
+    }
+}
@@ -0,0 +1,22 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+public enum LLMPriority {
+    INTERACTIVE,
+    SAFETY,
+    ENRICHMENT,
+    BATCH;
+
+    public static final String CONTEXT_KEY = LLMPriority.class.getName();
+
+    public Context asContext() {
+        return Context.of(CONTEXT_KEY, this);
+    }
+
+    public static LLMPriority from(ContextView context, LLMOperation operation) {
+        return context.<LLMPriority>getOrEmpty(CONTEXT_KEY)
+                .orElse(operation.isConversational() ? INTERACTIVE : ENRICHMENT);
+    }
+}
@@ -0,0 +1,35 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class LLMProviders {
+
+    private final Map<String, LLMClient> providers = new LinkedHashMap<>();
+
+    public LLMProviders(ObjectProvider<OllamaClient> ollamaClient,
+                        ObjectProvider<GeminiClient> geminiClient,
+                        ObjectProvider<OpenRouterClient> openRouterClient,
+                        ProviderBulkheads providerBulkheads) {
+        ollamaClient.ifAvailable(client -> providers.put("ollama", providerBulkheads.guard("ollama", client)));
+        geminiClient.ifAvailable(client -> providers.put("gemini", providerBulkheads.guard("gemini", client)));
+        openRouterClient.ifAvailable(client -> providers.put("openrouter", providerBulkheads.guard("openrouter", client)));
+    }
+
+    public LLMClient get(String name) {
+        LLMClient client = providers.get(name);
+        if (client == null) {
+            throw new IllegalStateException("Provedor de LLM não configurado: " + name);
+        }
+        return client;
+    }
+
+    public Map<String, LLMClient> available() {
+        return Collections.unmodifiableMap(providers);
+    }
+}
@@ -0,0 +1,29 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@Endpoint(id = "llmproviders")
+public class LLMProvidersEndpoint {
+
+    private final ProviderBulkheads providerBulkheads;
+
+    public LLMProvidersEndpoint(ProviderBulkheads providerBulkheads) {
+        this.providerBulkheads = providerBulkheads;
+    }
+
+    @ReadOperation
+    public Map<String, ProviderBulkhead.Snapshot> providers() {
+        return providerBulkheads.snapshots();
+    }
+
+    @ReadOperation
+    public ProviderBulkhead.Snapshot provider(@Selector String name) {
+        return providerBulkheads.snapshots().get(name);
+    }
+}
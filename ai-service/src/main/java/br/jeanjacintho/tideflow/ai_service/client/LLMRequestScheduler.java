@@ -0,0 +1,400 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+@Component
+public class LLMRequestScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(LLMRequestScheduler.class);
+    private static final int LATENCY_SAMPLES = 50;
+    private static final int MAX_IDLE_TENANTS = 1000;
+    private static final double WAIT_EWMA_ALPHA = 0.2;
+
+    private final boolean enabled;
+    private final int maxConcurrency;
+    private final int interactiveReserved;
+    private final long sloNanos;
+    private final long sloWindowNanos;
+    private final int maxPreemptions;
+    private final MeterRegistry meterRegistry;
+
+    private final NavigableSet<Ticket> queue = new TreeSet<>(
+            Comparator.comparing((Ticket ticket) -> ticket.priority)
+                    .thenComparingDouble(ticket -> ticket.startTag)
+                    .thenComparingDouble(ticket -> ticket.finishTag)
+                    .thenComparingLong(ticket -> ticket.sequence));
+    private final Set<Ticket> runningBatch = new LinkedHashSet<>();
+    private final int[] running = new int[LLMPriority.values().length];
+    private final long[] interactiveLatencies = new long[LATENCY_SAMPLES];
+    private final long[] interactiveRecordedAt = new long[LATENCY_SAMPLES];
+    private final Map<String, Double> tenantFinishTags = new HashMap<>();
+    private double virtualTime;
+    private int nextSample;
+    private long sequence;
+    private double interactiveWaitNanos;
+    private boolean sloBreached;
+    private boolean recheckScheduled;
+
+    public LLMRequestScheduler(@Value("${llm.scheduler.enabled:true}") boolean enabled,
+                               @Value("${llm.scheduler.max-concurrency:16}") int maxConcurrency,
+                               @Value("${llm.scheduler.interactive-reserved:4}") int interactiveReserved,
+                               @Value("${llm.scheduler.interactive-slo:8s}") Duration interactiveSlo,
+                               @Value("${llm.scheduler.slo-window:60s}") Duration sloWindow,
+                               @Value("${llm.scheduler.max-preemptions:3}") int maxPreemptions,
+                               MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.interactiveReserved = Math.min(this.maxConcurrency - 1, Math.max(0, interactiveReserved));
+        this.sloNanos = interactiveSlo.toNanos();
+        this.sloWindowNanos = sloWindow.toNanos();
+        this.maxPreemptions = maxPreemptions;
+        this.meterRegistry = meterRegistry;
+
+        for (LLMPriority priority : LLMPriority.values()) {
+            String tag = priority.name().toLowerCase();
+            Gauge.builder("llm.scheduler.running", this, scheduler -> scheduler.runningCount(priority))
+                    .tag("priority", tag).register(meterRegistry);
+            Gauge.builder("llm.scheduler.queued", this, scheduler -> scheduler.queuedCount(priority))
+                    .tag("priority", tag).register(meterRegistry);
+        }
+        Gauge.builder("llm.scheduler.slo_breached", this, scheduler -> scheduler.isSloBreached() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> execute(LLMPriority priority, Mono<T> call) {
+        return execute(priority, LLMTenant.SHARED, 1.0, 1, call);
+    }
+
+    public <T> Mono<T> execute(LLMPriority priority, LLMTenant tenant, double weight, long cost, Mono<T> call) {
+        if (!enabled) {
+            return call;
+        }
+
+        return Mono.defer(() -> {
+            Mono<T> bounded = call.contextWrite(withDeadline(deadlineFor(priority)));
+            AtomicInteger preemptions = new AtomicInteger();
+            return Mono.defer(() -> {
+                        boolean preemptible = priority == LLMPriority.BATCH && preemptions.get() < maxPreemptions;
+                        return Mono.usingWhen(
+                                acquire(priority, tenant, weight, cost, preemptible),
+                                ticket -> Mono.firstWithSignal(bounded, ticket.preemption.asMono().then(Mono.<T>error(PreemptedException::new)))
+                                        .doOnSuccess(value -> recordCompletion(ticket)),
+                                ticket -> Mono.fromRunnable(() -> release(ticket)),
+                                (ticket, error) -> Mono.fromRunnable(() -> release(ticket)),
+                                ticket -> Mono.fromRunnable(() -> release(ticket)));
+                    })
+                    .retryWhen(Retry.indefinitely()
+                            .filter(PreemptedException.class::isInstance)
+                            .doBeforeRetry(signal -> preemptions.incrementAndGet()));
+        });
+    }
+
+    public <T> Flux<T> executeMany(LLMPriority priority, Flux<T> call) {
+        return executeMany(priority, LLMTenant.SHARED, 1.0, 1, call);
+    }
+
+    public <T> Flux<T> executeMany(LLMPriority priority, LLMTenant tenant, double weight, long cost, Flux<T> call) {
+        if (!enabled) {
+            return call;
+        }
+
+        return Flux.defer(() -> {
+            Flux<T> bounded = call.contextWrite(withDeadline(deadlineFor(priority)));
+            return Flux.usingWhen(
+                    acquire(priority, tenant, weight, cost, false),
+                    ticket -> {
+                        AtomicBoolean first = new AtomicBoolean(true);
+                        return bounded.doOnNext(value -> {
+                            if (first.compareAndSet(true, false)) {
+                                recordCompletion(ticket);
+                            }
+                        });
+                    },
+                    ticket -> Mono.fromRunnable(() -> release(ticket)),
+                    (ticket, error) -> Mono.fromRunnable(() -> release(ticket)),
+                    ticket -> Mono.fromRunnable(() -> release(ticket)));
+        });
+    }
+
+    public synchronized Duration interactiveQueueLatency() {
+        long oldestWait = queue.stream()
+                .filter(ticket -> ticket.priority == LLMPriority.INTERACTIVE)
+                .mapToLong(ticket -> System.nanoTime() - ticket.createdAt)
+                .max()
+                .orElse(0);
+        return Duration.ofNanos(Math.max(oldestWait, (long) interactiveWaitNanos));
+    }
+
+    public synchronized boolean isSloBreached() {
+        return sloBreached;
+    }
+
+    synchronized int runningCount(LLMPriority priority) {
+        return running[priority.ordinal()];
+    }
+
+    synchronized int queuedCount(LLMPriority priority) {
+        return (int) queue.stream().filter(ticket -> ticket.priority == priority).count();
+    }
+
+    private Instant deadlineFor(LLMPriority priority) {
+        return priority == LLMPriority.INTERACTIVE ? Instant.now().plusNanos(sloNanos) : null;
+    }
+
+    private static Function<Context, Context> withDeadline(Instant deadline) {
+        return context -> {
+            if (deadline == null) {
+                return context;
+            }
+            Instant current = context.<Instant>getOrEmpty(ProviderBulkhead.DEADLINE_KEY).orElse(null);
+            return current != null && current.isBefore(deadline) ? context : context.put(ProviderBulkhead.DEADLINE_KEY, deadline);
+        };
+    }
+
+    private Mono<Ticket> acquire(LLMPriority priority, LLMTenant tenant, double weight, long cost, boolean preemptible) {
+        return Mono.<Ticket>create(sink -> {
+            Ticket ticket;
+            boolean granted;
+            List<Ticket> preempted = List.of();
+
+            synchronized (this) {
+                double startTag = Math.max(virtualTime, tenantFinishTags.getOrDefault(tenant.id(), 0.0));
+                double finishTag = startTag + Math.max(1, cost) / Math.max(weight, 0.01);
+                tenantFinishTags.put(tenant.id(), finishTag);
+                ticket = new Ticket(priority, tenant.id(), startTag, finishTag, sequence++, preemptible, sink);
+                granted = !hasQueuedAtOrAbove(priority) && canDispatch(priority);
+                if (granted) {
+                    start(ticket);
+                } else {
+                    queue.add(ticket);
+                    sink.onCancel(() -> cancel(ticket));
+                    if (priority == LLMPriority.INTERACTIVE) {
+                        preempted = pickBatchToPreempt(1);
+                    }
+                    scheduleRecheckIfBlocked(priority);
+                }
+            }
+
+            if (granted) {
+                sink.success(ticket);
+            }
+            preempt(preempted);
+        }).doOnDiscard(Ticket.class, this::release);
+    }
+
+    private void release(Ticket ticket) {
+        if (!ticket.released.compareAndSet(false, true)) {
+            return;
+        }
+
+        List<Ticket> granted;
+        synchronized (this) {
+            running[ticket.priority.ordinal()]--;
+            runningBatch.remove(ticket);
+            granted = drain();
+        }
+        granted.forEach(next -> next.sink.success(next));
+    }
+
+    private void recordCompletion(Ticket ticket) {
+        if (ticket.priority != LLMPriority.INTERACTIVE) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        List<Ticket> preempted = List.of();
+        List<Ticket> granted = List.of();
+        synchronized (this) {
+            interactiveLatencies[nextSample] = now - ticket.createdAt;
+            interactiveRecordedAt[nextSample] = now;
+            nextSample = (nextSample + 1) % LATENCY_SAMPLES;
+
+            boolean wasBreached = sloBreached;
+            sloBreached = computeBreach(now);
+            if (sloBreached && !wasBreached) {
+                logger.warn("SLO de latência do chat excedido, adiando e preemptando requisições em lote ao LLM");
+                preempted = pickBatchToPreempt(Integer.MAX_VALUE);
+            } else if (!sloBreached && wasBreached) {
+                logger.info("Latência do chat normalizada, liberando requisições em lote ao LLM");
+                granted = drain();
+            }
+        }
+        preempt(preempted);
+        granted.forEach(next -> next.sink.success(next));
+    }
+
+    private boolean canDispatch(LLMPriority priority) {
+        int total = Arrays.stream(running).sum();
+        if (total >= maxConcurrency) {
+            return false;
+        }
+        if (priority != LLMPriority.INTERACTIVE && total >= maxConcurrency - interactiveReserved) {
+            return false;
+        }
+        return priority != LLMPriority.BATCH || !currentlyBreached();
+    }
+
+    private boolean hasQueuedAtOrAbove(LLMPriority priority) {
+        return !queue.isEmpty() && queue.first().priority.compareTo(priority) <= 0;
+    }
+
+    private List<Ticket> drain() {
+        List<Ticket> granted = new ArrayList<>();
+        Iterator<Ticket> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            Ticket ticket = iterator.next();
+            if (canDispatch(ticket.priority)) {
+                iterator.remove();
+                if (ticket.claimed.compareAndSet(false, true)) {
+                    start(ticket);
+                    granted.add(ticket);
+                }
+            }
+        }
+        return granted;
+    }
+
+    private void start(Ticket ticket) {
+        ticket.claimed.set(true);
+        running[ticket.priority.ordinal()]++;
+        advanceVirtualTime(ticket.startTag);
+        if (ticket.priority == LLMPriority.INTERACTIVE) {
+            interactiveWaitNanos = WAIT_EWMA_ALPHA * (System.nanoTime() - ticket.createdAt)
+                    + (1 - WAIT_EWMA_ALPHA) * interactiveWaitNanos;
+        }
+        if (ticket.preemptible) {
+            runningBatch.add(ticket);
+        }
+        Timer.builder("llm.scheduler.wait")
+                .tag("priority", ticket.priority.name().toLowerCase())
+                .register(meterRegistry)
+                .record(System.nanoTime() - ticket.createdAt, TimeUnit.NANOSECONDS);
+        Timer.builder("llm.tenant.wait")
+                .tag("tenant", ticket.tenant)
+                .tag("stage", "queue")
+                .register(meterRegistry)
+                .record(System.nanoTime() - ticket.createdAt, TimeUnit.NANOSECONDS);
+    }
+
+    private void advanceVirtualTime(double startTag) {
+        if (startTag <= virtualTime) {
+            return;
+        }
+        virtualTime = startTag;
+        if (tenantFinishTags.size() > MAX_IDLE_TENANTS) {
+            tenantFinishTags.values().removeIf(finishTag -> finishTag <= virtualTime);
+        }
+    }
+
+    private synchronized void cancel(Ticket ticket) {
+        if (ticket.claimed.compareAndSet(false, true)) {
+            queue.remove(ticket);
+        }
+    }
+
+    private List<Ticket> pickBatchToPreempt(int count) {
+        List<Ticket> victims = new ArrayList<>(runningBatch);
+        Collections.reverse(victims);
+        victims = victims.subList(0, Math.min(count, victims.size()));
+        victims.forEach(runningBatch::remove);
+        return victims;
+    }
+
+    private void preempt(List<Ticket> victims) {
+        for (Ticket victim : victims) {
+            meterRegistry.counter("llm.scheduler.preemptions").increment();
+            victim.preemption.tryEmitEmpty();
+        }
+    }
+
+    private boolean currentlyBreached() {
+        if (sloBreached) {
+            sloBreached = computeBreach(System.nanoTime());
+        }
+        return sloBreached;
+    }
+
+    private boolean computeBreach(long now) {
+        long[] recent = new long[LATENCY_SAMPLES];
+        int size = 0;
+        for (int i = 0; i < LATENCY_SAMPLES; i++) {
+            if (interactiveRecordedAt[i] != 0 && now - interactiveRecordedAt[i] <= sloWindowNanos) {
+                recent[size++] = interactiveLatencies[i];
+            }
+        }
+        if (size == 0) {
+            return false;
+        }
+        long[] sorted = Arrays.copyOf(recent, size);
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(size * 0.95) - 1] > sloNanos;
+    }
+
+    private void scheduleRecheckIfBlocked(LLMPriority priority) {
+        if (priority != LLMPriority.BATCH || !sloBreached || recheckScheduled) {
+            return;
+        }
+        recheckScheduled = true;
+        Schedulers.parallel().schedule(() -> {
+            List<Ticket> granted;
+            synchronized (this) {
+                recheckScheduled = false;
+                granted = drain();
+                scheduleRecheckIfBlocked(queue.isEmpty() ? LLMPriority.INTERACTIVE : queue.last().priority);
+            }
+            granted.forEach(next -> next.sink.success(next));
+        }, sloWindowNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static final class Ticket {
+        private final LLMPriority priority;
+        private final String tenant;
+        private final double startTag;
+        private final double finishTag;
+        private final long sequence;
+        private final boolean preemptible;
+        private final MonoSink<Ticket> sink;
+        private final long createdAt = System.nanoTime();
+        private final Sinks.Empty<Void> preemption = Sinks.empty();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Ticket(LLMPriority priority, String tenant, double startTag, double finishTag,
+                       long sequence, boolean preemptible, MonoSink<Ticket> sink) {
+            this.priority = priority;
+            this.tenant = tenant;
+            this.startTag = startTag;
+            this.finishTag = finishTag;
+            this.sequence = sequence;
+            this.preemptible = preemptible;
+            this.sink = sink;
+        }
+    }
+
+    private static final class PreemptedException extends RuntimeException {
+        private PreemptedException() {
+            super("Requisição em lote preemptada para liberar capacidade ao chat", null, false, false);
+        }
+    }
+}
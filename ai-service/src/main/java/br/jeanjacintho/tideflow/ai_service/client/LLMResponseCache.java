@@ -0,0 +1,248 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import br.jeanjacintho.tideflow.ai_service.risk.RiskKeywordMatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Component
+public class LLMResponseCache {
+
+    public static final String SEMANTIC_KEY = LLMResponseCache.class.getName() + ".semantic";
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Set<String> NEGATIONS = Set.of("nao", "nunca", "nem", "jamais", "nada", "nenhum", "nenhuma", "ninguem");
+    private static final String EXACT = "exact";
+    private static final String SEMANTIC = "semantic";
+
+    private final Set<LLMOperation> operations;
+    private final long ttlNanos;
+    private final boolean semanticEnabled;
+    private final int semanticMaxChars;
+    private final double semanticThreshold;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Entry> exactEntries;
+    private final Map<String, SemanticEntry> semanticEntries;
+
+    public LLMResponseCache(@Value("${llm.cache.operations:generate-response,generate-proactive-question}") List<String> operations,
+                            @Value("${llm.cache.ttl:30m}") Duration ttl,
+                            @Value("${llm.cache.max-entries:1000}") int maxEntries,
+                            @Value("${llm.cache.semantic.enabled:false}") boolean semanticEnabled,
+                            @Value("${llm.cache.semantic.max-chars:280}") int semanticMaxChars,
+                            @Value("${llm.cache.semantic.threshold:0.85}") double semanticThreshold,
+                            @Value("${llm.cache.semantic.max-entries:256}") int semanticMaxEntries,
+                            MeterRegistry meterRegistry) {
+        this.operations = operations.stream()
+                .filter(operation -> !operation.isBlank())
+                .map(LLMOperation::fromKey)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(LLMOperation.class)));
+        this.ttlNanos = ttl.toNanos();
+        this.semanticEnabled = semanticEnabled;
+        this.semanticMaxChars = semanticMaxChars;
+        this.semanticThreshold = semanticThreshold;
+        this.meterRegistry = meterRegistry;
+        this.exactEntries = lruMap(maxEntries);
+        this.semanticEntries = lruMap(semanticMaxEntries);
+
+        meterRegistry.gauge("llm.cache.size", Tags.of("tier", EXACT), exactEntries, LLMResponseCache::sizeOf);
+        meterRegistry.gauge("llm.cache.size", Tags.of("tier", SEMANTIC), semanticEntries, LLMResponseCache::sizeOf);
+    }
+
+    public static Function<Context, Context> withSemanticKey(String text) {
+        return context -> text == null ? context : context.put(SEMANTIC_KEY, text);
+    }
+
+    public boolean isCached(LLMOperation operation) {
+        return operations.contains(operation);
+    }
+
+    public Mono<String> lookup(LLMOperation operation, List<?> arguments, Supplier<Mono<String>> call) {
+        if (!isCached(operation)) {
+            return Mono.defer(call);
+        }
+
+        return Mono.deferContextual(context -> {
+            String key = exactKey(operation, arguments);
+            String cached = getExact(key);
+            record(operation, EXACT, cached != null);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+
+            SemanticProbe probe = context.<String>getOrEmpty(SEMANTIC_KEY)
+                    .filter(text -> semanticEnabled && !text.isBlank() && text.length() <= semanticMaxChars)
+                    .map(text -> probe(operation, arguments, text))
+                    .orElse(null);
+            if (probe != null) {
+                String similar = findSimilar(probe);
+                record(operation, SEMANTIC, similar != null);
+                if (similar != null) {
+                    return Mono.just(similar);
+                }
+            }
+
+            return Mono.defer(call).doOnNext(response -> store(key, probe, response));
+        });
+    }
+
+    private String getExact(String key) {
+        synchronized (exactEntries) {
+            Entry entry = exactEntries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.isExpired()) {
+                exactEntries.remove(key);
+                return null;
+            }
+            return entry.response();
+        }
+    }
+
+    private String findSimilar(SemanticProbe probe) {
+        synchronized (semanticEntries) {
+            SemanticEntry best = null;
+            double bestScore = semanticThreshold;
+            Iterator<SemanticEntry> iterator = semanticEntries.values().iterator();
+            while (iterator.hasNext()) {
+                SemanticEntry entry = iterator.next();
+                if (entry.isExpired()) {
+                    iterator.remove();
+                    continue;
+                }
+                if (!entry.scope().equals(probe.scope()) || !entry.negations().equals(probe.negations())) {
+                    continue;
+                }
+                double score = jaccard(entry.tokens(), probe.tokens());
+                if (score >= bestScore) {
+                    best = entry;
+                    bestScore = score;
+                }
+            }
+            if (best == null) {
+                return null;
+            }
+            semanticEntries.get(best.key());
+            return best.response();
+        }
+    }
+
+    private void store(String key, SemanticProbe probe, String response) {
+        if (!isCacheable(response)) {
+            return;
+        }
+
+        long expiresAt = System.nanoTime() + ttlNanos;
+        synchronized (exactEntries) {
+            exactEntries.put(key, new Entry(response, expiresAt));
+        }
+        if (probe != null) {
+            synchronized (semanticEntries) {
+                semanticEntries.put(key, new SemanticEntry(key, probe.scope(), probe.tokens(), probe.negations(), response, expiresAt));
+            }
+        }
+    }
+
+    private boolean isCacheable(String response) {
+        return response != null
+                && !response.isBlank()
+                && !LLMClient.FALLBACK_RESPONSE.equals(response)
+                && !LLMClient.EMPTY_RESPONSE.equals(response);
+    }
+
+    private SemanticProbe probe(LLMOperation operation, List<?> arguments, String text) {
+        List<String> template = arguments.stream()
+                .map(argument -> argument == null ? "" : argument.toString().replace(text, "\u0000"))
+                .toList();
+        Set<String> tokens = new HashSet<>(Arrays.asList(RiskKeywordMatcher.normalize(text).split(" ")));
+        tokens.remove("");
+        Set<String> negations = tokens.stream().filter(NEGATIONS::contains).collect(Collectors.toSet());
+        return new SemanticProbe(exactKey(operation, template), tokens, negations);
+    }
+
+    private void record(LLMOperation operation, String tier, boolean hit) {
+        meterRegistry.counter("llm.cache.requests",
+                "operation", operation.getKey(),
+                "tier", tier,
+                "result", hit ? "hit" : "miss").increment();
+    }
+
+    static String exactKey(LLMOperation operation, List<?> arguments) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(operation.name().getBytes(StandardCharsets.UTF_8));
+            for (Object argument : arguments) {
+                sha256.update((byte) 0);
+                sha256.update(normalize(argument).getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(sha256.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String normalize(Object argument) {
+        if (argument == null) {
+            return "";
+        }
+        String text = Normalizer.normalize(argument.toString(), Normalizer.Form.NFC);
+        return WHITESPACE.matcher(text).replaceAll(" ").trim();
+    }
+
+    private static double jaccard(Set<String> left, Set<String> right) {
+        if (left.isEmpty() && right.isEmpty()) {
+            return 1.0;
+        }
+        int intersection = 0;
+        for (String token : left) {
+            if (right.contains(token)) {
+                intersection++;
+            }
+        }
+        return (double) intersection / (left.size() + right.size() - intersection);
+    }
+
+    private static <V> Map<String, V> lruMap(int maxEntries) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    private static double sizeOf(Map<String, ?> entries) {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private record Entry(String response, long expiresAt) {
+        boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+    }
+
+    private record SemanticEntry(String key, String scope, Set<String> tokens, Set<String> negations,
+                                 String response, long expiresAt) {
+        boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+    }
+
+    private record SemanticProbe(String scope, Set<String> tokens, Set<String> negations) {}
+}
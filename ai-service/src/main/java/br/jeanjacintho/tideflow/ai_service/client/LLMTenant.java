@@ -0,0 +1,24 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.UUID;
+
+public record LLMTenant(String id, String plan) {
+
+    public static final String CONTEXT_KEY = LLMTenant.class.getName();
+    public static final LLMTenant SHARED = new LLMTenant("shared", null);
+
+    public static LLMTenant of(UUID companyId, String plan) {
+        return companyId != null ? new LLMTenant(companyId.toString(), plan) : SHARED;
+    }
+
+    public static LLMTenant from(ContextView context) {
+        return context.<LLMTenant>getOrEmpty(CONTEXT_KEY).orElse(SHARED);
+    }
+
+    public Context asContext() {
+        return Context.of(CONTEXT_KEY, this);
+    }
+}
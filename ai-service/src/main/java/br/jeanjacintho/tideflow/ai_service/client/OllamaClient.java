@@ -1,9 +1,11 @@
 package br.jeanjacintho.tideflow.ai_service.client;
 
+import br.jeanjacintho.tideflow.ai_service.config.ConditionalOnLLMProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
@@ -11,66 +13,104 @@ import java.util.List;
 import java.util.Map;
 
 @Component
-@ConditionalOnProperty(name = "llm.provider", havingValue = "ollama", matchIfMissing = true)
+@ConditionalOnLLMProvider("ollama")
 public class OllamaClient implements LLMClient {
 
-    private final WebClient webClient;
-    private final String modelName;
+    private static final Logger logger = LoggerFactory.getLogger(OllamaClient.class);
+
+    private final OllamaEndpointPool endpoints;
+    private final LLMModelTiers.Models models;
+    private final String keepAlive;
     private final int timeout;
 
-    public OllamaClient(WebClient ollamaWebClient,
+    public OllamaClient(OllamaEndpointPool ollamaEndpointPool,
                        @Value("${ollama.model.name}") String modelName,
+                       LLMModelTiers modelTiers,
+                       @Value("${ollama.keep-alive:30m}") String keepAlive,
                        @Value("${timeout}") int timeout) {
-        this.webClient = ollamaWebClient;
-        this.modelName = modelName;
+        this.endpoints = ollamaEndpointPool;
+        this.models = modelTiers.forProvider("ollama", modelName);
+        this.keepAlive = keepAlive;
         this.timeout = timeout;
     }
 
+    public Mono<Void> preloadModels(boolean coldEndpointsOnly) {
+        return endpoints.preload(models.all(), keepAlive, coldEndpointsOnly);
+    }
+
     @Override
     public Mono<String> generateResponse(String prompt) {
         Map<String, Object> requestBody = Map.of(
-                "model", modelName,
+                "model", models.modelFor(LLMOperation.GENERATE_RESPONSE),
                 "prompt", prompt,
-                "stream", false
+                "stream", false,
+                "keep_alive", keepAlive
         );
 
-        return webClient.post()
-                .uri("/api/generate")
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(Map.class)
+        return endpoints.execute(webClient -> webClient.post()
+                        .uri("/api/generate")
+                        .bodyValue(requestBody)
+                        .retrieve()
+                        .bodyToMono(Map.class))
                 .timeout(Duration.ofMillis(timeout))
                 .map(response -> {
                     Object responseObj = response.get("response");
-                    return responseObj != null ? responseObj.toString() : "Sem resposta";
-                })
-                .onErrorReturn("Desculpe, não consegui processar sua mensagem no momento.");
+                    return responseObj != null ? responseObj.toString() : EMPTY_RESPONSE;
+                });
     }
 
     @Override
     public Mono<String> chatWithHistory(List<Map<String, String>> messages) {
         Map<String, Object> requestBody = Map.of(
-                "model", modelName,
+                "model", models.modelFor(LLMOperation.CHAT_WITH_HISTORY),
                 "messages", messages,
-                "stream", false
+                "stream", false,
+                "keep_alive", keepAlive
         );
 
-        return webClient.post()
-                .uri("/api/chat")
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(Map.class)
+        return endpoints.execute(webClient -> webClient.post()
+                        .uri("/api/chat")
+                        .bodyValue(requestBody)
+                        .retrieve()
+                        .bodyToMono(Map.class))
                 .timeout(Duration.ofMillis(timeout))
                 .map(response -> {
                     @SuppressWarnings("unchecked")
                     Map<String, Object> messageObj = (Map<String, Object>) response.get("message");
                     if (messageObj != null) {
                         Object content = messageObj.get("content");
-                        return content != null ? content.toString() : "Sem resposta";
+                        return content != null ? content.toString() : EMPTY_RESPONSE;
+                    }
+                    return EMPTY_RESPONSE;
+                });
+    }
+
+    @Override
+    public Flux<String> streamChatWithHistory(List<Map<String, String>> messages) {
+        Map<String, Object> requestBody = Map.of(
+                "model", models.modelFor(LLMOperation.STREAM_CHAT_WITH_HISTORY),
+                "messages", messages,
+                "stream", true,
+                "keep_alive", keepAlive
+        );
+
+        return endpoints.executeMany(webClient -> webClient.post()
+                        .uri("/api/chat")
+                        .bodyValue(requestBody)
+                        .retrieve()
+                        .bodyToFlux(Map.class))
+                .timeout(Duration.ofMillis(timeout))
+                .map(chunk -> {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> messageObj = (Map<String, Object>) chunk.get("message");
+                    if (messageObj != null) {
+                        Object content = messageObj.get("content");
+                        return content != null ? content.toString() : "";
                     }
-                    return "Sem resposta";
+                    return "";
                 })
-                .onErrorReturn("Desculpe, não consegui processar sua mensagem no momento.");
+                .filter(token -> !token.isEmpty())
+                .doOnError(error -> logger.error("Erro no streaming do Ollama: {}", error.getMessage()));
     }
 
     @Override
@@ -78,8 +118,6 @@ public class OllamaClient implements LLMClient {
         String prompt = String.format(
             "Analise a seguinte conversa e extraia informações importantes que devem ser lembradas sobre o usuário. " +
             "Identifique: fatos pessoais, preferências, objetivos, eventos futuros, relacionamentos importantes.\n\n" +
-            "Usuário: %s\n\n" +
-            "IA: %s\n\n" +
             "Retorne APENAS um JSON válido no seguinte formato (sem markdown, sem texto adicional):\n" +
             "{\n" +
             "  \"memorias\": [\n" +
@@ -104,28 +142,30 @@ public class OllamaClient implements LLMClient {
             "Gatilhos são fatores que afetam o estado emocional do usuário. " +
             "Gatilhos positivos melhoram o humor, gatilhos negativos pioram. " +
             "Impacto: 1-3 (leve), 4-6 (moderado), 7-10 (forte). " +
-            "Se não houver informações importantes, retorne: {\"memorias\": [], \"gatilhos\": []}",
+            "Se não houver informações importantes, retorne: {\"memorias\": [], \"gatilhos\": []}\n\n" +
+            "Usuário: %s\n\n" +
+            "IA: %s",
             userMessage, aiResponse
         );
 
         Map<String, Object> requestBody = Map.of(
-                "model", modelName,
+                "model", models.modelFor(LLMOperation.EXTRACT_MEMORIES),
                 "prompt", prompt,
                 "stream", false,
+                "keep_alive", keepAlive,
                 "format", "json"
         );
 
-        return webClient.post()
-                .uri("/api/generate")
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(Map.class)
+        return endpoints.execute(webClient -> webClient.post()
+                        .uri("/api/generate")
+                        .bodyValue(requestBody)
+                        .retrieve()
+                        .bodyToMono(Map.class))
                 .timeout(Duration.ofMillis(timeout * 2))
                 .map(response -> {
                     Object responseObj = response.get("response");
                     return responseObj != null ? responseObj.toString() : "{\"memorias\": []}";
-                })
-                .onErrorReturn("{\"memorias\": []}");
+                });
     }
 
     @Override
@@ -139,29 +179,28 @@ public class OllamaClient implements LLMClient {
         );
 
         Map<String, Object> requestBody = Map.of(
-                "model", modelName,
+                "model", models.modelFor(LLMOperation.GENERATE_PROACTIVE_QUESTION),
                 "prompt", prompt,
-                "stream", false
+                "stream", false,
+                "keep_alive", keepAlive
         );
 
-        return webClient.post()
-                .uri("/api/generate")
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(Map.class)
+        return endpoints.execute(webClient -> webClient.post()
+                        .uri("/api/generate")
+                        .bodyValue(requestBody)
+                        .retrieve()
+                        .bodyToMono(Map.class))
                 .timeout(Duration.ofMillis(timeout))
                 .map(response -> {
                     Object responseObj = response.get("response");
                     return responseObj != null ? responseObj.toString().trim() : "";
-                })
-                .onErrorReturn("");
+                });
     }
 
     @Override
     public Mono<String> extractEmotionalAnalysis(String userMessage) {
         String prompt = String.format(
             "Analise a seguinte mensagem do usuário e extraia informações sobre suas emoções.\n\n" +
-            "Mensagem: %s\n\n" +
             "Retorne APENAS um JSON válido no seguinte formato (sem markdown, sem texto adicional):\n" +
             "{\n" +
             "  \"primaryEmotional\": \"tristeza|ansiedade|alegria|raiva|medo|neutro\",\n" +
@@ -170,40 +209,48 @@ public class OllamaClient implements LLMClient {
             "  \"context\": \"breve contexto sobre a situação emocional\",\n" +
             "  \"suggestion\": \"sugestão curta e empática\"\n" +
             "}\n\n" +
-            "Seja preciso na análise emocional. Considere o tom, palavras-chave e contexto da mensagem.",
+            "Seja preciso na análise emocional. Considere o tom, palavras-chave e contexto da mensagem.\n\n" +
+            "Mensagem: %s",
             userMessage
         );
 
         Map<String, Object> requestBody = Map.of(
-                "model", modelName,
+                "model", models.modelFor(LLMOperation.EXTRACT_EMOTIONAL_ANALYSIS),
                 "prompt", prompt,
                 "stream", false,
+                "keep_alive", keepAlive,
                 "format", "json"
         );
 
-        return webClient.post()
-                .uri("/api/generate")
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(Map.class)
+        return endpoints.execute(webClient -> webClient.post()
+                        .uri("/api/generate")
+                        .bodyValue(requestBody)
+                        .retrieve()
+                        .bodyToMono(Map.class))
                 .timeout(Duration.ofMillis(timeout))
                 .map(response -> {
                     Object responseObj = response.get("response");
                     return responseObj != null ? responseObj.toString() : "{}";
-                })
-                .onErrorReturn("{}");
+                });
     }
 
     @Override
     public Mono<String> extractEmotionalAnalysisAndMemories(String userMessage, String aiResponse) {
         String prompt = String.format(
-            "Analise a seguinte conversa e extraia duas informações importantes:\n\n" +
-            "1. Análise emocional da mensagem do usuário\n" +
-            "2. Memórias importantes que devem ser lembradas sobre o usuário\n\n" +
-            "Usuário: %s\n\n" +
-            "IA: %s\n\n" +
+            "Analise a seguinte conversa e extraia as seguintes informações:\n\n" +
+            "1. Risco de autolesão ou suicídio na mensagem do usuário\n" +
+            "2. Análise emocional da mensagem do usuário\n" +
+            "3. Memórias importantes que devem ser lembradas sobre o usuário\n" +
+            "4. Gatilhos que afetam o estado emocional do usuário\n\n" +
             "Retorne APENAS um JSON válido no seguinte formato (sem markdown, sem texto adicional):\n" +
             "{\n" +
+            "  \"risco\": {\n" +
+            "    \"isRiskDetected\": true/false,\n" +
+            "    \"riskLevel\": \"NONE|LOW|MEDIUM|HIGH|CRITICAL\",\n" +
+            "    \"reason\": \"explicação breve do motivo da detecção ou não detecção\",\n" +
+            "    \"context\": \"trecho da mensagem que ajudou na análise\",\n" +
+            "    \"confidence\": 0.0-1.0\n" +
+            "  },\n" +
             "  \"analiseEmocional\": {\n" +
             "    \"primaryEmotional\": \"tristeza|ansiedade|alegria|raiva|medo|neutro\",\n" +
             "    \"intensity\": 0-100,\n" +
@@ -234,27 +281,63 @@ public class OllamaClient implements LLMClient {
             "- Para análise emocional: Seja preciso, considere o tom, palavras-chave e contexto da mensagem do usuário.\n" +
             "- Para memórias: Identifique fatos pessoais, preferências, objetivos, eventos futuros, relacionamentos importantes.\n" +
             "- Para gatilhos: Identifique fatores que afetam o estado emocional (positivos melhoram humor, negativos pioram). Impacto: 1-3 (leve), 4-6 (moderado), 7-10 (forte).\n" +
-            "Se não houver informações importantes, retorne arrays vazios mas mantenha a estrutura JSON.",
+            "- Para risco: Marque risco apenas se a mensagem do usuário indicar intenção real de autolesão ou suicídio; uso figurativo, metafórico ou em contexto de ficção/arte NÃO é risco. Se houver ambiguidade, seja conservador e marque LOW ou MEDIUM. Confidence reflete sua certeza (0.0 = incerto, 1.0 = muito certo).\n" +
+            "Se não houver informações importantes, retorne arrays vazios mas mantenha a estrutura JSON.\n\n" +
+            "Usuário: %s\n\n" +
+            "IA: %s",
             userMessage, aiResponse
         );
 
         Map<String, Object> requestBody = Map.of(
-                "model", modelName,
+                "model", models.modelFor(LLMOperation.EXTRACT_EMOTIONAL_ANALYSIS_AND_MEMORIES),
                 "prompt", prompt,
                 "stream", false,
+                "keep_alive", keepAlive,
                 "format", "json"
         );
 
-        return webClient.post()
-                .uri("/api/generate")
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(Map.class)
+        return endpoints.execute(webClient -> webClient.post()
+                        .uri("/api/generate")
+                        .bodyValue(requestBody)
+                        .retrieve()
+                        .bodyToMono(Map.class))
                 .timeout(Duration.ofMillis(timeout * 2))
                 .map(response -> {
                     Object responseObj = response.get("response");
-                    return responseObj != null ? responseObj.toString() : "{\"analiseEmocional\": {}, \"memorias\": [], \"gatilhos\": []}";
-                })
-                .onErrorReturn("{\"analiseEmocional\": {}, \"memorias\": [], \"gatilhos\": []}");
+                    return responseObj != null ? responseObj.toString() : "{\"risco\": {}, \"analiseEmocional\": {}, \"memorias\": [], \"gatilhos\": []}";
+                });
+    }
+
+    @Override
+    public Mono<String> summarizeConversation(String previousSummary, String transcript, int maxWords) {
+        String prompt = String.format(
+            "Atualize o resumo de uma conversa de diário pessoal incorporando as novas mensagens.\n" +
+            "Escreva um único resumo em português, em terceira pessoa, com no máximo %d palavras. " +
+            "Preserve fatos, sentimentos, pessoas, eventos e objetivos mencionados pelo usuário, " +
+            "além das perguntas que ficaram em aberto. Retorne APENAS o texto do resumo.\n\n" +
+            "Resumo atual: %s\n\n" +
+            "Novas mensagens:\n%s",
+            maxWords,
+            previousSummary == null || previousSummary.isBlank() ? "(vazio)" : previousSummary,
+            transcript
+        );
+
+        Map<String, Object> requestBody = Map.of(
+                "model", models.modelFor(LLMOperation.SUMMARIZE_CONVERSATION),
+                "prompt", prompt,
+                "stream", false,
+                "keep_alive", keepAlive
+        );
+
+        return endpoints.execute(webClient -> webClient.post()
+                        .uri("/api/generate")
+                        .bodyValue(requestBody)
+                        .retrieve()
+                        .bodyToMono(Map.class))
+                .timeout(Duration.ofMillis(timeout))
+                .map(response -> {
+                    Object responseObj = response.get("response");
+                    return responseObj != null ? responseObj.toString().trim() : "";
+                });
     }
 }
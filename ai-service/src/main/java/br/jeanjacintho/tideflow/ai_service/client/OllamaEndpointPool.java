@@ -0,0 +1,225 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class OllamaEndpointPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(OllamaEndpointPool.class);
+
+    private final List<Endpoint> endpoints;
+    private final Duration healthTimeout;
+    private final int unhealthyThreshold;
+    private final Duration preloadTimeout;
+    private volatile long lastActivity = System.nanoTime();
+
+    public OllamaEndpointPool(List<String> baseUrls,
+                              WebClient.Builder webClientBuilder,
+                              Duration healthTimeout,
+                              int unhealthyThreshold,
+                              Duration preloadTimeout,
+                              MeterRegistry meterRegistry) {
+        if (baseUrls.isEmpty()) {
+            throw new IllegalArgumentException("Nenhuma instância Ollama configurada em ollama.base.url");
+        }
+        this.healthTimeout = healthTimeout;
+        this.unhealthyThreshold = Math.max(1, unhealthyThreshold);
+        this.preloadTimeout = preloadTimeout;
+        this.endpoints = baseUrls.stream()
+                .map(url -> new Endpoint(url, webClientBuilder.clone().baseUrl(url).build()))
+                .toList();
+
+        for (Endpoint endpoint : endpoints) {
+            Gauge.builder("ollama.endpoint.in_flight", endpoint.inFlight, AtomicInteger::get)
+                    .tag("endpoint", endpoint.url).register(meterRegistry);
+            Gauge.builder("ollama.endpoint.healthy", endpoint, e -> e.healthy ? 1 : 0)
+                    .tag("endpoint", endpoint.url).register(meterRegistry);
+        }
+    }
+
+    public static List<String> parse(String baseUrls) {
+        return Arrays.stream(baseUrls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    public <T> Mono<T> execute(Function<WebClient, Mono<T>> call) {
+        return Mono.defer(() -> {
+            Endpoint endpoint = select(null);
+            return track(endpoint, call)
+                    .onErrorResume(WebClientRequestException.class, error -> {
+                        Endpoint alternative = select(endpoint);
+                        return alternative != endpoint ? track(alternative, call) : Mono.error(error);
+                    });
+        });
+    }
+
+    public <T> Flux<T> executeMany(Function<WebClient, Flux<T>> call) {
+        return Flux.defer(() -> {
+            Endpoint endpoint = select(null);
+            return trackMany(endpoint, call)
+                    .onErrorResume(WebClientRequestException.class, error -> {
+                        Endpoint alternative = select(endpoint);
+                        return alternative != endpoint ? trackMany(alternative, call) : Flux.error(error);
+                    });
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${ollama.health.interval:10000}")
+    public Mono<Void> checkHealth() {
+        return Flux.fromIterable(endpoints)
+                .flatMap(this::probe)
+                .then();
+    }
+
+    public Mono<Void> preload(Collection<String> models, String keepAlive, boolean coldEndpointsOnly) {
+        return Flux.fromIterable(endpoints)
+                .filter(endpoint -> endpoint.healthy && (!coldEndpointsOnly || !endpoint.warm))
+                .flatMap(endpoint -> Flux.fromIterable(models)
+                        .concatMap(model -> endpoint.webClient.post()
+                                .uri("/api/generate")
+                                .bodyValue(Map.of("model", model, "keep_alive", keepAlive))
+                                .retrieve()
+                                .toBodilessEntity()
+                                .timeout(preloadTimeout))
+                        .then(Mono.fromRunnable(() -> {
+                            endpoint.warm = true;
+                            logger.info("Modelos {} carregados na instância Ollama {}", models, endpoint.url);
+                        }))
+                        .onErrorResume(error -> {
+                            logger.warn("Falha ao pré-carregar modelos na instância Ollama {}: {}", endpoint.url, error.getMessage());
+                            return Mono.empty();
+                        }))
+                .then();
+    }
+
+    public boolean isIdle(Duration period) {
+        return System.nanoTime() - lastActivity >= period.toNanos();
+    }
+
+    public List<EndpointStatus> status() {
+        return endpoints.stream()
+                .map(endpoint -> new EndpointStatus(endpoint.url, endpoint.healthy, endpoint.warm, endpoint.inFlight.get()))
+                .toList();
+    }
+
+    private <T> Mono<T> track(Endpoint endpoint, Function<WebClient, Mono<T>> call) {
+        return Mono.defer(() -> {
+                    endpoint.inFlight.incrementAndGet();
+                    lastActivity = System.nanoTime();
+                    return call.apply(endpoint.webClient);
+                })
+                .doOnSuccess(result -> endpoint.warm = true)
+                .doOnError(WebClientRequestException.class, error -> eject(endpoint, error.getMessage()))
+                .doFinally(signal -> endpoint.inFlight.decrementAndGet());
+    }
+
+    private <T> Flux<T> trackMany(Endpoint endpoint, Function<WebClient, Flux<T>> call) {
+        return Flux.defer(() -> {
+                    endpoint.inFlight.incrementAndGet();
+                    lastActivity = System.nanoTime();
+                    return call.apply(endpoint.webClient);
+                })
+                .doOnComplete(() -> endpoint.warm = true)
+                .doOnError(WebClientRequestException.class, error -> eject(endpoint, error.getMessage()))
+                .doFinally(signal -> endpoint.inFlight.decrementAndGet());
+    }
+
+    private Endpoint select(Endpoint excluded) {
+        List<Endpoint> candidates = candidates(excluded, true);
+        if (candidates.isEmpty()) {
+            candidates = candidates(excluded, false);
+        }
+        if (candidates.isEmpty()) {
+            return excluded;
+        }
+
+        List<Endpoint> leastLoaded = new ArrayList<>();
+        int minInFlight = Integer.MAX_VALUE;
+        for (Endpoint endpoint : candidates) {
+            int inFlight = endpoint.inFlight.get();
+            if (inFlight < minInFlight) {
+                minInFlight = inFlight;
+                leastLoaded.clear();
+            }
+            if (inFlight == minInFlight) {
+                leastLoaded.add(endpoint);
+            }
+        }
+        return leastLoaded.get(ThreadLocalRandom.current().nextInt(leastLoaded.size()));
+    }
+
+    private List<Endpoint> candidates(Endpoint excluded, boolean healthyOnly) {
+        return endpoints.stream()
+                .filter(endpoint -> endpoint != excluded && (!healthyOnly || endpoint.healthy))
+                .toList();
+    }
+
+    private Mono<Void> probe(Endpoint endpoint) {
+        return endpoint.webClient.get()
+                .uri("/api/tags")
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(healthTimeout)
+                .doOnSuccess(response -> readmit(endpoint))
+                .onErrorResume(error -> {
+                    if (endpoint.failedProbes.incrementAndGet() >= unhealthyThreshold) {
+                        eject(endpoint, error.getMessage());
+                    }
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void readmit(Endpoint endpoint) {
+        endpoint.failedProbes.set(0);
+        if (!endpoint.healthy) {
+            endpoint.warm = false;
+            endpoint.healthy = true;
+            logger.info("Instância Ollama {} voltou a responder e foi readmitida no balanceamento", endpoint.url);
+        }
+    }
+
+    private void eject(Endpoint endpoint, String reason) {
+        if (endpoint.healthy) {
+            endpoint.warm = false;
+            endpoint.healthy = false;
+            logger.warn("Instância Ollama {} removida do balanceamento: {}", endpoint.url, reason);
+        }
+    }
+
+    public record EndpointStatus(String url, boolean healthy, boolean warm, int inFlight) {}
+
+    private static final class Endpoint {
+        private final String url;
+        private final WebClient webClient;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger failedProbes = new AtomicInteger();
+        private volatile boolean healthy = true;
+        private volatile boolean warm;
+
+        private Endpoint(String url, WebClient webClient) {
+            this.url = url;
+            this.webClient = webClient;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import br.jeanjacintho.tideflow.ai_service.config.ConditionalOnLLMProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+@Component
+@ConditionalOnLLMProvider("ollama")
+public class OllamaHealthIndicator implements HealthIndicator {
+
+    private final OllamaEndpointPool endpoints;
+    private final boolean warmupEnabled;
+
+    public OllamaHealthIndicator(OllamaEndpointPool endpoints,
+                                 @Value("${ollama.warmup.enabled:true}") boolean warmupEnabled) {
+        this.endpoints = endpoints;
+        this.warmupEnabled = warmupEnabled;
+    }
+
+    @Override
+    public Health health() {
+        List<OllamaEndpointPool.EndpointStatus> status = endpoints.status();
+        boolean ready = status.stream().anyMatch(endpoint -> endpoint.healthy() && (endpoint.warm() || !warmupEnabled));
+
+        Health.Builder builder = ready ? Health.up() : Health.outOfService();
+        for (OllamaEndpointPool.EndpointStatus endpoint : status) {
+            builder.withDetail(endpoint.url(), Map.of(
+                    "healthy", endpoint.healthy(),
+                    "warm", endpoint.warm(),
+                    "inFlight", endpoint.inFlight()));
+        }
+        return builder.build();
+    }
+}
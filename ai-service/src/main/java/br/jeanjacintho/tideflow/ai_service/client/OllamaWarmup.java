@@ -0,0 +1,57 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import br.jeanjacintho.tideflow.ai_service.config.ConditionalOnLLMProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+@Component
+@ConditionalOnLLMProvider("ollama")
+public class OllamaWarmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(OllamaWarmup.class);
+
+    private final OllamaClient ollamaClient;
+    private final OllamaEndpointPool endpoints;
+    private final boolean enabled;
+    private final Duration keepWarmInterval;
+
+    public OllamaWarmup(OllamaClient ollamaClient,
+                        OllamaEndpointPool endpoints,
+                        @Value("${ollama.warmup.enabled:true}") boolean enabled,
+                        @Value("${ollama.keep-warm.interval:600000}") long keepWarmIntervalMillis) {
+        this.ollamaClient = ollamaClient;
+        this.endpoints = endpoints;
+        this.enabled = enabled;
+        this.keepWarmInterval = Duration.ofMillis(keepWarmIntervalMillis);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        logger.info("Pré-carregando modelos do Ollama antes de receber tráfego");
+        ollamaClient.preloadModels(false).subscribe();
+    }
+
+    @Scheduled(fixedDelayString = "${ollama.keep-warm.interval:600000}",
+            initialDelayString = "${ollama.keep-warm.interval:600000}")
+    public Mono<Void> keepWarm() {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        boolean idle = endpoints.isIdle(keepWarmInterval);
+        if (idle) {
+            logger.debug("Ollama ocioso há {}s, renovando keep-alive dos modelos", keepWarmInterval.toSeconds());
+        }
+        return ollamaClient.preloadModels(!idle);
+    }
+}
@@ -1,11 +1,17 @@
 package br.jeanjacintho.tideflow.ai_service.client;
 
+import br.jeanjacintho.tideflow.ai_service.config.ConditionalOnLLMProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
@@ -15,19 +21,21 @@ import java.util.List;
 import java.util.Map;
 
 @Component
-@org.springframework.boot.autoconfigure.condition.ConditionalOnProperty(name = "llm.provider", havingValue = "openrouter")
+@ConditionalOnLLMProvider("openrouter")
 public class OpenRouterClient implements LLMClient {
 
     private static final Logger logger = LoggerFactory.getLogger(OpenRouterClient.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
 
     private final WebClient webClient;
     private final String apiKey;
-    private final String modelName;
+    private final LLMModelTiers.Models models;
     private final int timeout;
 
     public OpenRouterClient(WebClient openRouterWebClient,
                            @Value("${openrouter.api.key}") String apiKey,
                            @Value("${openrouter.model.name:x-ai/grok-4.1-fast}") String modelName,
+                           LLMModelTiers modelTiers,
                            @Value("${timeout:60000}") int timeout) {
         if (apiKey == null || apiKey.trim().isEmpty()) {
             throw new IllegalArgumentException(
@@ -36,7 +44,7 @@ public class OpenRouterClient implements LLMClient {
         }
         this.webClient = openRouterWebClient;
         this.apiKey = apiKey;
-        this.modelName = modelName;
+        this.models = modelTiers.forProvider("openrouter", modelName);
         this.timeout = timeout;
     }
 
@@ -45,12 +53,16 @@ public class OpenRouterClient implements LLMClient {
         List<Map<String, String>> messages = new ArrayList<>();
         messages.add(Map.of("role", "user", "content", prompt));
 
-        return chatWithHistory(messages);
+        return chat(LLMOperation.GENERATE_RESPONSE, messages);
     }
 
     @Override
     public Mono<String> chatWithHistory(List<Map<String, String>> messages) {
-        Map<String, Object> requestBody = buildChatRequest(messages);
+        return chat(LLMOperation.CHAT_WITH_HISTORY, messages);
+    }
+
+    private Mono<String> chat(LLMOperation operation, List<Map<String, String>> messages) {
+        Map<String, Object> requestBody = buildChatRequest(operation, messages);
 
         return webClient.post()
                 .uri("/api/v1/chat/completions")
@@ -70,8 +82,28 @@ public class OpenRouterClient implements LLMClient {
                     } else {
                         logger.error("Erro ao chamar API do OpenRouter: {}", error.getMessage());
                     }
-                })
-                .onErrorReturn("Desculpe, não consegui processar sua mensagem no momento.");
+                });
+    }
+
+    @Override
+    public Flux<String> streamChatWithHistory(List<Map<String, String>> messages) {
+        Map<String, Object> requestBody = buildChatRequest(LLMOperation.STREAM_CHAT_WITH_HISTORY, messages);
+        requestBody.put("stream", true);
+
+        return webClient.post()
+                .uri("/api/v1/chat/completions")
+                .header("Authorization", "Bearer " + apiKey)
+                .header("HTTP-Referer", "https://github.com/jeanjacintho/tide-flow")
+                .header("X-Title", "Tide Flow")
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                .timeout(Duration.ofMillis(timeout))
+                .mapNotNull(ServerSentEvent::data)
+                .takeWhile(data -> !"[DONE]".equals(data.trim()))
+                .map(this::extractStreamDelta)
+                .filter(token -> !token.isEmpty())
+                .doOnError(this::logError);
     }
 
     @Override
@@ -112,7 +144,7 @@ public class OpenRouterClient implements LLMClient {
         List<Map<String, String>> messages = new ArrayList<>();
         messages.add(Map.of("role", "user", "content", prompt));
 
-        Map<String, Object> requestBody = buildChatRequest(messages);
+        Map<String, Object> requestBody = buildChatRequest(LLMOperation.EXTRACT_MEMORIES, messages);
 
         return webClient.post()
                 .uri("/api/v1/chat/completions")
@@ -125,8 +157,7 @@ public class OpenRouterClient implements LLMClient {
                 .timeout(Duration.ofMillis(timeout * 2))
                 .map(this::extractTextFromResponse)
                 .map(response -> response != null ? response : "{\"memorias\": []}")
-                .doOnError(this::logError)
-                .onErrorReturn("{\"memorias\": []}");
+                .doOnError(this::logError);
     }
 
     @Override
@@ -142,7 +173,7 @@ public class OpenRouterClient implements LLMClient {
         List<Map<String, String>> messages = new ArrayList<>();
         messages.add(Map.of("role", "user", "content", prompt));
 
-        Map<String, Object> requestBody = buildChatRequest(messages);
+        Map<String, Object> requestBody = buildChatRequest(LLMOperation.GENERATE_PROACTIVE_QUESTION, messages);
 
         return webClient.post()
                 .uri("/api/v1/chat/completions")
@@ -155,8 +186,7 @@ public class OpenRouterClient implements LLMClient {
                 .timeout(Duration.ofMillis(timeout))
                 .map(this::extractTextFromResponse)
                 .map(response -> response != null ? response.trim() : "")
-                .doOnError(this::logError)
-                .onErrorReturn("");
+                .doOnError(this::logError);
     }
 
     @Override
@@ -179,7 +209,7 @@ public class OpenRouterClient implements LLMClient {
         List<Map<String, String>> messages = new ArrayList<>();
         messages.add(Map.of("role", "user", "content", prompt));
 
-        Map<String, Object> requestBody = buildChatRequest(messages);
+        Map<String, Object> requestBody = buildChatRequest(LLMOperation.EXTRACT_EMOTIONAL_ANALYSIS, messages);
 
         return webClient.post()
                 .uri("/api/v1/chat/completions")
@@ -192,20 +222,28 @@ public class OpenRouterClient implements LLMClient {
                 .timeout(Duration.ofMillis(timeout))
                 .map(this::extractTextFromResponse)
                 .map(response -> response != null ? response : "{}")
-                .doOnError(this::logError)
-                .onErrorReturn("{}");
+                .doOnError(this::logError);
     }
 
     @Override
     public Mono<String> extractEmotionalAnalysisAndMemories(String userMessage, String aiResponse) {
         String prompt = String.format(
-            "Analise a seguinte conversa e extraia duas informações importantes:\n\n" +
-            "1. Análise emocional da mensagem do usuário\n" +
-            "2. Memórias importantes que devem ser lembradas sobre o usuário\n\n" +
+            "Analise a seguinte conversa e extraia as seguintes informações:\n\n" +
+            "1. Risco de autolesão ou suicídio na mensagem do usuário\n" +
+            "2. Análise emocional da mensagem do usuário\n" +
+            "3. Memórias importantes que devem ser lembradas sobre o usuário\n" +
+            "4. Gatilhos que afetam o estado emocional do usuário\n\n" +
             "Usuário: %s\n\n" +
             "IA: %s\n\n" +
             "Retorne APENAS um JSON válido no seguinte formato (sem markdown, sem texto adicional):\n" +
             "{\n" +
+            "  \"risco\": {\n" +
+            "    \"isRiskDetected\": true/false,\n" +
+            "    \"riskLevel\": \"NONE|LOW|MEDIUM|HIGH|CRITICAL\",\n" +
+            "    \"reason\": \"explicação breve do motivo da detecção ou não detecção\",\n" +
+            "    \"context\": \"trecho da mensagem que ajudou na análise\",\n" +
+            "    \"confidence\": 0.0-1.0\n" +
+            "  },\n" +
             "  \"analiseEmocional\": {\n" +
             "    \"primaryEmotional\": \"tristeza|ansiedade|alegria|raiva|medo|neutro\",\n" +
             "    \"intensity\": 0-100,\n" +
@@ -236,6 +274,7 @@ public class OpenRouterClient implements LLMClient {
             "- Para análise emocional: Seja preciso, considere o tom, palavras-chave e contexto da mensagem do usuário.\n" +
             "- Para memórias: Identifique fatos pessoais, preferências, objetivos, eventos futuros, relacionamentos importantes.\n" +
             "- Para gatilhos: Identifique fatores que afetam o estado emocional (positivos melhoram humor, negativos pioram). Impacto: 1-3 (leve), 4-6 (moderado), 7-10 (forte).\n" +
+            "- Para risco: Marque risco apenas se a mensagem do usuário indicar intenção real de autolesão ou suicídio; uso figurativo, metafórico ou em contexto de ficção/arte NÃO é risco. Se houver ambiguidade, seja conservador e marque LOW ou MEDIUM. Confidence reflete sua certeza (0.0 = incerto, 1.0 = muito certo).\n" +
             "Se não houver informações importantes, retorne arrays vazios mas mantenha a estrutura JSON.",
             userMessage, aiResponse
         );
@@ -243,7 +282,7 @@ public class OpenRouterClient implements LLMClient {
         List<Map<String, String>> messages = new ArrayList<>();
         messages.add(Map.of("role", "user", "content", prompt));
 
-        Map<String, Object> requestBody = buildChatRequest(messages);
+        Map<String, Object> requestBody = buildChatRequest(LLMOperation.EXTRACT_EMOTIONAL_ANALYSIS_AND_MEMORIES, messages);
 
         return webClient.post()
                 .uri("/api/v1/chat/completions")
@@ -255,14 +294,46 @@ public class OpenRouterClient implements LLMClient {
                 .bodyToMono(Map.class)
                 .timeout(Duration.ofMillis(timeout * 2))
                 .map(this::extractTextFromResponse)
-                .map(response -> response != null ? response : "{\"analiseEmocional\": {}, \"memorias\": [], \"gatilhos\": []}")
-                .doOnError(this::logError)
-                .onErrorReturn("{\"analiseEmocional\": {}, \"memorias\": [], \"gatilhos\": []}");
+                .map(response -> response != null ? response : "{\"risco\": {}, \"analiseEmocional\": {}, \"memorias\": [], \"gatilhos\": []}")
+                .doOnError(this::logError);
     }
 
-    private Map<String, Object> buildChatRequest(List<Map<String, String>> messages) {
+    @Override
+    public Mono<String> summarizeConversation(String previousSummary, String transcript, int maxWords) {
+        String prompt = String.format(
+            "Atualize o resumo de uma conversa de diário pessoal incorporando as novas mensagens.\n\n" +
+            "Resumo atual: %s\n\n" +
+            "Novas mensagens:\n%s\n\n" +
+            "Escreva um único resumo em português, em terceira pessoa, com no máximo %d palavras. " +
+            "Preserve fatos, sentimentos, pessoas, eventos e objetivos mencionados pelo usuário, " +
+            "além das perguntas que ficaram em aberto. Retorne APENAS o texto do resumo.",
+            previousSummary == null || previousSummary.isBlank() ? "(vazio)" : previousSummary,
+            transcript,
+            maxWords
+        );
+
+        List<Map<String, String>> messages = new ArrayList<>();
+        messages.add(Map.of("role", "user", "content", prompt));
+
+        Map<String, Object> requestBody = buildChatRequest(LLMOperation.SUMMARIZE_CONVERSATION, messages);
+
+        return webClient.post()
+                .uri("/api/v1/chat/completions")
+                .header("Authorization", "Bearer " + apiKey)
+                .header("HTTP-Referer", "https://github.com/jeanjacintho/tide-flow")
+                .header("X-Title", "Tide Flow")
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToMono(Map.class)
+                .timeout(Duration.ofMillis(timeout))
+                .map(this::extractTextFromResponse)
+                .map(response -> response != null ? response.trim() : "")
+                .doOnError(this::logError);
+    }
+
+    private Map<String, Object> buildChatRequest(LLMOperation operation, List<Map<String, String>> messages) {
         Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("model", modelName);
+        requestBody.put("model", models.modelFor(operation));
         requestBody.put("messages", messages);
 
         Map<String, Object> parameters = new HashMap<>();
@@ -300,22 +371,44 @@ public class OpenRouterClient implements LLMClient {
         return sanitized;
     }
 
+    @SuppressWarnings("unchecked")
+    private String extractStreamDelta(String data) {
+        try {
+            Map<String, Object> chunk = objectMapper.readValue(data, new TypeReference<Map<String, Object>>() {});
+            List<Map<String, Object>> choices = (List<Map<String, Object>>) chunk.get("choices");
+            if (choices == null || choices.isEmpty()) {
+                return "";
+            }
+
+            Map<String, Object> delta = (Map<String, Object>) choices.get(0).get("delta");
+            if (delta == null) {
+                return "";
+            }
+
+            Object content = delta.get("content");
+            return content != null ? content.toString() : "";
+        } catch (Exception e) {
+            logger.debug("Chunk de streaming do OpenRouter ignorado: {}", e.getMessage());
+            return "";
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private String extractTextFromResponse(Map<String, Object> response) {
         try {
             List<Map<String, Object>> choices = (List<Map<String, Object>>) response.get("choices");
             if (choices == null || choices.isEmpty()) {
-                return "Sem resposta";
+                return EMPTY_RESPONSE;
             }
 
             Map<String, Object> choice = choices.get(0);
             Map<String, Object> message = (Map<String, Object>) choice.get("message");
             if (message == null) {
-                return "Sem resposta";
+                return EMPTY_RESPONSE;
             }
 
             Object content = message.get("content");
-            return content != null ? content.toString() : "Sem resposta";
+            return content != null ? content.toString() : EMPTY_RESPONSE;
         } catch (Exception e) {
             logger.error("Erro ao processar resposta do OpenRouter: {}", e.getMessage());
             return "Erro ao processar resposta";
@@ -0,0 +1,44 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class PriorityLLMClient extends DelegatingLLMClient {
+
+    private final LLMClient delegate;
+    private final LLMRequestScheduler scheduler;
+    private final TenantQuota tenantQuota;
+
+    public PriorityLLMClient(LLMClient delegate, LLMRequestScheduler scheduler, TenantQuota tenantQuota) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+        this.tenantQuota = tenantQuota;
+    }
+
+    @Override
+    protected Mono<String> around(LLMOperation operation, List<?> arguments, Function<LLMClient, Mono<String>> call) {
+        return Mono.deferContextual(context -> {
+            LLMPriority priority = LLMPriority.from(context, operation);
+            LLMTenant tenant = LLMTenant.from(context);
+            long cost = TenantQuota.estimateTokens(arguments);
+            return tenantQuota.acquire(tenant, priority, cost)
+                    .then(scheduler.execute(priority, tenant, tenantQuota.weight(tenant), cost,
+                            Mono.defer(() -> call.apply(delegate)).contextWrite(priority.asContext())));
+        });
+    }
+
+    @Override
+    protected Flux<String> aroundStream(LLMOperation operation, List<?> arguments, Function<LLMClient, Flux<String>> call) {
+        return Flux.deferContextual(context -> {
+            LLMPriority priority = LLMPriority.from(context, operation);
+            LLMTenant tenant = LLMTenant.from(context);
+            long cost = TenantQuota.estimateTokens(arguments);
+            return tenantQuota.acquire(tenant, priority, cost)
+                    .thenMany(scheduler.executeMany(priority, tenant, tenantQuota.weight(tenant), cost,
+                            Flux.defer(() -> call.apply(delegate)).contextWrite(priority.asContext())));
+        });
+    }
+}
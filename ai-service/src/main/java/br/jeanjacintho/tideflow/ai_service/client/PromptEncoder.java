@@ -0,0 +1,86 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.felipestanzani.jtoon.JToon;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class PromptEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(PromptEncoder.class);
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean toonEnabled;
+
+    public PromptEncoder(ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${llm.prompt.toon.enabled:true}") boolean enabled,
+                         @Value("${llm.provider:ollama}") String provider,
+                         @Value("${llm.routing.enabled:false}") boolean routingEnabled,
+                         @Value("${llm.routing.providers:}") List<String> routedProviders,
+                         @Value("${llm.prompt.toon.json-providers:}") List<String> jsonProviders) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+
+        List<String> targets = routingEnabled && !routedProviders.isEmpty() ? routedProviders : List.of(provider);
+        this.toonEnabled = enabled && targets.stream().noneMatch(jsonProviders::contains);
+        logger.info("Codificação de payloads em prompts: {}", toonEnabled ? "TOON" : "JSON");
+    }
+
+    public String encode(String type, Object payload) {
+        String json = toJson(payload);
+        String encoded = json;
+        String format = "json";
+
+        if (toonEnabled) {
+            try {
+                String toon = JToon.encode(payload);
+                if (toon.length() < json.length()) {
+                    encoded = toon;
+                    format = "toon";
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Erro ao codificar payload {} em TOON, usando JSON: {}", type, e.getMessage());
+            }
+        }
+
+        record(type, format, estimateTokens(json), estimateTokens(encoded));
+        return encoded;
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            logger.warn("Erro ao serializar JSON, usando toString: {}", e.getMessage());
+            return String.valueOf(payload);
+        }
+    }
+
+    private void record(String type, String format, long jsonTokens, long encodedTokens) {
+        DistributionSummary.builder("llm.prompt.payload.tokens")
+                .tag("type", type)
+                .tag("format", format)
+                .register(meterRegistry)
+                .record(encodedTokens);
+        Counter.builder("llm.prompt.tokens_saved")
+                .tag("type", type)
+                .register(meterRegistry)
+                .increment(jsonTokens - encodedTokens);
+    }
+
+    private static long estimateTokens(String text) {
+        return Math.max(1, text.length() / CHARS_PER_TOKEN);
+    }
+}
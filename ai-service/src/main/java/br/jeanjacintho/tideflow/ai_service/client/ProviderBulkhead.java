@@ -0,0 +1,323 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import br.jeanjacintho.tideflow.ai_service.exception.LLMProviderUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ProviderBulkhead {
+
+    public static final String DEADLINE_KEY = ProviderBulkhead.class.getName() + ".deadline";
+
+    public enum CircuitState { CLOSED, HALF_OPEN, OPEN }
+
+    private static final double LATENCY_SMOOTHING = 0.1;
+    private static final double BASELINE_DRIFT = 0.01;
+
+    private final String provider;
+    private final Settings settings;
+    private final MeterRegistry meterRegistry;
+    private final NavigableSet<Waiter> waiters = new TreeSet<>(
+            Comparator.comparing((Waiter waiter) -> waiter.priority)
+                    .thenComparingLong(waiter -> waiter.sequence));
+    private final boolean[] outcomes;
+
+    private double limit;
+    private int inFlight;
+    private double averageNanos;
+    private double baselineNanos;
+    private CircuitState circuitState = CircuitState.CLOSED;
+    private long openUntilNanos;
+    private int trialsInFlight;
+    private int trialSuccesses;
+    private int outcomeIndex;
+    private int outcomeCount;
+    private int failureCount;
+    private long sequence;
+
+    public ProviderBulkhead(String provider, Settings settings, MeterRegistry meterRegistry) {
+        this.provider = provider;
+        this.settings = settings;
+        this.meterRegistry = meterRegistry;
+        this.limit = settings.initialLimit();
+        this.outcomes = new boolean[settings.slidingWindow()];
+
+        Gauge.builder("llm.bulkhead.limit", this, bulkhead -> bulkhead.snapshot().limit())
+                .tag("provider", provider).register(meterRegistry);
+        Gauge.builder("llm.bulkhead.in_flight", this, bulkhead -> bulkhead.snapshot().inFlight())
+                .tag("provider", provider).register(meterRegistry);
+        Gauge.builder("llm.bulkhead.queued", this, bulkhead -> bulkhead.snapshot().queued())
+                .tag("provider", provider).register(meterRegistry);
+        Gauge.builder("llm.circuit.state", this, bulkhead -> bulkhead.snapshot().circuitState().ordinal())
+                .tag("provider", provider).register(meterRegistry);
+    }
+
+    public <T> Mono<T> execute(Mono<T> call) {
+        return Mono.deferContextual(context -> Mono.usingWhen(
+                acquire(deadlineNanos(context), priority(context), true),
+                permit -> call,
+                permit -> Mono.fromRunnable(() -> release(permit, true)),
+                (permit, error) -> Mono.fromRunnable(() -> release(permit, false)),
+                permit -> Mono.fromRunnable(() -> release(permit, null))));
+    }
+
+    public <T> Flux<T> executeMany(Flux<T> call) {
+        return Flux.deferContextual(context -> Flux.usingWhen(
+                acquire(deadlineNanos(context), priority(context), false),
+                permit -> call,
+                permit -> Mono.fromRunnable(() -> release(permit, true)),
+                (permit, error) -> Mono.fromRunnable(() -> release(permit, false)),
+                permit -> Mono.fromRunnable(() -> release(permit, null))));
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(provider, (int) limit, inFlight, waiters.size(), currentState(System.nanoTime()),
+                averageNanos / 1_000_000.0, baselineNanos / 1_000_000.0);
+    }
+
+    private Mono<Permit> acquire(long deadlineNanos, LLMPriority priority, boolean measured) {
+        Mono<Permit> permit = Mono.<Permit>create(sink -> {
+            Permit granted = null;
+            String rejection = null;
+            Waiter displaced = null;
+
+            synchronized (this) {
+                long now = System.nanoTime();
+                CircuitState state = currentState(now);
+                if (state == CircuitState.OPEN) {
+                    rejection = "circuit_open";
+                } else if (state == CircuitState.HALF_OPEN && trialsInFlight < settings.halfOpenCalls()) {
+                    trialsInFlight++;
+                    inFlight++;
+                    granted = new Permit(now, measured, true);
+                } else if (state == CircuitState.CLOSED && inFlight < (int) limit && !hasWaitingAtOrAbove(priority)) {
+                    inFlight++;
+                    granted = new Permit(now, measured, false);
+                } else if (waiters.size() >= settings.queueCapacity()
+                        && (waiters.isEmpty() || waiters.last().priority.compareTo(priority) <= 0)) {
+                    rejection = "queue_full";
+                } else if (averageNanos > 0
+                        && now + averageNanos * (waitingAtOrAbove(priority) + 1) / Math.max(1, (int) limit) > deadlineNanos) {
+                    rejection = "deadline";
+                } else {
+                    if (waiters.size() >= settings.queueCapacity()) {
+                        displaced = waiters.pollLast();
+                    }
+                    Waiter waiter = new Waiter(sink, priority, sequence++, measured);
+                    waiters.add(waiter);
+                    sink.onCancel(() -> cancel(waiter));
+                }
+            }
+
+            if (granted != null) {
+                sink.success(granted);
+            } else if (rejection != null) {
+                sink.error(rejected(rejection));
+            }
+            if (displaced != null && displaced.claimed.compareAndSet(false, true)) {
+                displaced.sink.error(rejected("queue_full"));
+            }
+        });
+
+        long remaining = Math.max(1, deadlineNanos - System.nanoTime());
+        return permit
+                .timeout(Duration.ofNanos(remaining), Mono.error(() -> rejected("timeout")))
+                .doOnDiscard(Permit.class, discarded -> release(discarded, null));
+    }
+
+    private void release(Permit permit, Boolean success) {
+        if (!permit.released.compareAndSet(false, true)) {
+            return;
+        }
+
+        List<Grant> grants = new ArrayList<>();
+        List<Waiter> rejectedWaiters = new ArrayList<>();
+
+        synchronized (this) {
+            long now = System.nanoTime();
+            int inFlightBefore = inFlight;
+            inFlight--;
+            if (permit.trial) {
+                trialsInFlight--;
+            }
+
+            if (success != null) {
+                adjustLimit(now - permit.grantedAt, permit.measured, success, inFlightBefore);
+                recordOutcome(now, success, permit.trial);
+            }
+
+            CircuitState state = currentState(now);
+            if (state == CircuitState.OPEN) {
+                rejectedWaiters.addAll(waiters);
+                waiters.clear();
+            } else if (state == CircuitState.CLOSED) {
+                while (inFlight < (int) limit && !waiters.isEmpty()) {
+                    Waiter waiter = waiters.pollFirst();
+                    if (waiter.claimed.compareAndSet(false, true)) {
+                        inFlight++;
+                        grants.add(new Grant(waiter, new Permit(now, waiter.measured, false)));
+                    }
+                }
+            }
+        }
+
+        grants.forEach(grant -> grant.waiter().sink.success(grant.permit()));
+        rejectedWaiters.stream()
+                .filter(waiter -> waiter.claimed.compareAndSet(false, true))
+                .forEach(waiter -> waiter.sink.error(rejected("circuit_open")));
+    }
+
+    private boolean hasWaitingAtOrAbove(LLMPriority priority) {
+        return !waiters.isEmpty() && waiters.first().priority.compareTo(priority) <= 0;
+    }
+
+    private long waitingAtOrAbove(LLMPriority priority) {
+        return waiters.stream().filter(waiter -> waiter.priority.compareTo(priority) <= 0).count();
+    }
+
+    private synchronized void cancel(Waiter waiter) {
+        if (waiter.claimed.compareAndSet(false, true)) {
+            waiters.remove(waiter);
+        }
+    }
+
+    private void adjustLimit(long latencyNanos, boolean measured, boolean success, int inFlightBefore) {
+        if (!success) {
+            limit = Math.max(settings.minLimit(), limit * settings.backoffRatio());
+            return;
+        }
+        if (!measured) {
+            return;
+        }
+
+        averageNanos = averageNanos == 0 ? latencyNanos : averageNanos + (latencyNanos - averageNanos) * LATENCY_SMOOTHING;
+        baselineNanos = baselineNanos == 0 || latencyNanos < baselineNanos
+                ? latencyNanos
+                : baselineNanos + (latencyNanos - baselineNanos) * BASELINE_DRIFT;
+
+        if (latencyNanos > baselineNanos * settings.latencyTolerance()) {
+            limit = Math.max(settings.minLimit(), limit * settings.backoffRatio());
+        } else if (inFlightBefore >= (int) limit) {
+            limit = Math.min(settings.maxLimit(), limit + 1.0 / limit);
+        }
+    }
+
+    private void recordOutcome(long now, boolean success, boolean trial) {
+        if (circuitState == CircuitState.HALF_OPEN) {
+            if (!trial) {
+                return;
+            }
+            if (!success) {
+                open(now);
+            } else if (++trialSuccesses >= settings.halfOpenCalls()) {
+                circuitState = CircuitState.CLOSED;
+                resetWindow();
+            }
+            return;
+        }
+
+        if (outcomeCount == outcomes.length && !outcomes[outcomeIndex]) {
+            failureCount--;
+        }
+        outcomes[outcomeIndex] = success;
+        outcomeIndex = (outcomeIndex + 1) % outcomes.length;
+        outcomeCount = Math.min(outcomeCount + 1, outcomes.length);
+        if (!success) {
+            failureCount++;
+        }
+
+        if (outcomeCount >= settings.minimumCalls()
+                && (double) failureCount / outcomeCount >= settings.failureRateThreshold()) {
+            open(now);
+        }
+    }
+
+    private void open(long now) {
+        circuitState = CircuitState.OPEN;
+        openUntilNanos = now + settings.openDuration().toNanos();
+        limit = Math.max(settings.minLimit(), Math.min(limit, settings.initialLimit()));
+        resetWindow();
+    }
+
+    private CircuitState currentState(long now) {
+        if (circuitState == CircuitState.OPEN && now - openUntilNanos >= 0) {
+            circuitState = CircuitState.HALF_OPEN;
+            trialSuccesses = 0;
+        }
+        return circuitState;
+    }
+
+    private void resetWindow() {
+        outcomeIndex = 0;
+        outcomeCount = 0;
+        failureCount = 0;
+    }
+
+    private LLMPriority priority(ContextView context) {
+        return context.<LLMPriority>getOrEmpty(LLMPriority.CONTEXT_KEY).orElse(LLMPriority.ENRICHMENT);
+    }
+
+    private long deadlineNanos(ContextView context) {
+        long now = System.nanoTime();
+        long deadline = now + settings.maxWait().toNanos();
+        return context.<Instant>getOrEmpty(DEADLINE_KEY)
+                .map(instant -> now + Duration.between(Instant.now(), instant).toNanos())
+                .filter(contextDeadline -> contextDeadline < deadline)
+                .orElse(deadline);
+    }
+
+    private LLMProviderUnavailableException rejected(String reason) {
+        meterRegistry.counter("llm.bulkhead.rejected", "provider", provider, "reason", reason).increment();
+        return new LLMProviderUnavailableException(provider, reason,
+                "Provedor " + provider + " indisponível no momento (" + reason + ")");
+    }
+
+    public record Settings(int initialLimit, int minLimit, int maxLimit, int queueCapacity, Duration maxWait,
+                           double latencyTolerance, double backoffRatio, double failureRateThreshold,
+                           int slidingWindow, int minimumCalls, Duration openDuration, int halfOpenCalls) {}
+
+    public record Snapshot(String provider, int limit, int inFlight, int queued, CircuitState circuitState,
+                           double averageLatencyMs, double baselineLatencyMs) {}
+
+    private static final class Permit {
+        private final long grantedAt;
+        private final boolean measured;
+        private final boolean trial;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long grantedAt, boolean measured, boolean trial) {
+            this.grantedAt = grantedAt;
+            this.measured = measured;
+            this.trial = trial;
+        }
+    }
+
+    private static final class Waiter {
+        private final MonoSink<Permit> sink;
+        private final LLMPriority priority;
+        private final long sequence;
+        private final boolean measured;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private Waiter(MonoSink<Permit> sink, LLMPriority priority, long sequence, boolean measured) {
+            this.sink = sink;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.measured = measured;
+        }
+    }
+
+    private record Grant(Waiter waiter, Permit permit) {}
+}
@@ -0,0 +1,71 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class ProviderBulkheads {
+
+    private static final String PREFIX = "llm.bulkhead.";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Map<String, ProviderBulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public ProviderBulkheads(Environment environment,
+                             MeterRegistry meterRegistry,
+                             @Value("${llm.bulkhead.enabled:true}") boolean enabled) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+    }
+
+    public LLMClient guard(String provider, LLMClient client) {
+        if (!enabled) {
+            return client;
+        }
+        ProviderBulkhead bulkhead = bulkheads.computeIfAbsent(provider,
+                name -> new ProviderBulkhead(name, settingsFor(name), meterRegistry));
+        return new BulkheadLLMClient(client, bulkhead);
+    }
+
+    public Map<String, ProviderBulkhead.Snapshot> snapshots() {
+        Map<String, ProviderBulkhead.Snapshot> snapshots = new TreeMap<>();
+        bulkheads.forEach((provider, bulkhead) -> snapshots.put(provider, bulkhead.snapshot()));
+        return snapshots;
+    }
+
+    private ProviderBulkhead.Settings settingsFor(String provider) {
+        int minLimit = property(provider, "min-limit", Integer.class, 1);
+        int maxLimit = Math.max(minLimit, property(provider, "max-limit", Integer.class, 32));
+        int initialLimit = Math.min(maxLimit, Math.max(minLimit, property(provider, "initial-limit", Integer.class, 4)));
+
+        return new ProviderBulkhead.Settings(
+                initialLimit,
+                minLimit,
+                maxLimit,
+                property(provider, "queue-capacity", Integer.class, 50),
+                property(provider, "max-wait", Duration.class, Duration.ofSeconds(30)),
+                property(provider, "latency-tolerance", Double.class, 2.0),
+                property(provider, "backoff-ratio", Double.class, 0.9),
+                property(provider, "circuit.failure-rate-threshold", Double.class, 0.5),
+                Math.max(1, property(provider, "circuit.sliding-window", Integer.class, 20)),
+                property(provider, "circuit.minimum-calls", Integer.class, 10),
+                property(provider, "circuit.open-duration", Duration.class, Duration.ofSeconds(30)),
+                Math.max(1, property(provider, "circuit.half-open-calls", Integer.class, 2))
+        );
+    }
+
+    private <T> T property(String provider, String name, Class<T> type, T defaultValue) {
+        T shared = environment.getProperty(PREFIX + name, type, defaultValue);
+        return environment.getProperty(PREFIX + provider + "." + name, type, shared);
+    }
+}
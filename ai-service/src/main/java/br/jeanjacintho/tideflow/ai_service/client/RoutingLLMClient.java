@@ -0,0 +1,288 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+
+@Component
+@ConditionalOnProperty(name = "llm.routing.enabled", havingValue = "true")
+public class RoutingLLMClient extends DelegatingLLMClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoutingLLMClient.class);
+    private static final double ERROR_PENALTY = 10.0;
+    private static final double ERROR_DECAY = 0.2;
+    private static final int PENDING = 0;
+    private static final int FAILED_OVER = 1;
+    private static final int HEDGED = 2;
+
+    private final Map<String, LLMClient> providers;
+    private final Policy chatPolicy;
+    private final Policy analysisPolicy;
+    private final int latencyWindow;
+    private final MeterRegistry meterRegistry;
+    private final DoubleSupplier random;
+    private final Map<String, ProviderStats> stats = new ConcurrentHashMap<>();
+
+    public RoutingLLMClient(LLMProviders llmProviders,
+                            MeterRegistry meterRegistry,
+                            @Value("${llm.routing.providers:}") List<String> providers,
+                            @Value("${llm.routing.chat.providers:}") List<String> chatProviders,
+                            @Value("${llm.routing.chat.hedge-delay:0ms}") Duration chatHedgeDelay,
+                            @Value("${llm.routing.chat.max-attempts:2}") int chatMaxAttempts,
+                            @Value("${llm.routing.analysis.providers:}") List<String> analysisProviders,
+                            @Value("${llm.routing.analysis.hedge-delay:0ms}") Duration analysisHedgeDelay,
+                            @Value("${llm.routing.analysis.max-attempts:3}") int analysisMaxAttempts,
+                            @Value("${llm.routing.latency-window:100}") int latencyWindow) {
+        this(llmProviders.available(),
+                new Policy("chat", orDefault(chatProviders, providers), chatHedgeDelay, chatMaxAttempts),
+                new Policy("analysis", orDefault(analysisProviders, providers), analysisHedgeDelay, analysisMaxAttempts),
+                latencyWindow,
+                meterRegistry,
+                () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    RoutingLLMClient(Map<String, LLMClient> providers, Policy chatPolicy, Policy analysisPolicy,
+                     int latencyWindow, MeterRegistry meterRegistry, DoubleSupplier random) {
+        this.providers = providers;
+        this.chatPolicy = chatPolicy.restrictTo(providers.keySet());
+        this.analysisPolicy = analysisPolicy.restrictTo(providers.keySet());
+        this.latencyWindow = Math.max(1, latencyWindow);
+        this.meterRegistry = meterRegistry;
+        this.random = random;
+
+        if (this.chatPolicy.providers().isEmpty() || this.analysisPolicy.providers().isEmpty()) {
+            throw new IllegalStateException("Roteamento de LLM sem provedores disponíveis: " + providers.keySet());
+        }
+        logger.info("Roteamento de LLM ativo: chat={}, análise={}", this.chatPolicy, this.analysisPolicy);
+    }
+
+    @Override
+    protected Mono<String> around(LLMOperation operation, List<?> arguments, Function<LLMClient, Mono<String>> call) {
+        Policy policy = policyFor(operation);
+        return Mono.defer(() -> attempt(rank(policy), 0, policy, call));
+    }
+
+    @Override
+    protected Flux<String> aroundStream(LLMOperation operation, List<?> arguments, Function<LLMClient, Flux<String>> call) {
+        Policy policy = policyFor(operation);
+        return Flux.defer(() -> attemptStream(rank(policy), 0, policy, call));
+    }
+
+    private Mono<String> attempt(List<String> ranked, int index, Policy policy, Function<LLMClient, Mono<String>> call) {
+        String provider = ranked.get(index);
+        boolean hasNext = index + 1 < ranked.size();
+        AtomicInteger state = new AtomicInteger(PENDING);
+
+        Mono<String> primary = invoke(provider, policy, call, () -> state.get() == HEDGED)
+                .onErrorResume(error -> {
+                    if (!hasNext) {
+                        return Mono.error(error);
+                    }
+                    if (!state.compareAndSet(PENDING, FAILED_OVER)) {
+                        return Mono.empty();
+                    }
+                    logger.warn("Provedor {} falhou ({}), tentando {}", provider, error.getMessage(), ranked.get(index + 1));
+                    meterRegistry.counter("llm.routing.failovers", "policy", policy.name(), "provider", provider).increment();
+                    return attempt(ranked, index + 1, policy, call);
+                });
+
+        if (!hasNext || policy.hedgeDelay().isZero()) {
+            return primary;
+        }
+
+        Mono<String> hedge = Mono.delay(policy.hedgeDelay())
+                .filter(tick -> state.compareAndSet(PENDING, HEDGED))
+                .flatMap(tick -> {
+                    logger.debug("Provedor {} sem resposta após {}, disparando requisição em paralelo para {}",
+                            provider, policy.hedgeDelay(), ranked.get(index + 1));
+                    meterRegistry.counter("llm.routing.hedges", "policy", policy.name(), "provider", provider).increment();
+                    return attempt(ranked, index + 1, policy, call);
+                });
+
+        return Mono.firstWithValue(primary, hedge);
+    }
+
+    private Flux<String> attemptStream(List<String> ranked, int index, Policy policy, Function<LLMClient, Flux<String>> call) {
+        String provider = ranked.get(index);
+        ProviderStats providerStats = statsFor(provider, policy);
+        AtomicBoolean emitted = new AtomicBoolean();
+        long start = System.nanoTime();
+
+        return Flux.defer(() -> call.apply(providers.get(provider)))
+                .doOnNext(token -> {
+                    if (emitted.compareAndSet(false, true)) {
+                        record(provider, policy, providerStats, System.nanoTime() - start, true);
+                    }
+                })
+                .onErrorResume(error -> {
+                    if (emitted.get()) {
+                        return Flux.error(error);
+                    }
+                    record(provider, policy, providerStats, System.nanoTime() - start, false);
+                    if (index + 1 >= ranked.size()) {
+                        return Flux.error(error);
+                    }
+                    logger.warn("Stream do provedor {} falhou antes do primeiro token ({}), tentando {}",
+                            provider, error.getMessage(), ranked.get(index + 1));
+                    meterRegistry.counter("llm.routing.failovers", "policy", policy.name(), "provider", provider).increment();
+                    return attemptStream(ranked, index + 1, policy, call);
+                });
+    }
+
+    private Mono<String> invoke(String provider, Policy policy, Function<LLMClient, Mono<String>> call, BooleanSupplier hedged) {
+        ProviderStats providerStats = statsFor(provider, policy);
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.apply(providers.get(provider))
+                    .doOnSuccess(response -> record(provider, policy, providerStats, System.nanoTime() - start, true))
+                    .doOnError(error -> record(provider, policy, providerStats, System.nanoTime() - start, false))
+                    .doOnCancel(() -> {
+                        if (hedged.getAsBoolean()) {
+                            recordCensored(provider, policy, providerStats,
+                                    Math.max(System.nanoTime() - start, policy.hedgeDelay().toNanos()));
+                        }
+                    });
+        });
+    }
+
+    List<String> rank(Policy policy) {
+        List<String> candidates = policy.providers();
+        double[] weights = new double[candidates.size()];
+        double optimisticLatency = candidates.stream()
+                .mapToDouble(provider -> statsFor(provider, policy).p95Nanos())
+                .filter(latency -> latency > 0)
+                .min()
+                .orElse(1.0);
+
+        double total = 0.0;
+        for (int i = 0; i < candidates.size(); i++) {
+            ProviderStats providerStats = statsFor(candidates.get(i), policy);
+            double latency = providerStats.p95Nanos() > 0 ? providerStats.p95Nanos() : optimisticLatency;
+            weights[i] = 1.0 / (latency * (1.0 + ERROR_PENALTY * providerStats.errorRate()));
+            total += weights[i];
+        }
+
+        int first = candidates.size() - 1;
+        double target = random.getAsDouble() * total;
+        for (int i = 0; i < candidates.size(); i++) {
+            target -= weights[i];
+            if (target < 0) {
+                first = i;
+                break;
+            }
+        }
+
+        List<Integer> rest = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            if (i != first) {
+                rest.add(i);
+            }
+        }
+        rest.sort(Comparator.comparingDouble((Integer i) -> weights[i]).reversed());
+
+        List<String> ranked = new ArrayList<>();
+        ranked.add(candidates.get(first));
+        rest.forEach(i -> ranked.add(candidates.get(i)));
+        return ranked.subList(0, Math.min(ranked.size(), policy.maxAttempts()));
+    }
+
+    private void record(String provider, Policy policy, ProviderStats providerStats, long latencyNanos, boolean success) {
+        providerStats.record(latencyNanos, success);
+        Timer.builder("llm.provider.latency")
+                .tag("provider", provider)
+                .tag("policy", policy.name())
+                .tag("outcome", success ? "success" : "error")
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry)
+                .record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordCensored(String provider, Policy policy, ProviderStats providerStats, long latencyNanos) {
+        providerStats.recordLatency(latencyNanos);
+        Timer.builder("llm.provider.latency")
+                .tag("provider", provider)
+                .tag("policy", policy.name())
+                .tag("outcome", "hedged")
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry)
+                .record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Policy policyFor(LLMOperation operation) {
+        return operation.isConversational() ? chatPolicy : analysisPolicy;
+    }
+
+    private ProviderStats statsFor(String provider, Policy policy) {
+        return stats.computeIfAbsent(policy.name() + ":" + provider, key -> new ProviderStats(latencyWindow));
+    }
+
+    private static List<String> orDefault(List<String> configured, List<String> fallback) {
+        List<String> providers = configured.stream().map(String::trim).filter(name -> !name.isEmpty()).toList();
+        return providers.isEmpty()
+                ? fallback.stream().map(String::trim).filter(name -> !name.isEmpty()).toList()
+                : providers;
+    }
+
+    record Policy(String name, List<String> providers, Duration hedgeDelay, int maxAttempts) {
+
+        Policy restrictTo(Set<String> available) {
+            List<String> usable = providers.stream().filter(available::contains).distinct().toList();
+            return new Policy(name, usable, hedgeDelay, Math.max(1, maxAttempts));
+        }
+    }
+
+    static final class ProviderStats {
+
+        private final long[] latencies;
+        private int next;
+        private int size;
+        private double errorRate;
+
+        ProviderStats(int window) {
+            this.latencies = new long[window];
+        }
+
+        synchronized void record(long latencyNanos, boolean success) {
+            errorRate = errorRate * (1.0 - ERROR_DECAY) + (success ? 0.0 : ERROR_DECAY);
+            if (success) {
+                recordLatency(latencyNanos);
+            }
+        }
+
+        synchronized void recordLatency(long latencyNanos) {
+            latencies[next] = latencyNanos;
+            next = (next + 1) % latencies.length;
+            size = Math.min(size + 1, latencies.length);
+        }
+
+        synchronized double p95Nanos() {
+            if (size == 0) {
+                return 0.0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(size * 0.95) - 1];
+        }
+
+        synchronized double errorRate() {
+            return errorRate;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import br.jeanjacintho.tideflow.ai_service.exception.LLMQuotaExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class TenantQuota {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantQuota.class);
+    private static final String PREFIX = "llm.tenant.";
+    private static final String KEY_PREFIX = "llm:quota:";
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final RedisScript<Long> TAKE_SCRIPT = RedisScript.of("""
+            local capacity = tonumber(ARGV[1])
+            local rate = tonumber(ARGV[2])
+            local cost = tonumber(ARGV[3])
+            local max_wait = tonumber(ARGV[4])
+            local time = redis.call('TIME')
+            local now = time[1] * 1000 + math.floor(time[2] / 1000)
+            local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(bucket[1]) or capacity
+            local ts = tonumber(bucket[2]) or now
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)
+            local wait = 0
+            if tokens < cost then
+                wait = math.ceil((cost - tokens) / rate)
+                if wait > max_wait then
+                    return -1
+                end
+            end
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens - cost), 'ts', now)
+            redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate) + 1000)
+            return wait
+            """, Long.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final String defaultPlan;
+    private final Duration maxWait;
+    private final Map<String, String> knownPlans = new ConcurrentHashMap<>();
+    private final Map<String, Settings> settings = new ConcurrentHashMap<>();
+
+    public TenantQuota(ReactiveStringRedisTemplate redisTemplate,
+                       Environment environment,
+                       MeterRegistry meterRegistry,
+                       @Value("${llm.tenant.quota.enabled:true}") boolean enabled,
+                       @Value("${llm.tenant.default-plan:FREE}") String defaultPlan,
+                       @Value("${llm.tenant.quota.max-wait:5s}") Duration maxWait) {
+        this.redisTemplate = redisTemplate;
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.defaultPlan = defaultPlan;
+        this.maxWait = maxWait;
+    }
+
+    public double weight(LLMTenant tenant) {
+        return settingsFor(planOf(tenant)).weight();
+    }
+
+    public Mono<Void> acquire(LLMTenant tenant, LLMPriority priority, long cost) {
+        String plan = planOf(tenant);
+        meterRegistry.counter("llm.tenant.requests", "tenant", tenant.id(), "plan", plan).increment();
+        meterRegistry.counter("llm.tenant.tokens", "tenant", tenant.id(), "plan", plan).increment(cost);
+
+        Settings limits = settingsFor(plan);
+        if (!enabled || priority == LLMPriority.SAFETY || tenant.equals(LLMTenant.SHARED) || limits.tokensPerMinute() <= 0) {
+            return Mono.empty();
+        }
+
+        long tokens = Math.max(1, Math.min(cost, limits.burst()));
+        double ratePerMilli = limits.tokensPerMinute() / 60_000.0;
+
+        return redisTemplate.execute(TAKE_SCRIPT, List.of(KEY_PREFIX + tenant.id()), List.of(
+                        String.valueOf(limits.burst()),
+                        String.valueOf(ratePerMilli),
+                        String.valueOf(tokens),
+                        String.valueOf(maxWait.toMillis())))
+                .next()
+                .onErrorResume(error -> {
+                    logger.warn("Redis indisponível para cota de LLM do tenant {}, seguindo sem limite: {}",
+                        tenant.id(), error.getMessage());
+                    return Mono.just(0L);
+                })
+                .flatMap(wait -> {
+                    if (wait < 0) {
+                        meterRegistry.counter("llm.tenant.throttled", "tenant", tenant.id(), "plan", plan).increment();
+                        return Mono.error(new LLMQuotaExceededException(tenant.id(),
+                                "Cota de uso do LLM excedida para a empresa " + tenant.id()));
+                    }
+                    if (wait == 0) {
+                        return Mono.empty();
+                    }
+                    meterRegistry.timer("llm.tenant.wait", "tenant", tenant.id(), "stage", "quota")
+                            .record(Duration.ofMillis(wait));
+                    return Mono.delay(Duration.ofMillis(wait)).then();
+                });
+    }
+
+    static long estimateTokens(List<?> arguments) {
+        long chars = 0;
+        for (Object argument : arguments) {
+            chars += length(argument);
+        }
+        return Math.max(1, chars / CHARS_PER_TOKEN);
+    }
+
+    private static long length(Object argument) {
+        if (argument instanceof CharSequence text) {
+            return text.length();
+        }
+        if (argument instanceof Map<?, ?> map) {
+            return length(map.values());
+        }
+        if (argument instanceof Collection<?> values) {
+            long chars = 0;
+            for (Object value : values) {
+                chars += length(value);
+            }
+            return chars;
+        }
+        return 0;
+    }
+
+    private String planOf(LLMTenant tenant) {
+        if (tenant.plan() != null && !tenant.plan().isBlank()) {
+            String plan = tenant.plan().toUpperCase(Locale.ROOT);
+            knownPlans.put(tenant.id(), plan);
+            return plan;
+        }
+        return knownPlans.getOrDefault(tenant.id(), defaultPlan.toUpperCase(Locale.ROOT));
+    }
+
+    private Settings settingsFor(String plan) {
+        return settings.computeIfAbsent(plan, name -> {
+            String key = name.toLowerCase(Locale.ROOT);
+            long tokensPerMinute = property(key, "tokens-per-minute", Long.class, 0L);
+            return new Settings(
+                    Math.max(0.01, property(key, "weight", Double.class, 1.0)),
+                    tokensPerMinute,
+                    Math.max(1, property(key, "burst", Long.class, Math.max(1, tokensPerMinute / 4))));
+        });
+    }
+
+    private <T> T property(String plan, String name, Class<T> type, T defaultValue) {
+        T shared = environment.getProperty(PREFIX + name, type, defaultValue);
+        return environment.getProperty(PREFIX + plan + "." + name, type, shared);
+    }
+
+    record Settings(double weight, long tokensPerMinute, long burst) {}
+}
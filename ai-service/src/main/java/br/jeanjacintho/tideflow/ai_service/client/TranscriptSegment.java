@@ -0,0 +1,3 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+public record TranscriptSegment(int index, long startMillis, String text) {}
@@ -0,0 +1,120 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Component
+public class TranscriptionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TranscriptionCache.class);
+    private static final String KEY_PREFIX = "whisper:transcript:";
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final Scheduler blockingScheduler;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final int bufferSize;
+    private final Map<String, Flux<TranscriptSegment>> inFlight = new ConcurrentHashMap<>();
+
+    public TranscriptionCache(ReactiveStringRedisTemplate redisTemplate,
+                              Scheduler blockingScheduler,
+                              @Value("${whisper.cache.enabled:true}") boolean enabled,
+                              @Value("${whisper.cache.ttl:24h}") Duration ttl,
+                              @Value("${whisper.upload.buffer-size:65536}") int bufferSize) {
+        this.redisTemplate = redisTemplate;
+        this.blockingScheduler = blockingScheduler;
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.bufferSize = bufferSize;
+    }
+
+    public Flux<TranscriptSegment> lookup(InputStreamSource audio, Supplier<Flux<TranscriptSegment>> transcription) {
+        if (!enabled) {
+            return Flux.defer(transcription);
+        }
+
+        return digest(audio)
+                .map(hash -> get(hash)
+                        .map(text -> Flux.just(new TranscriptSegment(0, 0, text)))
+                        .switchIfEmpty(Mono.fromSupplier(() -> coalesce(hash, transcription)))
+                        .flatMapMany(segments -> segments))
+                .defaultIfEmpty(Flux.defer(transcription))
+                .flatMapMany(segments -> segments);
+    }
+
+    Mono<String> digest(InputStreamSource audio) {
+        return Mono.fromCallable(() -> {
+                    MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+                    byte[] buffer = new byte[bufferSize];
+                    try (InputStream input = audio.getInputStream()) {
+                        for (int read = input.read(buffer); read != -1; read = input.read(buffer)) {
+                            sha256.update(buffer, 0, read);
+                        }
+                    }
+                    return HexFormat.of().formatHex(sha256.digest());
+                })
+                .subscribeOn(blockingScheduler)
+                .onErrorResume(error -> {
+                    logger.warn("Não foi possível calcular o hash do áudio, transcrevendo sem cache: {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<String> get(String hash) {
+        return redisTemplate.opsForValue().get(KEY_PREFIX + hash)
+                .doOnNext(text -> logger.debug("Transcrição {} servida do cache", hash))
+                .onErrorResume(error -> {
+                    logger.warn("Redis indisponível para cache de transcrição {}: {}", hash, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Flux<TranscriptSegment> coalesce(String hash, Supplier<Flux<TranscriptSegment>> transcription) {
+        return inFlight.computeIfAbsent(hash, key -> {
+            List<TranscriptSegment> segments = new CopyOnWriteArrayList<>();
+            return Flux.defer(transcription)
+                    .doOnNext(segments::add)
+                    .concatWith(Mono.defer(() -> store(key, segments)).then(Mono.empty()))
+                    .doFinally(signal -> inFlight.remove(key))
+                    .cache();
+        });
+    }
+
+    private Mono<Boolean> store(String hash, List<TranscriptSegment> segments) {
+        if (segments.isEmpty()) {
+            return Mono.empty();
+        }
+
+        String transcript = segments.stream()
+                .map(TranscriptSegment::text)
+                .filter(text -> !text.isBlank())
+                .collect(Collectors.joining(" "));
+        if (transcript.isBlank()) {
+            return Mono.empty();
+        }
+
+        return redisTemplate.opsForValue().set(KEY_PREFIX + hash, transcript, ttl)
+                .onErrorResume(error -> {
+                    logger.warn("Falha ao gravar transcrição {} no cache: {}", hash, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
@@ -1,37 +1,135 @@
 package br.jeanjacintho.tideflow.ai_service.client;
 
+import br.jeanjacintho.tideflow.ai_service.audio.AudioChunk;
+import br.jeanjacintho.tideflow.ai_service.audio.SilenceChunker;
+import br.jeanjacintho.tideflow.ai_service.exception.TranscriptionFailedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.MultipartBodyBuilder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.IOException;
 import java.time.Duration;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Component
 public class WhisperClient {
 
+    private static final Logger logger = LoggerFactory.getLogger(WhisperClient.class);
+
     private final WebClient webClient;
+    private final SilenceChunker silenceChunker;
+    private final TranscriptionCache transcriptionCache;
     private final int timeout;
+    private final int uploadBufferSize;
+    private final boolean chunkingEnabled;
+    private final int chunkParallelism;
+    private final Scheduler blockingScheduler;
     private final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
 
     public WhisperClient(WebClient whisperWebClient,
-                        @Value("${timeout:60000}") int timeout) {
+                        SilenceChunker silenceChunker,
+                        TranscriptionCache transcriptionCache,
+                        Scheduler blockingScheduler,
+                        @Value("${timeout:60000}") int timeout,
+                        @Value("${whisper.upload.buffer-size:65536}") int uploadBufferSize,
+                        @Value("${whisper.chunking.enabled:true}") boolean chunkingEnabled,
+                        @Value("${whisper.chunking.parallelism:2}") int chunkParallelism) {
         this.webClient = whisperWebClient;
+        this.silenceChunker = silenceChunker;
+        this.transcriptionCache = transcriptionCache;
+        this.blockingScheduler = blockingScheduler;
         this.timeout = timeout;
+        this.uploadBufferSize = uploadBufferSize;
+        this.chunkingEnabled = chunkingEnabled;
+        this.chunkParallelism = Math.max(1, chunkParallelism);
+    }
+
+    public Mono<String> transcribe(InputStreamSource audio, String filename) {
+        return transcribeSegments(audio, filename)
+                .map(TranscriptSegment::text)
+                .filter(text -> !text.isBlank())
+                .collect(Collectors.joining(" "));
+    }
+
+    public Flux<TranscriptSegment> transcribeSegments(InputStreamSource audio, String filename) {
+        return transcriptionCache.lookup(audio, () -> transcribeUncached(audio, filename));
+    }
+
+    private Flux<TranscriptSegment> transcribeUncached(InputStreamSource audio, String filename) {
+        if (!chunkingEnabled) {
+            return transcribeWhole(audio, filename);
+        }
+
+        return Flux.<AudioChunk, SilenceChunker.Reader>generate(
+                        () -> silenceChunker.open(audio.getInputStream()),
+                        (reader, sink) -> {
+                            try {
+                                AudioChunk chunk = reader.next();
+                                if (chunk == null) {
+                                    sink.complete();
+                                } else {
+                                    sink.next(chunk);
+                                }
+                            } catch (IOException e) {
+                                sink.error(e);
+                            }
+                            return reader;
+                        },
+                        SilenceChunker.Reader::close)
+                .subscribeOn(blockingScheduler)
+                .flatMapSequential(chunk -> transcribeChunk(chunk, filename), chunkParallelism, 1)
+                .onErrorResume(UnsupportedAudioFileException.class, e -> {
+                    logger.debug("Áudio {} não será dividido: {}", filename, e.getMessage());
+                    return transcribeWhole(audio, filename);
+                });
     }
 
-    public Mono<String> transcribeAudio(byte[] audioData, String filename) {
-        DataBuffer dataBuffer = bufferFactory.wrap(audioData);
+    private Flux<TranscriptSegment> transcribeWhole(InputStreamSource audio, String filename) {
+        return requestTranscription(readAudio(audio), filename, Duration.ofMillis(timeout * 3L))
+                .map(text -> new TranscriptSegment(0, 0, text))
+                .onErrorMap(e -> {
+                    logger.warn("Falha ao transcrever {}: {}", filename, e.getMessage());
+                    return new TranscriptionFailedException("Erro ao transcrever o áudio.", e);
+                })
+                .flux();
+    }
+
+    private Mono<TranscriptSegment> transcribeChunk(AudioChunk chunk, String filename) {
+        Duration chunkTimeout = Duration.ofMillis(timeout + chunk.durationMillis());
+        String chunkFilename = "chunk-" + chunk.index() + "-" + filename;
+
+        return requestTranscription(Flux.just(bufferFactory.wrap(chunk.wav())), chunkFilename, chunkTimeout)
+                .map(text -> new TranscriptSegment(chunk.index(), chunk.startMillis(), text))
+                .onErrorMap(e -> {
+                    logger.warn("Falha ao transcrever trecho {} de {}: {}", chunk.index(), filename, e.getMessage());
+                    return new TranscriptionFailedException("Erro ao transcrever o trecho " + chunk.index() + " do áudio.", e);
+                });
+    }
+
+    private Flux<DataBuffer> readAudio(InputStreamSource audio) {
+        return DataBufferUtils
+                .readInputStream(audio::getInputStream, bufferFactory, uploadBufferSize)
+                .subscribeOn(blockingScheduler);
+    }
 
+    private Mono<String> requestTranscription(Flux<DataBuffer> audio, String filename, Duration requestTimeout) {
         MultipartBodyBuilder bodyBuilder = new MultipartBodyBuilder();
-        bodyBuilder.part("audio", dataBuffer)
+        bodyBuilder.asyncPart("audio", audio, DataBuffer.class)
                 .filename(filename)
                 .contentType(MediaType.APPLICATION_OCTET_STREAM);
 
@@ -41,11 +139,10 @@ public class WhisperClient {
                 .body(BodyInserters.fromMultipartData(bodyBuilder.build()))
                 .retrieve()
                 .bodyToMono(Map.class)
-                .timeout(Duration.ofMillis(timeout * 3))
+                .timeout(requestTimeout)
                 .map(response -> {
                     Object textObj = response.get("text");
                     return textObj != null ? textObj.toString().trim() : "";
-                })
-                .onErrorReturn("Erro ao transcrever o áudio.");
+                });
     }
 }
@@ -0,0 +1,16 @@
+package br.jeanjacintho.tideflow.ai_service.config;
+
+import org.springframework.context.annotation.Conditional;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Conditional(OnLLMProviderCondition.class)
+public @interface ConditionalOnLLMProvider {
+
+    String value();
+}
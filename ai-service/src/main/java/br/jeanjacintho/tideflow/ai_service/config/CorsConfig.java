@@ -18,6 +18,7 @@ public class CorsConfig {
         config.addAllowedOriginPattern("*");
         config.addAllowedHeader("*");
         config.addAllowedMethod("*");
+        config.addExposedHeader("X-Next-Cursor");
 
         source.registerCorsConfiguration("/**", config);
         return new CorsFilter(source);
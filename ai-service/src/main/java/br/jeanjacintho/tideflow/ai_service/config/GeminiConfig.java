@@ -1,13 +1,12 @@
 package br.jeanjacintho.tideflow.ai_service.config;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.WebClient;
 
 @Configuration
-@ConditionalOnProperty(name = "llm.provider", havingValue = "gemini")
+@ConditionalOnLLMProvider("gemini")
 public class GeminiConfig {
 
     @Value("${gemini.base.url:https://generativelanguage.googleapis.com}")
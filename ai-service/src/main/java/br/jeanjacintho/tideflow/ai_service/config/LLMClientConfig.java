@@ -0,0 +1,33 @@
+package br.jeanjacintho.tideflow.ai_service.config;
+
+import br.jeanjacintho.tideflow.ai_service.client.CachingLLMClient;
+import br.jeanjacintho.tideflow.ai_service.client.FallbackLLMClient;
+import br.jeanjacintho.tideflow.ai_service.client.LLMClient;
+import br.jeanjacintho.tideflow.ai_service.client.LLMProviders;
+import br.jeanjacintho.tideflow.ai_service.client.LLMRequestScheduler;
+import br.jeanjacintho.tideflow.ai_service.client.LLMResponseCache;
+import br.jeanjacintho.tideflow.ai_service.client.PriorityLLMClient;
+import br.jeanjacintho.tideflow.ai_service.client.RoutingLLMClient;
+import br.jeanjacintho.tideflow.ai_service.client.TenantQuota;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+public class LLMClientConfig {
+
+    @Bean
+    @Primary
+    public LLMClient llmClient(LLMProviders llmProviders,
+                               ObjectProvider<RoutingLLMClient> routingClient,
+                               LLMResponseCache responseCache,
+                               LLMRequestScheduler requestScheduler,
+                               TenantQuota tenantQuota,
+                               @Value("${llm.provider:ollama}") String provider) {
+        LLMClient client = routingClient.getIfAvailable(() -> llmProviders.get(provider));
+        LLMClient scheduled = new PriorityLLMClient(client, requestScheduler, tenantQuota);
+        return new FallbackLLMClient(new CachingLLMClient(scheduled, responseCache));
+    }
+}
@@ -1,22 +1,38 @@
 package br.jeanjacintho.tideflow.ai_service.config;
 
+import br.jeanjacintho.tideflow.ai_service.client.OllamaEndpointPool;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.time.Duration;
+
 @Configuration
-@ConditionalOnProperty(name = "llm.provider", havingValue = "ollama", matchIfMissing = true)
+@ConditionalOnLLMProvider("ollama")
 public class OllamaConfig {
 
     @Value("${ollama.base.url}")
     private String ollamaBaseUrl;
 
+    @Value("${ollama.health.timeout:2s}")
+    private Duration healthTimeout;
+
+    @Value("${ollama.health.unhealthy-threshold:2}")
+    private int unhealthyThreshold;
+
+    @Value("${ollama.warmup.timeout:120s}")
+    private Duration preloadTimeout;
+
     @Bean
-    public WebClient ollamaWebClient() {
-        return WebClient.builder()
-                .baseUrl(ollamaBaseUrl)
-                .build();
+    public OllamaEndpointPool ollamaEndpointPool(MeterRegistry meterRegistry) {
+        return new OllamaEndpointPool(
+                OllamaEndpointPool.parse(ollamaBaseUrl),
+                WebClient.builder(),
+                healthTimeout,
+                unhealthyThreshold,
+                preloadTimeout,
+                meterRegistry);
     }
 }
@@ -0,0 +1,32 @@
+package br.jeanjacintho.tideflow.ai_service.config;
+
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.util.Arrays;
+import java.util.Map;
+
+class OnLLMProviderCondition implements Condition {
+
+    @Override
+    public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        Map<String, Object> attributes = metadata.getAnnotationAttributes(ConditionalOnLLMProvider.class.getName());
+        if (attributes == null) {
+            return false;
+        }
+
+        String provider = (String) attributes.get("value");
+        Environment environment = context.getEnvironment();
+
+        if (provider.equals(environment.getProperty("llm.provider", "ollama"))) {
+            return true;
+        }
+
+        return environment.getProperty("llm.routing.enabled", Boolean.class, false)
+                && Arrays.stream(environment.getProperty("llm.routing.providers", "").split(","))
+                        .map(String::trim)
+                        .anyMatch(provider::equals);
+    }
+}
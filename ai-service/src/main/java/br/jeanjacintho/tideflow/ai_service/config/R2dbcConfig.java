@@ -0,0 +1,60 @@
+package br.jeanjacintho.tideflow.ai_service.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+@Configuration
+@Profile("r2dbc")
+public class R2dbcConfig {
+
+    @Value("${conversation.store.r2dbc.url}")
+    private String url;
+
+    @Value("${conversation.store.r2dbc.username}")
+    private String username;
+
+    @Value("${conversation.store.r2dbc.password}")
+    private String password;
+
+    @Value("${conversation.store.r2dbc.pool.initial-size:4}")
+    private int initialSize;
+
+    @Value("${conversation.store.r2dbc.pool.max-size:16}")
+    private int maxSize;
+
+    private ConnectionPool connectionPool;
+
+    // O pool não é exposto como bean: um ConnectionFactory no contexto desativaria o DataSource do JPA.
+    @Bean
+    public DatabaseClient conversationDatabaseClient() {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxIdleTime(Duration.ofMinutes(30))
+                .build());
+
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void closeConnectionPool() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package br.jeanjacintho.tideflow.ai_service.config;
 
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.context.annotation.Bean;
@@ -10,12 +11,27 @@ import org.springframework.context.annotation.Configuration;
 public class RabbitMQConfig {
 
     public static final String RISK_ALERT_QUEUE = "risk.alert";
+    public static final String CONVERSATION_ANALYSIS_QUEUE = "conversation.analysis";
+    public static final String CONVERSATION_ANALYSIS_DLQ = "conversation.analysis.dlq";
 
     @Bean
     public Queue riskAlertQueue() {
         return new Queue(RISK_ALERT_QUEUE, true);
     }
 
+    @Bean
+    public Queue conversationAnalysisQueue() {
+        return QueueBuilder.durable(CONVERSATION_ANALYSIS_QUEUE)
+                .deadLetterExchange("")
+                .deadLetterRoutingKey(CONVERSATION_ANALYSIS_DLQ)
+                .build();
+    }
+
+    @Bean
+    public Queue conversationAnalysisDeadLetterQueue() {
+        return QueueBuilder.durable(CONVERSATION_ANALYSIS_DLQ).build();
+    }
+
     @Bean
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
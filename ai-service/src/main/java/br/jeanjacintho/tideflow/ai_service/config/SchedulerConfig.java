@@ -0,0 +1,17 @@
+package br.jeanjacintho.tideflow.ai_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+public class SchedulerConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingScheduler(@Value("${blocking.scheduler.thread-cap:64}") int threadCap,
+                                       @Value("${blocking.scheduler.queued-task-cap:10000}") int queuedTaskCap) {
+        return Schedulers.newBoundedElastic(threadCap, queuedTaskCap, "blocking-io");
+    }
+}
@@ -57,11 +57,13 @@ public class SecurityFilter extends OncePerRequestFilter {
                 UUID departmentId = tokenValidationService.getDepartmentIdFromToken(token);
                 String companyRole = tokenValidationService.getCompanyRoleFromToken(token);
                 String systemRole = tokenValidationService.getSystemRoleFromToken(token);
+                String subscriptionPlan = tokenValidationService.getSubscriptionPlanFromToken(token);
 
                 request.setAttribute("companyId", companyId);
                 request.setAttribute("departmentId", departmentId);
                 request.setAttribute("companyRole", companyRole);
                 request.setAttribute("systemRole", systemRole);
+                request.setAttribute("subscriptionPlan", subscriptionPlan);
 
             } catch (Exception e) {
 
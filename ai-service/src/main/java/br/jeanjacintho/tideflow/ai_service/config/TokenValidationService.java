@@ -86,6 +86,20 @@ public class TokenValidationService {
         }
     }
 
+    public String getSubscriptionPlanFromToken(String token) {
+        try {
+            Algorithm algorithm = Algorithm.HMAC256(jwtSecret);
+            DecodedJWT decodedJWT = JWT.require(algorithm)
+                    .withIssuer("tideflow-user-service")
+                    .build()
+                    .verify(token);
+
+            return decodedJWT.getClaim("subscription_plan").asString();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     public boolean canAccessCorporateReports(String token) {
         try {
             String systemRole = getSystemRoleFromToken(token);
@@ -1,24 +1,38 @@
 package br.jeanjacintho.tideflow.ai_service.controller;
 
+import br.jeanjacintho.tideflow.ai_service.client.LLMTenant;
+import br.jeanjacintho.tideflow.ai_service.client.TranscriptSegment;
 import br.jeanjacintho.tideflow.ai_service.client.WhisperClient;
 import br.jeanjacintho.tideflow.ai_service.dto.request.ConversationRequest;
 import br.jeanjacintho.tideflow.ai_service.dto.response.ConversationHistoryResponse;
 import br.jeanjacintho.tideflow.ai_service.dto.response.ConversationResponse;
+import br.jeanjacintho.tideflow.ai_service.dto.response.ConversationStreamEvent;
 import br.jeanjacintho.tideflow.ai_service.dto.response.ConversationSummaryResponse;
 import br.jeanjacintho.tideflow.ai_service.dto.response.TranscriptionResponse;
+import br.jeanjacintho.tideflow.ai_service.dto.response.TranscriptionStreamEvent;
+import br.jeanjacintho.tideflow.ai_service.exception.TranscriptionFailedException;
+import br.jeanjacintho.tideflow.ai_service.model.EmotionalAnalysis;
+import br.jeanjacintho.tideflow.ai_service.service.ConversationLaneExecutor;
 import br.jeanjacintho.tideflow.ai_service.service.ConversationService;
 import br.jeanjacintho.tideflow.ai_service.service.MemoriaService;
 import jakarta.validation.Valid;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.context.Context;
 
-import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/conversations")
@@ -28,40 +42,101 @@ public class ConversationController {
     private final ConversationService conversationService;
     private final WhisperClient whisperClient;
     private final MemoriaService memoriaService;
+    private final ConversationLaneExecutor laneExecutor;
+    private final Scheduler blockingScheduler;
 
     public ConversationController(ConversationService conversationService,
                                   WhisperClient whisperClient,
-                                  MemoriaService memoriaService) {
+                                  MemoriaService memoriaService,
+                                  ConversationLaneExecutor laneExecutor,
+                                  Scheduler blockingScheduler) {
         this.conversationService = conversationService;
         this.whisperClient = whisperClient;
         this.memoriaService = memoriaService;
+        this.laneExecutor = laneExecutor;
+        this.blockingScheduler = blockingScheduler;
     }
 
     @PostMapping
     public Mono<ResponseEntity<ConversationResponse>> createConversation(
             @Valid @RequestBody ConversationRequest request) {
-        return conversationService.processConversation(request)
+        return laneExecutor.execute(request.getConversationId(),
+                        () -> conversationService.processConversation(request))
+                .contextWrite(tenantContext())
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.badRequest().build());
     }
 
+    @PostMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ConversationStreamEvent>> streamConversation(
+            @Valid @RequestBody ConversationRequest request) {
+        return laneExecutor.executeMany(request.getConversationId(),
+                        () -> conversationService.streamConversation(request))
+                .contextWrite(tenantContext())
+                .map(event -> ServerSentEvent.builder(event)
+                        .event(event.getType())
+                        .build());
+    }
+
+    @PostMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ConversationStreamEvent> streamConversationNdjson(
+            @Valid @RequestBody ConversationRequest request) {
+        return laneExecutor.executeMany(request.getConversationId(),
+                        () -> conversationService.streamConversation(request))
+                .contextWrite(tenantContext());
+    }
+
     @GetMapping("/{conversationId}")
     public Mono<ResponseEntity<ConversationHistoryResponse>> getConversationHistory(
             @PathVariable String conversationId,
-            @RequestHeader("X-User-Id") String userId) {
+            @RequestHeader("X-User-Id") String userId,
+            @RequestParam(value = "before", required = false) Integer before,
+            @RequestParam(value = "after", required = false) Integer after,
+            @RequestParam(value = "limit", required = false) Integer limit) {
 
-        return conversationService.getConversationHistory(conversationId, userId)
+        Mono<ConversationHistoryResponse> history = before == null && after == null && limit == null
+                ? conversationService.getConversationHistory(conversationId, userId)
+                : conversationService.getConversationHistoryPage(conversationId, userId, before, after,
+                        limit != null ? limit : 30);
+
+        return history
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
+    @GetMapping(value = "/{conversationId}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ConversationHistoryResponse.MessageResponse> exportConversation(
+            @PathVariable String conversationId,
+            @RequestHeader("X-User-Id") String userId) {
+
+        return conversationService.exportConversation(conversationId, userId);
+    }
+
+    @GetMapping("/{conversationId}/messages/{messageId}/analysis")
+    public Mono<ResponseEntity<EmotionalAnalysis>> getMessageAnalysis(
+            @PathVariable String conversationId,
+            @PathVariable String messageId,
+            @RequestHeader("X-User-Id") String userId) {
+
+        return conversationService.getMessageAnalysis(conversationId, messageId, userId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.accepted().build());
+    }
+
     @GetMapping("/user/{userId}")
     public Mono<ResponseEntity<List<ConversationSummaryResponse>>> getUserConversations(
-            @PathVariable String userId) {
-
-        return conversationService.getUserConversations(userId)
-                .collectList()
-                .map(ResponseEntity::ok);
+            @PathVariable String userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+
+        return conversationService.getUserConversations(userId, cursor, limit)
+                .map(page -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (page.getNextCursor() != null) {
+                        response.header("X-Next-Cursor", page.getNextCursor());
+                    }
+                    return response.body(page.getConversations());
+                });
     }
 
     @PostMapping(value = "/transcribe", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -70,31 +145,70 @@ public class ConversationController {
             @RequestParam(value = "conversationId", required = false) String conversationId,
             @RequestHeader("X-User-Id") String userId) {
 
-        try {
-            byte[] audioData = audioFile.getBytes();
-            String filename = audioFile.getOriginalFilename() != null
-                    ? audioFile.getOriginalFilename()
-                    : "audio.webm";
-
-            return whisperClient.transcribeAudio(audioData, filename)
-                    .flatMap(transcript -> {
-
-                        if (conversationId != null && !conversationId.isEmpty() && !transcript.isEmpty()) {
-                            ConversationRequest request = new ConversationRequest(userId, transcript, conversationId);
-                            return conversationService.processConversation(request)
-                                    .map(conversationResponse ->
-                                        ResponseEntity.ok(new TranscriptionResponse(transcript, conversationResponse))
-                                    )
-                                    .defaultIfEmpty(ResponseEntity.ok(new TranscriptionResponse(transcript, null)));
-                        }
-                        return Mono.just(ResponseEntity.ok(new TranscriptionResponse(transcript, null)));
-                    })
-                    .defaultIfEmpty(ResponseEntity.badRequest().build());
-
-        } catch (IOException e) {
-            return Mono.just(ResponseEntity.badRequest()
-                    .body(new TranscriptionResponse("Erro ao processar arquivo de áudio.", null)));
+        return whisperClient.transcribe(audioFile, audioFilename(audioFile))
+                .flatMap(transcript -> respondToTranscript(transcript, conversationId, userId))
+                .contextWrite(tenantContext())
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.badRequest().build());
+    }
+
+    @PostMapping(value = "/transcribe/stream",
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<TranscriptionStreamEvent>> streamTranscription(
+            @RequestParam("audio") MultipartFile audioFile,
+            @RequestParam(value = "conversationId", required = false) String conversationId,
+            @RequestHeader("X-User-Id") String userId) {
+
+        Flux<TranscriptSegment> segments = whisperClient
+                .transcribeSegments(audioFile, audioFilename(audioFile))
+                .cache();
+
+        Flux<TranscriptionStreamEvent> partials = segments
+                .filter(segment -> !segment.text().isBlank())
+                .map(segment -> TranscriptionStreamEvent.partial(segment.index(), segment.startMillis(), segment.text()));
+
+        Mono<TranscriptionStreamEvent> done = segments
+                .map(TranscriptSegment::text)
+                .filter(text -> !text.isBlank())
+                .collect(Collectors.joining(" "))
+                .flatMap(transcript -> respondToTranscript(transcript, conversationId, userId))
+                .map(TranscriptionStreamEvent::done);
+
+        return partials.concatWith(done)
+                .onErrorResume(TranscriptionFailedException.class,
+                        error -> Mono.just(TranscriptionStreamEvent.error(error.getMessage())))
+                .contextWrite(tenantContext())
+                .map(event -> ServerSentEvent.builder(event)
+                        .event(event.getType())
+                        .build());
+    }
+
+    private Mono<TranscriptionResponse> respondToTranscript(String transcript, String conversationId, String userId) {
+        if (conversationId != null && !conversationId.isEmpty() && !transcript.isEmpty()) {
+            ConversationRequest request = new ConversationRequest(userId, transcript, conversationId);
+            return laneExecutor.execute(conversationId,
+                            () -> conversationService.processConversation(request))
+                    .map(conversationResponse -> new TranscriptionResponse(transcript, conversationResponse))
+                    .defaultIfEmpty(new TranscriptionResponse(transcript, null));
         }
+        return Mono.just(new TranscriptionResponse(transcript, null));
+    }
+
+    private Context tenantContext() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return Context.empty();
+        }
+        Object companyId = attributes.getAttribute("companyId", RequestAttributes.SCOPE_REQUEST);
+        Object plan = attributes.getAttribute("subscriptionPlan", RequestAttributes.SCOPE_REQUEST);
+        return LLMTenant.of(companyId instanceof UUID id ? id : null, plan != null ? plan.toString() : null).asContext();
+    }
+
+    private String audioFilename(MultipartFile audioFile) {
+        return audioFile.getOriginalFilename() != null
+                ? audioFile.getOriginalFilename()
+                : "audio.webm";
     }
 
     @GetMapping("/proactive-question/{userId}")
@@ -109,6 +223,6 @@ public class ConversationController {
             } else {
                 return ResponseEntity.ok(Map.of("question", ""));
             }
-        });
+        }).subscribeOn(blockingScheduler);
     }
 }
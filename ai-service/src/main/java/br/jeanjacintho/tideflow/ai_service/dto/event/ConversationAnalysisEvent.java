@@ -0,0 +1,14 @@
+package br.jeanjacintho.tideflow.ai_service.dto.event;
+
+import java.util.UUID;
+
+public record ConversationAnalysisEvent(
+    UUID conversationId,
+    UUID messageId,
+    Integer sequenceNumber,
+    String userId,
+    String userMessage,
+    String aiResponse,
+    boolean riskEscalated
+) {
+}
@@ -14,6 +14,8 @@ public class ConversationHistoryResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private List<MessageResponse> messages;
+    private boolean hasMoreBefore;
+    private boolean hasMoreAfter;
 
     public ConversationHistoryResponse() {}
 
@@ -25,16 +27,19 @@ public class ConversationHistoryResponse {
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
         this.messages = messages.stream()
-                .map(msg -> new MessageResponse(
-                        msg.getId(),
-                        msg.getRole(),
-                        msg.getContent(),
-                        msg.getCreatedAt(),
-                        msg.getSequenceNumber()
-                ))
+                .map(MessageResponse::from)
                 .collect(Collectors.toList());
     }
 
+    public ConversationHistoryResponse(UUID conversationId, String userId,
+                                       LocalDateTime createdAt, LocalDateTime updatedAt,
+                                       List<ConversationMessage> messages,
+                                       boolean hasMoreBefore, boolean hasMoreAfter) {
+        this(conversationId, userId, createdAt, updatedAt, messages);
+        this.hasMoreBefore = hasMoreBefore;
+        this.hasMoreAfter = hasMoreAfter;
+    }
+
     public UUID getConversationId() {
         return conversationId;
     }
@@ -75,6 +80,22 @@ public class ConversationHistoryResponse {
         this.messages = messages;
     }
 
+    public boolean isHasMoreBefore() {
+        return hasMoreBefore;
+    }
+
+    public void setHasMoreBefore(boolean hasMoreBefore) {
+        this.hasMoreBefore = hasMoreBefore;
+    }
+
+    public boolean isHasMoreAfter() {
+        return hasMoreAfter;
+    }
+
+    public void setHasMoreAfter(boolean hasMoreAfter) {
+        this.hasMoreAfter = hasMoreAfter;
+    }
+
     public static class MessageResponse {
         private UUID id;
         private MessageRole role;
@@ -93,6 +114,16 @@ public class ConversationHistoryResponse {
             this.sequenceNumber = sequenceNumber;
         }
 
+        public static MessageResponse from(ConversationMessage message) {
+            return new MessageResponse(
+                    message.getId(),
+                    message.getRole(),
+                    message.getContent(),
+                    message.getCreatedAt(),
+                    message.getSequenceNumber()
+            );
+        }
+
         public UUID getId() {
             return id;
         }
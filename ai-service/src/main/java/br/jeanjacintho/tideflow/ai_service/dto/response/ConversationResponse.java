@@ -7,6 +7,7 @@ public class ConversationResponse {
     private String conversationId;
     private Boolean isComplete;
     private EmotionalAnalysis analisys;
+    private String messageId;
 
     public ConversationResponse(String aiResponse, String conversationId, Boolean isComplete, EmotionalAnalysis analisys) {
         this.aiResponse = aiResponse;
@@ -15,6 +16,11 @@ public class ConversationResponse {
         this.analisys = analisys;
     }
 
+    public ConversationResponse(String aiResponse, String conversationId, Boolean isComplete, EmotionalAnalysis analisys, String messageId) {
+        this(aiResponse, conversationId, isComplete, analisys);
+        this.messageId = messageId;
+    }
+
     public ConversationResponse() {}
 
     public String getAiResponse() {
@@ -48,4 +54,12 @@ public class ConversationResponse {
     public void setAnalisys(EmotionalAnalysis analisys) {
         this.analisys = analisys;
     }
+
+    public String getMessageId() {
+        return messageId;
+    }
+
+    public void setMessageId(String messageId) {
+        this.messageId = messageId;
+    }
 }
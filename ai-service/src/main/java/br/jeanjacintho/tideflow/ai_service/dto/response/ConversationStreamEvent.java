@@ -0,0 +1,60 @@
+package br.jeanjacintho.tideflow.ai_service.dto.response;
+
+public class ConversationStreamEvent {
+    public static final String TYPE_TOKEN = "token";
+    public static final String TYPE_DONE = "done";
+
+    private String type;
+    private String conversationId;
+    private String content;
+    private ConversationResponse response;
+
+    public ConversationStreamEvent() {}
+
+    public ConversationStreamEvent(String type, String conversationId, String content, ConversationResponse response) {
+        this.type = type;
+        this.conversationId = conversationId;
+        this.content = content;
+        this.response = response;
+    }
+
+    public static ConversationStreamEvent token(String conversationId, String content) {
+        return new ConversationStreamEvent(TYPE_TOKEN, conversationId, content, null);
+    }
+
+    public static ConversationStreamEvent done(ConversationResponse response) {
+        return new ConversationStreamEvent(TYPE_DONE, response.getConversationId(), null, response);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getConversationId() {
+        return conversationId;
+    }
+
+    public void setConversationId(String conversationId) {
+        this.conversationId = conversationId;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public ConversationResponse getResponse() {
+        return response;
+    }
+
+    public void setResponse(ConversationResponse response) {
+        this.response = response;
+    }
+}
@@ -0,0 +1,31 @@
+package br.jeanjacintho.tideflow.ai_service.dto.response;
+
+import java.util.List;
+
+public class ConversationSummaryPage {
+    private List<ConversationSummaryResponse> conversations;
+    private String nextCursor;
+
+    public ConversationSummaryPage() {}
+
+    public ConversationSummaryPage(List<ConversationSummaryResponse> conversations, String nextCursor) {
+        this.conversations = conversations;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ConversationSummaryResponse> getConversations() {
+        return conversations;
+    }
+
+    public void setConversations(List<ConversationSummaryResponse> conversations) {
+        this.conversations = conversations;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,75 @@
+package br.jeanjacintho.tideflow.ai_service.dto.response;
+
+public class TranscriptionStreamEvent {
+    public static final String TYPE_PARTIAL = "partial";
+    public static final String TYPE_DONE = "done";
+    public static final String TYPE_ERROR = "error";
+
+    private String type;
+    private Integer index;
+    private Long startMillis;
+    private String text;
+    private TranscriptionResponse response;
+
+    public TranscriptionStreamEvent() {}
+
+    public TranscriptionStreamEvent(String type, Integer index, Long startMillis, String text, TranscriptionResponse response) {
+        this.type = type;
+        this.index = index;
+        this.startMillis = startMillis;
+        this.text = text;
+        this.response = response;
+    }
+
+    public static TranscriptionStreamEvent partial(int index, long startMillis, String text) {
+        return new TranscriptionStreamEvent(TYPE_PARTIAL, index, startMillis, text, null);
+    }
+
+    public static TranscriptionStreamEvent done(TranscriptionResponse response) {
+        return new TranscriptionStreamEvent(TYPE_DONE, null, null, response.getTranscript(), response);
+    }
+
+    public static TranscriptionStreamEvent error(String message) {
+        return new TranscriptionStreamEvent(TYPE_ERROR, null, null, message, null);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Integer getIndex() {
+        return index;
+    }
+
+    public void setIndex(Integer index) {
+        this.index = index;
+    }
+
+    public Long getStartMillis() {
+        return startMillis;
+    }
+
+    public void setStartMillis(Long startMillis) {
+        this.startMillis = startMillis;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public TranscriptionResponse getResponse() {
+        return response;
+    }
+
+    public void setResponse(TranscriptionResponse response) {
+        this.response = response;
+    }
+}
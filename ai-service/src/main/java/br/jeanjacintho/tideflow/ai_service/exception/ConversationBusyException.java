@@ -0,0 +1,8 @@
+package br.jeanjacintho.tideflow.ai_service.exception;
+
+public class ConversationBusyException extends RuntimeException {
+
+    public ConversationBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package br.jeanjacintho.tideflow.ai_service.exception;
+
+public class LLMProviderUnavailableException extends RuntimeException {
+
+    private final String provider;
+    private final String reason;
+
+    public LLMProviderUnavailableException(String provider, String reason, String message) {
+        super(message);
+        this.provider = provider;
+        this.reason = reason;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,15 @@
+package br.jeanjacintho.tideflow.ai_service.exception;
+
+public class LLMQuotaExceededException extends RuntimeException {
+
+    private final String tenant;
+
+    public LLMQuotaExceededException(String tenant, String message) {
+        super(message);
+        this.tenant = tenant;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+}
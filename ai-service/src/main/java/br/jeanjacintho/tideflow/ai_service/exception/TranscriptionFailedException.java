@@ -0,0 +1,8 @@
+package br.jeanjacintho.tideflow.ai_service.exception;
+
+public class TranscriptionFailedException extends RuntimeException {
+
+    public TranscriptionFailedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,27 @@
+package br.jeanjacintho.tideflow.ai_service.listener;
+
+import br.jeanjacintho.tideflow.ai_service.config.RabbitMQConfig;
+import br.jeanjacintho.tideflow.ai_service.dto.event.ConversationAnalysisEvent;
+import br.jeanjacintho.tideflow.ai_service.service.ConversationAnalysisService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ConversationAnalysisListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationAnalysisListener.class);
+    private final ConversationAnalysisService conversationAnalysisService;
+
+    public ConversationAnalysisListener(ConversationAnalysisService conversationAnalysisService) {
+        this.conversationAnalysisService = conversationAnalysisService;
+    }
+
+    @RabbitListener(queues = RabbitMQConfig.CONVERSATION_ANALYSIS_QUEUE,
+                    concurrency = "${conversation.analysis.concurrency:1-4}")
+    public void handleConversationAnalysis(ConversationAnalysisEvent event) {
+        logger.debug("Processando análise da mensagem {} da conversa {}", event.messageId(), event.conversationId());
+        conversationAnalysisService.processAnalysis(event);
+    }
+}
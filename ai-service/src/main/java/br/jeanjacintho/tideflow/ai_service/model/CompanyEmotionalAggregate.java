@@ -10,6 +10,8 @@ import java.util.UUID;
 @Table(name = "company_emotional_aggregate", indexes = {
     @Index(name = "idx_company_agg_company_date", columnList = "company_id, date"),
     @Index(name = "idx_company_agg_date", columnList = "date DESC")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_company_agg_company_date", columnNames = {"company_id", "date"})
 })
 public class CompanyEmotionalAggregate {
     @Id
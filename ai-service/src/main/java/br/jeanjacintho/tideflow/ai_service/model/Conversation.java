@@ -8,7 +8,9 @@ import java.util.UUID;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "conversations")
+@Table(name = "conversations", indexes = {
+        @Index(name = "idx_conversation_user_created", columnList = "user_id, created_at, id")
+})
 public class Conversation {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -23,6 +25,21 @@ public class Conversation {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    @Column(name = "summary", columnDefinition = "TEXT")
+    private String summary;
+
+    @Column(name = "summarized_up_to")
+    private Integer summarizedUpTo;
+
+    @Column(name = "last_sequence_number")
+    private Integer lastSequenceNumber;
+
+    @Column(name = "message_count")
+    private Long messageCount;
+
+    @Column(name = "last_message_preview", length = 101)
+    private String lastMessagePreview;
+
     @OneToMany(mappedBy = "conversation", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @OrderBy("sequenceNumber ASC")
     private List<ConversationMessage> messages = new ArrayList<>();
@@ -85,6 +102,46 @@ public class Conversation {
         this.updatedAt = updatedAt;
     }
 
+    public String getSummary() {
+        return summary;
+    }
+
+    public void setSummary(String summary) {
+        this.summary = summary;
+    }
+
+    public Integer getSummarizedUpTo() {
+        return summarizedUpTo;
+    }
+
+    public void setSummarizedUpTo(Integer summarizedUpTo) {
+        this.summarizedUpTo = summarizedUpTo;
+    }
+
+    public Integer getLastSequenceNumber() {
+        return lastSequenceNumber;
+    }
+
+    public void setLastSequenceNumber(Integer lastSequenceNumber) {
+        this.lastSequenceNumber = lastSequenceNumber;
+    }
+
+    public Long getMessageCount() {
+        return messageCount;
+    }
+
+    public void setMessageCount(Long messageCount) {
+        this.messageCount = messageCount;
+    }
+
+    public String getLastMessagePreview() {
+        return lastMessagePreview;
+    }
+
+    public void setLastMessagePreview(String lastMessagePreview) {
+        this.lastMessagePreview = lastMessagePreview;
+    }
+
     public List<ConversationMessage> getMessages() {
         return messages;
     }
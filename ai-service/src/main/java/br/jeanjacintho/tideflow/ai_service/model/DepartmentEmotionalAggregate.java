@@ -11,6 +11,8 @@ import java.util.UUID;
     @Index(name = "idx_dept_agg_department_date", columnList = "department_id, date"),
     @Index(name = "idx_dept_agg_company_date", columnList = "company_id, date"),
     @Index(name = "idx_dept_agg_date", columnList = "date DESC")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_dept_agg_department_date", columnNames = {"department_id", "date"})
 })
 public class DepartmentEmotionalAggregate {
     @Id
@@ -7,7 +7,9 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-    @Table(name = "emotional_analysis", indexes = {
+    @Table(name = "emotional_analysis", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_emotional_message", columnNames = "message_id")
+}, indexes = {
     @Index(name = "idx_emotional_user_message", columnList = "usuario_id, message_id"),
     @Index(name = "idx_emotional_conversation", columnList = "conversation_id, sequence_number"),
     @Index(name = "idx_emotional_primary", columnList = "primary_emotional"),
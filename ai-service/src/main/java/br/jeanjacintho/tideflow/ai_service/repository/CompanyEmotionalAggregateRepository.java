@@ -1,8 +1,13 @@
 package br.jeanjacintho.tideflow.ai_service.repository;
 
+import br.jeanjacintho.tideflow.ai_service.config.MapJsonConverter;
 import br.jeanjacintho.tideflow.ai_service.model.CompanyEmotionalAggregate;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -19,4 +24,45 @@ public interface CompanyEmotionalAggregateRepository extends JpaRepository<Compa
         LocalDate startDate,
         LocalDate endDate
     );
+
+    default int upsert(CompanyEmotionalAggregate aggregate) {
+        return upsert(
+            UUID.randomUUID(),
+            aggregate.getCompanyId(),
+            aggregate.getDate(),
+            aggregate.getAvgStressLevel(),
+            new MapJsonConverter().convertToDatabaseColumn(aggregate.getDepartmentBreakdown()),
+            aggregate.getTotalActiveUsers(),
+            aggregate.getTotalConversations(),
+            aggregate.getTotalMessages(),
+            aggregate.getRiskAlertsCount()
+        );
+    }
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO company_emotional_aggregate (id, company_id, date, avg_stress_level, department_breakdown, " +
+                   "total_active_users, total_conversations, total_messages, risk_alerts_count, created_at, updated_at) " +
+                   "VALUES (:id, :companyId, :date, :avgStressLevel, CAST(:departmentBreakdown AS jsonb), " +
+                   ":totalActiveUsers, :totalConversations, :totalMessages, :riskAlertsCount, now(), now()) " +
+                   "ON CONFLICT (company_id, date) DO UPDATE SET " +
+                   "avg_stress_level = EXCLUDED.avg_stress_level, " +
+                   "department_breakdown = EXCLUDED.department_breakdown, " +
+                   "total_active_users = EXCLUDED.total_active_users, " +
+                   "total_conversations = EXCLUDED.total_conversations, " +
+                   "total_messages = EXCLUDED.total_messages, " +
+                   "risk_alerts_count = EXCLUDED.risk_alerts_count, " +
+                   "updated_at = now() " +
+                   "WHERE company_emotional_aggregate.total_messages IS NULL " +
+                   "OR company_emotional_aggregate.total_messages <= EXCLUDED.total_messages",
+           nativeQuery = true)
+    int upsert(@Param("id") UUID id,
+               @Param("companyId") UUID companyId,
+               @Param("date") LocalDate date,
+               @Param("avgStressLevel") Double avgStressLevel,
+               @Param("departmentBreakdown") String departmentBreakdown,
+               @Param("totalActiveUsers") Long totalActiveUsers,
+               @Param("totalConversations") Long totalConversations,
+               @Param("totalMessages") Long totalMessages,
+               @Param("riskAlertsCount") Long riskAlertsCount);
 }
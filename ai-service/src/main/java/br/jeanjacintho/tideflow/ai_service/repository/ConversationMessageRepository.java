@@ -1,6 +1,8 @@
 package br.jeanjacintho.tideflow.ai_service.repository;
 
 import br.jeanjacintho.tideflow.ai_service.model.ConversationMessage;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,10 +15,16 @@ import java.util.UUID;
 public interface ConversationMessageRepository extends JpaRepository<ConversationMessage, UUID> {
     List<ConversationMessage> findByConversationIdOrderBySequenceNumberAsc(UUID conversationId);
 
-    long countByConversationId(UUID conversationId);
+    List<ConversationMessage> findByConversationIdOrderBySequenceNumberDesc(UUID conversationId, Pageable pageable);
 
-    @Query("SELECT m FROM ConversationMessage m WHERE m.conversation.id = :conversationId ORDER BY m.sequenceNumber DESC")
-    List<ConversationMessage> findLastMessageByConversationId(@Param("conversationId") UUID conversationId);
+    List<ConversationMessage> findByConversationIdAndSequenceNumberLessThanOrderBySequenceNumberDesc(
+        UUID conversationId, Integer beforeSequence, Limit limit);
+
+    List<ConversationMessage> findByConversationIdAndSequenceNumberGreaterThanOrderBySequenceNumberAsc(
+        UUID conversationId, Integer afterSequence, Limit limit);
+
+    List<ConversationMessage> findByConversationIdAndSequenceNumberBetweenOrderBySequenceNumberAsc(
+        UUID conversationId, Integer startSequence, Integer endSequence);
 
     @Query("SELECT m FROM ConversationMessage m " +
            "JOIN FETCH m.conversation c " +
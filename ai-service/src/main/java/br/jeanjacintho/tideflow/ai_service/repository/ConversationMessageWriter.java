@@ -0,0 +1,27 @@
+package br.jeanjacintho.tideflow.ai_service.repository;
+
+import br.jeanjacintho.tideflow.ai_service.model.ConversationMessage;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@Profile("!r2dbc")
+public class ConversationMessageWriter {
+
+    private final ConversationRepository conversationRepository;
+    private final ConversationMessageRepository conversationMessageRepository;
+
+    public ConversationMessageWriter(ConversationRepository conversationRepository,
+                                     ConversationMessageRepository conversationMessageRepository) {
+        this.conversationRepository = conversationRepository;
+        this.conversationMessageRepository = conversationMessageRepository;
+    }
+
+    @Transactional
+    public ConversationMessage save(ConversationMessage message) {
+        ConversationMessage saved = conversationMessageRepository.saveAndFlush(message);
+        conversationRepository.recordMessage(message.getConversation().getId(), message.getContent());
+        return saved;
+    }
+}
@@ -1,10 +1,14 @@
 package br.jeanjacintho.tideflow.ai_service.repository;
 
+import br.jeanjacintho.tideflow.ai_service.dto.response.ConversationSummaryResponse;
 import br.jeanjacintho.tideflow.ai_service.model.Conversation;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -13,6 +17,13 @@ import java.util.UUID;
 
 @Repository
 public interface ConversationRepository extends JpaRepository<Conversation, UUID> {
+    String SUMMARY_SELECT = "SELECT new br.jeanjacintho.tideflow.ai_service.dto.response.ConversationSummaryResponse(" +
+            "c.id, c.userId, c.createdAt, c.updatedAt, " +
+            "COALESCE(c.messageCount, (SELECT COUNT(m) FROM ConversationMessage m WHERE m.conversation.id = c.id)), " +
+            "COALESCE(c.lastMessagePreview, (SELECT SUBSTRING(m.content, 1, 101) FROM ConversationMessage m " +
+            "WHERE m.conversation.id = c.id ORDER BY m.sequenceNumber DESC LIMIT 1))) " +
+            "FROM Conversation c WHERE c.userId = :userId ";
+
     Optional<Conversation> findByIdAndUserId(UUID id, String userId);
 
     List<Conversation> findByUserIdOrderByCreatedAtDesc(String userId);
@@ -23,6 +34,46 @@ public interface ConversationRepository extends JpaRepository<Conversation, UUID
 
     Optional<Conversation> findFirstByUserIdOrderByCreatedAtDesc(String userId);
 
+    @Query(SUMMARY_SELECT + "ORDER BY c.createdAt DESC, c.id DESC")
+    List<ConversationSummaryResponse> findSummariesByUserId(@Param("userId") String userId, Limit limit);
+
+    @Query(SUMMARY_SELECT +
+           "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<ConversationSummaryResponse> findSummariesByUserIdBefore(@Param("userId") String userId,
+                                                                  @Param("createdAt") LocalDateTime createdAt,
+                                                                  @Param("id") UUID id,
+                                                                  Limit limit);
+
     @Query("SELECT c FROM Conversation c JOIN FETCH c.messages WHERE c.userId = :userId ORDER BY c.createdAt DESC")
     List<Conversation> findByUserIdWithMessages(@Param("userId") String userId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Conversation c SET c.summary = :summary, c.summarizedUpTo = :summarizedUpTo " +
+           "WHERE c.id = :id AND (c.summarizedUpTo IS NULL OR c.summarizedUpTo < :summarizedUpTo)")
+    int updateSummary(@Param("id") UUID id,
+                      @Param("summary") String summary,
+                      @Param("summarizedUpTo") Integer summarizedUpTo);
+
+    @Transactional
+    @Query(value = "UPDATE conversations SET " +
+                   "last_sequence_number = COALESCE(last_sequence_number, " +
+                   "(SELECT COALESCE(MAX(m.sequence_number), 0) FROM conversation_messages m WHERE m.conversation_id = :id)) + :count, " +
+                   "updated_at = :updatedAt " +
+                   "WHERE id = :id RETURNING last_sequence_number",
+           nativeQuery = true)
+    Integer allocateSequenceNumbers(@Param("id") UUID id,
+                                    @Param("count") int count,
+                                    @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE conversations SET " +
+                   "message_count = COALESCE(message_count + 1, " +
+                   "(SELECT COUNT(*) FROM conversation_messages m WHERE m.conversation_id = :id)), " +
+                   "last_message_preview = LEFT(:content, 101) " +
+                   "WHERE id = :id",
+           nativeQuery = true)
+    int recordMessage(@Param("id") UUID id, @Param("content") String content);
 }
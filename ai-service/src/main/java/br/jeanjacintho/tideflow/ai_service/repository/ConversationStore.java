@@ -0,0 +1,30 @@
+package br.jeanjacintho.tideflow.ai_service.repository;
+
+import br.jeanjacintho.tideflow.ai_service.model.Conversation;
+import br.jeanjacintho.tideflow.ai_service.model.ConversationMessage;
+import br.jeanjacintho.tideflow.ai_service.model.EmotionalAnalysis;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public interface ConversationStore {
+
+    Mono<Conversation> findByIdAndUserId(UUID conversationId, String userId);
+
+    Mono<Conversation> create(String userId);
+
+    Mono<Integer> allocateSequenceNumbers(UUID conversationId, int count);
+
+    Mono<ConversationMessage> saveMessage(ConversationMessage message);
+
+    Flux<ConversationMessage> findRecentMessages(UUID conversationId, int limit);
+
+    Flux<ConversationMessage> findMessagesBefore(UUID conversationId, int beforeSequence, int limit);
+
+    Flux<ConversationMessage> findMessagesAfter(UUID conversationId, int afterSequence, int limit);
+
+    Flux<ConversationMessage> findMessages(UUID conversationId);
+
+    Mono<EmotionalAnalysis> findAnalysisByMessageId(UUID messageId);
+}
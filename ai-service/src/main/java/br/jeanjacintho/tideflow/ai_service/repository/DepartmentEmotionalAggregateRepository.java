@@ -1,10 +1,13 @@
 package br.jeanjacintho.tideflow.ai_service.repository;
 
+import br.jeanjacintho.tideflow.ai_service.config.MapStringIntegerConverter;
 import br.jeanjacintho.tideflow.ai_service.model.DepartmentEmotionalAggregate;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -33,4 +36,53 @@ public interface DepartmentEmotionalAggregateRepository extends JpaRepository<De
         @Param("companyId") UUID companyId,
         @Param("date") LocalDate date
     );
+
+    default int upsert(DepartmentEmotionalAggregate aggregate) {
+        return upsert(
+            UUID.randomUUID(),
+            aggregate.getDepartmentId(),
+            aggregate.getCompanyId(),
+            aggregate.getDate(),
+            aggregate.getAvgStressLevel(),
+            aggregate.getAvgEmotionalIntensity(),
+            new MapStringIntegerConverter().convertToDatabaseColumn(aggregate.getPrimaryEmotions()),
+            aggregate.getTotalConversations(),
+            aggregate.getTotalMessages(),
+            aggregate.getRiskAlertsCount(),
+            aggregate.getUniqueUsersCount()
+        );
+    }
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO department_emotional_aggregate (id, department_id, company_id, date, avg_stress_level, " +
+                   "avg_emotional_intensity, primary_emotions, total_conversations, total_messages, risk_alerts_count, " +
+                   "unique_users_count, created_at, updated_at) " +
+                   "VALUES (:id, :departmentId, :companyId, :date, :avgStressLevel, :avgEmotionalIntensity, " +
+                   "CAST(:primaryEmotions AS jsonb), :totalConversations, :totalMessages, :riskAlertsCount, " +
+                   ":uniqueUsersCount, now(), now()) " +
+                   "ON CONFLICT (department_id, date) DO UPDATE SET " +
+                   "company_id = EXCLUDED.company_id, " +
+                   "avg_stress_level = EXCLUDED.avg_stress_level, " +
+                   "avg_emotional_intensity = EXCLUDED.avg_emotional_intensity, " +
+                   "primary_emotions = EXCLUDED.primary_emotions, " +
+                   "total_conversations = EXCLUDED.total_conversations, " +
+                   "total_messages = EXCLUDED.total_messages, " +
+                   "risk_alerts_count = EXCLUDED.risk_alerts_count, " +
+                   "unique_users_count = EXCLUDED.unique_users_count, " +
+                   "updated_at = now() " +
+                   "WHERE department_emotional_aggregate.total_messages IS NULL " +
+                   "OR department_emotional_aggregate.total_messages <= EXCLUDED.total_messages",
+           nativeQuery = true)
+    int upsert(@Param("id") UUID id,
+               @Param("departmentId") UUID departmentId,
+               @Param("companyId") UUID companyId,
+               @Param("date") LocalDate date,
+               @Param("avgStressLevel") Double avgStressLevel,
+               @Param("avgEmotionalIntensity") Double avgEmotionalIntensity,
+               @Param("primaryEmotions") String primaryEmotions,
+               @Param("totalConversations") Long totalConversations,
+               @Param("totalMessages") Long totalMessages,
+               @Param("riskAlertsCount") Long riskAlertsCount,
+               @Param("uniqueUsersCount") Long uniqueUsersCount);
 }
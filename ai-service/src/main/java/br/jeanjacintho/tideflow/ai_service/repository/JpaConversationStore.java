@@ -0,0 +1,114 @@
+package br.jeanjacintho.tideflow.ai_service.repository;
+
+import br.jeanjacintho.tideflow.ai_service.model.Conversation;
+import br.jeanjacintho.tideflow.ai_service.model.ConversationMessage;
+import br.jeanjacintho.tideflow.ai_service.model.EmotionalAnalysis;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+@Profile("!r2dbc")
+public class JpaConversationStore implements ConversationStore {
+
+    private final ConversationRepository conversationRepository;
+    private final ConversationMessageRepository conversationMessageRepository;
+    private final EmotionalAnalysisRepository emotionalAnalysisRepository;
+    private final ConversationMessageWriter conversationMessageWriter;
+    private final Scheduler blockingScheduler;
+
+    public JpaConversationStore(ConversationRepository conversationRepository,
+                                ConversationMessageRepository conversationMessageRepository,
+                                EmotionalAnalysisRepository emotionalAnalysisRepository,
+                                ConversationMessageWriter conversationMessageWriter,
+                                Scheduler blockingScheduler) {
+        this.conversationRepository = conversationRepository;
+        this.conversationMessageRepository = conversationMessageRepository;
+        this.emotionalAnalysisRepository = emotionalAnalysisRepository;
+        this.conversationMessageWriter = conversationMessageWriter;
+        this.blockingScheduler = blockingScheduler;
+    }
+
+    @Override
+    public Mono<Conversation> findByIdAndUserId(UUID conversationId, String userId) {
+        return Mono.fromCallable(() -> conversationRepository.findByIdAndUserId(conversationId, userId))
+                .subscribeOn(blockingScheduler)
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    @Override
+    public Mono<Conversation> create(String userId) {
+        return Mono.fromCallable(() -> conversationRepository.save(new Conversation(userId)))
+                .subscribeOn(blockingScheduler);
+    }
+
+    @Override
+    public Mono<Integer> allocateSequenceNumbers(UUID conversationId, int count) {
+        return Mono.fromCallable(() -> conversationRepository.allocateSequenceNumbers(conversationId, count, LocalDateTime.now()))
+                .subscribeOn(blockingScheduler);
+    }
+
+    @Override
+    public Mono<ConversationMessage> saveMessage(ConversationMessage message) {
+        return Mono.fromCallable(() -> conversationMessageWriter.save(message))
+                .subscribeOn(blockingScheduler);
+    }
+
+    @Override
+    public Flux<ConversationMessage> findRecentMessages(UUID conversationId, int limit) {
+        return Mono.fromCallable(() -> {
+                    List<ConversationMessage> recent = new ArrayList<>(conversationMessageRepository
+                            .findByConversationIdOrderBySequenceNumberDesc(conversationId, PageRequest.of(0, limit)));
+                    Collections.reverse(recent);
+                    return recent;
+                })
+                .subscribeOn(blockingScheduler)
+                .flatMapMany(Flux::fromIterable);
+    }
+
+    @Override
+    public Flux<ConversationMessage> findMessagesBefore(UUID conversationId, int beforeSequence, int limit) {
+        return Mono.fromCallable(() -> {
+                    List<ConversationMessage> page = new ArrayList<>(conversationMessageRepository
+                            .findByConversationIdAndSequenceNumberLessThanOrderBySequenceNumberDesc(
+                                    conversationId, beforeSequence, Limit.of(limit)));
+                    Collections.reverse(page);
+                    return page;
+                })
+                .subscribeOn(blockingScheduler)
+                .flatMapMany(Flux::fromIterable);
+    }
+
+    @Override
+    public Flux<ConversationMessage> findMessagesAfter(UUID conversationId, int afterSequence, int limit) {
+        return Mono.fromCallable(() -> conversationMessageRepository
+                        .findByConversationIdAndSequenceNumberGreaterThanOrderBySequenceNumberAsc(
+                                conversationId, afterSequence, Limit.of(limit)))
+                .subscribeOn(blockingScheduler)
+                .flatMapMany(Flux::fromIterable);
+    }
+
+    @Override
+    public Flux<ConversationMessage> findMessages(UUID conversationId) {
+        return Mono.fromCallable(() -> conversationMessageRepository.findByConversationIdOrderBySequenceNumberAsc(conversationId))
+                .subscribeOn(blockingScheduler)
+                .flatMapMany(Flux::fromIterable);
+    }
+
+    @Override
+    public Mono<EmotionalAnalysis> findAnalysisByMessageId(UUID messageId) {
+        return Mono.fromCallable(() -> emotionalAnalysisRepository.findByMessageId(messageId))
+                .subscribeOn(blockingScheduler)
+                .flatMap(Mono::justOrEmpty);
+    }
+}
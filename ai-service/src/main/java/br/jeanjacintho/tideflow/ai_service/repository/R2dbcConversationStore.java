@@ -0,0 +1,211 @@
+package br.jeanjacintho.tideflow.ai_service.repository;
+
+import br.jeanjacintho.tideflow.ai_service.model.Conversation;
+import br.jeanjacintho.tideflow.ai_service.model.ConversationMessage;
+import br.jeanjacintho.tideflow.ai_service.model.EmotionalAnalysis;
+import br.jeanjacintho.tideflow.ai_service.model.MessageRole;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+@Profile("r2dbc")
+public class R2dbcConversationStore implements ConversationStore {
+
+    private static final String CONVERSATION_COLUMNS =
+            "id, user_id, created_at, updated_at, summary, summarized_up_to, last_sequence_number";
+    private static final String MESSAGE_COLUMNS =
+            "id, role, content, created_at, sequence_number";
+
+    private final DatabaseClient databaseClient;
+
+    public R2dbcConversationStore(DatabaseClient conversationDatabaseClient) {
+        this.databaseClient = conversationDatabaseClient;
+    }
+
+    @Override
+    public Mono<Conversation> findByIdAndUserId(UUID conversationId, String userId) {
+        return databaseClient.sql("SELECT " + CONVERSATION_COLUMNS + " FROM conversations WHERE id = :id AND user_id = :userId")
+                .bind("id", conversationId)
+                .bind("userId", userId)
+                .map(this::toConversation)
+                .one();
+    }
+
+    @Override
+    public Mono<Conversation> create(String userId) {
+        return Mono.defer(() -> {
+            Conversation conversation = new Conversation(userId);
+            conversation.setId(UUID.randomUUID());
+            conversation.setCreatedAt(LocalDateTime.now());
+            conversation.setUpdatedAt(conversation.getCreatedAt());
+
+            return databaseClient.sql("INSERT INTO conversations (id, user_id, created_at, updated_at) " +
+                            "VALUES (:id, :userId, :createdAt, :updatedAt)")
+                    .bind("id", conversation.getId())
+                    .bind("userId", userId)
+                    .bind("createdAt", conversation.getCreatedAt())
+                    .bind("updatedAt", conversation.getUpdatedAt())
+                    .then()
+                    .thenReturn(conversation);
+        });
+    }
+
+    @Override
+    public Mono<Integer> allocateSequenceNumbers(UUID conversationId, int count) {
+        return databaseClient.sql("UPDATE conversations SET last_sequence_number = COALESCE(last_sequence_number, " +
+                        "(SELECT COALESCE(MAX(m.sequence_number), 0) FROM conversation_messages m WHERE m.conversation_id = :id)) + :count, " +
+                        "updated_at = :updatedAt WHERE id = :id RETURNING last_sequence_number")
+                .bind("id", conversationId)
+                .bind("count", count)
+                .bind("updatedAt", LocalDateTime.now())
+                .map(row -> row.get("last_sequence_number", Integer.class))
+                .one();
+    }
+
+    @Override
+    public Mono<ConversationMessage> saveMessage(ConversationMessage message) {
+        return Mono.defer(() -> {
+            if (message.getId() == null) {
+                message.setId(UUID.randomUUID());
+            }
+            if (message.getCreatedAt() == null) {
+                message.setCreatedAt(LocalDateTime.now());
+            }
+
+            // Um único comando: a mensagem e os contadores da conversa são gravados atomicamente.
+            return databaseClient.sql("WITH inserted AS (" +
+                            "INSERT INTO conversation_messages (id, conversation_id, role, content, created_at, sequence_number) " +
+                            "VALUES (:id, :conversationId, :role, :content, :createdAt, :sequenceNumber)) " +
+                            "UPDATE conversations SET " +
+                            "message_count = COALESCE(message_count, " +
+                            "(SELECT COUNT(*) FROM conversation_messages m WHERE m.conversation_id = :conversationId)) + 1, " +
+                            "last_message_preview = LEFT(:content, 101) WHERE id = :conversationId")
+                    .bind("id", message.getId())
+                    .bind("conversationId", message.getConversation().getId())
+                    .bind("role", message.getRole().name())
+                    .bind("content", message.getContent())
+                    .bind("createdAt", message.getCreatedAt())
+                    .bind("sequenceNumber", message.getSequenceNumber())
+                    .then()
+                    .thenReturn(message);
+        });
+    }
+
+    @Override
+    public Flux<ConversationMessage> findRecentMessages(UUID conversationId, int limit) {
+        return databaseClient.sql("SELECT " + MESSAGE_COLUMNS + " FROM conversation_messages " +
+                        "WHERE conversation_id = :id ORDER BY sequence_number DESC LIMIT :limit")
+                .bind("id", conversationId)
+                .bind("limit", limit)
+                .map(this::toMessage)
+                .all()
+                .collectList()
+                .flatMapMany(recent -> {
+                    List<ConversationMessage> ordered = new ArrayList<>(recent);
+                    Collections.reverse(ordered);
+                    return Flux.fromIterable(ordered);
+                });
+    }
+
+    @Override
+    public Flux<ConversationMessage> findMessagesBefore(UUID conversationId, int beforeSequence, int limit) {
+        return databaseClient.sql("SELECT " + MESSAGE_COLUMNS + " FROM conversation_messages " +
+                        "WHERE conversation_id = :id AND sequence_number < :before ORDER BY sequence_number DESC LIMIT :limit")
+                .bind("id", conversationId)
+                .bind("before", beforeSequence)
+                .bind("limit", limit)
+                .map(this::toMessage)
+                .all()
+                .collectList()
+                .flatMapMany(page -> {
+                    List<ConversationMessage> ordered = new ArrayList<>(page);
+                    Collections.reverse(ordered);
+                    return Flux.fromIterable(ordered);
+                });
+    }
+
+    @Override
+    public Flux<ConversationMessage> findMessagesAfter(UUID conversationId, int afterSequence, int limit) {
+        return databaseClient.sql("SELECT " + MESSAGE_COLUMNS + " FROM conversation_messages " +
+                        "WHERE conversation_id = :id AND sequence_number > :after ORDER BY sequence_number ASC LIMIT :limit")
+                .bind("id", conversationId)
+                .bind("after", afterSequence)
+                .bind("limit", limit)
+                .map(this::toMessage)
+                .all();
+    }
+
+    @Override
+    public Flux<ConversationMessage> findMessages(UUID conversationId) {
+        return databaseClient.sql("SELECT " + MESSAGE_COLUMNS + " FROM conversation_messages " +
+                        "WHERE conversation_id = :id ORDER BY sequence_number ASC")
+                .bind("id", conversationId)
+                .map(this::toMessage)
+                .all();
+    }
+
+    @Override
+    public Mono<EmotionalAnalysis> findAnalysisByMessageId(UUID messageId) {
+        return databaseClient.sql("SELECT ea.id, ea.usuario_id, ea.department_id, ea.company_id, ea.conversation_id, " +
+                        "ea.message_id, ea.sequence_number, ea.primary_emotional, ea.intensity, ea.context, ea.suggestion, ea.created_at, " +
+                        "ARRAY(SELECT t.\"trigger\" FROM emotional_triggers t WHERE t.emotional_analysis_id = ea.id) AS triggers " +
+                        "FROM emotional_analysis ea WHERE ea.message_id = :messageId LIMIT 1")
+                .bind("messageId", messageId)
+                .map(this::toEmotionalAnalysis)
+                .one();
+    }
+
+    private Conversation toConversation(Readable row) {
+        Conversation conversation = new Conversation(row.get("user_id", String.class));
+        conversation.setId(row.get("id", UUID.class));
+        conversation.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        conversation.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+        conversation.setSummary(row.get("summary", String.class));
+        conversation.setSummarizedUpTo(row.get("summarized_up_to", Integer.class));
+        conversation.setLastSequenceNumber(row.get("last_sequence_number", Integer.class));
+        return conversation;
+    }
+
+    private ConversationMessage toMessage(Readable row) {
+        ConversationMessage message = new ConversationMessage(
+                MessageRole.valueOf(row.get("role", String.class)),
+                row.get("content", String.class),
+                row.get("sequence_number", Integer.class)
+        );
+        message.setId(row.get("id", UUID.class));
+        message.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        return message;
+    }
+
+    private EmotionalAnalysis toEmotionalAnalysis(Readable row) {
+        String[] triggers = row.get("triggers", String[].class);
+
+        EmotionalAnalysis analysis = new EmotionalAnalysis(
+                row.get("primary_emotional", String.class),
+                row.get("intensity", Integer.class),
+                triggers != null ? new ArrayList<>(Arrays.asList(triggers)) : new ArrayList<>(),
+                row.get("context", String.class),
+                row.get("suggestion", String.class)
+        );
+        analysis.setId(row.get("id", UUID.class));
+        analysis.setUsuarioId(row.get("usuario_id", String.class));
+        analysis.setDepartmentId(row.get("department_id", UUID.class));
+        analysis.setCompanyId(row.get("company_id", UUID.class));
+        analysis.setConversationId(row.get("conversation_id", UUID.class));
+        analysis.setMessageId(row.get("message_id", UUID.class));
+        analysis.setSequenceNumber(row.get("sequence_number", Integer.class));
+        analysis.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        return analysis;
+    }
+}
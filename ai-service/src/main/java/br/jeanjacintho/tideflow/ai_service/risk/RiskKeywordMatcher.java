@@ -0,0 +1,260 @@
+package br.jeanjacintho.tideflow.ai_service.risk;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+public final class RiskKeywordMatcher {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final int ASCII_RANGE = 128;
+    private static final int NO_TRANSITION = -1;
+    private static final int NEGATION_WINDOW = 3;
+    private static final int FIGURATIVE_WINDOW = 3;
+    private static final Set<String> NEGATIONS = Set.of("nao", "nunca", "jamais", "nem");
+    private static final Set<String> FIGURATIVE_OBJECTS = Set.of(
+        "rir", "vergonha", "tedio", "fome", "sono", "calor", "frio", "cansaco",
+        "saudade", "raiva", "curiosidade", "inveja", "preguica", "amor"
+    );
+    private static final Set<String> JOKE_MARKERS = Set.of("brincadeira", "brincando", "zoeira", "zoando", "ironia");
+    private static final Pattern LAUGHTER = Pattern.compile("k{3,}|(ha){2,}h?|(he){2,}h?|(rs)+|(ja){2,}");
+
+    private final String[] phrases;
+    private final double[] weights;
+    private final int[] lengths;
+    private final int[] asciiIndex;
+    private final Map<Character, Integer> extendedIndex;
+    private final int alphabetSize;
+    private final int[][] transitions;
+    private final int[][] outputs;
+
+    private RiskKeywordMatcher(String[] phrases, double[] weights) {
+        this.phrases = phrases;
+        this.weights = weights;
+        this.lengths = new int[phrases.length];
+        this.asciiIndex = new int[ASCII_RANGE];
+        this.extendedIndex = new HashMap<>();
+        Arrays.fill(asciiIndex, NO_TRANSITION);
+
+        int symbols = 0;
+        for (String phrase : phrases) {
+            for (char c : boundary(phrase).toCharArray()) {
+                if (symbolOf(c) == NO_TRANSITION) {
+                    if (c < ASCII_RANGE) {
+                        asciiIndex[c] = symbols++;
+                    } else {
+                        extendedIndex.put(c, symbols++);
+                    }
+                }
+            }
+        }
+        this.alphabetSize = symbols;
+
+        List<int[]> gotoTable = new ArrayList<>();
+        List<List<Integer>> stateOutputs = new ArrayList<>();
+        gotoTable.add(newState());
+        stateOutputs.add(new ArrayList<>());
+
+        for (int p = 0; p < phrases.length; p++) {
+            int state = 0;
+            lengths[p] = boundary(phrases[p]).length();
+            for (char c : boundary(phrases[p]).toCharArray()) {
+                int symbol = symbolOf(c);
+                if (gotoTable.get(state)[symbol] == NO_TRANSITION) {
+                    gotoTable.get(state)[symbol] = gotoTable.size();
+                    gotoTable.add(newState());
+                    stateOutputs.add(new ArrayList<>());
+                }
+                state = gotoTable.get(state)[symbol];
+            }
+            stateOutputs.get(state).add(p);
+        }
+
+        int[] failure = new int[gotoTable.size()];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < alphabetSize; symbol++) {
+            int next = gotoTable.get(0)[symbol];
+            if (next == NO_TRANSITION) {
+                gotoTable.get(0)[symbol] = 0;
+            } else {
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            stateOutputs.get(state).addAll(stateOutputs.get(failure[state]));
+            for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                int next = gotoTable.get(state)[symbol];
+                if (next == NO_TRANSITION) {
+                    gotoTable.get(state)[symbol] = gotoTable.get(failure[state])[symbol];
+                } else {
+                    failure[next] = gotoTable.get(failure[state])[symbol];
+                    queue.add(next);
+                }
+            }
+        }
+
+        this.transitions = gotoTable.toArray(new int[0][]);
+        this.outputs = new int[stateOutputs.size()][];
+        for (int state = 0; state < outputs.length; state++) {
+            outputs[state] = stateOutputs.get(state).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    public static RiskKeywordMatcher compile(Map<String, Double> weightedPhrases) {
+        Map<String, Double> normalized = new LinkedHashMap<>();
+        weightedPhrases.forEach((phrase, weight) -> {
+            String key = normalize(phrase);
+            if (!key.isEmpty() && weight != null && weight > 0) {
+                normalized.merge(key, Math.min(1.0, weight), Math::max);
+            }
+        });
+
+        String[] phrases = normalized.keySet().toArray(new String[0]);
+        double[] weights = normalized.values().stream().mapToDouble(Double::doubleValue).toArray();
+        return new RiskKeywordMatcher(phrases, weights);
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        StringBuilder normalized = new StringBuilder(folded.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = Character.toLowerCase(folded.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(c);
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    public Match match(String text) {
+        if (phrases.length == 0) {
+            return Match.NONE;
+        }
+
+        String normalized = boundary(normalize(text));
+        List<int[]> occurrences = null;
+        int state = 0;
+
+        for (int i = 0; i < normalized.length(); i++) {
+            int symbol = symbolOf(normalized.charAt(i));
+            state = symbol == NO_TRANSITION ? 0 : transitions[state][symbol];
+            if (outputs[state].length > 0) {
+                if (occurrences == null) {
+                    occurrences = new ArrayList<>();
+                }
+                for (int phrase : outputs[state]) {
+                    occurrences.add(new int[] {i - lengths[phrase] + 2, i - 1, phrase});
+                }
+            }
+        }
+
+        if (occurrences == null) {
+            return Match.NONE;
+        }
+
+        // Só contam as ocorrências maximais: "quero morrer" não é reforçada pelo "morrer" contido nela.
+        occurrences.sort(Comparator.<int[]>comparingInt(occurrence -> occurrence[0])
+                .thenComparingInt(occurrence -> occurrence[0] - occurrence[1]));
+
+        String[] tokens = null;
+        BitSet found = new BitSet(phrases.length);
+        List<String> matchedPhrases = new ArrayList<>();
+        double complement = 1.0;
+        boolean hedged = false;
+        int lastEnd = -1;
+
+        for (int[] occurrence : occurrences) {
+            if (occurrence[0] <= lastEnd) {
+                continue;
+            }
+
+            if (tokens == null) {
+                tokens = normalized.trim().split(" ");
+                hedged = hasJokeMarker(tokens);
+            }
+            hedged |= isNegated(normalized, lastEnd + 1, occurrence[0]) || isFigurative(normalized, occurrence[1]);
+            lastEnd = occurrence[1];
+
+            int phrase = occurrence[2];
+            if (!found.get(phrase)) {
+                found.set(phrase);
+                matchedPhrases.add(phrases[phrase]);
+                complement *= 1.0 - weights[phrase];
+            }
+        }
+        return new Match(1.0 - complement, matchedPhrases, hedged);
+    }
+
+    private static boolean isNegated(String normalized, int from, int start) {
+        String[] before = normalized.substring(from, start).trim().split(" ");
+        for (int i = Math.max(0, before.length - NEGATION_WINDOW); i < before.length; i++) {
+            if (NEGATIONS.contains(before[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isFigurative(String normalized, int end) {
+        String[] after = normalized.substring(end + 1).trim().split(" ");
+        for (int i = 0; i < Math.min(after.length - 1, FIGURATIVE_WINDOW); i++) {
+            if ("de".equals(after[i]) && FIGURATIVE_OBJECTS.contains(after[i + 1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasJokeMarker(String[] tokens) {
+        for (String token : tokens) {
+            if (JOKE_MARKERS.contains(token) || LAUGHTER.matcher(token).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return phrases.length;
+    }
+
+    private int symbolOf(char c) {
+        if (c < ASCII_RANGE) {
+            return asciiIndex[c];
+        }
+        Integer symbol = extendedIndex.get(c);
+        return symbol != null ? symbol : NO_TRANSITION;
+    }
+
+    private int[] newState() {
+        int[] state = new int[alphabetSize];
+        Arrays.fill(state, NO_TRANSITION);
+        return state;
+    }
+
+    private static String boundary(String normalized) {
+        return " " + normalized + " ";
+    }
+
+    public record Match(double score, List<String> phrases, boolean hedged) {
+        public static final Match NONE = new Match(0.0, List.of(), false);
+
+        public boolean isEmpty() {
+            return phrases.isEmpty();
+        }
+    }
+}
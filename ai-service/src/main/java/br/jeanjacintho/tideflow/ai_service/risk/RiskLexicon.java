@@ -0,0 +1,93 @@
+package br.jeanjacintho.tideflow.ai_service.risk;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class RiskLexicon {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiskLexicon.class);
+    private static final String WEIGHT_SEPARATOR = "|";
+
+    private final Resource location;
+    private volatile RiskKeywordMatcher matcher = RiskKeywordMatcher.compile(Map.of());
+    private volatile long lastModified = -1L;
+
+    public RiskLexicon(@Value("${risk.lexicon.location:classpath:risk/risk-lexicon.txt}") Resource location) {
+        this.location = location;
+        reload();
+    }
+
+    public RiskKeywordMatcher.Match match(String text) {
+        return matcher.match(text);
+    }
+
+    public boolean isEmpty() {
+        return matcher.size() == 0;
+    }
+
+    @Scheduled(fixedDelayString = "${risk.lexicon.reload-interval:60000}")
+    public void reloadIfChanged() {
+        if (currentLastModified() != lastModified) {
+            reload();
+        }
+    }
+
+    private synchronized void reload() {
+        long modified = currentLastModified();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(location.getInputStream(), StandardCharsets.UTF_8))) {
+            Map<String, Double> phrases = parse(reader);
+            matcher = RiskKeywordMatcher.compile(phrases);
+            lastModified = modified;
+            logger.info("Léxico de risco carregado de {} com {} frases", location.getDescription(), matcher.size());
+        } catch (IOException e) {
+            logger.error("Erro ao carregar léxico de risco de {}: {}. Mantendo léxico anterior com {} frases",
+                location.getDescription(), e.getMessage(), matcher.size(), e);
+        }
+    }
+
+    private long currentLastModified() {
+        try {
+            return location.lastModified();
+        } catch (IOException e) {
+            return lastModified;
+        }
+    }
+
+    static Map<String, Double> parse(BufferedReader reader) throws IOException {
+        Map<String, Double> phrases = new LinkedHashMap<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+
+            int separator = trimmed.lastIndexOf(WEIGHT_SEPARATOR);
+            if (separator < 0) {
+                phrases.put(trimmed, 1.0);
+                continue;
+            }
+
+            String phrase = trimmed.substring(0, separator).trim();
+            try {
+                phrases.put(phrase, Double.parseDouble(trimmed.substring(separator + 1).trim()));
+            } catch (NumberFormatException e) {
+                logger.warn("Peso inválido no léxico de risco, linha ignorada: '{}'", trimmed);
+            }
+        }
+        return phrases;
+    }
+}
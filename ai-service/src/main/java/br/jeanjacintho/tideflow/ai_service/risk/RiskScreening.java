@@ -0,0 +1,14 @@
+package br.jeanjacintho.tideflow.ai_service.risk;
+
+public record RiskScreening(Tier tier, RiskKeywordMatcher.Match match) {
+
+    public enum Tier {
+        SKIP,
+        AMBIGUOUS,
+        ESCALATE
+    }
+
+    public boolean isEscalated() {
+        return tier == Tier.ESCALATE;
+    }
+}
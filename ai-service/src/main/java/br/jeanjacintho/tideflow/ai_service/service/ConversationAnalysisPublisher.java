@@ -0,0 +1,71 @@
+package br.jeanjacintho.tideflow.ai_service.service;
+
+import br.jeanjacintho.tideflow.ai_service.config.RabbitMQConfig;
+import br.jeanjacintho.tideflow.ai_service.dto.event.ConversationAnalysisEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class ConversationAnalysisPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationAnalysisPublisher.class);
+
+    private final RabbitTemplate rabbitTemplate;
+    private final ConversationAnalysisService conversationAnalysisService;
+    private final Scheduler blockingScheduler;
+    private final Duration confirmTimeout;
+
+    public ConversationAnalysisPublisher(RabbitTemplate rabbitTemplate,
+                                         ConversationAnalysisService conversationAnalysisService,
+                                         Scheduler blockingScheduler,
+                                         @Value("${conversation.analysis.confirm-timeout:5s}") Duration confirmTimeout) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.conversationAnalysisService = conversationAnalysisService;
+        this.blockingScheduler = blockingScheduler;
+        this.confirmTimeout = confirmTimeout;
+    }
+
+    public void publish(ConversationAnalysisEvent event) {
+        try {
+            send(event);
+            logger.debug("Análise da mensagem {} enfileirada para a conversa {}", event.messageId(), event.conversationId());
+        } catch (Exception e) {
+            logger.warn("Não foi possível enfileirar a análise da mensagem {} da conversa {}, processando na própria instância: {}",
+                event.messageId(), event.conversationId(), e.getMessage());
+            processInline(event);
+        }
+    }
+
+    private void send(ConversationAnalysisEvent event) throws Exception {
+        CorrelationData correlation = new CorrelationData(event.messageId().toString());
+        rabbitTemplate.convertAndSend(RabbitMQConfig.CONVERSATION_ANALYSIS_QUEUE, event, correlation);
+
+        CorrelationData.Confirm confirm = correlation.getFuture().get(confirmTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        if (!confirm.isAck()) {
+            throw new AmqpException("Broker recusou a mensagem: " + confirm.getReason());
+        }
+        if (correlation.getReturned() != null) {
+            throw new AmqpException("Mensagem devolvida pelo broker: " + correlation.getReturned().getReplyText());
+        }
+    }
+
+    private void processInline(ConversationAnalysisEvent event) {
+        Mono.fromRunnable(() -> conversationAnalysisService.processAnalysis(event))
+                .subscribeOn(blockingScheduler)
+                .subscribe(
+                    null,
+                    error -> logger.error("Erro ao processar análise da mensagem {} na própria instância: {}",
+                        event.messageId(), error.getMessage(), error)
+                );
+    }
+}
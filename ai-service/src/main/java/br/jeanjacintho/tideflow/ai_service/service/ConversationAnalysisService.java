@@ -0,0 +1,239 @@
+package br.jeanjacintho.tideflow.ai_service.service;
+
+import br.jeanjacintho.tideflow.ai_service.client.LLMClient;
+import br.jeanjacintho.tideflow.ai_service.client.LLMPriority;
+import br.jeanjacintho.tideflow.ai_service.client.LLMTenant;
+import br.jeanjacintho.tideflow.ai_service.dto.event.ConversationAnalysisEvent;
+import br.jeanjacintho.tideflow.ai_service.dto.response.RiskAnalysisResponse;
+import br.jeanjacintho.tideflow.ai_service.model.EmotionalAnalysis;
+import br.jeanjacintho.tideflow.ai_service.repository.EmotionalAnalysisRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+@Service
+public class ConversationAnalysisService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationAnalysisService.class);
+
+    private final LLMClient llmClient;
+    private final ObjectMapper objectMapper;
+    private final EmotionalAnalysisRepository emotionalAnalysisRepository;
+    private final EmotionalAggregationService aggregationService;
+    private final UserInfoService userInfoService;
+    private final MemoriaService memoriaService;
+    private final RiskDetectionService riskDetectionService;
+    private final RiskAlertPublisher riskAlertPublisher;
+
+    public ConversationAnalysisService(LLMClient llmClient,
+                                       ObjectMapper objectMapper,
+                                       EmotionalAnalysisRepository emotionalAnalysisRepository,
+                                       EmotionalAggregationService aggregationService,
+                                       UserInfoService userInfoService,
+                                       MemoriaService memoriaService,
+                                       RiskDetectionService riskDetectionService,
+                                       RiskAlertPublisher riskAlertPublisher) {
+        this.llmClient = llmClient;
+        this.objectMapper = objectMapper;
+        this.emotionalAnalysisRepository = emotionalAnalysisRepository;
+        this.aggregationService = aggregationService;
+        this.userInfoService = userInfoService;
+        this.memoriaService = memoriaService;
+        this.riskDetectionService = riskDetectionService;
+        this.riskAlertPublisher = riskAlertPublisher;
+    }
+
+    public EmotionalAnalysis processAnalysis(ConversationAnalysisEvent event) {
+        Optional<EmotionalAnalysis> existing = emotionalAnalysisRepository.findByMessageId(event.messageId());
+        if (existing.isPresent()) {
+            logger.debug("Análise da mensagem {} já processada, ignorando reentrega", event.messageId());
+            return existing.get();
+        }
+
+        Optional<UserInfoService.UserInfo> userInfo = userInfoService.getUserInfo(event.userId(), null);
+        String jsonResponse;
+        try {
+            jsonResponse = llmClient.extractEmotionalAnalysisAndMemories(event.userMessage(), event.aiResponse())
+                    .contextWrite(LLMPriority.SAFETY.asContext())
+                    .contextWrite(LLMTenant.of(userInfo.map(UserInfoService.UserInfo::companyId).orElse(null), null).asContext())
+                    .block();
+        } catch (RuntimeException e) {
+            if (!event.riskEscalated()) {
+                logger.warn("Análise consolidada da mensagem {} falhou, usando triagem lexical para o risco: {}",
+                    event.messageId(), e.getMessage());
+                try {
+                    dispatchRiskAnalysis(event, Map.of());
+                } catch (RuntimeException dispatchError) {
+                    e.addSuppressed(dispatchError);
+                }
+            }
+            throw e;
+        }
+        Map<String, Object> responseMap = parseConsolidatedResponse(jsonResponse);
+
+        EmotionalAnalysis analysis = responseMap != null
+                ? parseEmotionalAnalysis(extractMapFromResponse(responseMap, "analiseEmocional"))
+                : createDefaultEmotionalAnalysis();
+        analysis.setUsuarioId(event.userId());
+        analysis.setConversationId(event.conversationId());
+        analysis.setMessageId(event.messageId());
+        analysis.setSequenceNumber(event.sequenceNumber());
+
+        userInfo.ifPresent(info -> {
+            analysis.setDepartmentId(info.departmentId());
+            analysis.setCompanyId(info.companyId());
+        });
+
+        EmotionalAnalysis savedAnalysis;
+        try {
+            savedAnalysis = emotionalAnalysisRepository.saveAndFlush(analysis);
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Análise da mensagem {} gravada por outra entrega concorrente, ignorando", event.messageId());
+            return emotionalAnalysisRepository.findByMessageId(event.messageId()).orElseThrow(() -> e);
+        }
+
+        if (!event.riskEscalated()) {
+            try {
+                dispatchRiskAnalysis(event, responseMap != null ? extractMapFromResponse(responseMap, "risco") : Map.of());
+            } catch (RuntimeException e) {
+                logger.warn("Alerta de risco da mensagem {} não publicado, descartando a análise para nova tentativa: {}",
+                    event.messageId(), e.getMessage());
+                emotionalAnalysisRepository.delete(savedAnalysis);
+                throw e;
+            }
+        }
+
+        if (savedAnalysis.getDepartmentId() != null && savedAnalysis.getCompanyId() != null) {
+            try {
+                aggregationService.processNewEmotionalAnalysis(savedAnalysis);
+            } catch (Exception e) {
+                logger.warn("Erro ao processar agregação em tempo real: {}", e.getMessage());
+            }
+        }
+
+        if (responseMap != null) {
+            memoriaService.processarMensagemParaMemoriaConsolidada(
+                    event.userId(),
+                    event.userMessage(),
+                    event.aiResponse(),
+                    responseMap
+            );
+        }
+
+        return savedAnalysis;
+    }
+
+    private void dispatchRiskAnalysis(ConversationAnalysisEvent event, Map<String, Object> riskData) {
+        RiskAnalysisResponse riskAnalysis = riskDetectionService.fromConsolidatedAnalysis(riskData, event.userMessage());
+        logger.info("Análise de risco consolidada para usuário {}: detectado={}, nível={}, confiança={}",
+            event.userId(), riskAnalysis.isRiskDetected(), riskAnalysis.getRiskLevel(), riskAnalysis.getConfidence());
+
+        if (riskDetectionService.requiresAlert(riskAnalysis)) {
+            logger.info("Publicando alerta de risco para usuário {} com nível {}", event.userId(), riskAnalysis.getRiskLevel());
+            riskAlertPublisher.publishRiskAlert(event.messageId(), event.userId(), event.userMessage(), riskAnalysis);
+        } else if (riskAnalysis.isRiskDetected()) {
+            logger.info("Risco detectado mas nível {} não requer alerta imediato", riskAnalysis.getRiskLevel());
+        }
+    }
+
+    private Map<String, Object> parseConsolidatedResponse(String jsonResponse) {
+        if (jsonResponse == null || jsonResponse.isBlank()) {
+            logger.warn("Resposta consolidada vazia, usando análise emocional padrão");
+            return null;
+        }
+
+        String cleaned = jsonResponse.replace("```json", "").replace("```", "").trim();
+        try {
+            return objectMapper.readValue(cleaned, new TypeReference<Map<String, Object>>() {});
+        } catch (JsonProcessingException e) {
+            logger.error("Erro ao fazer parse do JSON consolidado: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private Map<String, Object> extractMapFromResponse(Map<String, Object> responseMap, String key) {
+        Object obj = responseMap.getOrDefault(key, new HashMap<>());
+        if (obj instanceof Map<?, ?>) {
+            Map<?, ?> rawMap = (Map<?, ?>) obj;
+            Map<String, Object> result = new HashMap<>();
+            for (Map.Entry<?, ?> entry : rawMap.entrySet()) {
+                if (entry.getKey() instanceof String) {
+                    result.put((String) entry.getKey(), entry.getValue());
+                }
+            }
+            return result;
+        }
+        return new HashMap<>();
+    }
+
+    private List<String> extractStringListFromMap(Map<String, Object> map, String key) {
+        Object obj = map.getOrDefault(key, new ArrayList<>());
+        if (obj instanceof List<?>) {
+            List<?> rawList = (List<?>) obj;
+            List<String> result = new ArrayList<>();
+            for (Object item : rawList) {
+                if (item instanceof String) {
+                    result.add((String) item);
+                }
+            }
+            return result;
+        }
+        return new ArrayList<>();
+    }
+
+    private EmotionalAnalysis parseEmotionalAnalysis(Map<String, Object> analysisData) {
+        String primaryEmotional = (String) analysisData.getOrDefault("primaryEmotional", "neutro");
+        if (primaryEmotional == null || primaryEmotional.isEmpty()) {
+            primaryEmotional = "neutro";
+        }
+
+        Integer intensity = 50;
+        Object intensityObj = analysisData.get("intensity");
+        if (intensityObj instanceof Number) {
+            intensity = ((Number) intensityObj).intValue();
+
+            intensity = Math.max(0, Math.min(100, intensity));
+        }
+
+        List<String> triggers = extractStringListFromMap(analysisData, "triggers");
+
+        String context = (String) analysisData.getOrDefault("context", "");
+        if (context == null) {
+            context = "";
+        }
+
+        if (context.length() > 500) {
+            context = context.substring(0, 497) + "...";
+        }
+
+        String suggestion = (String) analysisData.getOrDefault("suggestion",
+                "Continue conversando para entender melhor suas emoções.");
+        if (suggestion == null || suggestion.isEmpty()) {
+            suggestion = "Continue conversando para entender melhor suas emoções.";
+        }
+
+        return new EmotionalAnalysis(
+                primaryEmotional,
+                intensity,
+                triggers,
+                context,
+                suggestion
+        );
+    }
+
+    private EmotionalAnalysis createDefaultEmotionalAnalysis() {
+        return new EmotionalAnalysis(
+                "neutro",
+                50,
+                new ArrayList<>(),
+                "",
+                "Continue conversando para entender melhor suas emoções."
+        );
+    }
+}
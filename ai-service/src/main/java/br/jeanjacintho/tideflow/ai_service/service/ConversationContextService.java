@@ -0,0 +1,137 @@
+package br.jeanjacintho.tideflow.ai_service.service;
+
+import br.jeanjacintho.tideflow.ai_service.client.LLMClient;
+import br.jeanjacintho.tideflow.ai_service.model.Conversation;
+import br.jeanjacintho.tideflow.ai_service.model.ConversationMessage;
+import br.jeanjacintho.tideflow.ai_service.model.MessageRole;
+import br.jeanjacintho.tideflow.ai_service.repository.ConversationMessageRepository;
+import br.jeanjacintho.tideflow.ai_service.repository.ConversationRepository;
+import br.jeanjacintho.tideflow.ai_service.repository.ConversationStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+public class ConversationContextService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationContextService.class);
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final ConversationRepository conversationRepository;
+    private final ConversationMessageRepository conversationMessageRepository;
+    private final ConversationStore conversationStore;
+    private final LLMClient llmClient;
+    private final Scheduler blockingScheduler;
+    private final int recentMessages;
+    private final int summaryMaxTokens;
+    private final int summaryBatchMessages;
+
+    public ConversationContextService(ConversationRepository conversationRepository,
+                                      ConversationMessageRepository conversationMessageRepository,
+                                      ConversationStore conversationStore,
+                                      LLMClient llmClient,
+                                      Scheduler blockingScheduler,
+                                      @Value("${conversation.context.recent-turns:6}") int recentTurns,
+                                      @Value("${conversation.context.summary-max-tokens:400}") int summaryMaxTokens,
+                                      @Value("${conversation.context.summary-batch-turns:3}") int summaryBatchTurns) {
+        this.conversationRepository = conversationRepository;
+        this.conversationMessageRepository = conversationMessageRepository;
+        this.conversationStore = conversationStore;
+        this.llmClient = llmClient;
+        this.blockingScheduler = blockingScheduler;
+        this.recentMessages = recentTurns * 2;
+        this.summaryMaxTokens = summaryMaxTokens;
+        this.summaryBatchMessages = summaryBatchTurns * 2;
+    }
+
+    public Mono<List<Map<String, String>>> buildContext(Conversation conversation) {
+        int summarizedUpTo = conversation.getSummarizedUpTo() != null ? conversation.getSummarizedUpTo() : 0;
+        return conversationStore.findRecentMessages(conversation.getId(), recentMessages + summaryBatchMessages - 1)
+                .filter(message -> message.getSequenceNumber() > summarizedUpTo)
+                .collectList()
+                .map(recent -> {
+                    List<Map<String, String>> context = new ArrayList<>();
+
+                    if (conversation.getSummary() != null && !conversation.getSummary().isBlank()) {
+                        context.add(Map.of(
+                                "role", "system",
+                                "content", "Resumo da conversa até aqui:\n" + conversation.getSummary()
+                        ));
+                    }
+
+                    for (ConversationMessage message : recent) {
+                        context.add(Map.of(
+                                "role", message.getRole().name().toLowerCase(),
+                                "content", message.getContent()
+                        ));
+                    }
+
+                    return context;
+                });
+    }
+
+    public Mono<Void> updateSummaryIfNeeded(Conversation conversation, int lastSequence) {
+        UUID conversationId = conversation.getId();
+        int summarizedUpTo = conversation.getSummarizedUpTo() != null ? conversation.getSummarizedUpTo() : 0;
+        int windowStart = lastSequence - recentMessages + 1;
+        int pendingMessages = windowStart - 1 - summarizedUpTo;
+
+        if (pendingMessages < summaryBatchMessages) {
+            return Mono.empty();
+        }
+
+        return Mono.fromCallable(() -> conversationMessageRepository
+                        .findByConversationIdAndSequenceNumberBetweenOrderBySequenceNumberAsc(
+                                conversationId, summarizedUpTo + 1, windowStart - 1))
+                .subscribeOn(blockingScheduler)
+                .filter(toSummarize -> !toSummarize.isEmpty())
+                .flatMap(toSummarize -> llmClient.summarizeConversation(
+                                conversation.getSummary(),
+                                formatTranscript(toSummarize),
+                                summaryMaxTokens * 3 / 4)
+                        .filter(summary -> !summary.isBlank())
+                        .switchIfEmpty(Mono.fromRunnable(() ->
+                                logger.warn("Resumo da conversa {} não foi gerado, mantendo resumo anterior", conversationId)))
+                        .publishOn(blockingScheduler)
+                        .doOnNext(summary -> {
+                            int newSummarizedUpTo = toSummarize.get(toSummarize.size() - 1).getSequenceNumber();
+                            conversationRepository.updateSummary(conversationId, fitToTokenBudget(summary), newSummarizedUpTo);
+                            logger.debug("Resumo da conversa {} atualizado até a mensagem {}", conversationId, newSummarizedUpTo);
+                        }))
+                .then()
+                .onErrorResume(e -> {
+                    logger.error("Erro ao atualizar resumo da conversa {}: {}", conversationId, e.getMessage(), e);
+                    return Mono.empty();
+                });
+    }
+
+    private String formatTranscript(List<ConversationMessage> messages) {
+        StringBuilder transcript = new StringBuilder();
+        for (ConversationMessage message : messages) {
+            transcript.append(message.getRole() == MessageRole.USER ? "Usuário: " : "IA: ")
+                    .append(message.getContent())
+                    .append("\n");
+        }
+        return transcript.toString();
+    }
+
+    private String fitToTokenBudget(String summary) {
+        String trimmed = summary.trim();
+        int maxChars = summaryMaxTokens * CHARS_PER_TOKEN;
+        if (trimmed.length() <= maxChars) {
+            return trimmed;
+        }
+
+        String truncated = trimmed.substring(0, maxChars);
+        int lastSentenceEnd = truncated.lastIndexOf(". ");
+        return lastSentenceEnd > maxChars / 2 ? truncated.substring(0, lastSentenceEnd + 1) : truncated;
+    }
+}
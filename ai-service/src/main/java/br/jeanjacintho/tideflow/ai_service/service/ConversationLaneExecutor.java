@@ -0,0 +1,178 @@
+package br.jeanjacintho.tideflow.ai_service.service;
+
+import br.jeanjacintho.tideflow.ai_service.exception.ConversationBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+@Component
+public class ConversationLaneExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationLaneExecutor.class);
+    private static final String CANCEL_HOLD_KEY = ConversationLaneExecutor.class.getName() + ".cancelHold";
+
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ConversationLeaseService leaseService;
+    private final Scheduler blockingScheduler;
+    private final int maxQueueDepth;
+    private final Counter rejected;
+    private final Timer waitTimer;
+
+    public ConversationLaneExecutor(ConversationLeaseService leaseService,
+                                    Scheduler blockingScheduler,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${conversation.lane.max-queue-depth:4}") int maxQueueDepth) {
+        this.leaseService = leaseService;
+        this.blockingScheduler = blockingScheduler;
+        this.maxQueueDepth = maxQueueDepth;
+        Gauge.builder("conversation.lane.in_flight", inFlight, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("conversation.lane.queued", queued, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("conversation.lane.active", lanes, Map::size).register(meterRegistry);
+        this.rejected = Counter.builder("conversation.lane.rejected").register(meterRegistry);
+        this.waitTimer = Timer.builder("conversation.lane.wait").register(meterRegistry);
+    }
+
+    public <T> Mono<T> execute(String conversationId, Supplier<Mono<T>> task) {
+        return Mono.from(executeMany(conversationId, () -> Flux.from(task.get())));
+    }
+
+    public <T> Flux<T> executeMany(String conversationId, Supplier<Flux<T>> task) {
+        if (conversationId == null || conversationId.isBlank()) {
+            return Flux.defer(task).subscribeOn(blockingScheduler);
+        }
+
+        return Flux.create(sink -> {
+            Disposable.Swap current = Disposables.swap();
+            sink.onDispose(current);
+            long enqueuedAt = System.nanoTime();
+
+            Runnable start = () -> {
+                waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                if (sink.isCancelled()) {
+                    release(conversationId);
+                    return;
+                }
+                inFlight.incrementAndGet();
+                CancelHold hold = new CancelHold();
+                current.update(leaseService.withLease(conversationId, Flux.defer(task), hold.await())
+                        .subscribeOn(blockingScheduler)
+                        .doFinally(signal -> (signal == SignalType.CANCEL ? hold.await() : Mono.<Void>empty())
+                                .doFinally(ignored -> {
+                                    inFlight.decrementAndGet();
+                                    release(conversationId);
+                                })
+                                .subscribe())
+                        .subscribe(sink::next, sink::error, sink::complete,
+                                Context.of(sink.contextView()).put(CANCEL_HOLD_KEY, hold)));
+            };
+
+            admit(conversationId, start, sink);
+        });
+    }
+
+    public static void holdOnCancel(ContextView context, Mono<?> completion) {
+        context.<CancelHold>getOrEmpty(CANCEL_HOLD_KEY).ifPresent(hold -> hold.completion.set(completion));
+    }
+
+    private void admit(String conversationId, Runnable start, FluxSink<?> sink) {
+        AtomicBoolean runNow = new AtomicBoolean();
+        AtomicBoolean overflow = new AtomicBoolean();
+        AtomicBoolean enqueued = new AtomicBoolean();
+
+        lanes.compute(conversationId, (key, lane) -> {
+            Lane target = lane != null ? lane : new Lane();
+            if (!target.busy) {
+                target.busy = true;
+                runNow.set(true);
+            } else if (target.waiting.size() >= maxQueueDepth) {
+                overflow.set(true);
+            } else {
+                target.waiting.addLast(start);
+                queued.incrementAndGet();
+                enqueued.set(true);
+            }
+            return target;
+        });
+
+        if (overflow.get()) {
+            rejected.increment();
+            logger.warn("Fila da conversa {} cheia ({} turnos aguardando), rejeitando nova mensagem",
+                conversationId, maxQueueDepth);
+            sink.error(new ConversationBusyException(
+                "Conversa com muitas mensagens em processamento, aguarde a resposta anterior"));
+        } else if (runNow.get()) {
+            start.run();
+        } else if (enqueued.get()) {
+            sink.onCancel(() -> withdraw(conversationId, start));
+        }
+    }
+
+    private void withdraw(String conversationId, Runnable start) {
+        AtomicBoolean removed = new AtomicBoolean();
+
+        lanes.computeIfPresent(conversationId, (key, lane) -> {
+            removed.set(lane.waiting.remove(start));
+            return lane;
+        });
+
+        if (removed.get()) {
+            queued.decrementAndGet();
+        }
+    }
+
+    private void release(String conversationId) {
+        Runnable[] next = new Runnable[1];
+
+        lanes.computeIfPresent(conversationId, (key, lane) -> {
+            next[0] = lane.waiting.pollFirst();
+            return next[0] != null ? lane : null;
+        });
+
+        if (next[0] != null) {
+            queued.decrementAndGet();
+            next[0].run();
+        }
+    }
+
+    private static final class CancelHold {
+        private final AtomicReference<Mono<?>> completion = new AtomicReference<>();
+
+        private Mono<Void> await() {
+            return Mono.defer(() -> {
+                Mono<?> pending = completion.get();
+                return pending != null ? pending.then().onErrorResume(error -> Mono.empty()) : Mono.<Void>empty();
+            });
+        }
+    }
+
+    private static final class Lane {
+        private final Deque<Runnable> waiting = new ArrayDeque<>();
+        private boolean busy;
+    }
+}
@@ -0,0 +1,126 @@
+package br.jeanjacintho.tideflow.ai_service.service;
+
+import br.jeanjacintho.tideflow.ai_service.exception.ConversationBusyException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class ConversationLeaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationLeaseService.class);
+    private static final String KEY_PREFIX = "conversation:lease:";
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+        Long.class
+    );
+    private static final RedisScript<Long> RENEW_SCRIPT = RedisScript.of(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+        Long.class
+    );
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Duration renewInterval;
+    private final Duration waitTimeout;
+    private final Duration retryInterval;
+
+    public ConversationLeaseService(ReactiveStringRedisTemplate redisTemplate,
+                                    @Value("${conversation.lane.lease.enabled:true}") boolean enabled,
+                                    @Value("${conversation.lane.lease.ttl:180s}") Duration ttl,
+                                    @Value("${conversation.lane.lease.wait-timeout:30s}") Duration waitTimeout,
+                                    @Value("${conversation.lane.lease.retry-interval:250ms}") Duration retryInterval) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.renewInterval = ttl.dividedBy(3);
+        this.waitTimeout = waitTimeout;
+        this.retryInterval = retryInterval;
+    }
+
+    public <T> Flux<T> withLease(String conversationId, Flux<T> task, Mono<Void> pendingOnCancel) {
+        if (!enabled) {
+            return task;
+        }
+
+        String key = KEY_PREFIX + conversationId;
+        String token = UUID.randomUUID().toString();
+
+        return Flux.usingWhen(
+                acquire(key, token).map(acquired -> acquired ? new Lease(true, keepAlive(key, token)) : Lease.NONE),
+                lease -> task,
+                lease -> release(key, token, lease),
+                (lease, error) -> release(key, token, lease),
+                lease -> pendingOnCancel.then(Mono.defer(() -> release(key, token, lease)))
+        );
+    }
+
+    private Mono<Boolean> acquire(String key, String token) {
+        long maxAttempts = Math.max(1, waitTimeout.toMillis() / Math.max(1, retryInterval.toMillis()));
+
+        return redisTemplate.opsForValue().setIfAbsent(key, token, ttl)
+                .flatMap(acquired -> Boolean.TRUE.equals(acquired)
+                        ? Mono.just(true)
+                        : Mono.<Boolean>error(new LeaseHeldException()))
+                .retryWhen(Retry.fixedDelay(maxAttempts, retryInterval)
+                        .filter(LeaseHeldException.class::isInstance)
+                        .onRetryExhaustedThrow((spec, signal) -> new ConversationBusyException(
+                                "Conversa em processamento em outra instância, tente novamente em instantes")))
+                .onErrorResume(error -> !(error instanceof ConversationBusyException), error -> {
+                    logger.warn("Redis indisponível para lease da conversa {}, seguindo apenas com a fila local: {}",
+                        key, error.getMessage());
+                    return Mono.just(false);
+                });
+    }
+
+    private Disposable keepAlive(String key, String token) {
+        return Flux.interval(renewInterval)
+                .concatMap(tick -> redisTemplate.execute(RENEW_SCRIPT, List.of(key), List.of(token, String.valueOf(ttl.toMillis())))
+                        .next()
+                        .onErrorResume(error -> {
+                            logger.warn("Erro ao renovar lease {}: {}", key, error.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe(renewed -> {
+                    if (renewed == 0) {
+                        logger.warn("Lease {} expirou antes de ser renovado, outra instância pode assumir a conversa", key);
+                    }
+                });
+    }
+
+    private Mono<Void> release(String key, String token, Lease lease) {
+        lease.renewal().dispose();
+        if (!lease.acquired()) {
+            return Mono.empty();
+        }
+        return redisTemplate.execute(RELEASE_SCRIPT, List.of(key), List.of(token))
+                .then()
+                .onErrorResume(error -> {
+                    logger.warn("Erro ao liberar lease {}: {}", key, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private record Lease(boolean acquired, Disposable renewal) {
+        private static final Lease NONE = new Lease(false, Disposables.disposed());
+    }
+
+    private static final class LeaseHeldException extends RuntimeException {
+        private LeaseHeldException() {
+            super(null, null, false, false);
+        }
+    }
+}
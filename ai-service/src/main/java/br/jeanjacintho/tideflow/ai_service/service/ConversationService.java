@@ -1,408 +1,384 @@
 package br.jeanjacintho.tideflow.ai_service.service;
 
 import br.jeanjacintho.tideflow.ai_service.client.LLMClient;
+import br.jeanjacintho.tideflow.ai_service.dto.event.ConversationAnalysisEvent;
 import br.jeanjacintho.tideflow.ai_service.dto.request.ConversationRequest;
 import br.jeanjacintho.tideflow.ai_service.dto.response.ConversationHistoryResponse;
 import br.jeanjacintho.tideflow.ai_service.dto.response.ConversationResponse;
+import br.jeanjacintho.tideflow.ai_service.dto.response.ConversationStreamEvent;
+import br.jeanjacintho.tideflow.ai_service.dto.response.ConversationSummaryPage;
 import br.jeanjacintho.tideflow.ai_service.dto.response.ConversationSummaryResponse;
+import br.jeanjacintho.tideflow.ai_service.dto.response.RiskAnalysisResponse;
 import br.jeanjacintho.tideflow.ai_service.model.Conversation;
 import br.jeanjacintho.tideflow.ai_service.model.ConversationMessage;
 import br.jeanjacintho.tideflow.ai_service.model.EmotionalAnalysis;
 import br.jeanjacintho.tideflow.ai_service.model.MessageRole;
-import br.jeanjacintho.tideflow.ai_service.repository.ConversationMessageRepository;
 import br.jeanjacintho.tideflow.ai_service.repository.ConversationRepository;
-import br.jeanjacintho.tideflow.ai_service.repository.EmotionalAnalysisRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import br.jeanjacintho.tideflow.ai_service.repository.ConversationStore;
+import br.jeanjacintho.tideflow.ai_service.risk.RiskScreening;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.data.domain.Limit;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class ConversationService {
 
     private static final Logger logger = LoggerFactory.getLogger(ConversationService.class);
+    private static final int SEQUENCE_NUMBERS_PER_TURN = 2;
+    private static final int MAX_CONVERSATIONS_PAGE_SIZE = 100;
+    private static final int MESSAGE_PREVIEW_LENGTH = 100;
+    private static final int MAX_HISTORY_PAGE_SIZE = 200;
+    private static final int EXPORT_BATCH_SIZE = 500;
 
     private final LLMClient llmClient;
     private final ConversationRepository conversationRepository;
-    private final ConversationMessageRepository conversationMessageRepository;
+    private final ConversationStore conversationStore;
     private final MemoriaService memoriaService;
-    private final ObjectMapper objectMapper;
-    private final EmotionalAnalysisRepository emotionalAnalysisRepository;
     private final RiskDetectionService riskDetectionService;
     private final RiskAlertPublisher riskAlertPublisher;
-    private final EmotionalAggregationService aggregationService;
-    private final UserInfoService userInfoService;
+    private final ConversationContextService conversationContextService;
+    private final ConversationAnalysisPublisher conversationAnalysisPublisher;
+    private final Scheduler blockingScheduler;
 
     public ConversationService(LLMClient llmClient,
                                ConversationRepository conversationRepository,
-                               ConversationMessageRepository conversationMessageRepository,
+                               ConversationStore conversationStore,
                                MemoriaService memoriaService,
-                               ObjectMapper objectMapper,
-                               EmotionalAnalysisRepository emotionalAnalysisRepository,
                                RiskDetectionService riskDetectionService,
                                RiskAlertPublisher riskAlertPublisher,
-                               EmotionalAggregationService aggregationService,
-                               UserInfoService userInfoService) {
+                               ConversationContextService conversationContextService,
+                               ConversationAnalysisPublisher conversationAnalysisPublisher,
+                               Scheduler blockingScheduler) {
         this.llmClient = llmClient;
         this.conversationRepository = conversationRepository;
-        this.conversationMessageRepository = conversationMessageRepository;
+        this.conversationStore = conversationStore;
         this.memoriaService = memoriaService;
-        this.objectMapper = objectMapper;
-        this.emotionalAnalysisRepository = emotionalAnalysisRepository;
         this.riskDetectionService = riskDetectionService;
         this.riskAlertPublisher = riskAlertPublisher;
-        this.aggregationService = aggregationService;
-        this.userInfoService = userInfoService;
+        this.conversationContextService = conversationContextService;
+        this.conversationAnalysisPublisher = conversationAnalysisPublisher;
+        this.blockingScheduler = blockingScheduler;
     }
 
-    @Transactional
     public Mono<ConversationResponse> processConversation(ConversationRequest request) {
-        Conversation conversation = getOrCreateConversation(request.getConversationId(), request.getUserId());
-
-        List<ConversationMessage> existingMessages = conversationMessageRepository.findByConversationIdOrderBySequenceNumberAsc(conversation.getId());
-
-        int nextSequence = existingMessages.size() + 1;
-        ConversationMessage userMessage = new ConversationMessage(MessageRole.USER, request.getMessage(), nextSequence);
-        conversation.addMessage(userMessage);
-        conversationMessageRepository.save(userMessage);
-
-        riskDetectionService.analyzeRisk(request.getMessage(), request.getUserId())
-                .subscribe(
-                    riskAnalysis -> {
-                        logger.info("Análise de risco concluída para usuário {}: detectado={}, nível={}, confiança={}",
-                            request.getUserId(), riskAnalysis.isRiskDetected(), riskAnalysis.getRiskLevel(), riskAnalysis.getConfidence());
-
-                        if (riskAnalysis.isRiskDetected()) {
-                            logger.info("Risco detectado! Nível: {}, Motivo: {}", riskAnalysis.getRiskLevel(), riskAnalysis.getReason());
-
-                            if (riskAnalysis.getRiskLevel().equals("HIGH") ||
-                                riskAnalysis.getRiskLevel().equals("CRITICAL") ||
-                                riskAnalysis.getRiskLevel().equals("MEDIUM")) {
-                                logger.info("Publicando alerta de risco para usuário {} com nível {}", request.getUserId(), riskAnalysis.getRiskLevel());
-                                riskAlertPublisher.publishRiskAlert(request.getUserId(), request.getMessage(), riskAnalysis);
-                            } else {
-                                logger.info("Risco detectado mas nível {} não requer alerta imediato", riskAnalysis.getRiskLevel());
-                            }
-                        } else {
-                            logger.debug("Nenhum risco detectado na mensagem do usuário {}", request.getUserId());
-                        }
-                    },
-                    error -> {
-                        logger.error("Erro ao analisar risco para usuário {}: {}", request.getUserId(), error.getMessage(), error);
-                    }
-                );
-
-        List<Map<String, String>> history = buildHistoryFromMessages(existingMessages);
-        history.add(Map.of("role", "user", "content", request.getMessage()));
+        return startTurn(request).flatMap(turn -> turn.messagesForLLM()
+                .flatMap(llmClient::chatWithHistory)
+                .flatMap(aiResponse -> completeTurn(turn, aiResponse)));
+    }
 
-        Mono<String> memoriasMono = memoriaService.recuperarMemoriasRelevantesAsync(
-                request.getUserId(),
-                request.getMessage()
-        );
+    public Flux<ConversationStreamEvent> streamConversation(ConversationRequest request) {
+        return startTurn(request).flatMapMany(this::streamTurn);
+    }
 
-        return memoriasMono.flatMap(memoriasFormatadas -> {
-            String systemPrompt = buildSystemPromptWithMemories(memoriasFormatadas);
+    private Flux<ConversationStreamEvent> streamTurn(ConversationTurn turn) {
+        String conversationId = turn.conversation().getId().toString();
+        StringBuffer aiResponse = new StringBuffer();
+
+        Flux<ConversationStreamEvent> tokens = turn.messagesForLLM()
+                .flatMapMany(llmClient::streamChatWithHistory)
+                .doOnNext(aiResponse::append)
+                .map(token -> ConversationStreamEvent.token(conversationId, token))
+                .onErrorResume(error -> {
+                    logger.warn("Streaming da conversa {} interrompido após {} caracteres: {}",
+                            conversationId, aiResponse.length(), error.getMessage());
+                    return Flux.empty();
+                });
 
-            List<Map<String, String>> messagesForOllama = new ArrayList<>();
-            messagesForOllama.add(Map.of("role", "system", "content", systemPrompt));
-            messagesForOllama.addAll(history);
+        Flux<ConversationStreamEvent> fallback = Flux.defer(() -> appendFallbackIfEmpty(aiResponse)
+                ? Flux.just(ConversationStreamEvent.token(conversationId, LLMClient.FALLBACK_RESPONSE))
+                : Flux.empty());
 
-            return llmClient.chatWithHistory(messagesForOllama)
-                .flatMap(aiResponse -> {
-                    ConversationMessage assistantMessage = new ConversationMessage(
-                            MessageRole.ASSISTANT,
-                            aiResponse,
-                            nextSequence + 1
-                    );
-                    conversation.addMessage(assistantMessage);
-                    conversationMessageRepository.save(assistantMessage);
-
-                    conversationRepository.save(conversation);
-
-                    return llmClient.extractEmotionalAnalysisAndMemories(request.getMessage(), aiResponse)
-                            .map(jsonResponse -> {
-                                try {
-
-                                    jsonResponse = jsonResponse.replace("```json", "").replace("```", "").trim();
-
-                                    Map<String, Object> responseMap;
-                                    try {
-                                        responseMap = objectMapper.readValue(jsonResponse, new TypeReference<Map<String, Object>>() {});
-                                    } catch (JsonProcessingException e) {
-                                        logger.error("Erro ao fazer parse do JSON consolidado: {}", e.getMessage(), e);
-                                        throw new RuntimeException("Erro ao processar resposta da IA", e);
-                                    }
-
-                                    Map<String, Object> analiseEmocionalData = extractMapFromResponse(responseMap, "analiseEmocional");
-
-                                    EmotionalAnalysis analysis = parseEmotionalAnalysis(analiseEmocionalData);
-                                    analysis.setUsuarioId(request.getUserId());
-                                    analysis.setConversationId(conversation.getId());
-                                    analysis.setMessageId(userMessage.getId());
-                                    analysis.setSequenceNumber(userMessage.getSequenceNumber());
-
-                                    userInfoService.getUserInfo(request.getUserId(), null)
-                                        .ifPresent(userInfo -> {
-                                            analysis.setDepartmentId(userInfo.departmentId());
-                                            analysis.setCompanyId(userInfo.companyId());
-                                        });
-
-                                    EmotionalAnalysis savedAnalysis = emotionalAnalysisRepository.save(analysis);
-
-                                    if (savedAnalysis.getDepartmentId() != null && savedAnalysis.getCompanyId() != null) {
-                                        try {
-                                            aggregationService.processNewEmotionalAnalysis(savedAnalysis);
-                                        } catch (Exception e) {
-                                            logger.warn("Erro ao processar agregação em tempo real: {}", e.getMessage());
-                                        }
-                                    }
-
-                                    memoriaService.processarMensagemParaMemoriaConsolidada(
-                                            request.getUserId(),
-                                            request.getMessage(),
-                                            aiResponse,
-                                            responseMap
-                                    );
-
-                                    return new ConversationResponse(
-                                            aiResponse,
-                                            conversation.getId().toString(),
-                                            false,
-                                            analysis
-                                    );
-                                } catch (Exception e) {
-                                    logger.error("Erro ao processar resposta consolidada: {}", e.getMessage(), e);
-                                    EmotionalAnalysis defaultAnalysis = createDefaultEmotionalAnalysis();
-                                    defaultAnalysis.setUsuarioId(request.getUserId());
-                                    defaultAnalysis.setConversationId(conversation.getId());
-                                    defaultAnalysis.setMessageId(userMessage.getId());
-                                    defaultAnalysis.setSequenceNumber(userMessage.getSequenceNumber());
-
-                                    userInfoService.getUserInfo(request.getUserId(), null)
-                                        .ifPresent(userInfo -> {
-                                            defaultAnalysis.setDepartmentId(userInfo.departmentId());
-                                            defaultAnalysis.setCompanyId(userInfo.companyId());
-                                        });
-
-                                    EmotionalAnalysis savedDefaultAnalysis = emotionalAnalysisRepository.save(defaultAnalysis);
-
-                                    if (savedDefaultAnalysis.getDepartmentId() != null && savedDefaultAnalysis.getCompanyId() != null) {
-                                        try {
-                                            aggregationService.processNewEmotionalAnalysis(savedDefaultAnalysis);
-                                        } catch (Exception aggregationError) {
-                                            logger.warn("Erro ao processar agregação em tempo real: {}", aggregationError.getMessage());
-                                        }
-                                    }
-
-                                    return new ConversationResponse(
-                                            aiResponse,
-                                            conversation.getId().toString(),
-                                            false,
-                                            defaultAnalysis
-                                    );
-                                }
-                            })
-                            .onErrorReturn(new ConversationResponse(
-                                    aiResponse,
-                                    conversation.getId().toString(),
-                                    false,
-                                    createDefaultEmotionalAnalysis()
-                            ));
-                });
+        Mono<ConversationResponse> completion = Mono.defer(() -> {
+            if (appendFallbackIfEmpty(aiResponse)) {
+                logger.info("Streaming da conversa {} cancelado antes do primeiro token, salvando resposta padrão", conversationId);
+            }
+            return completeTurn(turn, aiResponse.toString());
+        }).cache();
+        Mono<ConversationStreamEvent> done = completion.map(ConversationStreamEvent::done);
+
+        return Flux.deferContextual(context -> {
+            ConversationLaneExecutor.holdOnCancel(context, completion);
+            return tokens.concatWith(fallback).concatWith(done)
+                    .doOnCancel(() -> completion.subscribe(
+                        null,
+                        error -> logger.error("Erro ao salvar resposta parcial da conversa {}: {}", conversationId, error.getMessage(), error)
+                    ));
         });
     }
 
-    private Conversation getOrCreateConversation(String conversationId, String userId){
-        if(conversationId != null && !conversationId.isBlank()) {
-            try {
-                UUID uuid = UUID.fromString(conversationId);
-                return conversationRepository.findByIdAndUserId(uuid, userId)
-                        .orElseGet(() -> createNewConversation(userId));
-            } catch(IllegalArgumentException e) {
-                return createNewConversation(userId);
+    private static boolean appendFallbackIfEmpty(StringBuffer aiResponse) {
+        synchronized (aiResponse) {
+            if (aiResponse.length() > 0) {
+                return false;
             }
+            aiResponse.append(LLMClient.FALLBACK_RESPONSE);
+            return true;
         }
-        return createNewConversation(userId);
     }
 
-    private Conversation createNewConversation(String userId) {
-        Conversation conversation = new Conversation(userId);
-        return conversationRepository.save(conversation);
+    private Mono<ConversationTurn> startTurn(ConversationRequest request) {
+        return getOrCreateConversation(request.getConversationId(), request.getUserId())
+                .flatMap(conversation -> conversationContextService.buildContext(conversation)
+                        .flatMap(history -> conversationStore
+                                .allocateSequenceNumbers(conversation.getId(), SEQUENCE_NUMBERS_PER_TURN)
+                                .flatMap(lastSequence -> {
+                                    int nextSequence = lastSequence - SEQUENCE_NUMBERS_PER_TURN + 1;
+                                    ConversationMessage userMessage = new ConversationMessage(MessageRole.USER, request.getMessage(), nextSequence);
+                                    userMessage.setConversation(conversation);
+                                    return conversationStore.saveMessage(userMessage);
+                                })
+                                .map(userMessage -> beginTurn(request, conversation, history, userMessage))));
     }
 
-    private List<Map<String, String>> buildHistoryFromMessages(List<ConversationMessage> messages) {
-        return messages.stream()
-                .map(msg -> Map.of(
-                        "role", msg.getRole().name().toLowerCase(),
-                        "content", msg.getContent()
-                ))
-                .collect(Collectors.toList());
-    }
+    private ConversationTurn beginTurn(ConversationRequest request,
+                                       Conversation conversation,
+                                       List<Map<String, String>> history,
+                                       ConversationMessage userMessage) {
+        RiskScreening riskScreening = riskDetectionService.screen(request.getMessage());
+        if (riskScreening.isEscalated()) {
+            RiskAnalysisResponse riskAnalysis = riskDetectionService.escalatedAnalysis(request.getMessage(), riskScreening);
+            logger.info("Publicando alerta de risco para usuário {} com nível {}", request.getUserId(), riskAnalysis.getRiskLevel());
+            Mono.fromRunnable(() -> riskAlertPublisher.publishRiskAlert(request.getUserId(), request.getMessage(), riskAnalysis))
+                    .subscribeOn(blockingScheduler)
+                    .subscribe(
+                        null,
+                        error -> logger.error("Erro ao publicar alerta de risco para usuário {}: {}", request.getUserId(), error.getMessage(), error)
+                    );
+        }
 
-    private String buildSystemPromptWithMemories(String memoriasFormatadas) {
-        StringBuilder promptBuilder = new StringBuilder();
+        Mono<List<Map<String, String>>> messagesForLLM = memoriaService.recuperarMemoriasRelevantesAsync(
+                request.getUserId(),
+                request.getMessage()
+        ).map(memoriasFormatadas -> PromptAssembler.chat(history, memoriasFormatadas, request.getMessage()));
 
-        promptBuilder.append("Você é um diário pessoal com IA. Seja empático, acolhedor e faça perguntas relevantes.\n");
-        promptBuilder.append("Use um tom acolhedor, mas profissional. Faça perguntas curtas e reflexivas que instigam o usuário a se aprofundar e falar mais.\n");
-        promptBuilder.append("Valide os sentimentos compartilhados e faça conexões com o que já foi mencionado.\n");
-        promptBuilder.append("Evite palavras intimistas como 'amor', 'querido', etc.\n");
-        promptBuilder.append("Sempre termine suas respostas com uma pergunta curta que convide o usuário a continuar explorando seus sentimentos.\n");
-        promptBuilder.append("Mantenha a conversa fluida e natural, como uma sessão de terapia.\n\n");
+        return new ConversationTurn(request, conversation, userMessage, userMessage.getSequenceNumber(), riskScreening.isEscalated(), messagesForLLM);
+    }
 
-        if (!memoriasFormatadas.isEmpty()) {
-            promptBuilder.append(memoriasFormatadas);
-            promptBuilder.append("\n");
-        }
+    private Mono<ConversationResponse> completeTurn(ConversationTurn turn, String aiResponse) {
+        ConversationRequest request = turn.request();
+        Conversation conversation = turn.conversation();
+        ConversationMessage userMessage = turn.userMessage();
 
-        promptBuilder.append("IMPORTANTE: Você tem acesso às memórias importantes do usuário. ");
-        promptBuilder.append("Use essas informações para fazer perguntas relevantes e mostrar que se lembra de eventos, objetivos e preferências mencionados anteriormente. ");
-        promptBuilder.append("Por exemplo, se o usuário mencionou que está esperando resultado de uma prova, você pode perguntar sobre isso em conversas futuras quando for pertinente. ");
-        promptBuilder.append("Não mencione explicitamente que está consultando memórias, apenas use o contexto de forma natural.");
+        ConversationMessage assistantMessage = new ConversationMessage(
+                MessageRole.ASSISTANT,
+                aiResponse,
+                turn.nextSequence() + 1
+        );
+        assistantMessage.setConversation(conversation);
+
+        return conversationStore.saveMessage(assistantMessage)
+                .publishOn(blockingScheduler)
+                .map(saved -> {
+                    conversationContextService.updateSummaryIfNeeded(conversation, assistantMessage.getSequenceNumber()).subscribe();
+
+                    conversationAnalysisPublisher.publish(new ConversationAnalysisEvent(
+                            conversation.getId(),
+                            userMessage.getId(),
+                            userMessage.getSequenceNumber(),
+                            request.getUserId(),
+                            request.getMessage(),
+                            aiResponse,
+                            turn.riskEscalated()
+                    ));
 
-        return promptBuilder.toString();
+                    return new ConversationResponse(
+                            aiResponse,
+                            conversation.getId().toString(),
+                            false,
+                            null,
+                            userMessage.getId() != null ? userMessage.getId().toString() : null
+                    );
+                });
     }
 
-    private Map<String, Object> extractMapFromResponse(Map<String, Object> responseMap, String key) {
-        Object obj = responseMap.getOrDefault(key, new HashMap<>());
-        if (obj instanceof Map<?, ?>) {
-            Map<?, ?> rawMap = (Map<?, ?>) obj;
-            Map<String, Object> result = new HashMap<>();
-            for (Map.Entry<?, ?> entry : rawMap.entrySet()) {
-                if (entry.getKey() instanceof String) {
-                    result.put((String) entry.getKey(), entry.getValue());
-                }
+    private record ConversationTurn(ConversationRequest request,
+                                    Conversation conversation,
+                                    ConversationMessage userMessage,
+                                    int nextSequence,
+                                    boolean riskEscalated,
+                                    Mono<List<Map<String, String>>> messagesForLLM) {}
+
+    private Mono<Conversation> getOrCreateConversation(String conversationId, String userId){
+        if(conversationId != null && !conversationId.isBlank()) {
+            try {
+                UUID uuid = UUID.fromString(conversationId);
+                return conversationStore.findByIdAndUserId(uuid, userId)
+                        .switchIfEmpty(Mono.defer(() -> conversationStore.create(userId)));
+            } catch(IllegalArgumentException e) {
+                return conversationStore.create(userId);
             }
-            return result;
         }
-        return new HashMap<>();
+        return conversationStore.create(userId);
     }
 
-    private List<String> extractStringListFromMap(Map<String, Object> map, String key) {
-        Object obj = map.getOrDefault(key, new ArrayList<>());
-        if (obj instanceof List<?>) {
-            List<?> rawList = (List<?>) obj;
-            List<String> result = new ArrayList<>();
-            for (Object item : rawList) {
-                if (item instanceof String) {
-                    result.add((String) item);
-                }
-            }
-            return result;
-        }
-        return new ArrayList<>();
+    public Mono<ConversationHistoryResponse> getConversationHistory(String conversationId, String userId) {
+        return findOwnedConversation(conversationId, userId)
+                .flatMap(conversation -> conversationStore.findMessages(conversation.getId())
+                        .collectList()
+                        .map(messages -> new ConversationHistoryResponse(
+                                conversation.getId(),
+                                conversation.getUserId(),
+                                conversation.getCreatedAt(),
+                                conversation.getUpdatedAt(),
+                                messages
+                        )));
     }
 
-    private EmotionalAnalysis parseEmotionalAnalysis(Map<String, Object> analysisData) {
-        String primaryEmotional = (String) analysisData.getOrDefault("primaryEmotional", "neutro");
-        if (primaryEmotional == null || primaryEmotional.isEmpty()) {
-            primaryEmotional = "neutro";
+    public Mono<ConversationHistoryResponse> getConversationHistoryPage(String conversationId, String userId,
+                                                                       Integer before, Integer after, int limit) {
+        if (before != null && after != null) {
+            return Mono.error(new IllegalArgumentException("Use only one of before or after"));
         }
+        int pageSize = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+
+        return findOwnedConversation(conversationId, userId)
+                .flatMap(conversation -> {
+                    UUID id = conversation.getId();
+                    Flux<ConversationMessage> rows = after != null
+                            ? conversationStore.findMessagesAfter(id, after, pageSize + 1)
+                            : before != null
+                                    ? conversationStore.findMessagesBefore(id, before, pageSize + 1)
+                                    : conversationStore.findRecentMessages(id, pageSize + 1);
+                    Mono<Boolean> opposite = after != null
+                            ? conversationStore.findMessagesBefore(id, after + 1, 1).hasElements()
+                            : before != null
+                                    ? conversationStore.findMessagesAfter(id, before - 1, 1).hasElements()
+                                    : Mono.just(false);
+
+                    return Mono.zip(rows.collectList(), opposite).map(result -> {
+                        List<ConversationMessage> messages = result.getT1();
+                        boolean hasMore = messages.size() > pageSize;
+                        List<ConversationMessage> page;
+                        boolean hasMoreBefore;
+                        boolean hasMoreAfter;
+
+                        if (after != null) {
+                            page = hasMore ? messages.subList(0, pageSize) : messages;
+                            hasMoreBefore = result.getT2();
+                            hasMoreAfter = hasMore;
+                        } else {
+                            page = hasMore ? messages.subList(1, messages.size()) : messages;
+                            hasMoreBefore = hasMore;
+                            hasMoreAfter = result.getT2();
+                        }
 
-        Integer intensity = 50;
-        Object intensityObj = analysisData.get("intensity");
-        if (intensityObj instanceof Number) {
-            intensity = ((Number) intensityObj).intValue();
+                        return new ConversationHistoryResponse(
+                                conversation.getId(),
+                                conversation.getUserId(),
+                                conversation.getCreatedAt(),
+                                conversation.getUpdatedAt(),
+                                page,
+                                hasMoreBefore,
+                                hasMoreAfter
+                        );
+                    });
+                });
+    }
 
-            intensity = Math.max(0, Math.min(100, intensity));
-        }
+    public Flux<ConversationHistoryResponse.MessageResponse> exportConversation(String conversationId, String userId) {
+        return findOwnedConversation(conversationId, userId)
+                .flatMapMany(conversation -> exportMessagesAfter(conversation.getId(), 0))
+                .map(ConversationHistoryResponse.MessageResponse::from);
+    }
 
-        List<String> triggers = extractStringListFromMap(analysisData, "triggers");
+    private Flux<ConversationMessage> exportMessagesAfter(UUID conversationId, int afterSequence) {
+        return conversationStore.findMessagesAfter(conversationId, afterSequence, EXPORT_BATCH_SIZE)
+                .collectList()
+                .flatMapMany(batch -> {
+                    Flux<ConversationMessage> current = Flux.fromIterable(batch);
+                    if (batch.size() < EXPORT_BATCH_SIZE) {
+                        return current;
+                    }
+                    int lastSequence = batch.get(batch.size() - 1).getSequenceNumber();
+                    return current.concatWith(Flux.defer(() -> exportMessagesAfter(conversationId, lastSequence)));
+                });
+    }
 
-        String context = (String) analysisData.getOrDefault("context", "");
-        if (context == null) {
-            context = "";
+    private Mono<Conversation> findOwnedConversation(String conversationId, String userId) {
+        UUID uuid;
+        try {
+            uuid = UUID.fromString(conversationId);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(new IllegalArgumentException("Invalid conversation ID"));
         }
+        return conversationStore.findByIdAndUserId(uuid, userId)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Conversation not found")));
+    }
 
-        if (context.length() > 500) {
-            context = context.substring(0, 497) + "...";
+    public Mono<EmotionalAnalysis> getMessageAnalysis(String conversationId, String messageId, String userId) {
+        try {
+            UUID conversationUuid = UUID.fromString(conversationId);
+            UUID messageUuid = UUID.fromString(messageId);
+            return conversationStore.findByIdAndUserId(conversationUuid, userId)
+                    .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Conversation not found")))
+                    .flatMap(conversation -> conversationStore.findAnalysisByMessageId(messageUuid))
+                    .filter(analysis -> conversationUuid.equals(analysis.getConversationId()));
+        } catch (IllegalArgumentException e) {
+            return Mono.error(new IllegalArgumentException("Invalid conversation or message ID"));
         }
+    }
 
-        String suggestion = (String) analysisData.getOrDefault("suggestion",
-                "Continue conversando para entender melhor suas emoções.");
-        if (suggestion == null || suggestion.isEmpty()) {
-            suggestion = "Continue conversando para entender melhor suas emoções.";
+    public Mono<ConversationSummaryPage> getUserConversations(String userId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_CONVERSATIONS_PAGE_SIZE));
+        ConversationCursor after;
+        try {
+            after = cursor != null && !cursor.isBlank() ? ConversationCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Mono.error(new IllegalArgumentException("Invalid cursor"));
         }
 
-        return new EmotionalAnalysis(
-                primaryEmotional,
-                intensity,
-                triggers,
-                context,
-                suggestion
-        );
-    }
+        return Mono.fromCallable(() -> {
+                    List<ConversationSummaryResponse> rows = after == null
+                            ? conversationRepository.findSummariesByUserId(userId, Limit.of(pageSize + 1))
+                            : conversationRepository.findSummariesByUserIdBefore(
+                                    userId, after.createdAt(), after.id(), Limit.of(pageSize + 1));
 
-    private EmotionalAnalysis createDefaultEmotionalAnalysis() {
-        return new EmotionalAnalysis(
-                "neutro",
-                50,
-                new ArrayList<>(),
-                "",
-                "Continue conversando para entender melhor suas emoções."
-        );
+                    boolean hasMore = rows.size() > pageSize;
+                    List<ConversationSummaryResponse> page = hasMore ? rows.subList(0, pageSize) : rows;
+                    page.forEach(summary -> summary.setLastMessagePreview(formatPreview(summary.getLastMessagePreview())));
+
+                    String nextCursor = null;
+                    if (hasMore) {
+                        ConversationSummaryResponse last = page.get(page.size() - 1);
+                        nextCursor = new ConversationCursor(last.getCreatedAt(), last.getConversationId()).encode();
+                    }
+                    return new ConversationSummaryPage(new ArrayList<>(page), nextCursor);
+                })
+                .subscribeOn(blockingScheduler);
     }
 
-    @Transactional(readOnly = true)
-    public Mono<ConversationHistoryResponse> getConversationHistory(String conversationId, String userId) {
-        try {
-            UUID uuid = UUID.fromString(conversationId);
-            return Mono.fromCallable(() -> {
-                Conversation conversation = conversationRepository
-                        .findByIdAndUserId(uuid, userId)
-                        .orElseThrow(() -> new IllegalArgumentException("Conversation not found"));
-
-                List<ConversationMessage> messages = conversationMessageRepository
-                        .findByConversationIdOrderBySequenceNumberAsc(conversation.getId());
-
-                return new ConversationHistoryResponse(
-                        conversation.getId(),
-                        conversation.getUserId(),
-                        conversation.getCreatedAt(),
-                        conversation.getUpdatedAt(),
-                        messages
-                );
-            });
-        } catch (IllegalArgumentException e) {
-            return Mono.error(new IllegalArgumentException("Invalid conversation ID"));
+    private String formatPreview(String preview) {
+        if (preview == null) {
+            return "";
         }
+        return preview.length() > MESSAGE_PREVIEW_LENGTH ? preview.substring(0, MESSAGE_PREVIEW_LENGTH) + "..." : preview;
     }
 
-    @Transactional(readOnly = true)
-    public Flux<ConversationSummaryResponse> getUserConversations(String userId) {
-        List<Conversation> conversations = conversationRepository.findByUserIdOrderByCreatedAtDesc(userId);
-
-        Map<UUID, Long> messageCounts = new HashMap<>();
-        Map<UUID, String> lastMessages = new HashMap<>();
-
-        for (Conversation conv : conversations) {
-            messageCounts.put(conv.getId(), conversationMessageRepository.countByConversationId(conv.getId()));
-
-            conversationMessageRepository.findLastMessageByConversationId(conv.getId())
-                    .stream()
-                    .findFirst()
-                    .ifPresent(msg -> {
-                        String content = msg.getContent();
-                        lastMessages.put(conv.getId(),
-                                content.length() > 100 ? content.substring(0, 100) + "..." : content);
-                    });
+    private record ConversationCursor(LocalDateTime createdAt, UUID id) {
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
         }
 
-        return Flux.fromIterable(conversations)
-                .map(conversation -> new ConversationSummaryResponse(
-                        conversation.getId(),
-                        conversation.getUserId(),
-                        conversation.getCreatedAt(),
-                        conversation.getUpdatedAt(),
-                        messageCounts.getOrDefault(conversation.getId(), 0L),
-                        lastMessages.getOrDefault(conversation.getId(), "")
-                ));
+        static ConversationCursor decode(String cursor) {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new ConversationCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1))
+            );
+        }
     }
 }
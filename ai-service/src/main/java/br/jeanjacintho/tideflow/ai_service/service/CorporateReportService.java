@@ -1,6 +1,9 @@
 package br.jeanjacintho.tideflow.ai_service.service;
 
 import br.jeanjacintho.tideflow.ai_service.client.LLMClient;
+import br.jeanjacintho.tideflow.ai_service.client.LLMPriority;
+import br.jeanjacintho.tideflow.ai_service.client.LLMTenant;
+import br.jeanjacintho.tideflow.ai_service.client.PromptEncoder;
 import br.jeanjacintho.tideflow.ai_service.dto.request.ReportGenerationRequest;
 import br.jeanjacintho.tideflow.ai_service.dto.response.CorporateReportResponseDTO;
 import br.jeanjacintho.tideflow.ai_service.dto.response.ReportListResponseDTO;
@@ -10,7 +13,6 @@ import br.jeanjacintho.tideflow.ai_service.model.CorporateReport.ReportType;
 import br.jeanjacintho.tideflow.ai_service.model.ReportSection;
 import br.jeanjacintho.tideflow.ai_service.repository.CorporateReportRepository;
 import br.jeanjacintho.tideflow.ai_service.repository.ReportSectionRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
@@ -42,6 +44,7 @@ public class CorporateReportService {
     private final ImpactAnalysisService impactAnalysisService;
     private final CorporateDashboardService dashboardService;
     private final ObjectMapper objectMapper;
+    private final PromptEncoder promptEncoder;
 
     public CorporateReportService(
             CorporateReportRepository reportRepository,
@@ -52,7 +55,8 @@ public class CorporateReportService {
             TurnoverPredictionService turnoverPredictionService,
             ImpactAnalysisService impactAnalysisService,
             CorporateDashboardService dashboardService,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            PromptEncoder promptEncoder) {
         this.reportRepository = reportRepository;
         this.sectionRepository = sectionRepository;
         this.llmClient = llmClient;
@@ -62,6 +66,7 @@ public class CorporateReportService {
         this.impactAnalysisService = impactAnalysisService;
         this.dashboardService = dashboardService;
         this.objectMapper = objectMapper;
+        this.promptEncoder = promptEncoder;
     }
 
     @Async
@@ -194,7 +199,10 @@ public class CorporateReportService {
 
         try {
             String prompt = buildInsightsPrompt(report, metrics, request);
-            String aiResponse = llmClient.generateResponse(prompt).block();
+            String aiResponse = llmClient.generateResponse(prompt)
+                    .contextWrite(LLMPriority.BATCH.asContext())
+                    .contextWrite(LLMTenant.of(report.getCompanyId(), null).asContext())
+                    .block();
 
             if (aiResponse != null && !aiResponse.isEmpty()) {
                 try {
@@ -217,7 +225,10 @@ public class CorporateReportService {
                                            Map<String, Object> insights, ReportGenerationRequest request) {
         try {
             String prompt = buildExecutiveSummaryPrompt(report, metrics, insights, request);
-            String aiResponse = llmClient.generateResponse(prompt).block();
+            String aiResponse = llmClient.generateResponse(prompt)
+                    .contextWrite(LLMPriority.BATCH.asContext())
+                    .contextWrite(LLMTenant.of(report.getCompanyId(), null).asContext())
+                    .block();
 
             if (aiResponse != null && !aiResponse.isEmpty()) {
                 return aiResponse.trim();
@@ -233,7 +244,10 @@ public class CorporateReportService {
                                           Map<String, Object> insights, ReportGenerationRequest request) {
         try {
             String prompt = buildRecommendationsPrompt(report, metrics, insights, request);
-            String aiResponse = llmClient.generateResponse(prompt).block();
+            String aiResponse = llmClient.generateResponse(prompt)
+                    .contextWrite(LLMPriority.BATCH.asContext())
+                    .contextWrite(LLMTenant.of(report.getCompanyId(), null).asContext())
+                    .block();
 
             if (aiResponse != null && !aiResponse.isEmpty()) {
                 return aiResponse.trim();
@@ -293,12 +307,7 @@ public class CorporateReportService {
         prompt.append("Analise os seguintes dados e gere insights acionáveis em formato JSON.\n\n");
         prompt.append("Tipo de Relatório: ").append(report.getReportType()).append("\n");
         prompt.append("Período: ").append(report.getPeriodStart()).append(" a ").append(report.getPeriodEnd()).append("\n");
-        try {
-            prompt.append("Dados: ").append(objectMapper.writeValueAsString(metrics)).append("\n\n");
-        } catch (JsonProcessingException e) {
-            logger.warn("Erro ao serializar JSON, usando toString: {}", e.getMessage());
-            prompt.append("Dados: ").append(metrics.toString()).append("\n\n");
-        }
+        prompt.append("Dados:\n").append(promptEncoder.encode("report-metrics", metrics)).append("\n\n");
         prompt.append("Gere insights estruturados incluindo: principais descobertas, padrões identificados, ");
         prompt.append("áreas de preocupação e oportunidades de melhoria. Retorne apenas JSON válido.");
         return prompt.toString();
@@ -310,14 +319,8 @@ public class CorporateReportService {
         prompt.append("Crie um resumo executivo conciso (2-3 parágrafos) para um relatório corporativo de bem-estar.\n\n");
         prompt.append("Tipo: ").append(report.getReportType()).append("\n");
         prompt.append("Período: ").append(report.getPeriodStart()).append(" a ").append(report.getPeriodEnd()).append("\n");
-        try {
-            prompt.append("Métricas principais: ").append(objectMapper.writeValueAsString(metrics)).append("\n");
-            prompt.append("Insights: ").append(objectMapper.writeValueAsString(insights)).append("\n\n");
-        } catch (JsonProcessingException e) {
-            logger.warn("Erro ao serializar JSON, usando toString: {}", e.getMessage());
-            prompt.append("Métricas principais: ").append(metrics.toString()).append("\n");
-            prompt.append("Insights: ").append(insights.toString()).append("\n\n");
-        }
+        prompt.append("Métricas principais:\n").append(promptEncoder.encode("report-metrics", metrics)).append("\n");
+        prompt.append("Insights:\n").append(promptEncoder.encode("report-insights", insights)).append("\n\n");
         prompt.append("O resumo deve ser claro, direto e focado em ações para gestores.");
         return prompt.toString();
     }
@@ -327,14 +330,8 @@ public class CorporateReportService {
         StringBuilder prompt = new StringBuilder();
         prompt.append("Com base nos dados abaixo, gere recomendações práticas e acionáveis para melhorar ");
         prompt.append("o bem-estar corporativo. Liste 5-7 recomendações prioritárias.\n\n");
-        try {
-            prompt.append("Dados: ").append(objectMapper.writeValueAsString(metrics)).append("\n");
-            prompt.append("Insights: ").append(objectMapper.writeValueAsString(insights)).append("\n");
-        } catch (JsonProcessingException e) {
-            logger.warn("Erro ao serializar JSON, usando toString: {}", e.getMessage());
-            prompt.append("Dados: ").append(metrics.toString()).append("\n");
-            prompt.append("Insights: ").append(insights.toString()).append("\n");
-        }
+        prompt.append("Dados:\n").append(promptEncoder.encode("report-metrics", metrics)).append("\n");
+        prompt.append("Insights:\n").append(promptEncoder.encode("report-insights", insights)).append("\n");
         return prompt.toString();
     }
 
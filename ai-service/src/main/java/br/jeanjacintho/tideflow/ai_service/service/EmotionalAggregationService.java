@@ -26,14 +26,17 @@ public class EmotionalAggregationService {
     private final EmotionalAnalysisRepository emotionalAnalysisRepository;
     private final DepartmentEmotionalAggregateRepository departmentAggregateRepository;
     private final CompanyEmotionalAggregateRepository companyAggregateRepository;
+    private final IncrementalAggregationService incrementalAggregationService;
 
     public EmotionalAggregationService(
             EmotionalAnalysisRepository emotionalAnalysisRepository,
             DepartmentEmotionalAggregateRepository departmentAggregateRepository,
-            CompanyEmotionalAggregateRepository companyAggregateRepository) {
+            CompanyEmotionalAggregateRepository companyAggregateRepository,
+            IncrementalAggregationService incrementalAggregationService) {
         this.emotionalAnalysisRepository = emotionalAnalysisRepository;
         this.departmentAggregateRepository = departmentAggregateRepository;
         this.companyAggregateRepository = companyAggregateRepository;
+        this.incrementalAggregationService = incrementalAggregationService;
     }
 
     @Transactional
@@ -199,6 +202,13 @@ public class EmotionalAggregationService {
             return;
         }
 
+        try {
+            incrementalAggregationService.apply(analysis);
+            return;
+        } catch (Exception e) {
+            logger.warn("Erro na agregação incremental, recalculando o dia completo: {}", e.getMessage());
+        }
+
         LocalDate analysisDate = analysis.getCreatedAt().toLocalDate();
 
         aggregateByDepartment(analysis.getDepartmentId(), analysisDate);
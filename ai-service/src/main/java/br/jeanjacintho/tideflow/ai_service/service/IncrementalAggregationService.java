@@ -0,0 +1,416 @@
+package br.jeanjacintho.tideflow.ai_service.service;
+
+import br.jeanjacintho.tideflow.ai_service.model.CompanyEmotionalAggregate;
+import br.jeanjacintho.tideflow.ai_service.model.DepartmentEmotionalAggregate;
+import br.jeanjacintho.tideflow.ai_service.model.EmotionalAnalysis;
+import br.jeanjacintho.tideflow.ai_service.repository.CompanyEmotionalAggregateRepository;
+import br.jeanjacintho.tideflow.ai_service.repository.DepartmentEmotionalAggregateRepository;
+import br.jeanjacintho.tideflow.ai_service.repository.EmotionalAnalysisRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.function.Supplier;
+
+@Service
+public class IncrementalAggregationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalAggregationService.class);
+    private static final int MIN_USERS_FOR_AGGREGATION = 5;
+    private static final int RISK_INTENSITY_THRESHOLD = 80;
+    private static final Duration STATE_TTL = Duration.ofDays(3);
+    private static final String KEY_PREFIX = "aggregation:";
+    private static final String NULL_MEMBER = "null";
+
+    private static final String FIELD_MESSAGES = "messages";
+    private static final String FIELD_INTENSITY_SUM = "intensitySum";
+    private static final String FIELD_RISK_ALERTS = "riskAlerts";
+    private static final String FIELD_COMPANY_ID = "companyId";
+    private static final String EMOTION_PREFIX = "emotion:";
+    private static final String DEPARTMENT_PREFIX = "dept:";
+    private static final long NEEDS_HYDRATION = -1L;
+
+    private static final String UPDATE_STATE = """
+            local function update()
+                local ttl = tonumber(ARGV[1])
+                local i = 2
+                local increments = tonumber(ARGV[i])
+                i = i + 1
+                for _ = 1, increments do
+                    redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1])
+                    i = i + 2
+                end
+                local defaults = tonumber(ARGV[i])
+                i = i + 1
+                for _ = 1, defaults do
+                    redis.call('HSETNX', KEYS[1], ARGV[i], ARGV[i + 1])
+                    i = i + 2
+                end
+                for k = 3, #KEYS do
+                    local members = tonumber(ARGV[i])
+                    i = i + 1
+                    for _ = 1, members do
+                        redis.call('SADD', KEYS[k], ARGV[i])
+                        i = i + 1
+                    end
+                    redis.call('EXPIRE', KEYS[k], ttl)
+                end
+                local applied = tonumber(ARGV[i])
+                i = i + 1
+                for _ = 1, applied do
+                    redis.call('SADD', KEYS[2], ARGV[i])
+                    i = i + 1
+                end
+                redis.call('EXPIRE', KEYS[1], ttl)
+                redis.call('EXPIRE', KEYS[2], ttl)
+            end
+            """;
+
+    static final RedisScript<Long> APPLY_SCRIPT = RedisScript.of(UPDATE_STATE + """
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return -1
+            end
+            if redis.call('SISMEMBER', KEYS[2], ARGV[#ARGV]) == 1 then
+                return 0
+            end
+            update()
+            return 1
+            """, Long.class);
+
+    static final RedisScript<Long> HYDRATE_SCRIPT = RedisScript.of(UPDATE_STATE + """
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                return 0
+            end
+            for k = 2, #KEYS do
+                redis.call('DEL', KEYS[k])
+            end
+            update()
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final EmotionalAnalysisRepository emotionalAnalysisRepository;
+    private final DepartmentEmotionalAggregateRepository departmentAggregateRepository;
+    private final CompanyEmotionalAggregateRepository companyAggregateRepository;
+
+    public IncrementalAggregationService(
+            StringRedisTemplate redisTemplate,
+            EmotionalAnalysisRepository emotionalAnalysisRepository,
+            DepartmentEmotionalAggregateRepository departmentAggregateRepository,
+            CompanyEmotionalAggregateRepository companyAggregateRepository) {
+        this.redisTemplate = redisTemplate;
+        this.emotionalAnalysisRepository = emotionalAnalysisRepository;
+        this.departmentAggregateRepository = departmentAggregateRepository;
+        this.companyAggregateRepository = companyAggregateRepository;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void apply(EmotionalAnalysis analysis) {
+        LocalDate date = analysis.getCreatedAt().toLocalDate();
+        UUID departmentId = analysis.getDepartmentId();
+        UUID companyId = analysis.getCompanyId();
+        String departmentKey = departmentKey(departmentId, date);
+        String companyKey = companyKey(companyId, date);
+
+        boolean departmentApplied = update(departmentDelta(departmentKey, analysis),
+            () -> departmentSnapshot(departmentKey, departmentId, date));
+        boolean companyApplied = update(companyDelta(companyKey, analysis),
+            () -> companySnapshot(companyKey, companyId, date));
+
+        if (!departmentApplied && !companyApplied) {
+            logger.debug("Análise {} já aplicada na agregação incremental", analysis.getId());
+        }
+
+        writeDepartmentAggregate(departmentKey, departmentId, date);
+        writeCompanyAggregate(companyKey, companyId, date);
+    }
+
+    private boolean update(StateUpdate delta, Supplier<StateUpdate> snapshot) {
+        Long result = execute(APPLY_SCRIPT, delta);
+        if (result != null && result == NEEDS_HYDRATION) {
+            execute(HYDRATE_SCRIPT, snapshot.get());
+            result = execute(APPLY_SCRIPT, delta);
+        }
+        return result != null && result == 1;
+    }
+
+    private Long execute(RedisScript<Long> script, StateUpdate update) {
+        return redisTemplate.execute(script, update.keys(), update.args().toArray());
+    }
+
+    private StateUpdate departmentDelta(String key, EmotionalAnalysis analysis) {
+        Map<String, Long> increments = new LinkedHashMap<>();
+        increments.put(FIELD_MESSAGES, 1L);
+        increments.put(FIELD_INTENSITY_SUM, (long) intensity(analysis));
+        increments.put(FIELD_RISK_ALERTS, isRiskAlert(analysis) ? 1L : 0L);
+        increments.put(EMOTION_PREFIX + analysis.getPrimaryEmotional(), 1L);
+
+        Map<String, Set<String>> members = new LinkedHashMap<>();
+        members.put(key + ":users", Set.of(analysis.getUsuarioId()));
+        members.put(key + ":conversations", Set.of(member(analysis.getConversationId())));
+
+        return stateUpdate(key, increments, companyDefault(analysis.getCompanyId()), members,
+            List.of(analysis.getId().toString()));
+    }
+
+    private StateUpdate companyDelta(String key, EmotionalAnalysis analysis) {
+        String departmentField = DEPARTMENT_PREFIX + analysis.getDepartmentId();
+
+        Map<String, Long> increments = new LinkedHashMap<>();
+        increments.put(FIELD_MESSAGES, 1L);
+        increments.put(FIELD_INTENSITY_SUM, (long) intensity(analysis));
+        increments.put(FIELD_RISK_ALERTS, isRiskAlert(analysis) ? 1L : 0L);
+        increments.put(departmentField + ":" + FIELD_MESSAGES, 1L);
+        increments.put(departmentField + ":" + FIELD_INTENSITY_SUM, (long) intensity(analysis));
+
+        Map<String, Set<String>> members = new LinkedHashMap<>();
+        members.put(key + ":users", Set.of(analysis.getUsuarioId()));
+        members.put(key + ":conversations", Set.of(member(analysis.getConversationId())));
+        members.put(key + ":" + departmentField + ":conversations", Set.of(member(analysis.getConversationId())));
+
+        return stateUpdate(key, increments, Map.of(), members, List.of(analysis.getId().toString()));
+    }
+
+    private StateUpdate departmentSnapshot(String key, UUID departmentId, LocalDate date) {
+        List<EmotionalAnalysis> analyses = emotionalAnalysisRepository.findByDepartmentIdAndDateRange(
+            departmentId, date.atStartOfDay(), date.atTime(LocalTime.MAX)
+        );
+        logger.info("Inicializando estado incremental do departamento {} na data {} com {} análises",
+            departmentId, date, analyses.size());
+
+        Map<String, Long> counters = newCounters();
+        Set<String> users = new HashSet<>();
+        Set<String> conversations = new HashSet<>();
+        List<String> applied = new ArrayList<>(analyses.size());
+        UUID companyId = null;
+
+        for (EmotionalAnalysis analysis : analyses) {
+            counters.merge(FIELD_MESSAGES, 1L, Long::sum);
+            counters.merge(FIELD_INTENSITY_SUM, (long) intensity(analysis), Long::sum);
+            if (isRiskAlert(analysis)) {
+                counters.merge(FIELD_RISK_ALERTS, 1L, Long::sum);
+            }
+            counters.merge(EMOTION_PREFIX + analysis.getPrimaryEmotional(), 1L, Long::sum);
+            users.add(analysis.getUsuarioId());
+            conversations.add(member(analysis.getConversationId()));
+            applied.add(analysis.getId().toString());
+            if (companyId == null) {
+                companyId = analysis.getCompanyId();
+            }
+        }
+
+        Map<String, Set<String>> members = new LinkedHashMap<>();
+        members.put(key + ":users", users);
+        members.put(key + ":conversations", conversations);
+
+        return stateUpdate(key, counters, companyDefault(companyId), members, applied);
+    }
+
+    private StateUpdate companySnapshot(String key, UUID companyId, LocalDate date) {
+        List<EmotionalAnalysis> analyses = emotionalAnalysisRepository.findByCompanyIdAndDateRange(
+            companyId, date.atStartOfDay(), date.atTime(LocalTime.MAX)
+        );
+        logger.info("Inicializando estado incremental da empresa {} na data {} com {} análises",
+            companyId, date, analyses.size());
+
+        Map<String, Long> counters = newCounters();
+        Map<String, Set<String>> members = new LinkedHashMap<>();
+        members.put(key + ":users", new HashSet<>());
+        members.put(key + ":conversations", new HashSet<>());
+        List<String> applied = new ArrayList<>(analyses.size());
+
+        for (EmotionalAnalysis analysis : analyses) {
+            long intensity = intensity(analysis);
+            counters.merge(FIELD_MESSAGES, 1L, Long::sum);
+            counters.merge(FIELD_INTENSITY_SUM, intensity, Long::sum);
+            if (isRiskAlert(analysis)) {
+                counters.merge(FIELD_RISK_ALERTS, 1L, Long::sum);
+            }
+            members.get(key + ":users").add(analysis.getUsuarioId());
+            members.get(key + ":conversations").add(member(analysis.getConversationId()));
+            applied.add(analysis.getId().toString());
+
+            if (analysis.getDepartmentId() != null) {
+                String departmentField = DEPARTMENT_PREFIX + analysis.getDepartmentId();
+                counters.merge(departmentField + ":" + FIELD_MESSAGES, 1L, Long::sum);
+                counters.merge(departmentField + ":" + FIELD_INTENSITY_SUM, intensity, Long::sum);
+                members.computeIfAbsent(key + ":" + departmentField + ":conversations", k -> new HashSet<>())
+                    .add(member(analysis.getConversationId()));
+            }
+        }
+
+        return stateUpdate(key, counters, Map.of(), members, applied);
+    }
+
+    private StateUpdate stateUpdate(String key, Map<String, Long> increments, Map<String, String> defaults,
+                                    Map<String, Set<String>> members, List<String> applied) {
+        List<String> keys = new ArrayList<>();
+        keys.add(key);
+        keys.add(key + ":applied");
+
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(STATE_TTL.toSeconds()));
+        args.add(String.valueOf(increments.size()));
+        increments.forEach((field, delta) -> {
+            args.add(field);
+            args.add(String.valueOf(delta));
+        });
+        args.add(String.valueOf(defaults.size()));
+        defaults.forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+        members.forEach((setKey, values) -> {
+            keys.add(setKey);
+            args.add(String.valueOf(values.size()));
+            args.addAll(values);
+        });
+        args.add(String.valueOf(applied.size()));
+        args.addAll(applied);
+
+        return new StateUpdate(keys, args);
+    }
+
+    private Map<String, Long> newCounters() {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put(FIELD_MESSAGES, 0L);
+        counters.put(FIELD_INTENSITY_SUM, 0L);
+        counters.put(FIELD_RISK_ALERTS, 0L);
+        return counters;
+    }
+
+    private Map<String, String> companyDefault(UUID companyId) {
+        return companyId != null ? Map.of(FIELD_COMPANY_ID, companyId.toString()) : Map.of();
+    }
+
+    private void writeDepartmentAggregate(String key, UUID departmentId, LocalDate date) {
+        HashOperations<String, String, String> hash = redisTemplate.opsForHash();
+        Map<String, String> state = hash.entries(key);
+        long uniqueUsers = size(key + ":users");
+
+        if (uniqueUsers < MIN_USERS_FOR_AGGREGATION) {
+            logger.debug("Departamento {} não atende k-anonymity ({} usuários < {} mínimo) na data {}",
+                departmentId, uniqueUsers, MIN_USERS_FOR_AGGREGATION, date);
+            return;
+        }
+
+        String companyId = state.get(FIELD_COMPANY_ID);
+        if (companyId == null) {
+            logger.warn("CompanyId não encontrado para departamento {}", departmentId);
+            return;
+        }
+
+        long messages = counter(state, FIELD_MESSAGES);
+        double avgIntensity = average(counter(state, FIELD_INTENSITY_SUM), messages);
+
+        Map<String, Integer> primaryEmotions = new HashMap<>();
+        state.forEach((field, value) -> {
+            if (field.startsWith(EMOTION_PREFIX)) {
+                primaryEmotions.put(field.substring(EMOTION_PREFIX.length()), Integer.parseInt(value));
+            }
+        });
+
+        DepartmentEmotionalAggregate aggregate = new DepartmentEmotionalAggregate();
+        aggregate.setDepartmentId(departmentId);
+        aggregate.setCompanyId(UUID.fromString(companyId));
+        aggregate.setDate(date);
+        aggregate.setAvgStressLevel(avgIntensity);
+        aggregate.setAvgEmotionalIntensity(avgIntensity);
+        aggregate.setPrimaryEmotions(primaryEmotions);
+        aggregate.setTotalConversations(size(key + ":conversations"));
+        aggregate.setTotalMessages(messages);
+        aggregate.setRiskAlertsCount(counter(state, FIELD_RISK_ALERTS));
+        aggregate.setUniqueUsersCount(uniqueUsers);
+
+        if (departmentAggregateRepository.upsert(aggregate) == 0) {
+            logger.debug("Agregado do departamento {} na data {} já reflete um estado mais recente", departmentId, date);
+        }
+    }
+
+    private void writeCompanyAggregate(String key, UUID companyId, LocalDate date) {
+        HashOperations<String, String, String> hash = redisTemplate.opsForHash();
+        Map<String, String> state = hash.entries(key);
+        long messages = counter(state, FIELD_MESSAGES);
+
+        if (messages == 0) {
+            return;
+        }
+
+        Map<String, Object> departmentBreakdown = new HashMap<>();
+        String messagesSuffix = ":" + FIELD_MESSAGES;
+        for (String field : state.keySet()) {
+            if (!field.startsWith(DEPARTMENT_PREFIX) || !field.endsWith(messagesSuffix)) {
+                continue;
+            }
+            String departmentField = field.substring(0, field.length() - messagesSuffix.length());
+            long departmentMessages = counter(state, field);
+            double departmentAvg = average(counter(state, departmentField + ":" + FIELD_INTENSITY_SUM), departmentMessages);
+
+            Map<String, Object> deptData = new HashMap<>();
+            deptData.put("avgStressLevel", departmentAvg);
+            deptData.put("avgIntensity", departmentAvg);
+            deptData.put("totalConversations", size(key + ":" + departmentField + ":conversations"));
+            deptData.put("totalMessages", departmentMessages);
+            departmentBreakdown.put(departmentField.substring(DEPARTMENT_PREFIX.length()), deptData);
+        }
+
+        CompanyEmotionalAggregate aggregate = new CompanyEmotionalAggregate();
+        aggregate.setCompanyId(companyId);
+        aggregate.setDate(date);
+        aggregate.setAvgStressLevel(average(counter(state, FIELD_INTENSITY_SUM), messages));
+        aggregate.setDepartmentBreakdown(departmentBreakdown);
+        aggregate.setTotalActiveUsers(size(key + ":users"));
+        aggregate.setTotalConversations(size(key + ":conversations"));
+        aggregate.setTotalMessages(messages);
+        aggregate.setRiskAlertsCount(counter(state, FIELD_RISK_ALERTS));
+
+        if (companyAggregateRepository.upsert(aggregate) == 0) {
+            logger.debug("Agregado da empresa {} na data {} já reflete um estado mais recente", companyId, date);
+        }
+    }
+
+    private String departmentKey(UUID departmentId, LocalDate date) {
+        return KEY_PREFIX + "department:" + departmentId + ":" + date;
+    }
+
+    private String companyKey(UUID companyId, LocalDate date) {
+        return KEY_PREFIX + "company:" + companyId + ":" + date;
+    }
+
+    private boolean isRiskAlert(EmotionalAnalysis analysis) {
+        return analysis.getIntensity() != null && analysis.getIntensity() > RISK_INTENSITY_THRESHOLD;
+    }
+
+    private String member(UUID value) {
+        return value != null ? value.toString() : NULL_MEMBER;
+    }
+
+    private long counter(Map<String, String> state, String field) {
+        String value = state.get(field);
+        return value != null ? Long.parseLong(value) : 0L;
+    }
+
+    private double average(long sum, long count) {
+        return count > 0 ? (double) sum / count : 0.0;
+    }
+
+    private long size(String setKey) {
+        Long size = redisTemplate.opsForSet().size(setKey);
+        return size != null ? size : 0L;
+    }
+
+    private int intensity(EmotionalAnalysis analysis) {
+        return analysis.getIntensity() != null ? analysis.getIntensity() : 0;
+    }
+
+    private record StateUpdate(List<String> keys, List<String> args) {}
+}
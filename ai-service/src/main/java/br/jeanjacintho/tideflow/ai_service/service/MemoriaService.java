@@ -1,6 +1,7 @@
 package br.jeanjacintho.tideflow.ai_service.service;
 
 import br.jeanjacintho.tideflow.ai_service.client.LLMClient;
+import br.jeanjacintho.tideflow.ai_service.client.PromptEncoder;
 import br.jeanjacintho.tideflow.ai_service.model.Memoria;
 import br.jeanjacintho.tideflow.ai_service.model.TipoMemoria;
 import br.jeanjacintho.tideflow.ai_service.repository.MemoriaRepository;
@@ -14,6 +15,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
@@ -30,13 +32,18 @@ public class MemoriaService {
     private final LLMClient llmClient;
     private final ObjectMapper objectMapper;
     private final TriggerService triggerService;
+    private final Scheduler blockingScheduler;
+    private final PromptEncoder promptEncoder;
 
     public MemoriaService(MemoriaRepository memoriaRepository, LLMClient llmClient,
-                         ObjectMapper objectMapper, TriggerService triggerService) {
+                         ObjectMapper objectMapper, TriggerService triggerService,
+                         Scheduler blockingScheduler, PromptEncoder promptEncoder) {
         this.memoriaRepository = memoriaRepository;
         this.llmClient = llmClient;
         this.objectMapper = objectMapper;
         this.triggerService = triggerService;
+        this.blockingScheduler = blockingScheduler;
+        this.promptEncoder = promptEncoder;
     }
 
     @Async
@@ -107,7 +114,7 @@ public class MemoriaService {
             atualizarReferencias(memoriasSelecionadas);
 
             return formatarMemoriasParaPrompt(memoriasSelecionadas);
-        });
+        }).subscribeOn(blockingScheduler);
     }
 
     @Cacheable(value = "memoriasRelevantes", key = "#usuarioId", unless = "#result == null || #result.isEmpty()")
@@ -163,9 +170,14 @@ public class MemoriaService {
         StringBuilder sb = new StringBuilder();
         sb.append("=== MEMÓRIAS DO USUÁRIO ===\n\n");
 
+        List<Map<String, Object>> linhas = new ArrayList<>(memorias.size());
         for (Memoria memoria : memorias) {
-            sb.append(String.format("- [%s] %s\n", memoria.getTipo().name(), memoria.getConteudo()));
+            Map<String, Object> linha = new LinkedHashMap<>();
+            linha.put("tipo", memoria.getTipo().name());
+            linha.put("conteudo", memoria.getConteudo());
+            linhas.add(linha);
         }
+        sb.append(promptEncoder.encode("memorias", Map.of("memorias", linhas))).append("\n");
 
         sb.append("\nUse essas informações para fazer conexões relevantes e mostrar que você se lembra do usuário. ");
         sb.append("Não mencione explicitamente que está consultando memórias, apenas use o contexto naturalmente.\n");
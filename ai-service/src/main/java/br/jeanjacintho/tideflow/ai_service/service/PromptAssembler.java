@@ -0,0 +1,38 @@
+package br.jeanjacintho.tideflow.ai_service.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public final class PromptAssembler {
+
+    static final String SYSTEM_PROMPT =
+            "Você é um diário pessoal com IA. Seja empático, acolhedor e faça perguntas relevantes.\n" +
+            "Use um tom acolhedor, mas profissional. Faça perguntas curtas e reflexivas que instigam o usuário a se aprofundar e falar mais.\n" +
+            "Valide os sentimentos compartilhados e faça conexões com o que já foi mencionado.\n" +
+            "Evite palavras intimistas como 'amor', 'querido', etc.\n" +
+            "Sempre termine suas respostas com uma pergunta curta que convide o usuário a continuar explorando seus sentimentos.\n" +
+            "Mantenha a conversa fluida e natural, como uma sessão de terapia.\n\n" +
+            "IMPORTANTE: Você tem acesso às memórias importantes do usuário, enviadas junto com a mensagem mais recente. " +
+            "Use essas informações para fazer perguntas relevantes e mostrar que se lembra de eventos, objetivos e preferências mencionados anteriormente. " +
+            "Por exemplo, se o usuário mencionou que está esperando resultado de uma prova, você pode perguntar sobre isso em conversas futuras quando for pertinente. " +
+            "Não mencione explicitamente que está consultando memórias, apenas use o contexto de forma natural.";
+
+    private PromptAssembler() {
+    }
+
+    public static List<Map<String, String>> chat(List<Map<String, String>> context, String memorias, String message) {
+        List<Map<String, String>> messages = new ArrayList<>(context.size() + 2);
+        messages.add(Map.of("role", "system", "content", SYSTEM_PROMPT));
+        messages.addAll(context);
+        messages.add(Map.of("role", "user", "content", currentTurn(memorias, message)));
+        return messages;
+    }
+
+    static String currentTurn(String memorias, String message) {
+        if (memorias == null || memorias.isBlank()) {
+            return message;
+        }
+        return memorias.strip() + "\n\n=== MENSAGEM DO USUÁRIO ===\n\n" + message;
+    }
+}
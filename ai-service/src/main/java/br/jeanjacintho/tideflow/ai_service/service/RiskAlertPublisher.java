@@ -5,10 +5,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.RestClientException;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -20,60 +22,98 @@ public class RiskAlertPublisher {
 
     private final RabbitTemplate rabbitTemplate;
     private final RestTemplate restTemplate;
+    private final StringRedisTemplate redisTemplate;
     private final String userServiceUrl;
+    private final Duration dedupTtl;
     private static final String RISK_ALERT_QUEUE = "risk.alert";
+    private static final String DEDUP_KEY_PREFIX = "risk:alert:";
 
     public RiskAlertPublisher(RabbitTemplate rabbitTemplate,
                               RestTemplate restTemplate,
-                              @Value("${app.user-service.url:http://localhost:8080}") String userServiceUrl) {
+                              StringRedisTemplate redisTemplate,
+                              @Value("${app.user-service.url:http://localhost:8080}") String userServiceUrl,
+                              @Value("${risk.alert.dedup-ttl:24h}") Duration dedupTtl) {
         this.rabbitTemplate = rabbitTemplate;
         this.restTemplate = restTemplate;
+        this.redisTemplate = redisTemplate;
         this.userServiceUrl = userServiceUrl;
+        this.dedupTtl = dedupTtl;
+    }
+
+    public void publishRiskAlert(UUID messageId, String userId, String message, RiskAnalysisResponse riskAnalysis) {
+        if (alreadyPublished(messageId)) {
+            logger.info("Alerta de risco da mensagem {} já publicado, ignorando reentrega", messageId);
+            return;
+        }
+        if (sendRiskAlert(userId, message, riskAnalysis)) {
+            markPublished(messageId);
+        }
     }
 
     public void publishRiskAlert(String userId, String message, RiskAnalysisResponse riskAnalysis) {
+        try {
+            sendRiskAlert(userId, message, riskAnalysis);
+        } catch (Exception e) {
+            logger.error("Erro ao publicar alerta de risco para usuário {}: {}", userId, e.getMessage(), e);
+        }
+    }
+
+    private boolean sendRiskAlert(String userId, String message, RiskAnalysisResponse riskAnalysis) {
         logger.info("Iniciando publicação de alerta de risco para usuário {}: nível={}, mensagem='{}'",
             userId, riskAnalysis.getRiskLevel(), message != null ? message.substring(0, Math.min(50, message.length())) : "null");
 
-        try {
-            logger.debug("Buscando dados do usuário {} do user-service", userId);
-            Map<String, Object> userData = fetchUserData(userId);
-
-            if (userData == null) {
-                logger.warn("Não foi possível buscar dados do usuário {}. Alerta não será enviado.", userId);
-                return;
-            }
+        logger.debug("Buscando dados do usuário {} do user-service", userId);
+        Map<String, Object> userData = fetchUserData(userId);
 
-            logger.debug("Dados do usuário recebidos: {}", userData.keySet());
+        if (userData == null) {
+            throw new IllegalStateException("Não foi possível buscar dados do usuário " + userId + " para o alerta de risco");
+        }
 
-            String trustedEmail = (String) userData.get("trustedEmail");
-            String userName = (String) userData.get("name");
+        logger.debug("Dados do usuário recebidos: {}", userData.keySet());
 
-            logger.info("Usuário {} - Nome: {}, Email de confiança: {}", userId, userName, trustedEmail != null ? "configurado" : "NÃO configurado");
+        String trustedEmail = (String) userData.get("trustedEmail");
+        String userName = (String) userData.get("name");
 
-            if (trustedEmail == null || trustedEmail.isEmpty()) {
-                logger.warn("Usuário {} não possui email de confiança configurado. Alerta não será enviado. Dados do usuário: {}", userId, userData);
-                return;
-            }
+        logger.info("Usuário {} - Nome: {}, Email de confiança: {}", userId, userName, trustedEmail != null ? "configurado" : "NÃO configurado");
 
-            Map<String, Object> event = new HashMap<>();
-            event.put("userId", UUID.fromString(userId));
-            event.put("userName", userName != null ? userName : "Usuário");
-            event.put("trustedEmail", trustedEmail);
-            event.put("message", message != null ? message : "");
-            event.put("riskLevel", riskAnalysis.getRiskLevel() != null ? riskAnalysis.getRiskLevel() : "UNKNOWN");
-            event.put("reason", riskAnalysis.getReason() != null ? riskAnalysis.getReason() : "");
-            event.put("context", riskAnalysis.getContext() != null ? riskAnalysis.getContext() : "");
+        if (trustedEmail == null || trustedEmail.isEmpty()) {
+            logger.warn("Usuário {} não possui email de confiança configurado. Alerta não será enviado. Dados do usuário: {}", userId, userData);
+            return false;
+        }
 
-            logger.info("Publicando evento no RabbitMQ para fila {}: userId={}, trustedEmail={}, riskLevel={}",
-                RISK_ALERT_QUEUE, userId, trustedEmail, riskAnalysis.getRiskLevel());
+        Map<String, Object> event = new HashMap<>();
+        event.put("userId", UUID.fromString(userId));
+        event.put("userName", userName != null ? userName : "Usuário");
+        event.put("trustedEmail", trustedEmail);
+        event.put("message", message != null ? message : "");
+        event.put("riskLevel", riskAnalysis.getRiskLevel() != null ? riskAnalysis.getRiskLevel() : "UNKNOWN");
+        event.put("reason", riskAnalysis.getReason() != null ? riskAnalysis.getReason() : "");
+        event.put("context", riskAnalysis.getContext() != null ? riskAnalysis.getContext() : "");
+
+        logger.info("Publicando evento no RabbitMQ para fila {}: userId={}, trustedEmail={}, riskLevel={}",
+            RISK_ALERT_QUEUE, userId, trustedEmail, riskAnalysis.getRiskLevel());
+
+        rabbitTemplate.convertAndSend(RISK_ALERT_QUEUE, event);
+        logger.info("Alerta de risco publicado com sucesso para usuário {} com nível {} - Email será enviado para: {}",
+            userId, riskAnalysis.getRiskLevel(), trustedEmail);
+        return true;
+    }
 
-            rabbitTemplate.convertAndSend(RISK_ALERT_QUEUE, event);
-            logger.info("Alerta de risco publicado com sucesso para usuário {} com nível {} - Email será enviado para: {}",
-                userId, riskAnalysis.getRiskLevel(), trustedEmail);
+    private boolean alreadyPublished(UUID messageId) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(DEDUP_KEY_PREFIX + messageId));
+        } catch (Exception e) {
+            logger.warn("Redis indisponível para deduplicar alerta da mensagem {}, publicando mesmo assim: {}",
+                messageId, e.getMessage());
+            return false;
+        }
+    }
 
+    private void markPublished(UUID messageId) {
+        try {
+            redisTemplate.opsForValue().set(DEDUP_KEY_PREFIX + messageId, "1", dedupTtl);
         } catch (Exception e) {
-            logger.error("Erro ao publicar alerta de risco para usuário {}: {}", userId, e.getMessage(), e);
+            logger.warn("Não foi possível registrar o alerta da mensagem {} no Redis: {}", messageId, e.getMessage());
         }
     }
 
@@ -1,12 +1,18 @@
 package br.jeanjacintho.tideflow.ai_service.service;
 
 import br.jeanjacintho.tideflow.ai_service.client.LLMClient;
+import br.jeanjacintho.tideflow.ai_service.client.LLMPriority;
+import br.jeanjacintho.tideflow.ai_service.client.LLMResponseCache;
 import br.jeanjacintho.tideflow.ai_service.dto.response.RiskAnalysisResponse;
+import br.jeanjacintho.tideflow.ai_service.risk.RiskKeywordMatcher;
+import br.jeanjacintho.tideflow.ai_service.risk.RiskLexicon;
+import br.jeanjacintho.tideflow.ai_service.risk.RiskScreening;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
@@ -19,18 +25,20 @@ public class RiskDetectionService {
 
     private final LLMClient llmClient;
     private final ObjectMapper objectMapper;
-
-    private static final List<String> RISK_KEYWORDS = Arrays.asList(
-        "quero me matar", "quero morrer", "vou me matar", "vou me suicidar",
-        "quero me mutilar", "vou me cortar", "quero me machucar",
-        "não aguento mais", "não vale a pena viver", "não quero mais viver",
-        "vou acabar com tudo", "vou sumir", "ninguém vai sentir falta",
-        "seria melhor se eu não existisse", "quero desaparecer"
-    );
-
-    public RiskDetectionService(LLMClient llmClient, ObjectMapper objectMapper) {
+    private final RiskLexicon riskLexicon;
+    private final double skipThreshold;
+    private final double escalateThreshold;
+
+    public RiskDetectionService(LLMClient llmClient,
+                                ObjectMapper objectMapper,
+                                RiskLexicon riskLexicon,
+                                @Value("${risk.lexical.skip-threshold:0.15}") double skipThreshold,
+                                @Value("${risk.lexical.escalate-threshold:0.9}") double escalateThreshold) {
         this.llmClient = llmClient;
         this.objectMapper = objectMapper;
+        this.riskLexicon = riskLexicon;
+        this.skipThreshold = skipThreshold;
+        this.escalateThreshold = escalateThreshold;
     }
 
     public Mono<RiskAnalysisResponse> analyzeRisk(String message, String userId) {
@@ -41,22 +49,24 @@ public class RiskDetectionService {
             return Mono.just(new RiskAnalysisResponse(false, "NONE", "Mensagem vazia", null, 0.0));
         }
 
-        String messageLower = message.toLowerCase();
-
-        boolean hasRiskKeywords = RISK_KEYWORDS.stream()
-                .anyMatch(keyword -> messageLower.contains(keyword.toLowerCase()));
-
-        logger.debug("Verificação de palavras-chave: encontradas={}", hasRiskKeywords);
+        RiskScreening screening = screen(message);
+        RiskKeywordMatcher.Match lexicalMatch = screening.match();
 
-        if (!hasRiskKeywords) {
-            logger.debug("Nenhuma palavra-chave de risco encontrada, mas ainda assim analisando com IA para detectar padrões sutis");
+        if (screening.isEscalated()) {
+            return Mono.just(escalatedAnalysis(message, screening));
+        }
 
+        if (screening.tier() == RiskScreening.Tier.SKIP) {
+            return Mono.just(new RiskAnalysisResponse(false, "NONE",
+                    "Nenhum indicador lexical de risco", null, 1.0 - lexicalMatch.score()));
         }
 
         String analysisPrompt = buildRiskAnalysisPrompt(message);
         logger.debug("Prompt de análise construído, enviando para IA");
 
         return llmClient.generateResponse(analysisPrompt)
+                .contextWrite(LLMResponseCache.withSemanticKey(message))
+                .contextWrite(LLMPriority.SAFETY.asContext())
                 .map(analysisResponse -> {
                     logger.debug("Resposta da IA recebida, fazendo parse");
                     RiskAnalysisResponse parsed = parseRiskAnalysisResponse(analysisResponse);
@@ -66,13 +76,62 @@ public class RiskDetectionService {
                 })
                 .onErrorResume(error -> {
                     logger.error("Erro ao analisar risco com IA para usuário {}: {}", userId, error.getMessage(), error);
-                    RiskAnalysisResponse fallback = createFallbackRiskAnalysis(message);
+                    RiskAnalysisResponse fallback = createFallbackRiskAnalysis(message, lexicalMatch);
                     logger.info("Usando análise de fallback: detectado={}, nível={}",
                         fallback.isRiskDetected(), fallback.getRiskLevel());
                     return Mono.just(fallback);
                 });
     }
 
+    public RiskScreening screen(String message) {
+        RiskKeywordMatcher.Match lexicalMatch = riskLexicon.match(message);
+        logger.debug("Escore lexical de risco: {} (frases={})", lexicalMatch.score(), lexicalMatch.phrases());
+
+        if (lexicalMatch.score() >= escalateThreshold) {
+            if (lexicalMatch.hedged()) {
+                logger.info("Escore lexical {} acima do limiar de escalonamento {}, mas com negação ou uso figurativo: consultando a IA",
+                    lexicalMatch.score(), escalateThreshold);
+                return new RiskScreening(RiskScreening.Tier.AMBIGUOUS, lexicalMatch);
+            }
+            logger.info("Escore lexical {} acima do limiar de escalonamento {}, alerta sem consulta à IA",
+                lexicalMatch.score(), escalateThreshold);
+            return new RiskScreening(RiskScreening.Tier.ESCALATE, lexicalMatch);
+        }
+
+        if (lexicalMatch.score() < skipThreshold && !riskLexicon.isEmpty()) {
+            logger.debug("Escore lexical {} abaixo do limiar {}, análise com IA dispensada", lexicalMatch.score(), skipThreshold);
+            return new RiskScreening(RiskScreening.Tier.SKIP, lexicalMatch);
+        }
+
+        return new RiskScreening(RiskScreening.Tier.AMBIGUOUS, lexicalMatch);
+    }
+
+    public RiskAnalysisResponse escalatedAnalysis(String message, RiskScreening screening) {
+        return new RiskAnalysisResponse(true, "HIGH",
+                "Expressões de alto risco detectadas: " + String.join(", ", screening.match().phrases()),
+                message, screening.match().score());
+    }
+
+    public RiskAnalysisResponse fromConsolidatedAnalysis(Map<String, Object> riskData, String message) {
+        if (riskData == null || riskData.isEmpty()) {
+            RiskScreening screening = screen(message);
+            logger.warn("Bloco de risco ausente na análise consolidada, usando triagem lexical ({})", screening.tier());
+            return screening.tier() == RiskScreening.Tier.SKIP
+                    ? new RiskAnalysisResponse(false, "NONE", "Nenhum indicador lexical de risco", null, 1.0 - screening.match().score())
+                    : createFallbackRiskAnalysis(message, screening.match());
+        }
+
+        return toRiskAnalysis(riskData);
+    }
+
+    public boolean requiresAlert(RiskAnalysisResponse riskAnalysis) {
+        if (!riskAnalysis.isRiskDetected()) {
+            return false;
+        }
+        String riskLevel = riskAnalysis.getRiskLevel();
+        return "HIGH".equals(riskLevel) || "CRITICAL".equals(riskLevel) || "MEDIUM".equals(riskLevel);
+    }
+
     private String buildRiskAnalysisPrompt(String message) {
         StringBuilder prompt = new StringBuilder();
         prompt.append("Analise a seguinte mensagem de um usuário e determine se há risco de autolesão ou suicídio.\n\n");
@@ -107,50 +166,45 @@ public class RiskDetectionService {
                     new TypeReference<Map<String, Object>>() {}
             );
 
-            boolean isRiskDetected = Boolean.TRUE.equals(responseMap.get("isRiskDetected"));
-            String riskLevel = (String) responseMap.getOrDefault("riskLevel", "NONE");
-            String reason = (String) responseMap.getOrDefault("reason", "");
-            String context = (String) responseMap.getOrDefault("context", "");
-
-            double confidence = 0.5;
-            Object confidenceObj = responseMap.get("confidence");
-            if (confidenceObj instanceof Number) {
-                confidence = ((Number) confidenceObj).doubleValue();
-            } else if (confidenceObj instanceof String) {
-                try {
-                    confidence = Double.parseDouble((String) confidenceObj);
-                } catch (NumberFormatException e) {
-                    logger.warn("Erro ao parsear confidence: {}", confidenceObj);
-                }
-            }
-
-            confidence = Math.max(0.0, Math.min(1.0, confidence));
-
-            if (!isRiskDetected) {
-                riskLevel = "NONE";
-            }
-
-            return new RiskAnalysisResponse(isRiskDetected, riskLevel, reason, context, confidence);
+            return toRiskAnalysis(responseMap);
 
         } catch (JsonProcessingException e) {
-            logger.error("Erro ao fazer parse da resposta de análise de risco: {}", e.getMessage(), e);
-            return createFallbackRiskAnalysis(null);
+            throw new IllegalStateException("Resposta de análise de risco inválida: " + e.getOriginalMessage(), e);
         }
     }
 
-    private RiskAnalysisResponse createFallbackRiskAnalysis(String message) {
-        if (message == null) {
-            return new RiskAnalysisResponse(false, "NONE", "Erro na análise", null, 0.0);
+    private RiskAnalysisResponse toRiskAnalysis(Map<String, Object> riskData) {
+        boolean isRiskDetected = Boolean.TRUE.equals(riskData.get("isRiskDetected"));
+        String riskLevel = (String) riskData.getOrDefault("riskLevel", "NONE");
+        String reason = (String) riskData.getOrDefault("reason", "");
+        String context = (String) riskData.getOrDefault("context", "");
+
+        double confidence = 0.5;
+        Object confidenceObj = riskData.get("confidence");
+        if (confidenceObj instanceof Number) {
+            confidence = ((Number) confidenceObj).doubleValue();
+        } else if (confidenceObj instanceof String) {
+            try {
+                confidence = Double.parseDouble((String) confidenceObj);
+            } catch (NumberFormatException e) {
+                logger.warn("Erro ao parsear confidence: {}", confidenceObj);
+            }
+        }
+
+        confidence = Math.max(0.0, Math.min(1.0, confidence));
+
+        if (!isRiskDetected) {
+            riskLevel = "NONE";
         }
 
-        String messageLower = message.toLowerCase();
-        boolean hasHighRiskKeywords = messageLower.contains("quero me matar") ||
-                                      messageLower.contains("vou me matar") ||
-                                      messageLower.contains("quero me suicidar");
+        return new RiskAnalysisResponse(isRiskDetected, riskLevel, reason, context, confidence);
+    }
 
-        if (hasHighRiskKeywords) {
-            return new RiskAnalysisResponse(true, "HIGH",
-                    "Detecção de palavras-chave de alto risco", message, 0.7);
+    private RiskAnalysisResponse createFallbackRiskAnalysis(String message, RiskKeywordMatcher.Match lexicalMatch) {
+        if (!lexicalMatch.isEmpty()) {
+            return new RiskAnalysisResponse(true, "MEDIUM",
+                    "Detecção de palavras-chave de risco: " + String.join(", ", lexicalMatch.phrases()),
+                    message, lexicalMatch.score());
         }
 
         return new RiskAnalysisResponse(false, "NONE",
@@ -0,0 +1,103 @@
+package br.jeanjacintho.tideflow.ai_service.audio;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+@DisplayName("SilenceChunker Tests")
+class SilenceChunkerTest {
+
+    private static final int SAMPLE_RATE = 8000;
+    private static final WavFormat FORMAT = new WavFormat(1, SAMPLE_RATE, 16, 0);
+
+    private final SilenceChunker chunker = new SilenceChunker(30, 500, 300, 1000, 4000);
+
+    @Test
+    @DisplayName("open - Deve dividir o áudio no silêncio entre as falas")
+    void testSplitsAtSilence() throws Exception {
+        byte[] wav = wav(tone(2000), silence(1000), tone(2000));
+
+        List<AudioChunk> chunks = readAll(wav);
+
+        assertEquals(2, chunks.size());
+        assertEquals(0, chunks.get(0).startMillis());
+        assertTrue(chunks.get(0).durationMillis() >= 2000 && chunks.get(0).durationMillis() < 3000);
+        assertEquals(chunks.get(0).durationMillis(), chunks.get(1).startMillis());
+        assertEquals(5000, chunks.get(1).startMillis() + chunks.get(1).durationMillis());
+    }
+
+    @Test
+    @DisplayName("open - Deve cortar fala contínua no limite máximo do trecho")
+    void testSplitsContinuousSpeechAtMaxChunk() throws Exception {
+        List<AudioChunk> chunks = readAll(wav(tone(9000)));
+
+        assertEquals(3, chunks.size());
+        for (AudioChunk chunk : chunks) {
+            assertTrue(chunk.durationMillis() <= 4000);
+            WavFormat format = WavFormat.read(new ByteArrayInputStream(chunk.wav()));
+            assertEquals(SAMPLE_RATE, format.sampleRate());
+            assertEquals(chunk.wav().length - 44, format.dataLength());
+        }
+    }
+
+    @Test
+    @DisplayName("open - Não deve gerar trechos para áudio só com silêncio")
+    void testSkipsSilentAudio() throws Exception {
+        try (SilenceChunker.Reader reader = chunker.open(new ByteArrayInputStream(wav(silence(6000))))) {
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    @DisplayName("open - Deve recusar áudio que não é WAV PCM")
+    void testRejectsNonWavAudio() {
+        byte[] webm = "\u001aEß£ not a wav file".getBytes(StandardCharsets.ISO_8859_1);
+
+        assertThrows(UnsupportedAudioFileException.class, () -> chunker.open(new ByteArrayInputStream(webm)));
+    }
+
+    private List<AudioChunk> readAll(byte[] wav) throws Exception {
+        List<AudioChunk> chunks = new ArrayList<>();
+        try (SilenceChunker.Reader reader = chunker.open(new ByteArrayInputStream(wav))) {
+            for (AudioChunk chunk = reader.next(); chunk != null; chunk = reader.next()) {
+                chunks.add(chunk);
+            }
+        }
+        return chunks;
+    }
+
+    private byte[] wav(byte[]... parts) {
+        ByteArrayOutputStream pcm = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            pcm.writeBytes(part);
+        }
+        byte[] data = pcm.toByteArray();
+        return FORMAT.toWav(data, 0, data.length);
+    }
+
+    private byte[] tone(int millis) {
+        int samples = SAMPLE_RATE * millis / 1000;
+        byte[] pcm = new byte[samples * 2];
+        for (int i = 0; i < samples; i++) {
+            short sample = (short) (8000 * Math.sin(2 * Math.PI * 440 * i / SAMPLE_RATE));
+            pcm[2 * i] = (byte) sample;
+            pcm[2 * i + 1] = (byte) (sample >> 8);
+        }
+        return pcm;
+    }
+
+    private byte[] silence(int millis) {
+        return new byte[SAMPLE_RATE * millis / 1000 * 2];
+    }
+}
@@ -0,0 +1,51 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FallbackLLMClient Tests")
+class FallbackLLMClientTest {
+
+    @Mock
+    private LLMClient delegate;
+
+    private FallbackLLMClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = new FallbackLLMClient(delegate);
+    }
+
+    @Test
+    @DisplayName("chatWithHistory - Deve responder com texto padrão quando o provedor falha")
+    void testConversationalOperationUsesFallback() {
+        when(delegate.chatWithHistory(anyList())).thenReturn(Mono.error(new RuntimeException("timeout")));
+
+        StepVerifier.create(client.chatWithHistory(List.of()))
+                .expectNext(LLMClient.FALLBACK_RESPONSE)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("extractEmotionalAnalysisAndMemories - Deve propagar a falha para permitir nova tentativa")
+    void testAnalysisOperationPropagatesError() {
+        when(delegate.extractEmotionalAnalysisAndMemories(anyString(), anyString()))
+                .thenReturn(Mono.error(new RuntimeException("timeout")));
+
+        StepVerifier.create(client.extractEmotionalAnalysisAndMemories("mensagem", "resposta"))
+                .verifyErrorMessage("timeout");
+    }
+}
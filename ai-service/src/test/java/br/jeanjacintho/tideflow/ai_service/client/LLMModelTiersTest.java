@@ -0,0 +1,53 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+@DisplayName("LLMModelTiers Tests")
+class LLMModelTiersTest {
+
+    private final AtomicReference<Duration> queueLatency = new AtomicReference<>(Duration.ZERO);
+    private LLMModelTiers.Models models;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("ollama.model.chat", "gemma3:4b")
+                .withProperty("ollama.model.analysis", "gemma3:1b")
+                .withProperty("ollama.model.summarize-conversation", "qwen2.5:0.5b");
+        LLMModelTiers tiers = new LLMModelTiers(environment, new SimpleMeterRegistry(), queueLatency::get,
+                true, Duration.ofSeconds(2));
+        models = tiers.forProvider("ollama", "gemma3:1b");
+    }
+
+    @Test
+    @DisplayName("modelFor - Deve escolher o modelo pelo tipo de operação e respeitar sobrescrita por operação")
+    void testSelectsModelPerOperation() {
+        assertEquals("gemma3:4b", models.modelFor(LLMOperation.CHAT_WITH_HISTORY));
+        assertEquals("gemma3:4b", models.modelFor(LLMOperation.STREAM_CHAT_WITH_HISTORY));
+        assertEquals("gemma3:1b", models.modelFor(LLMOperation.EXTRACT_EMOTIONAL_ANALYSIS_AND_MEMORIES));
+        assertEquals("gemma3:1b", models.modelFor(LLMOperation.GENERATE_RESPONSE));
+        assertEquals("qwen2.5:0.5b", models.modelFor(LLMOperation.SUMMARIZE_CONVERSATION));
+    }
+
+    @Test
+    @DisplayName("modelFor - Deve rebaixar o chat para o modelo de análise enquanto a fila estiver lenta")
+    void testDowngradesChatWhileQueueIsSlow() {
+        queueLatency.set(Duration.ofSeconds(3));
+        assertEquals("gemma3:1b", models.modelFor(LLMOperation.CHAT_WITH_HISTORY));
+
+        queueLatency.set(Duration.ofMillis(1500));
+        assertEquals("gemma3:1b", models.modelFor(LLMOperation.CHAT_WITH_HISTORY));
+
+        queueLatency.set(Duration.ofMillis(500));
+        assertEquals("gemma3:4b", models.modelFor(LLMOperation.CHAT_WITH_HISTORY));
+    }
+}
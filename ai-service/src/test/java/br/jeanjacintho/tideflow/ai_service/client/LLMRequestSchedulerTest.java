@@ -0,0 +1,140 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayName("LLMRequestScheduler Tests")
+class LLMRequestSchedulerTest {
+
+    private LLMRequestScheduler scheduler(int maxConcurrency, int interactiveReserved) {
+        return new LLMRequestScheduler(true, maxConcurrency, interactiveReserved,
+                Duration.ofSeconds(8), Duration.ofSeconds(60), 3, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("execute - Deve liberar a fila por prioridade e não por ordem de chegada")
+    void testDispatchesByPriority() {
+        LLMRequestScheduler scheduler = scheduler(1, 0);
+        Sinks.One<String> running = Sinks.one();
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        Disposable chat = scheduler.execute(LLMPriority.INTERACTIVE, running.asMono()).subscribe();
+        Disposable report = scheduler.execute(LLMPriority.BATCH, Mono.fromSupplier(() -> record(order, "relatorio"))).subscribe();
+        Disposable risk = scheduler.execute(LLMPriority.SAFETY, Mono.fromSupplier(() -> record(order, "risco"))).subscribe();
+
+        assertEquals(1, scheduler.queuedCount(LLMPriority.BATCH));
+        assertEquals(1, scheduler.queuedCount(LLMPriority.SAFETY));
+        running.tryEmitValue("chat");
+
+        assertEquals(List.of("risco", "relatorio"), order);
+        chat.dispose();
+        report.dispose();
+        risk.dispose();
+    }
+
+    @Test
+    @DisplayName("execute - Deve reservar capacidade para requisições interativas")
+    void testReservesCapacityForInteractive() {
+        LLMRequestScheduler scheduler = scheduler(2, 1);
+
+        Disposable enrichment = scheduler.execute(LLMPriority.ENRICHMENT, Mono.never()).subscribe();
+        Disposable queued = scheduler.execute(LLMPriority.ENRICHMENT, Mono.never()).subscribe();
+
+        assertEquals(1, scheduler.queuedCount(LLMPriority.ENRICHMENT));
+        StepVerifier.create(scheduler.execute(LLMPriority.INTERACTIVE, Mono.just("resposta")))
+                .expectNext("resposta")
+                .verifyComplete();
+
+        queued.dispose();
+        enrichment.dispose();
+        assertEquals(0, scheduler.queuedCount(LLMPriority.ENRICHMENT));
+        assertEquals(0, scheduler.runningCount(LLMPriority.ENRICHMENT));
+    }
+
+    @Test
+    @DisplayName("execute - Deve preemptar requisição em lote e reexecutá-la após a interativa")
+    void testPreemptsBatchForInteractive() {
+        LLMRequestScheduler scheduler = scheduler(1, 0);
+        Sinks.One<String> batchResult = Sinks.one();
+        AtomicInteger batchAttempts = new AtomicInteger();
+        Mono<String> batch = Mono.defer(() -> {
+            batchAttempts.incrementAndGet();
+            return batchResult.asMono();
+        });
+
+        StepVerifier.create(scheduler.execute(LLMPriority.BATCH, batch))
+                .then(() -> StepVerifier.create(scheduler.execute(LLMPriority.INTERACTIVE, Mono.just("chat")))
+                        .expectNext("chat")
+                        .verifyComplete())
+                .then(() -> {
+                    assertEquals(2, batchAttempts.get());
+                    batchResult.tryEmitValue("relatorio");
+                })
+                .expectNext("relatorio")
+                .verifyComplete();
+
+        assertEquals(0, scheduler.runningCount(LLMPriority.BATCH));
+    }
+
+    @Test
+    @DisplayName("execute - Deve intercalar empresas na fila proporcionalmente ao peso do plano")
+    void testWeightedFairQueuingAcrossTenants() {
+        LLMRequestScheduler scheduler = scheduler(1, 0);
+        Sinks.One<String> running = Sinks.one();
+        List<String> order = new CopyOnWriteArrayList<>();
+        LLMTenant free = new LLMTenant("empresa-free", "FREE");
+        LLMTenant enterprise = new LLMTenant("empresa-enterprise", "ENTERPRISE");
+
+        Disposable occupied = scheduler.execute(LLMPriority.ENRICHMENT, running.asMono()).subscribe();
+        List<Disposable> queued = List.of(
+                scheduler.execute(LLMPriority.ENRICHMENT, free, 1.0, 1, Mono.fromSupplier(() -> record(order, "free-1"))).subscribe(),
+                scheduler.execute(LLMPriority.ENRICHMENT, free, 1.0, 1, Mono.fromSupplier(() -> record(order, "free-2"))).subscribe(),
+                scheduler.execute(LLMPriority.ENRICHMENT, enterprise, 2.0, 1, Mono.fromSupplier(() -> record(order, "enterprise-1"))).subscribe(),
+                scheduler.execute(LLMPriority.ENRICHMENT, enterprise, 2.0, 1, Mono.fromSupplier(() -> record(order, "enterprise-2"))).subscribe());
+
+        running.tryEmitValue("ocupado");
+
+        assertEquals(List.of("enterprise-1", "free-1", "enterprise-2", "free-2"), order);
+        occupied.dispose();
+        queued.forEach(Disposable::dispose);
+    }
+
+    @Test
+    @DisplayName("execute - Deve propagar o prazo do SLO para requisições interativas")
+    void testPropagatesSloDeadlineForInteractive() {
+        LLMRequestScheduler scheduler = scheduler(1, 0);
+        Mono<Boolean> hasDeadline = Mono.deferContextual(context -> Mono.just(context.hasKey(ProviderBulkhead.DEADLINE_KEY)));
+        Instant before = Instant.now();
+
+        StepVerifier.create(scheduler.execute(LLMPriority.INTERACTIVE,
+                        Mono.deferContextual(context -> Mono.just(context.<Instant>get(ProviderBulkhead.DEADLINE_KEY)))))
+                .assertNext(deadline -> {
+                    assertFalse(deadline.isBefore(before.plusSeconds(8)));
+                    assertTrue(deadline.isBefore(Instant.now().plusSeconds(8).plusMillis(1)));
+                })
+                .verifyComplete();
+        StepVerifier.create(scheduler.execute(LLMPriority.BATCH, hasDeadline))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    private String record(List<String> order, String name) {
+        order.add(name);
+        return name;
+    }
+}
@@ -0,0 +1,101 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@DisplayName("LLMResponseCache Tests")
+class LLMResponseCacheTest {
+
+    private static final String RISK_TEMPLATE = "Analise o risco da mensagem: %s";
+
+    private SimpleMeterRegistry meterRegistry;
+    private LLMResponseCache responseCache;
+    private AtomicInteger llmCalls;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        responseCache = new LLMResponseCache(
+                List.of("generate-response"), Duration.ofMinutes(30), 100, true, 280, 0.8, 50, meterRegistry);
+        llmCalls = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("lookup - Deve reaproveitar resposta para prompt igual após normalização")
+    void testLookupReusesNormalizedPrompt() {
+        StepVerifier.create(generate("Resuma   o relatório\n", "resumo"))
+                .expectNext("resumo")
+                .verifyComplete();
+        StepVerifier.create(generate("Resuma o relatório", "outro resumo"))
+                .expectNext("resumo")
+                .verifyComplete();
+
+        assertEquals(1, llmCalls.get());
+        assertEquals(1.0, meterRegistry.counter("llm.cache.requests",
+                "operation", "generate-response", "tier", "exact", "result", "hit").count());
+    }
+
+    @Test
+    @DisplayName("lookup - Não deve guardar resposta de fallback do provedor")
+    void testLookupSkipsFallbackResponse() {
+        generate("Gere recomendações", LLMClient.FALLBACK_RESPONSE).block();
+        StepVerifier.create(generate("Gere recomendações", "recomendações"))
+                .expectNext("recomendações")
+                .verifyComplete();
+
+        assertEquals(2, llmCalls.get());
+    }
+
+    @Test
+    @DisplayName("lookup - Não deve cachear operação sem opt-in")
+    void testLookupBypassesOperationsNotOptedIn() {
+        Supplier<Mono<String>> call = countingCall("pergunta");
+
+        responseCache.lookup(LLMOperation.GENERATE_PROACTIVE_QUESTION, List.of("memória", "EVENTO"), call).block();
+        responseCache.lookup(LLMOperation.GENERATE_PROACTIVE_QUESTION, List.of("memória", "EVENTO"), call).block();
+
+        assertEquals(2, llmCalls.get());
+    }
+
+    @Test
+    @DisplayName("lookup - Deve usar camada semântica para mensagem de risco quase idêntica, respeitando negações")
+    void testLookupSemanticTierForShortRiskMessages() {
+        riskAnalysis("hoje estou muito cansado do trabalho", "{\"riskLevel\":\"LOW\"}").block();
+
+        StepVerifier.create(riskAnalysis("Hoje estou muito, muito cansado do trabalho!!", "{\"riskLevel\":\"MEDIUM\"}"))
+                .expectNext("{\"riskLevel\":\"LOW\"}")
+                .verifyComplete();
+        StepVerifier.create(riskAnalysis("hoje não estou muito cansado do trabalho", "{\"riskLevel\":\"NONE\"}"))
+                .expectNext("{\"riskLevel\":\"NONE\"}")
+                .verifyComplete();
+
+        assertEquals(2, llmCalls.get());
+    }
+
+    private Mono<String> generate(String prompt, String response) {
+        return responseCache.lookup(LLMOperation.GENERATE_RESPONSE, List.of(prompt), countingCall(response));
+    }
+
+    private Mono<String> riskAnalysis(String message, String response) {
+        return generate(String.format(RISK_TEMPLATE, message), response)
+                .contextWrite(LLMResponseCache.withSemanticKey(message));
+    }
+
+    private Supplier<Mono<String>> countingCall(String response) {
+        return () -> {
+            llmCalls.incrementAndGet();
+            return Mono.just(response);
+        };
+    }
+}
@@ -0,0 +1,193 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayName("OllamaEndpointPool Tests")
+class OllamaEndpointPoolTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<StubOllama> servers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        servers.forEach(server -> server.http.stop(0));
+    }
+
+    @Test
+    @DisplayName("execute - Deve enviar a chamada para a instância com menos requisições em andamento")
+    void testRoutesToLeastOutstandingEndpoint() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        StubOllama first = start(release);
+        StubOllama second = start(release);
+        OllamaEndpointPool pool = pool(first.url(), second.url());
+
+        Disposable call1 = pool.execute(this::generate).subscribe();
+        awaitHits(1, first, second);
+        Disposable call2 = pool.execute(this::generate).subscribe();
+        awaitHits(2, first, second);
+
+        assertEquals(1, first.hits.get());
+        assertEquals(1, second.hits.get());
+        release.countDown();
+        call1.dispose();
+        call2.dispose();
+    }
+
+    @Test
+    @DisplayName("checkHealth - Deve remover instância que falha no /api/tags e readmiti-la quando voltar")
+    void testEjectsAndReadmitsUnhealthyEndpoint() throws Exception {
+        StubOllama healthy = start(null);
+        StubOllama flaky = start(null);
+        flaky.tagsHealthy.set(false);
+        OllamaEndpointPool pool = pool(healthy.url(), flaky.url());
+
+        pool.checkHealth().block();
+        assertEquals(1.0, healthGauge(flaky));
+        pool.checkHealth().block();
+        assertEquals(0.0, healthGauge(flaky));
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("ok", pool.execute(this::generate).block());
+        }
+        assertEquals(0, flaky.hits.get());
+
+        flaky.tagsHealthy.set(true);
+        pool.checkHealth().block();
+        assertEquals(1.0, healthGauge(flaky));
+    }
+
+    @Test
+    @DisplayName("execute - Deve repetir em outra instância quando a conexão é recusada")
+    void testFailsOverOnConnectionError() throws Exception {
+        StubOllama healthy = start(null);
+        StubOllama down = start(null);
+        String downUrl = down.url();
+        down.http.stop(0);
+        servers.remove(down);
+        OllamaEndpointPool pool = pool(downUrl, healthy.url());
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("ok", pool.execute(this::generate).block());
+        }
+        assertEquals(3, healthy.hits.get());
+        assertEquals(0.0, healthGauge(downUrl));
+    }
+
+    @Test
+    @DisplayName("preload - Deve carregar os modelos em cada instância e pular as já aquecidas")
+    void testPreloadsModelsOncePerEndpoint() throws Exception {
+        StubOllama server = start(null);
+        OllamaEndpointPool pool = pool(server.url());
+
+        assertFalse(pool.status().get(0).warm());
+        pool.preload(List.of("gemma3:1b", "gemma3:4b"), "30m", false).block();
+
+        assertTrue(pool.status().get(0).warm());
+        assertEquals(2, server.hits.get());
+
+        pool.preload(List.of("gemma3:1b", "gemma3:4b"), "30m", true).block();
+        assertEquals(2, server.hits.get());
+    }
+
+    @Test
+    @DisplayName("execute - Deve marcar a instância como aquecida após uma chamada bem-sucedida")
+    void testMarksEndpointWarmAfterSuccessfulCall() throws Exception {
+        StubOllama server = start(null);
+        OllamaEndpointPool pool = pool(server.url());
+
+        assertFalse(pool.status().get(0).warm());
+        assertEquals("ok", pool.execute(this::generate).block());
+
+        assertTrue(pool.status().get(0).warm());
+    }
+
+    private OllamaEndpointPool pool(String... urls) {
+        return new OllamaEndpointPool(List.of(urls), WebClient.builder(), Duration.ofSeconds(1), 2,
+                Duration.ofSeconds(5), meterRegistry);
+    }
+
+    private Mono<String> generate(WebClient webClient) {
+        return webClient.post().uri("/api/generate").retrieve().bodyToMono(String.class);
+    }
+
+    private double healthGauge(StubOllama server) {
+        return healthGauge(server.url());
+    }
+
+    private double healthGauge(String url) {
+        return meterRegistry.get("ollama.endpoint.healthy").tag("endpoint", url).gauge().value();
+    }
+
+    private void awaitHits(int expected, StubOllama first, StubOllama second) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (first.hits.get() + second.hits.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(first.hits.get() + second.hits.get() >= expected);
+    }
+
+    private StubOllama start(CountDownLatch release) throws IOException {
+        StubOllama stub = new StubOllama(HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0));
+        stub.http.setExecutor(Executors.newCachedThreadPool());
+        stub.http.createContext("/api/tags", exchange ->
+                respond(exchange, stub.tagsHealthy.get() ? 200 : 500, "{\"models\":[]}"));
+        stub.http.createContext("/api/generate", exchange -> {
+            stub.hits.incrementAndGet();
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            respond(exchange, 200, "ok");
+        });
+        stub.http.start();
+        servers.add(stub);
+        return stub;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getRequestBody().readAllBytes();
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private record StubOllama(HttpServer http, AtomicInteger hits, AtomicBoolean tagsHealthy) {
+        private StubOllama(HttpServer http) {
+            this(http, new AtomicInteger(), new AtomicBoolean(true));
+        }
+
+        private String url() {
+            return "http://127.0.0.1:" + http.getAddress().getPort();
+        }
+    }
+}
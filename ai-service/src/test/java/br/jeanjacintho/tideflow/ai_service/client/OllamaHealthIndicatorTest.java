@@ -0,0 +1,49 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OllamaHealthIndicator Tests")
+class OllamaHealthIndicatorTest {
+
+    @Mock
+    private OllamaEndpointPool endpoints;
+
+    @Test
+    @DisplayName("health - Deve ficar fora de serviço enquanto nenhuma instância saudável estiver aquecida")
+    void testOutOfServiceUntilWarm() {
+        when(endpoints.status()).thenReturn(List.of(
+                new OllamaEndpointPool.EndpointStatus("http://ollama-1:11434", true, false, 0),
+                new OllamaEndpointPool.EndpointStatus("http://ollama-2:11434", false, true, 0)));
+
+        assertEquals(Status.OUT_OF_SERVICE, new OllamaHealthIndicator(endpoints, true).health().getStatus());
+    }
+
+    @Test
+    @DisplayName("health - Deve ficar disponível quando uma instância saudável está aquecida")
+    void testUpWhenHealthyEndpointIsWarm() {
+        when(endpoints.status()).thenReturn(List.of(
+                new OllamaEndpointPool.EndpointStatus("http://ollama-1:11434", true, true, 2)));
+
+        assertEquals(Status.UP, new OllamaHealthIndicator(endpoints, true).health().getStatus());
+    }
+
+    @Test
+    @DisplayName("health - Deve considerar instâncias saudáveis prontas quando o pré-carregamento está desativado")
+    void testUpWithoutWarmupWhenDisabled() {
+        when(endpoints.status()).thenReturn(List.of(
+                new OllamaEndpointPool.EndpointStatus("http://ollama-1:11434", true, false, 0)));
+
+        assertEquals(Status.UP, new OllamaHealthIndicator(endpoints, false).health().getStatus());
+    }
+}
@@ -0,0 +1,61 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OllamaWarmup Tests")
+class OllamaWarmupTest {
+
+    @Mock
+    private OllamaClient ollamaClient;
+
+    @Mock
+    private OllamaEndpointPool endpoints;
+
+    @Test
+    @DisplayName("warmUp - Deve pré-carregar os modelos em todas as instâncias ao iniciar")
+    void testWarmUpPreloadsAllEndpoints() {
+        when(ollamaClient.preloadModels(false)).thenReturn(Mono.empty());
+
+        new OllamaWarmup(ollamaClient, endpoints, true, 600000).warmUp();
+
+        verify(ollamaClient).preloadModels(false);
+    }
+
+    @Test
+    @DisplayName("keepWarm - Deve renovar todas as instâncias quando ocioso e apenas as frias quando em uso")
+    void testKeepWarmRefreshesByIdleness() {
+        OllamaWarmup warmup = new OllamaWarmup(ollamaClient, endpoints, true, 600000);
+        when(ollamaClient.preloadModels(any(Boolean.class))).thenReturn(Mono.empty());
+
+        when(endpoints.isIdle(any())).thenReturn(true);
+        StepVerifier.create(warmup.keepWarm()).verifyComplete();
+        verify(ollamaClient).preloadModels(false);
+
+        when(endpoints.isIdle(any())).thenReturn(false);
+        StepVerifier.create(warmup.keepWarm()).verifyComplete();
+        verify(ollamaClient).preloadModels(true);
+    }
+
+    @Test
+    @DisplayName("warmUp - Não deve chamar o Ollama quando o pré-carregamento está desativado")
+    void testDisabledWarmupDoesNothing() {
+        OllamaWarmup warmup = new OllamaWarmup(ollamaClient, endpoints, false, 600000);
+
+        warmup.warmUp();
+        StepVerifier.create(warmup.keepWarm()).verifyComplete();
+
+        verifyNoInteractions(ollamaClient, endpoints);
+    }
+}
@@ -0,0 +1,56 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@DisplayName("PromptEncoder Tests")
+class PromptEncoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("encode - Deve usar TOON em payloads tabulares e registrar a economia de tokens")
+    void testEncodeUsesToonForTabularPayload() throws Exception {
+        PromptEncoder encoder = new PromptEncoder(objectMapper, meterRegistry, true, "ollama", false, List.of(), List.of());
+        Map<String, Object> payload = Map.of("memorias", memorias());
+
+        String encoded = encoder.encode("memorias", payload);
+
+        assertTrue(encoded.length() < objectMapper.writeValueAsString(payload).length());
+        assertTrue(encoded.contains("Prova de cálculo na sexta"));
+        assertTrue(meterRegistry.get("llm.prompt.tokens_saved").tag("type", "memorias").counter().count() > 0);
+        assertEquals(1, meterRegistry.get("llm.prompt.payload.tokens").tag("format", "toon").summary().count());
+    }
+
+    @Test
+    @DisplayName("encode - Deve usar JSON quando o provedor está configurado para JSON")
+    void testEncodeFallsBackToJsonForProvider() throws Exception {
+        PromptEncoder encoder = new PromptEncoder(objectMapper, meterRegistry, true, "gemini", false, List.of(), List.of("gemini"));
+        Map<String, Object> payload = Map.of("memorias", memorias());
+
+        assertEquals(objectMapper.writeValueAsString(payload), encoder.encode("memorias", payload));
+        assertEquals(1, meterRegistry.get("llm.prompt.payload.tokens").tag("format", "json").summary().count());
+    }
+
+    private List<Map<String, Object>> memorias() {
+        List<Map<String, Object>> memorias = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Map<String, Object> memoria = new LinkedHashMap<>();
+            memoria.put("tipo", "EVENTO");
+            memoria.put("conteudo", "Prova de cálculo na sexta " + i);
+            memorias.add(memoria);
+        }
+        return memorias;
+    }
+}
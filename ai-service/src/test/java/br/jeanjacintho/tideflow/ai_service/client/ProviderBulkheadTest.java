@@ -0,0 +1,168 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import br.jeanjacintho.tideflow.ai_service.exception.LLMProviderUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayName("ProviderBulkhead Tests")
+class ProviderBulkheadTest {
+
+    private ProviderBulkhead bulkhead;
+
+    @BeforeEach
+    void setUp() {
+        bulkhead = new ProviderBulkhead("ollama", new ProviderBulkhead.Settings(
+                1, 1, 4, 1, Duration.ofSeconds(30), 2.0, 0.9, 0.5, 4, 2, Duration.ofMinutes(1), 1),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("execute - Deve enfileirar chamada acima do limite e liberá-la quando a anterior terminar")
+    void testQueuesAboveLimitAndReleasesInOrder() {
+        Sinks.One<String> first = Sinks.one();
+        AtomicInteger secondCalls = new AtomicInteger();
+
+        Disposable running = bulkhead.execute(first.asMono()).subscribe();
+        StepVerifier.create(bulkhead.execute(Mono.fromSupplier(() -> "segunda " + secondCalls.incrementAndGet())))
+                .then(() -> {
+                    assertEquals(1, bulkhead.snapshot().queued());
+                    assertEquals(0, secondCalls.get());
+                    first.tryEmitValue("primeira");
+                })
+                .expectNext("segunda 1")
+                .verifyComplete();
+
+        assertEquals(0, bulkhead.snapshot().inFlight());
+        running.dispose();
+    }
+
+    @Test
+    @DisplayName("execute - Deve rejeitar a chamada enfileirada quando o prazo do contexto expira")
+    void testRejectsWhenContextDeadlineExpires() {
+        Disposable running = bulkhead.execute(Mono.never()).subscribe();
+
+        StepVerifier.create(bulkhead.execute(Mono.just("atrasada"))
+                        .contextWrite(Context.of(ProviderBulkhead.DEADLINE_KEY, Instant.now().plusMillis(50))))
+                .expectErrorMatches(error -> error instanceof LLMProviderUnavailableException unavailable
+                        && unavailable.getReason().equals("timeout"))
+                .verify(Duration.ofSeconds(1));
+
+        assertEquals(0, bulkhead.snapshot().queued());
+        running.dispose();
+    }
+
+    @Test
+    @DisplayName("execute - Deve rejeitar quando a fila de espera está cheia")
+    void testRejectsWhenQueueIsFull() {
+        Disposable running = bulkhead.execute(Mono.never()).subscribe();
+        Disposable queued = bulkhead.execute(Mono.never()).subscribe();
+
+        StepVerifier.create(bulkhead.execute(Mono.just("terceira")))
+                .expectErrorMatches(error -> error instanceof LLMProviderUnavailableException unavailable
+                        && unavailable.getReason().equals("queue_full"))
+                .verify();
+
+        queued.dispose();
+        running.dispose();
+        assertEquals(0, bulkhead.snapshot().inFlight());
+        assertEquals(0, bulkhead.snapshot().queued());
+    }
+
+    @Test
+    @DisplayName("execute - Deve abrir o circuito após falhas consecutivas e rejeitar sem chamar o provedor")
+    void testOpensCircuitAfterFailures() {
+        AtomicInteger calls = new AtomicInteger();
+        Mono<String> failing = Mono.defer(() -> {
+            calls.incrementAndGet();
+            return Mono.error(new RuntimeException("Ollama fora do ar"));
+        });
+
+        StepVerifier.create(bulkhead.execute(failing)).expectError(RuntimeException.class).verify();
+        StepVerifier.create(bulkhead.execute(failing)).expectError(RuntimeException.class).verify();
+        StepVerifier.create(bulkhead.execute(failing))
+                .expectErrorMatches(error -> error instanceof LLMProviderUnavailableException unavailable
+                        && unavailable.getReason().equals("circuit_open"))
+                .verify();
+
+        assertEquals(2, calls.get());
+        assertEquals(ProviderBulkhead.CircuitState.OPEN, bulkhead.snapshot().circuitState());
+    }
+
+    @Test
+    @DisplayName("execute - Deve liberar a fila de espera quando a chamada de teste fecha o circuito")
+    void testDrainsWaitersWhenHalfOpenTrialClosesCircuit() throws InterruptedException {
+        ProviderBulkhead recovering = new ProviderBulkhead("ollama", new ProviderBulkhead.Settings(
+                1, 1, 4, 1, Duration.ofSeconds(30), 2.0, 0.9, 0.5, 4, 2, Duration.ofMillis(50), 1),
+                new SimpleMeterRegistry());
+        Mono<String> failing = Mono.error(new RuntimeException("Ollama fora do ar"));
+        StepVerifier.create(recovering.execute(failing)).expectError(RuntimeException.class).verify();
+        StepVerifier.create(recovering.execute(failing)).expectError(RuntimeException.class).verify();
+        Thread.sleep(60);
+
+        Sinks.One<String> trial = Sinks.one();
+        Disposable running = recovering.execute(trial.asMono()).subscribe();
+        StepVerifier.create(recovering.execute(Mono.just("na fila")))
+                .then(() -> {
+                    assertEquals(ProviderBulkhead.CircuitState.HALF_OPEN, recovering.snapshot().circuitState());
+                    assertEquals(1, recovering.snapshot().queued());
+                    trial.tryEmitValue("teste");
+                })
+                .expectNext("na fila")
+                .verifyComplete();
+
+        assertEquals(ProviderBulkhead.CircuitState.CLOSED, recovering.snapshot().circuitState());
+        assertEquals(0, recovering.snapshot().inFlight());
+        running.dispose();
+    }
+
+    @Test
+    @DisplayName("execute - Deve liberar a chamada interativa antes das chamadas em lote já enfileiradas")
+    void testInteractiveWaiterOvertakesQueuedBatch() {
+        ProviderBulkhead prioritized = new ProviderBulkhead("ollama", new ProviderBulkhead.Settings(
+                1, 1, 1, 4, Duration.ofSeconds(30), 2.0, 0.9, 0.5, 4, 2, Duration.ofMinutes(1), 1),
+                new SimpleMeterRegistry());
+        Sinks.One<String> running = Sinks.one();
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        Disposable occupied = prioritized.execute(running.asMono())
+                .contextWrite(LLMPriority.BATCH.asContext()).subscribe();
+        List<Disposable> batch = List.of(
+                prioritized.execute(Mono.fromSupplier(() -> record(order, "lote-1")))
+                        .contextWrite(LLMPriority.BATCH.asContext()).subscribe(),
+                prioritized.execute(Mono.fromSupplier(() -> record(order, "lote-2")))
+                        .contextWrite(LLMPriority.BATCH.asContext()).subscribe());
+
+        StepVerifier.create(prioritized.execute(Mono.fromSupplier(() -> record(order, "chat")))
+                        .contextWrite(LLMPriority.INTERACTIVE.asContext()))
+                .then(() -> {
+                    assertEquals(3, prioritized.snapshot().queued());
+                    running.tryEmitValue("ocupado");
+                })
+                .expectNext("chat")
+                .verifyComplete();
+
+        assertEquals(List.of("chat", "lote-1", "lote-2"), order);
+        occupied.dispose();
+        batch.forEach(Disposable::dispose);
+    }
+
+    private String record(List<String> order, String name) {
+        order.add(name);
+        return name;
+    }
+}
@@ -0,0 +1,139 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RoutingLLMClient Tests")
+class RoutingLLMClientTest {
+
+    private static final List<Map<String, String>> MESSAGES = List.of(Map.of("role", "user", "content", "Oi"));
+
+    @Mock
+    private LLMClient ollama;
+
+    @Mock
+    private LLMClient openRouter;
+
+    private SimpleMeterRegistry meterRegistry;
+    private Map<String, LLMClient> providers;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        providers = new LinkedHashMap<>();
+        providers.put("ollama", ollama);
+        providers.put("openrouter", openRouter);
+    }
+
+    @Test
+    @DisplayName("generateResponse - Deve fazer failover para o próximo provedor quando o primeiro falha")
+    void testFailoverToNextProvider() {
+        when(ollama.generateResponse(anyString())).thenReturn(Mono.error(new RuntimeException("Ollama saturado")));
+        when(openRouter.generateResponse(anyString())).thenReturn(Mono.just("resposta"));
+
+        StepVerifier.create(router(Duration.ZERO).generateResponse("prompt"))
+                .expectNext("resposta")
+                .verifyComplete();
+
+        assertEquals(1.0, meterRegistry.counter("llm.routing.failovers",
+                "policy", "analysis", "provider", "ollama").count());
+    }
+
+    @Test
+    @DisplayName("chatWithHistory - Deve disparar requisição paralela após o atraso de hedge e usar a primeira resposta")
+    void testHedgesSlowProvider() {
+        when(ollama.chatWithHistory(anyList())).thenReturn(Mono.never());
+        when(openRouter.chatWithHistory(anyList())).thenReturn(Mono.just("resposta rápida"));
+
+        StepVerifier.withVirtualTime(() -> router(Duration.ofSeconds(2)).chatWithHistory(MESSAGES))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(1999))
+                .thenAwait(Duration.ofMillis(1))
+                .expectNext("resposta rápida")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("chatWithHistory - Deve contabilizar a latência do provedor cancelado pelo hedge")
+    void testHedgedPrimaryLatencyIsRecorded() {
+        when(ollama.chatWithHistory(anyList())).thenReturn(Mono.never());
+        when(openRouter.chatWithHistory(anyList())).thenReturn(Mono.just("resposta rápida"));
+        AtomicReference<Double> random = new AtomicReference<>(0.0);
+        List<String> order = List.of("ollama", "openrouter");
+        RoutingLLMClient.Policy chat = new RoutingLLMClient.Policy("chat", order, Duration.ofSeconds(2), 2);
+        RoutingLLMClient router = new RoutingLLMClient(providers, chat, chat, 10, meterRegistry, random::get);
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.withVirtualTime(() -> router.chatWithHistory(MESSAGES))
+                    .thenAwait(Duration.ofSeconds(2))
+                    .expectNext("resposta rápida")
+                    .verifyComplete();
+        }
+
+        Timer hedged = meterRegistry.get("llm.provider.latency")
+                .tags("provider", "ollama", "outcome", "hedged").timer();
+        assertEquals(3, hedged.count());
+        assertTrue(hedged.max(TimeUnit.MILLISECONDS) >= 2000);
+        random.set(0.49);
+        assertEquals("openrouter", router.rank(chat).get(0));
+    }
+
+    @Test
+    @DisplayName("chatWithHistory - Não deve disparar hedge quando o primeiro provedor responde a tempo")
+    void testSkipsHedgeWhenPrimaryIsFast() {
+        when(ollama.chatWithHistory(anyList())).thenReturn(Mono.just("resposta"));
+
+        StepVerifier.create(router(Duration.ofSeconds(2)).chatWithHistory(MESSAGES))
+                .expectNext("resposta")
+                .verifyComplete();
+
+        verify(openRouter, never()).chatWithHistory(anyList());
+    }
+
+    @Test
+    @DisplayName("streamChatWithHistory - Deve trocar de provedor se o stream falhar antes do primeiro token")
+    void testStreamFailoverBeforeFirstToken() {
+        when(ollama.streamChatWithHistory(anyList())).thenReturn(Flux.error(new RuntimeException("conexão recusada")));
+        when(openRouter.streamChatWithHistory(anyList())).thenReturn(Flux.just("Olá", "!"));
+
+        StepVerifier.create(router(Duration.ZERO).streamChatWithHistory(MESSAGES))
+                .expectNext("Olá", "!")
+                .verifyComplete();
+    }
+
+    private RoutingLLMClient router(Duration hedgeDelay) {
+        List<String> order = List.of("ollama", "openrouter");
+        return new RoutingLLMClient(
+                providers,
+                new RoutingLLMClient.Policy("chat", order, hedgeDelay, 2),
+                new RoutingLLMClient.Policy("analysis", order, hedgeDelay, 2),
+                10,
+                meterRegistry,
+                () -> 0.0);
+    }
+}
@@ -0,0 +1,111 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import br.jeanjacintho.tideflow.ai_service.exception.TranscriptionFailedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TranscriptionCache Tests")
+class TranscriptionCacheTest {
+
+    @Mock
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, String> valueOperations;
+
+    private TranscriptionCache transcriptionCache;
+    private ByteArrayResource audio;
+    private AtomicInteger whisperCalls;
+
+    @BeforeEach
+    void setUp() {
+        transcriptionCache = new TranscriptionCache(
+                redisTemplate, Schedulers.immediate(), true, Duration.ofHours(24), 4096);
+        audio = new ByteArrayResource("RIFF....WAVE".getBytes(StandardCharsets.US_ASCII));
+        whisperCalls = new AtomicInteger();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    @DisplayName("lookup - Deve devolver transcrição em cache sem chamar o Whisper")
+    void testLookupReturnsCachedTranscript() {
+        when(valueOperations.get(startsWith("whisper:transcript:"))).thenReturn(Mono.just("olá mundo"));
+
+        StepVerifier.create(transcriptionCache.lookup(audio, countingWhisper(Flux.empty())))
+                .expectNext(new TranscriptSegment(0, 0, "olá mundo"))
+                .verifyComplete();
+
+        assertEquals(0, whisperCalls.get());
+    }
+
+    @Test
+    @DisplayName("lookup - Deve agrupar uploads simultâneos do mesmo áudio em uma única chamada")
+    void testLookupCoalescesConcurrentUploads() {
+        Sinks.One<TranscriptSegment> whisper = Sinks.one();
+        when(valueOperations.get(anyString())).thenReturn(Mono.empty());
+        when(valueOperations.set(anyString(), eq("olá mundo"), any(Duration.class))).thenReturn(Mono.just(true));
+
+        List<TranscriptSegment> first = new CopyOnWriteArrayList<>();
+        List<TranscriptSegment> second = new CopyOnWriteArrayList<>();
+        Supplier<Flux<TranscriptSegment>> transcription = countingWhisper(whisper.asMono().flux());
+        transcriptionCache.lookup(audio, transcription).subscribe(first::add);
+        transcriptionCache.lookup(audio, transcription).subscribe(second::add);
+        whisper.tryEmitValue(new TranscriptSegment(0, 0, "olá mundo"));
+
+        assertEquals(1, whisperCalls.get());
+        assertEquals(1, first.size());
+        assertEquals(first, second);
+        verify(valueOperations).set(startsWith("whisper:transcript:"), eq("olá mundo"), eq(Duration.ofHours(24)));
+    }
+
+    @Test
+    @DisplayName("lookup - Não deve guardar transcrição com trecho que falhou")
+    void testLookupSkipsCachingFailedTranscript() {
+        when(valueOperations.get(anyString())).thenReturn(Mono.empty());
+        Flux<TranscriptSegment> segments = Flux.just(new TranscriptSegment(0, 0, "olá"))
+                .concatWith(Flux.error(new TranscriptionFailedException(
+                        "Erro ao transcrever o trecho 1 do áudio.", new RuntimeException("timeout"))));
+
+        StepVerifier.create(transcriptionCache.lookup(audio, countingWhisper(segments)))
+                .expectNextCount(1)
+                .verifyError(TranscriptionFailedException.class);
+
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    private Supplier<Flux<TranscriptSegment>> countingWhisper(Flux<TranscriptSegment> segments) {
+        return () -> {
+            whisperCalls.incrementAndGet();
+            return segments;
+        };
+    }
+}
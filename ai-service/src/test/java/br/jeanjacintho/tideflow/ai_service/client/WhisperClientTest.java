@@ -0,0 +1,191 @@
+package br.jeanjacintho.tideflow.ai_service.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import br.jeanjacintho.tideflow.ai_service.audio.SilenceChunker;
+import br.jeanjacintho.tideflow.ai_service.audio.WavFormat;
+import br.jeanjacintho.tideflow.ai_service.config.SchedulerConfig;
+import br.jeanjacintho.tideflow.ai_service.exception.TranscriptionFailedException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+@DisplayName("WhisperClient Tests")
+class WhisperClientTest {
+
+    private static final int SAMPLE_RATE = 8000;
+    private static final WavFormat FORMAT = new WavFormat(1, SAMPLE_RATE, 16, 0);
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicReference<String> lastBody = new AtomicReference<>();
+    private final Scheduler blockingScheduler = new SchedulerConfig().blockingScheduler(4, 100);
+    private HttpServer server;
+    private volatile String failingFilename;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/transcribe", exchange -> {
+            hits.incrementAndGet();
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.ISO_8859_1);
+            lastBody.set(body);
+            if (failingFilename != null && body.contains(failingFilename)) {
+                respond(exchange, 500, "{\"error\":\"falha\"}");
+            } else if (body.contains("chunk-1-")) {
+                respond(exchange, 200, "{\"text\":\"segundo trecho\"}");
+            } else if (body.contains("chunk-0-")) {
+                respond(exchange, 200, "{\"text\":\"primeiro trecho\"}");
+            } else {
+                respond(exchange, 200, "{\"text\":\"áudio inteiro\"}");
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        blockingScheduler.dispose();
+    }
+
+    @Test
+    @DisplayName("transcribe - Deve juntar os trechos transcritos na ordem do áudio")
+    void testTranscribeJoinsChunksInOrder() {
+        StepVerifier.create(client().transcribe(twoUtterances(), "nota.wav"))
+                .expectNext("primeiro trecho segundo trecho")
+                .verifyComplete();
+
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    @DisplayName("transcribe - Deve falhar a transcrição inteira quando um trecho falha")
+    void testTranscribeFailsWhenChunkFails() {
+        failingFilename = "chunk-1-";
+
+        StepVerifier.create(client().transcribe(twoUtterances(), "nota.wav"))
+                .expectError(TranscriptionFailedException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("transcribeSegments - Deve propagar erro quando o áudio inteiro não pode ser transcrito")
+    void testTranscribeSegmentsFailsWhenWholeAudioFails() {
+        failingFilename = "nota.webm";
+        ByteArrayResource webm = new ByteArrayResource("\u001aEß£ not a wav file".getBytes(StandardCharsets.ISO_8859_1));
+
+        StepVerifier.create(client().transcribeSegments(webm, "nota.webm"))
+                .expectError(TranscriptionFailedException.class)
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(1, hits.get());
+    }
+
+    @Test
+    @DisplayName("transcribe - Deve enviar o upload ao Whisper lendo o arquivo em partes, sem carregá-lo inteiro")
+    void testTranscribeStreamsUploadInBuffers() {
+        byte[] payload = new byte[1024 * 1024];
+        Arrays.fill(payload, (byte) 'a');
+        byte[] marker = "fim-do-audio".getBytes(StandardCharsets.ISO_8859_1);
+        System.arraycopy(marker, 0, payload, payload.length - marker.length, marker.length);
+        AtomicInteger reads = new AtomicInteger();
+        InputStreamSource upload = () -> new ByteArrayInputStream(payload) {
+            @Override
+            public synchronized int read(byte[] buffer, int offset, int length) {
+                reads.incrementAndGet();
+                return super.read(buffer, offset, Math.min(length, 4096));
+            }
+        };
+
+        StepVerifier.create(client(false).transcribe(upload, "nota.webm"))
+                .expectNext("áudio inteiro")
+                .verifyComplete();
+
+        assertTrue(reads.get() >= payload.length / 4096);
+        assertTrue(lastBody.get().contains("filename=\"nota.webm\""));
+        assertTrue(lastBody.get().contains("a".repeat(4096) + "fim-do-audio"));
+    }
+
+    @Test
+    @DisplayName("transcribe - Não deve bloquear threads não bloqueantes ao ler o arquivo enviado")
+    void testTranscribeDoesNotBlockNonBlockingThreads(@TempDir Path dir) throws IOException {
+        Path wav = Files.write(dir.resolve("nota.wav"), twoUtterances().getByteArray());
+        Path webm = Files.write(dir.resolve("nota.webm"), "\u001aEß£ not a wav file".getBytes(StandardCharsets.ISO_8859_1));
+
+        StepVerifier.create(client().transcribe(new FileSystemResource(wav), "nota.wav").subscribeOn(Schedulers.parallel()))
+                .expectNext("primeiro trecho segundo trecho")
+                .verifyComplete();
+        StepVerifier.create(client().transcribe(new FileSystemResource(webm), "nota.webm").subscribeOn(Schedulers.parallel()))
+                .expectNext("áudio inteiro")
+                .verifyComplete();
+    }
+
+    private WhisperClient client() {
+        return client(true);
+    }
+
+    private WhisperClient client(boolean chunkingEnabled) {
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .build();
+        TranscriptionCache cache = new TranscriptionCache(null, blockingScheduler, false, Duration.ofHours(24), 4096);
+        return new WhisperClient(webClient, new SilenceChunker(30, 500, 300, 1000, 4000), cache,
+                blockingScheduler, 5000, 4096, chunkingEnabled, 2);
+    }
+
+    private ByteArrayResource twoUtterances() {
+        ByteArrayOutputStream pcm = new ByteArrayOutputStream();
+        pcm.writeBytes(tone(2000));
+        pcm.writeBytes(new byte[SAMPLE_RATE * 2]);
+        pcm.writeBytes(tone(2000));
+        byte[] data = pcm.toByteArray();
+        return new ByteArrayResource(FORMAT.toWav(data, 0, data.length));
+    }
+
+    private byte[] tone(int millis) {
+        int samples = SAMPLE_RATE * millis / 1000;
+        byte[] pcm = new byte[samples * 2];
+        for (int i = 0; i < samples; i++) {
+            short sample = (short) (8000 * Math.sin(2 * Math.PI * 440 * i / SAMPLE_RATE));
+            pcm[2 * i] = (byte) sample;
+            pcm[2 * i + 1] = (byte) (sample >> 8);
+        }
+        return pcm;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package br.jeanjacintho.tideflow.ai_service.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+@DisplayName("SchedulerConfig Tests")
+class SchedulerConfigTest {
+
+    private Scheduler blockingScheduler;
+
+    @BeforeEach
+    void setUp() {
+        blockingScheduler = new SchedulerConfig().blockingScheduler(2, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        blockingScheduler.dispose();
+    }
+
+    @Test
+    @DisplayName("BlockHound - Deve falhar quando há bloqueio em thread não bloqueante")
+    void testBlockHoundDetectsBlockingOnParallelScheduler() {
+        StepVerifier.create(Mono.fromCallable(this::blockingCall).subscribeOn(Schedulers.parallel()))
+                .expectErrorMatches(error -> error instanceof BlockingOperationError)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("blockingScheduler - Deve permitir chamadas bloqueantes")
+    void testBlockingSchedulerAllowsBlockingCalls() {
+        StepVerifier.create(Mono.fromCallable(this::blockingCall).subscribeOn(blockingScheduler))
+                .assertNext(threadName -> assertTrue(threadName.startsWith("blocking-io")))
+                .verifyComplete();
+    }
+
+    private String blockingCall() throws InterruptedException {
+        Thread.sleep(10);
+        return Thread.currentThread().getName();
+    }
+}
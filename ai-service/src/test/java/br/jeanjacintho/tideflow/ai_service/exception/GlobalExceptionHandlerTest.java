@@ -0,0 +1,36 @@
+package br.jeanjacintho.tideflow.ai_service.exception;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.util.Map;
+
+@DisplayName("GlobalExceptionHandler Tests")
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    @DisplayName("handleMaxUploadSize - Deve rejeitar áudio acima do limite com 413")
+    void testRejectsOversizedUploadWith413() {
+        ResponseEntity<Map<String, String>> response =
+                handler.handleMaxUploadSize(new MaxUploadSizeExceededException(25L * 1024 * 1024));
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, response.getStatusCode());
+        assertEquals("Arquivo de áudio excede o tamanho máximo permitido", response.getBody().get("error"));
+    }
+
+    @Test
+    @DisplayName("handleTranscriptionFailed - Deve responder 502 quando o Whisper falha")
+    void testTranscriptionFailureReturnsBadGateway() {
+        ResponseEntity<Map<String, String>> response = handler.handleTranscriptionFailed(
+                new TranscriptionFailedException("Erro ao transcrever o áudio.", new RuntimeException("timeout")));
+
+        assertEquals(HttpStatus.BAD_GATEWAY, response.getStatusCode());
+    }
+}
@@ -0,0 +1,180 @@
+package br.jeanjacintho.tideflow.ai_service.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import br.jeanjacintho.tideflow.ai_service.model.Conversation;
+import br.jeanjacintho.tideflow.ai_service.model.ConversationMessage;
+import br.jeanjacintho.tideflow.ai_service.model.MessageRole;
+import io.r2dbc.spi.Readable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("R2dbcConversationStore Tests")
+@SuppressWarnings("unchecked")
+class R2dbcConversationStoreTest {
+
+    @Mock
+    private DatabaseClient databaseClient;
+
+    @Mock
+    private DatabaseClient.GenericExecuteSpec executeSpec;
+
+    private final List<String> statements = new ArrayList<>();
+    private final Map<String, Object> bindings = new HashMap<>();
+
+    private R2dbcConversationStore conversationStore;
+    private UUID conversationId;
+
+    @BeforeEach
+    void setUp() {
+        conversationStore = new R2dbcConversationStore(databaseClient);
+        conversationId = UUID.randomUUID();
+
+        when(databaseClient.sql(anyString())).thenAnswer(invocation -> {
+            statements.add(invocation.getArgument(0));
+            return executeSpec;
+        });
+        when(executeSpec.bind(anyString(), any())).thenAnswer(invocation -> {
+            bindings.put(invocation.getArgument(0), invocation.getArgument(1));
+            return executeSpec;
+        });
+    }
+
+    @Test
+    @DisplayName("findByIdAndUserId - Deve mapear a conversa com o resumo e a última mensagem resumida")
+    void testFindByIdAndUserIdMapsConversation() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 10, 9, 0);
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", conversationId);
+        row.put("user_id", "user-123");
+        row.put("created_at", createdAt);
+        row.put("updated_at", createdAt);
+        row.put("summary", "Falou sobre a prova.");
+        row.put("summarized_up_to", 8);
+        row.put("last_sequence_number", 14);
+        returnRows(List.of(row));
+
+        StepVerifier.create(conversationStore.findByIdAndUserId(conversationId, "user-123"))
+                .assertNext(conversation -> {
+                    assertEquals(conversationId, conversation.getId());
+                    assertEquals("user-123", conversation.getUserId());
+                    assertEquals("Falou sobre a prova.", conversation.getSummary());
+                    assertEquals(8, conversation.getSummarizedUpTo());
+                    assertEquals(14, conversation.getLastSequenceNumber());
+                })
+                .verifyComplete();
+
+        assertEquals(conversationId, bindings.get("id"));
+        assertEquals("user-123", bindings.get("userId"));
+    }
+
+    @Test
+    @DisplayName("findRecentMessages - Deve devolver as mensagens mais recentes em ordem crescente")
+    void testFindRecentMessagesReturnsAscendingOrder() {
+        returnRows(List.of(message(3, MessageRole.USER), message(2, MessageRole.ASSISTANT), message(1, MessageRole.USER)));
+
+        StepVerifier.create(conversationStore.findRecentMessages(conversationId, 3))
+                .assertNext(message -> assertEquals(1, message.getSequenceNumber()))
+                .assertNext(message -> {
+                    assertEquals(2, message.getSequenceNumber());
+                    assertEquals(MessageRole.ASSISTANT, message.getRole());
+                    assertEquals("mensagem 2", message.getContent());
+                })
+                .assertNext(message -> assertEquals(3, message.getSequenceNumber()))
+                .verifyComplete();
+
+        assertTrue(statements.get(0).contains("ORDER BY sequence_number DESC LIMIT :limit"));
+        assertEquals(3, bindings.get("limit"));
+    }
+
+    @Test
+    @DisplayName("allocateSequenceNumbers - Deve reservar os números da rodada em um único UPDATE")
+    void testAllocateSequenceNumbers() {
+        returnRows(List.of(Map.of("last_sequence_number", 6)));
+
+        StepVerifier.create(conversationStore.allocateSequenceNumbers(conversationId, 2))
+                .expectNext(6)
+                .verifyComplete();
+
+        assertEquals(1, statements.size());
+        assertTrue(statements.get(0).contains("RETURNING last_sequence_number"));
+        assertEquals(2, bindings.get("count"));
+    }
+
+    @Test
+    @DisplayName("saveMessage - Deve gravar a mensagem e os contadores da conversa em um único comando")
+    void testSaveMessageWritesMessageAndCountersInOneStatement() {
+        when(executeSpec.then()).thenReturn(Mono.empty());
+        Conversation conversation = new Conversation("user-123");
+        conversation.setId(conversationId);
+        ConversationMessage message = new ConversationMessage(MessageRole.USER, "Estou nervoso com a prova", 5);
+        message.setConversation(conversation);
+
+        StepVerifier.create(conversationStore.saveMessage(message))
+                .assertNext(saved -> {
+                    assertNotNull(saved.getId());
+                    assertNotNull(saved.getCreatedAt());
+                })
+                .verifyComplete();
+
+        assertEquals(1, statements.size());
+        assertTrue(statements.get(0).startsWith("WITH inserted AS (INSERT INTO conversation_messages"));
+        assertTrue(statements.get(0).contains("UPDATE conversations SET message_count"));
+        assertEquals(conversationId, bindings.get("conversationId"));
+        assertEquals("USER", bindings.get("role"));
+        assertEquals(5, bindings.get("sequenceNumber"));
+    }
+
+    private void returnRows(List<Map<String, Object>> rows) {
+        when(executeSpec.map(any(Function.class))).thenAnswer(invocation -> {
+            Function<Readable, Object> mapper = invocation.getArgument(0);
+            RowsFetchSpec<Object> fetchSpec = mock(RowsFetchSpec.class);
+            lenient().when(fetchSpec.all()).thenAnswer(call -> Flux.fromIterable(rows).map(row -> mapper.apply(readable(row))));
+            lenient().when(fetchSpec.one()).thenAnswer(call -> Mono.justOrEmpty(rows.stream().findFirst())
+                    .map(row -> mapper.apply(readable(row))));
+            return fetchSpec;
+        });
+    }
+
+    private Readable readable(Map<String, Object> row) {
+        Readable readable = mock(Readable.class);
+        lenient().when(readable.get(anyString(), any(Class.class)))
+                .thenAnswer(invocation -> row.get(invocation.<String>getArgument(0)));
+        return readable;
+    }
+
+    private Map<String, Object> message(int sequence, MessageRole role) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", UUID.randomUUID());
+        row.put("role", role.name());
+        row.put("content", "mensagem " + sequence);
+        row.put("created_at", LocalDateTime.of(2025, 3, 10, 9, sequence));
+        row.put("sequence_number", sequence);
+        return row;
+    }
+}
@@ -0,0 +1,60 @@
+package br.jeanjacintho.tideflow.ai_service.risk;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RiskKeywordMatcherBenchmark {
+
+    @Param({"curta", "longa"})
+    public String size;
+
+    private RiskKeywordMatcher matcher;
+    private List<String> keywords;
+    private String message;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                getClass().getResourceAsStream("/risk/risk-lexicon.txt"), StandardCharsets.UTF_8))) {
+            Map<String, Double> phrases = RiskLexicon.parse(reader);
+            matcher = RiskKeywordMatcher.compile(phrases);
+            keywords = List.copyOf(phrases.keySet());
+        }
+
+        String sentence = "Hoje o dia no trabalho foi cansativo, tive muitas reuniões e não consegui terminar tudo. ";
+        message = "curta".equals(size) ? sentence : sentence.repeat(40) + "Às vezes sinto que não aguento mais.";
+    }
+
+    @Benchmark
+    public RiskKeywordMatcher.Match ahoCorasick() {
+        return matcher.match(message);
+    }
+
+    @Benchmark
+    public boolean linearContainsScan() {
+        String messageLower = message.toLowerCase();
+        return keywords.stream().anyMatch(messageLower::contains);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RiskKeywordMatcherBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
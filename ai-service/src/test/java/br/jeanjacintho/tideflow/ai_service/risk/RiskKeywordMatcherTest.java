@@ -0,0 +1,104 @@
+package br.jeanjacintho.tideflow.ai_service.risk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@DisplayName("RiskKeywordMatcher Tests")
+class RiskKeywordMatcherTest {
+
+    private RiskKeywordMatcher matcher;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, Double> phrases = new LinkedHashMap<>();
+        phrases.put("quero me matar", 1.0);
+        phrases.put("me matar", 0.6);
+        phrases.put("não aguento mais", 0.4);
+        phrases.put("vou sumir", 0.35);
+        phrases.put("nao quero mais viver", 0.95);
+        phrases.put("quero morrer", 0.8);
+        phrases.put("morrer", 0.25);
+        matcher = RiskKeywordMatcher.compile(phrases);
+    }
+
+    @Test
+    @DisplayName("match - Deve encontrar frases ignorando acentos, caixa e pontuação")
+    void testMatchIgnoresAccentsCaseAndPunctuation() {
+        RiskKeywordMatcher.Match match = matcher.match("NAO   aguento mais!!! Sério, vou sumir...");
+
+        assertEquals(List.of("nao aguento mais", "vou sumir"), match.phrases());
+        assertEquals(1 - (0.6 * 0.65), match.score(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("match - Deve pontuar apenas a frase maximal quando há frases contidas em outras")
+    void testMatchScoresOnlyMaximalPhrases() {
+        RiskKeywordMatcher.Match match = matcher.match("Às vezes eu quero morrer");
+
+        assertEquals(List.of("quero morrer"), match.phrases());
+        assertEquals(0.8, match.score(), 1e-9);
+        assertFalse(match.hedged());
+    }
+
+    @Test
+    @DisplayName("match - Deve marcar frases precedidas de negação")
+    void testMatchMarksNegatedPhrases() {
+        RiskKeywordMatcher.Match match = matcher.match("Calma, eu não quero me matar, só estou cansado");
+
+        assertEquals(List.of("quero me matar"), match.phrases());
+        assertTrue(match.hedged());
+    }
+
+    @Test
+    @DisplayName("match - Deve marcar uso figurativo e mensagens em tom de brincadeira")
+    void testMatchMarksFigurativePhrases() {
+        assertTrue(matcher.match("Quero morrer de vergonha depois daquela reunião").hedged());
+        assertTrue(matcher.match("vou me matar se isso der errado de novo kkkk").hedged());
+    }
+
+    @Test
+    @DisplayName("match - Não deve tratar a negação de outra frase de risco como negação")
+    void testMatchIgnoresNegationFromPreviousPhrase() {
+        RiskKeywordMatcher.Match match = matcher.match("Não aguento mais, não quero mais viver");
+
+        assertEquals(List.of("nao aguento mais", "nao quero mais viver"), match.phrases());
+        assertFalse(match.hedged());
+    }
+
+    @Test
+    @DisplayName("match - Deve respeitar limites de palavra")
+    void testMatchRespectsWordBoundaries() {
+        assertTrue(matcher.match("vou sumiram com tudo").isEmpty());
+        assertTrue(matcher.match("nome matar").isEmpty());
+    }
+
+    @Test
+    @DisplayName("match - Deve retornar escore zero quando não há frases de risco")
+    void testMatchReturnsZeroWithoutPhrases() {
+        RiskKeywordMatcher.Match match = matcher.match("Hoje foi um dia tranquilo no trabalho");
+
+        assertTrue(match.isEmpty());
+        assertEquals(0.0, match.score());
+    }
+
+    @Test
+    @DisplayName("parse - Deve ler frases com peso e ignorar comentários")
+    void testParseLexicon() throws Exception {
+        String lexicon = "# comentário\n\nquero morrer|0.9\nsem saida\nfrase invalida|abc\n";
+
+        Map<String, Double> phrases = RiskLexicon.parse(new BufferedReader(new StringReader(lexicon)));
+
+        assertEquals(Map.of("quero morrer", 0.9, "sem saida", 1.0), phrases);
+    }
+}
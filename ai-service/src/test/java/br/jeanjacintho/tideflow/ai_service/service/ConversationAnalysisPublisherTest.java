@@ -0,0 +1,79 @@
+package br.jeanjacintho.tideflow.ai_service.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import br.jeanjacintho.tideflow.ai_service.config.RabbitMQConfig;
+import br.jeanjacintho.tideflow.ai_service.dto.event.ConversationAnalysisEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ConversationAnalysisPublisher Tests")
+class ConversationAnalysisPublisherTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private ConversationAnalysisService conversationAnalysisService;
+
+    private ConversationAnalysisPublisher publisher;
+    private ConversationAnalysisEvent event;
+
+    @BeforeEach
+    void setUp() {
+        publisher = new ConversationAnalysisPublisher(
+                rabbitTemplate, conversationAnalysisService, Schedulers.immediate(), Duration.ofMillis(100));
+        event = new ConversationAnalysisEvent(
+                UUID.randomUUID(), UUID.randomUUID(), 1, "user-123", "Não aguento mais", "Resposta da IA", false);
+    }
+
+    @Test
+    @DisplayName("publish - Não deve processar na instância quando o broker confirma a mensagem")
+    void testPublishLeavesAnalysisToListenerWhenConfirmed() {
+        doAnswer(invocation -> {
+            invocation.<CorrelationData>getArgument(2).getFuture().complete(new CorrelationData.Confirm(true, null));
+            return null;
+        }).when(rabbitTemplate).convertAndSend(eq(RabbitMQConfig.CONVERSATION_ANALYSIS_QUEUE), eq(event), any(CorrelationData.class));
+
+        publisher.publish(event);
+
+        verify(conversationAnalysisService, never()).processAnalysis(any(ConversationAnalysisEvent.class));
+    }
+
+    @Test
+    @DisplayName("publish - Deve processar a análise na instância quando o broker está fora do ar")
+    void testPublishProcessesInlineWhenBrokerIsDown() {
+        doThrow(new AmqpConnectException(new ConnectException("Connection refused")))
+                .when(rabbitTemplate).convertAndSend(eq(RabbitMQConfig.CONVERSATION_ANALYSIS_QUEUE), eq(event), any(CorrelationData.class));
+
+        publisher.publish(event);
+
+        verify(conversationAnalysisService).processAnalysis(event);
+    }
+
+    @Test
+    @DisplayName("publish - Deve processar a análise na instância quando o broker não confirma a tempo")
+    void testPublishProcessesInlineWhenConfirmTimesOut() {
+        publisher.publish(event);
+
+        verify(conversationAnalysisService).processAnalysis(event);
+    }
+}
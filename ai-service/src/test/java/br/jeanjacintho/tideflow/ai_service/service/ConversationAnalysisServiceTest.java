@@ -0,0 +1,272 @@
+package br.jeanjacintho.tideflow.ai_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import br.jeanjacintho.tideflow.ai_service.client.LLMClient;
+import br.jeanjacintho.tideflow.ai_service.client.LLMPriority;
+import br.jeanjacintho.tideflow.ai_service.dto.event.ConversationAnalysisEvent;
+import br.jeanjacintho.tideflow.ai_service.dto.response.RiskAnalysisResponse;
+import br.jeanjacintho.tideflow.ai_service.exception.LLMQuotaExceededException;
+import br.jeanjacintho.tideflow.ai_service.model.EmotionalAnalysis;
+import br.jeanjacintho.tideflow.ai_service.repository.EmotionalAnalysisRepository;
+import br.jeanjacintho.tideflow.ai_service.risk.RiskLexicon;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ConversationAnalysisService Tests")
+class ConversationAnalysisServiceTest {
+
+    @Mock
+    private LLMClient llmClient;
+
+    @Mock
+    private EmotionalAnalysisRepository emotionalAnalysisRepository;
+
+    @Mock
+    private EmotionalAggregationService aggregationService;
+
+    @Mock
+    private UserInfoService userInfoService;
+
+    @Mock
+    private MemoriaService memoriaService;
+
+    @Mock
+    private RiskDetectionService riskDetectionService;
+
+    @Mock
+    private RiskAlertPublisher riskAlertPublisher;
+
+    private ConversationAnalysisService conversationAnalysisService;
+    private ConversationAnalysisEvent event;
+
+    @BeforeEach
+    void setUp() {
+        conversationAnalysisService = new ConversationAnalysisService(
+                llmClient,
+                new ObjectMapper(),
+                emotionalAnalysisRepository,
+                aggregationService,
+                userInfoService,
+                memoriaService,
+                riskDetectionService,
+                riskAlertPublisher
+        );
+        event = new ConversationAnalysisEvent(
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                1,
+                "user-123",
+                "Olá, como você está?",
+                "Resposta da IA",
+                false
+        );
+    }
+
+    @Test
+    @DisplayName("processAnalysis - Deve salvar análise emocional quando extraída com sucesso")
+    void testProcessAnalysisSavesEmotionalAnalysis() {
+        when(emotionalAnalysisRepository.findByMessageId(event.messageId())).thenReturn(Optional.empty());
+        when(llmClient.extractEmotionalAnalysisAndMemories(anyString(), anyString()))
+                .thenReturn(Mono.just(createConsolidatedResponseJson()));
+        when(riskDetectionService.fromConsolidatedAnalysis(anyMap(), anyString())).thenReturn(noRisk());
+        when(userInfoService.getUserInfo(anyString(), any())).thenReturn(Optional.empty());
+        when(emotionalAnalysisRepository.saveAndFlush(any(EmotionalAnalysis.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        EmotionalAnalysis analysis = conversationAnalysisService.processAnalysis(event);
+
+        assertEquals("ansiedade", analysis.getPrimaryEmotional());
+        assertEquals(70, analysis.getIntensity());
+        assertEquals(event.messageId(), analysis.getMessageId());
+        assertEquals(event.conversationId(), analysis.getConversationId());
+        verify(memoriaService).processarMensagemParaMemoriaConsolidada(
+                eq("user-123"), eq("Olá, como você está?"), eq("Resposta da IA"), anyMap());
+    }
+
+    @Test
+    @DisplayName("processAnalysis - Deve usar análise emocional padrão quando o JSON é inválido")
+    void testProcessAnalysisUsesDefaultEmotionalAnalysis() {
+        when(emotionalAnalysisRepository.findByMessageId(event.messageId())).thenReturn(Optional.empty());
+        when(llmClient.extractEmotionalAnalysisAndMemories(anyString(), anyString()))
+                .thenReturn(Mono.just("resposta sem json"));
+        when(riskDetectionService.fromConsolidatedAnalysis(eq(Map.of()), anyString())).thenReturn(noRisk());
+        when(userInfoService.getUserInfo(anyString(), any())).thenReturn(Optional.empty());
+        when(emotionalAnalysisRepository.saveAndFlush(any(EmotionalAnalysis.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        EmotionalAnalysis analysis = conversationAnalysisService.processAnalysis(event);
+
+        assertEquals("neutro", analysis.getPrimaryEmotional());
+        assertEquals(50, analysis.getIntensity());
+        verify(memoriaService, never()).processarMensagemParaMemoriaConsolidada(anyString(), anyString(), anyString(), anyMap());
+    }
+
+    @Test
+    @DisplayName("processAnalysis - Deve publicar alerta quando o bloco de risco consolidado exige")
+    void testProcessAnalysisDispatchesRiskAlert() {
+        RiskAnalysisResponse risk = new RiskAnalysisResponse(true, "MEDIUM", "Ideação passiva", "", 0.6);
+        when(emotionalAnalysisRepository.findByMessageId(event.messageId())).thenReturn(Optional.empty());
+        when(llmClient.extractEmotionalAnalysisAndMemories(anyString(), anyString()))
+                .thenReturn(Mono.just(createConsolidatedResponseJson()));
+        when(riskDetectionService.fromConsolidatedAnalysis(
+                eq(Map.of("isRiskDetected", true, "riskLevel", "MEDIUM", "confidence", 0.6)), anyString()))
+                .thenReturn(risk);
+        when(riskDetectionService.requiresAlert(risk)).thenReturn(true);
+        when(userInfoService.getUserInfo(anyString(), any())).thenReturn(Optional.empty());
+        when(emotionalAnalysisRepository.saveAndFlush(any(EmotionalAnalysis.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        conversationAnalysisService.processAnalysis(event);
+
+        verify(riskAlertPublisher).publishRiskAlert(event.messageId(), "user-123", "Olá, como você está?", risk);
+    }
+
+    @Test
+    @DisplayName("processAnalysis - Deve descartar a análise e propagar a falha quando o alerta não é publicado")
+    void testProcessAnalysisDiscardsAnalysisWhenAlertFails() {
+        RiskAnalysisResponse risk = new RiskAnalysisResponse(true, "MEDIUM", "Ideação passiva", "", 0.6);
+        when(emotionalAnalysisRepository.findByMessageId(event.messageId())).thenReturn(Optional.empty());
+        when(llmClient.extractEmotionalAnalysisAndMemories(anyString(), anyString()))
+                .thenReturn(Mono.just(createConsolidatedResponseJson()));
+        when(riskDetectionService.fromConsolidatedAnalysis(anyMap(), anyString())).thenReturn(risk);
+        when(riskDetectionService.requiresAlert(risk)).thenReturn(true);
+        when(userInfoService.getUserInfo(anyString(), any())).thenReturn(Optional.empty());
+        when(emotionalAnalysisRepository.saveAndFlush(any(EmotionalAnalysis.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new IllegalStateException("user-service indisponível"))
+                .when(riskAlertPublisher).publishRiskAlert(event.messageId(), "user-123", "Olá, como você está?", risk);
+
+        assertThrows(IllegalStateException.class, () -> conversationAnalysisService.processAnalysis(event));
+
+        verify(emotionalAnalysisRepository).delete(any(EmotionalAnalysis.class));
+        verify(memoriaService, never()).processarMensagemParaMemoriaConsolidada(anyString(), anyString(), anyString(), anyMap());
+    }
+
+    @Test
+    @DisplayName("processAnalysis - Não deve repetir alerta já escalado pela triagem lexical")
+    void testProcessAnalysisSkipsRiskWhenAlreadyEscalated() {
+        ConversationAnalysisEvent escalated = new ConversationAnalysisEvent(
+                event.conversationId(), event.messageId(), 1, "user-123", "quero me matar", "Resposta da IA", true);
+        when(emotionalAnalysisRepository.findByMessageId(event.messageId())).thenReturn(Optional.empty());
+        when(llmClient.extractEmotionalAnalysisAndMemories(anyString(), anyString()))
+                .thenReturn(Mono.just(createConsolidatedResponseJson()));
+        when(userInfoService.getUserInfo(anyString(), any())).thenReturn(Optional.empty());
+        when(emotionalAnalysisRepository.saveAndFlush(any(EmotionalAnalysis.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        conversationAnalysisService.processAnalysis(escalated);
+
+        verify(riskDetectionService, never()).fromConsolidatedAnalysis(anyMap(), anyString());
+        verify(riskAlertPublisher, never()).publishRiskAlert(any(UUID.class), anyString(), anyString(), any(RiskAnalysisResponse.class));
+    }
+
+    @Test
+    @DisplayName("processAnalysis - Deve ignorar reentrega de mensagem já analisada")
+    void testProcessAnalysisSkipsAlreadyProcessedMessage() {
+        EmotionalAnalysis existing = new EmotionalAnalysis("alegria", 30, new ArrayList<>(), "", "");
+        when(emotionalAnalysisRepository.findByMessageId(event.messageId())).thenReturn(Optional.of(existing));
+
+        assertSame(existing, conversationAnalysisService.processAnalysis(event));
+
+        verify(llmClient, never()).extractEmotionalAnalysisAndMemories(anyString(), anyString());
+        verify(emotionalAnalysisRepository, never()).saveAndFlush(any(EmotionalAnalysis.class));
+    }
+
+    @Test
+    @DisplayName("processAnalysis - Não deve publicar alerta quando outra entrega já gravou a análise")
+    void testProcessAnalysisSkipsAlertWhenConcurrentDeliveryWins() {
+        EmotionalAnalysis existing = new EmotionalAnalysis("alegria", 30, new ArrayList<>(), "", "");
+        when(emotionalAnalysisRepository.findByMessageId(event.messageId()))
+                .thenReturn(Optional.empty(), Optional.of(existing));
+        when(llmClient.extractEmotionalAnalysisAndMemories(anyString(), anyString()))
+                .thenReturn(Mono.just(createConsolidatedResponseJson()));
+        when(userInfoService.getUserInfo(anyString(), any())).thenReturn(Optional.empty());
+        when(emotionalAnalysisRepository.saveAndFlush(any(EmotionalAnalysis.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_emotional_message"));
+
+        assertSame(existing, conversationAnalysisService.processAnalysis(event));
+
+        verify(riskDetectionService, never()).fromConsolidatedAnalysis(anyMap(), anyString());
+        verify(riskAlertPublisher, never()).publishRiskAlert(any(UUID.class), anyString(), anyString(), any(RiskAnalysisResponse.class));
+        verify(memoriaService, never()).processarMensagemParaMemoriaConsolidada(anyString(), anyString(), anyString(), anyMap());
+    }
+
+    @Test
+    @DisplayName("processAnalysis - Deve propagar falha do LLM para permitir nova tentativa")
+    void testProcessAnalysisPropagatesLlmFailure() {
+        when(emotionalAnalysisRepository.findByMessageId(event.messageId())).thenReturn(Optional.empty());
+        when(llmClient.extractEmotionalAnalysisAndMemories(anyString(), anyString()))
+                .thenReturn(Mono.error(new RuntimeException("Extraction failed")));
+        when(riskDetectionService.fromConsolidatedAnalysis(eq(Map.of()), anyString())).thenReturn(noRisk());
+
+        assertThrows(RuntimeException.class, () -> conversationAnalysisService.processAnalysis(event));
+
+        verify(emotionalAnalysisRepository, never()).saveAndFlush(any(EmotionalAnalysis.class));
+    }
+
+    @Test
+    @DisplayName("processAnalysis - Deve alertar pela triagem lexical quando o LLM falha")
+    void testProcessAnalysisAlertsFromLexiconWhenLlmFails() {
+        RiskLexicon lexicon = new RiskLexicon(new ByteArrayResource("quero me matar|1.0\n".getBytes(StandardCharsets.UTF_8)));
+        ConversationAnalysisService service = new ConversationAnalysisService(
+                llmClient,
+                new ObjectMapper(),
+                emotionalAnalysisRepository,
+                aggregationService,
+                userInfoService,
+                memoriaService,
+                new RiskDetectionService(llmClient, new ObjectMapper(), lexicon, 0.15, 0.9),
+                riskAlertPublisher
+        );
+        ConversationAnalysisEvent hedged = new ConversationAnalysisEvent(
+                event.conversationId(), event.messageId(), 1, "user-123", "Não sei mais, quero me matar", "Resposta da IA", false);
+        AtomicReference<Object> priority = new AtomicReference<>();
+        when(emotionalAnalysisRepository.findByMessageId(event.messageId())).thenReturn(Optional.empty());
+        when(userInfoService.getUserInfo(anyString(), any())).thenReturn(Optional.empty());
+        when(llmClient.extractEmotionalAnalysisAndMemories(anyString(), anyString()))
+                .thenReturn(Mono.deferContextual(context -> {
+                    priority.set(context.getOrDefault(LLMPriority.CONTEXT_KEY, null));
+                    return Mono.error(new LLMQuotaExceededException("tenant", "Cota excedida"));
+                }));
+
+        assertThrows(LLMQuotaExceededException.class, () -> service.processAnalysis(hedged));
+
+        assertEquals(LLMPriority.SAFETY, priority.get());
+        ArgumentCaptor<RiskAnalysisResponse> riskCaptor = ArgumentCaptor.forClass(RiskAnalysisResponse.class);
+        verify(riskAlertPublisher).publishRiskAlert(eq(event.messageId()), eq("user-123"), eq("Não sei mais, quero me matar"), riskCaptor.capture());
+        assertTrue(riskCaptor.getValue().isRiskDetected());
+        verify(emotionalAnalysisRepository, never()).saveAndFlush(any(EmotionalAnalysis.class));
+    }
+
+    private RiskAnalysisResponse noRisk() {
+        return new RiskAnalysisResponse(false, "NONE", "", null, 0.9);
+    }
+
+    private String createConsolidatedResponseJson() {
+        return "```json\n{\"risco\":{\"isRiskDetected\":true,\"riskLevel\":\"MEDIUM\",\"confidence\":0.6},\"analiseEmocional\":{\"primaryEmotional\":\"ansiedade\",\"intensity\":70,\"triggers\":[\"trabalho\"],\"context\":\"\",\"suggestion\":\"Respire fundo\"},\"memorias\":[]}\n```";
+    }
+}
@@ -0,0 +1,142 @@
+package br.jeanjacintho.tideflow.ai_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import br.jeanjacintho.tideflow.ai_service.client.LLMClient;
+import br.jeanjacintho.tideflow.ai_service.model.Conversation;
+import br.jeanjacintho.tideflow.ai_service.model.ConversationMessage;
+import br.jeanjacintho.tideflow.ai_service.model.MessageRole;
+import br.jeanjacintho.tideflow.ai_service.repository.ConversationMessageRepository;
+import br.jeanjacintho.tideflow.ai_service.repository.ConversationRepository;
+import br.jeanjacintho.tideflow.ai_service.repository.ConversationStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ConversationContextService Tests")
+class ConversationContextServiceTest {
+
+    @Mock
+    private ConversationRepository conversationRepository;
+
+    @Mock
+    private ConversationMessageRepository conversationMessageRepository;
+
+    @Mock
+    private ConversationStore conversationStore;
+
+    @Mock
+    private LLMClient llmClient;
+
+    private ConversationContextService conversationContextService;
+    private Conversation conversation;
+
+    @BeforeEach
+    void setUp() {
+        conversationContextService = new ConversationContextService(
+                conversationRepository, conversationMessageRepository, conversationStore, llmClient, Schedulers.immediate(), 3, 400, 2);
+        conversation = new Conversation("user-123");
+        conversation.setId(UUID.randomUUID());
+    }
+
+    @Test
+    @DisplayName("buildContext - Deve incluir mensagens que saíram da janela e ainda não foram resumidas")
+    void testBuildContextKeepsUnsummarizedMessagesOutsideWindow() {
+        conversation.setSummary("Falou sobre a prova.");
+        conversation.setSummarizedUpTo(4);
+        when(conversationStore.findRecentMessages(conversation.getId(), 9)).thenReturn(Flux.fromIterable(messages(4, 12)));
+
+        StepVerifier.create(conversationContextService.buildContext(conversation))
+                .assertNext(context -> {
+                    assertEquals(9, context.size());
+                    assertEquals("system", context.get(0).get("role"));
+                    assertEquals("mensagem 5", context.get(1).get("content"));
+                    assertEquals("mensagem 12", context.get(8).get("content"));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("buildContext - Não deve repetir mensagens já cobertas pelo resumo")
+    void testBuildContextSkipsSummarizedMessages() {
+        conversation.setSummary("Falou sobre a prova.");
+        conversation.setSummarizedUpTo(6);
+        when(conversationStore.findRecentMessages(conversation.getId(), 9)).thenReturn(Flux.fromIterable(messages(4, 12)));
+
+        StepVerifier.create(conversationContextService.buildContext(conversation))
+                .assertNext(context -> {
+                    assertEquals(7, context.size());
+                    assertEquals("mensagem 7", context.get(1).get("content"));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("updateSummaryIfNeeded - Não deve consultar o banco quando o lote pendente não atinge o limiar")
+    void testUpdateSummarySkipsQueriesBelowThreshold() {
+        conversation.setSummarizedUpTo(4);
+
+        StepVerifier.create(conversationContextService.updateSummaryIfNeeded(conversation, 12))
+                .verifyComplete();
+
+        verifyNoInteractions(conversationRepository, conversationMessageRepository, llmClient);
+    }
+
+    @Test
+    @DisplayName("updateSummaryIfNeeded - Deve resumir as mensagens que saíram da janela recente")
+    void testUpdateSummarySummarizesMessagesOutsideWindow() {
+        conversation.setSummary("Falou sobre a prova.");
+        conversation.setSummarizedUpTo(4);
+        when(conversationMessageRepository.findByConversationIdAndSequenceNumberBetweenOrderBySequenceNumberAsc(
+                conversation.getId(), 5, 8)).thenReturn(messages(5, 8));
+        when(llmClient.summarizeConversation(eq("Falou sobre a prova."), anyString(), anyInt()))
+                .thenReturn(Mono.just("Falou sobre a prova e o trabalho."));
+
+        StepVerifier.create(conversationContextService.updateSummaryIfNeeded(conversation, 14))
+                .verifyComplete();
+
+        verify(conversationRepository).updateSummary(conversation.getId(), "Falou sobre a prova e o trabalho.", 8);
+    }
+
+    @Test
+    @DisplayName("updateSummaryIfNeeded - Deve manter o resumo anterior quando o LLM falha")
+    void testUpdateSummaryKeepsPreviousSummaryOnFailure() {
+        when(conversationMessageRepository.findByConversationIdAndSequenceNumberBetweenOrderBySequenceNumberAsc(
+                conversation.getId(), 1, 4)).thenReturn(messages(1, 4));
+        when(llmClient.summarizeConversation(any(), anyString(), anyInt()))
+                .thenReturn(Mono.error(new RuntimeException("LLM indisponível")));
+
+        StepVerifier.create(conversationContextService.updateSummaryIfNeeded(conversation, 10))
+                .verifyComplete();
+
+        verifyNoInteractions(conversationRepository);
+    }
+
+    private List<ConversationMessage> messages(int from, int to) {
+        List<ConversationMessage> messages = new ArrayList<>();
+        for (int sequence = from; sequence <= to; sequence++) {
+            MessageRole role = sequence % 2 == 1 ? MessageRole.USER : MessageRole.ASSISTANT;
+            messages.add(new ConversationMessage(role, "mensagem " + sequence, sequence));
+        }
+        return messages;
+    }
+}
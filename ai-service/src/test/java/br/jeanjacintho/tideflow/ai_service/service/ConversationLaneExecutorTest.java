@@ -0,0 +1,154 @@
+package br.jeanjacintho.tideflow.ai_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import br.jeanjacintho.tideflow.ai_service.exception.ConversationBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@DisplayName("ConversationLaneExecutor Tests")
+class ConversationLaneExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConversationLaneExecutor laneExecutor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ConversationLeaseService leaseService = new ConversationLeaseService(
+                null, false, Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofMillis(10));
+        laneExecutor = new ConversationLaneExecutor(leaseService, Schedulers.boundedElastic(), meterRegistry, 1);
+    }
+
+    @Test
+    @DisplayName("execute - Deve processar turnos da mesma conversa em ordem")
+    void testExecuteSerializesSameConversation() {
+        List<String> events = new CopyOnWriteArrayList<>();
+        Sinks.One<String> firstGate = Sinks.one();
+
+        Mono<String> first = laneExecutor.execute("conv-1", () -> {
+            events.add("start-1");
+            return firstGate.asMono().doOnNext(value -> events.add("end-1"));
+        });
+        Mono<String> second = laneExecutor.execute("conv-1", () -> {
+            events.add("start-2");
+            return Mono.just("2");
+        });
+
+        StepVerifier.create(first.zipWith(second))
+                .then(() -> {
+                    sleep(100);
+                    assertEquals(List.of("start-1"), events);
+                    firstGate.tryEmitValue("1");
+                })
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(List.of("start-1", "end-1", "start-2"), events);
+    }
+
+    @Test
+    @DisplayName("execute - Deve processar conversas diferentes em paralelo")
+    void testExecuteRunsDifferentConversationsInParallel() {
+        Sinks.One<String> gate = Sinks.one();
+
+        laneExecutor.execute("conv-1", gate::asMono).subscribe();
+
+        StepVerifier.create(laneExecutor.execute("conv-2", () -> Mono.just("outra")))
+                .expectNext("outra")
+                .verifyComplete();
+
+        gate.tryEmitValue("liberado");
+    }
+
+    @Test
+    @DisplayName("execute - Deve rejeitar quando a fila da conversa está cheia")
+    void testExecuteRejectsWhenQueueIsFull() {
+        Sinks.One<String> gate = Sinks.one();
+
+        laneExecutor.execute("conv-1", gate::asMono).subscribe();
+        laneExecutor.execute("conv-1", () -> Mono.just("na fila")).subscribe();
+
+        StepVerifier.create(laneExecutor.execute("conv-1", () -> Mono.just("excedente")))
+                .expectError(ConversationBusyException.class)
+                .verify(Duration.ofSeconds(1));
+
+        assertEquals(1.0, meterRegistry.get("conversation.lane.rejected").counter().count());
+        assertEquals(1.0, meterRegistry.get("conversation.lane.queued").gauge().value());
+        gate.tryEmitValue("liberado");
+    }
+
+    @Test
+    @DisplayName("execute - Deve liberar a vaga na fila quando o turno aguardando é cancelado")
+    void testExecuteFreesQueueSlotWhenWaitingTurnIsCancelled() {
+        Sinks.One<String> gate = Sinks.one();
+        List<String> events = new CopyOnWriteArrayList<>();
+
+        laneExecutor.execute("conv-1", gate::asMono).subscribe();
+        Disposable abandoned = laneExecutor.execute("conv-1", () -> {
+            events.add("abandonado");
+            return Mono.just("abandonado");
+        }).subscribe();
+        abandoned.dispose();
+
+        assertEquals(0.0, meterRegistry.get("conversation.lane.queued").gauge().value());
+
+        StepVerifier.create(laneExecutor.execute("conv-1", () -> Mono.just("novo")))
+                .then(() -> gate.tryEmitValue("liberado"))
+                .expectNext("novo")
+                .verifyComplete();
+
+        assertEquals(0.0, meterRegistry.get("conversation.lane.rejected").counter().count());
+        assertEquals(List.of(), events);
+    }
+
+    @Test
+    @DisplayName("executeMany - Deve manter a conversa ocupada até salvar o turno cancelado")
+    void testExecuteManyHoldsLaneUntilCancelledTurnIsSaved() {
+        List<String> events = new CopyOnWriteArrayList<>();
+        Sinks.One<String> saveGate = Sinks.one();
+
+        Disposable stream = laneExecutor.executeMany("conv-1", () -> Flux.<String>deferContextual(context -> {
+            ConversationLaneExecutor.holdOnCancel(context, saveGate.asMono().doOnNext(value -> events.add("saved-1")));
+            return Flux.never();
+        })).subscribe();
+        sleep(50);
+        stream.dispose();
+
+        Mono<String> second = laneExecutor.execute("conv-1", () -> {
+            events.add("start-2");
+            return Mono.just("2");
+        });
+
+        StepVerifier.create(second)
+                .then(() -> {
+                    sleep(100);
+                    assertEquals(List.of(), events);
+                    saveGate.tryEmitValue("1");
+                })
+                .expectNext("2")
+                .verifyComplete();
+
+        assertEquals(List.of("saved-1", "start-2"), events);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
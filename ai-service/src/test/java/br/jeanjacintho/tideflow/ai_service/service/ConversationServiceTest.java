@@ -1,40 +1,68 @@
 package br.jeanjacintho.tideflow.ai_service.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import br.jeanjacintho.tideflow.ai_service.client.LLMClient;
+import br.jeanjacintho.tideflow.ai_service.client.PromptEncoder;
+import br.jeanjacintho.tideflow.ai_service.config.SchedulerConfig;
+import br.jeanjacintho.tideflow.ai_service.dto.event.ConversationAnalysisEvent;
 import br.jeanjacintho.tideflow.ai_service.dto.request.ConversationRequest;
 import br.jeanjacintho.tideflow.ai_service.model.Conversation;
+import br.jeanjacintho.tideflow.ai_service.dto.response.ConversationStreamEvent;
+import br.jeanjacintho.tideflow.ai_service.dto.response.ConversationSummaryPage;
+import br.jeanjacintho.tideflow.ai_service.dto.response.ConversationSummaryResponse;
 import br.jeanjacintho.tideflow.ai_service.dto.response.RiskAnalysisResponse;
 import br.jeanjacintho.tideflow.ai_service.model.ConversationMessage;
-import br.jeanjacintho.tideflow.ai_service.model.EmotionalAnalysis;
 import br.jeanjacintho.tideflow.ai_service.model.MessageRole;
 import br.jeanjacintho.tideflow.ai_service.repository.ConversationMessageRepository;
+import br.jeanjacintho.tideflow.ai_service.repository.ConversationMessageWriter;
 import br.jeanjacintho.tideflow.ai_service.repository.ConversationRepository;
+import br.jeanjacintho.tideflow.ai_service.repository.ConversationStore;
 import br.jeanjacintho.tideflow.ai_service.repository.EmotionalAnalysisRepository;
+import br.jeanjacintho.tideflow.ai_service.repository.JpaConversationStore;
+import br.jeanjacintho.tideflow.ai_service.repository.MemoriaRepository;
+import br.jeanjacintho.tideflow.ai_service.risk.RiskKeywordMatcher;
+import br.jeanjacintho.tideflow.ai_service.risk.RiskScreening;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("ConversationService Tests")
@@ -48,31 +76,34 @@ class ConversationServiceTest {
     private ConversationRepository conversationRepository;
 
     @Mock
-    private ConversationMessageRepository conversationMessageRepository;
+    private ConversationStore conversationStore;
 
     @Mock
     private MemoriaService memoriaService;
 
     @Mock
-    private ObjectMapper objectMapper;
+    private RiskDetectionService riskDetectionService;
 
     @Mock
-    private EmotionalAnalysisRepository emotionalAnalysisRepository;
+    private RiskAlertPublisher riskAlertPublisher;
 
     @Mock
-    private RiskDetectionService riskDetectionService;
+    private ConversationContextService conversationContextService;
 
     @Mock
-    private RiskAlertPublisher riskAlertPublisher;
+    private ConversationAnalysisPublisher conversationAnalysisPublisher;
 
     @Mock
-    private EmotionalAggregationService aggregationService;
+    private ConversationMessageRepository conversationMessageRepository;
 
     @Mock
-    private UserInfoService userInfoService;
+    private EmotionalAnalysisRepository emotionalAnalysisRepository;
+
+    @Mock
+    private MemoriaRepository memoriaRepository;
 
-    @InjectMocks
     private ConversationService conversationService;
+    private final List<String> blockingThreads = new CopyOnWriteArrayList<>();
 
     private ConversationRequest request;
     private Conversation conversation;
@@ -81,38 +112,41 @@ class ConversationServiceTest {
 
     @BeforeEach
     void setUp() {
+        conversationService = new ConversationService(
+                llmClient,
+                conversationRepository,
+                conversationStore,
+                memoriaService,
+                riskDetectionService,
+                riskAlertPublisher,
+                conversationContextService,
+                conversationAnalysisPublisher,
+                Schedulers.immediate()
+        );
+
         userId = "user-123";
         conversationId = UUID.randomUUID();
         request = new ConversationRequest(userId, "Olá, como você está?", null);
 
         conversation = new Conversation(userId);
         conversation.setId(conversationId);
+        lenient().when(conversationContextService.updateSummaryIfNeeded(any(Conversation.class), anyInt()))
+                .thenReturn(Mono.empty());
     }
 
     @Test
     @DisplayName("processConversation - Deve criar nova conversação quando conversationId é null")
     void testProcessConversationCreatesNewConversation() throws Exception {
-        when(conversationRepository.save(any(Conversation.class))).thenAnswer(invocation -> {
-            Conversation conv = invocation.getArgument(0);
-            if (conv.getId() == null) {
-                conv.setId(UUID.randomUUID());
-            }
-            return conv;
-        });
-        when(conversationMessageRepository.findByConversationIdOrderBySequenceNumberAsc(any(UUID.class)))
-                .thenReturn(new ArrayList<>());
-        when(conversationMessageRepository.save(any(ConversationMessage.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(emotionalAnalysisRepository.save(any(EmotionalAnalysis.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(conversationStore.create(userId)).thenReturn(Mono.just(conversation));
+        when(conversationStore.allocateSequenceNumbers(conversationId, 2)).thenReturn(Mono.just(2));
+        when(conversationContextService.buildContext(any(Conversation.class)))
+                .thenReturn(Mono.just(new ArrayList<>()));
+        when(conversationStore.saveMessage(any(ConversationMessage.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         when(memoriaService.recuperarMemoriasRelevantesAsync(anyString(), anyString()))
                 .thenReturn(Mono.just(""));
-        when(riskDetectionService.analyzeRisk(anyString(), anyString()))
-                .thenReturn(Mono.just(new RiskAnalysisResponse(false, "NONE", "No risk detected", null, 0.0)));
+        when(riskDetectionService.screen(anyString()))
+                .thenReturn(new RiskScreening(RiskScreening.Tier.SKIP, RiskKeywordMatcher.Match.NONE));
         when(llmClient.chatWithHistory(anyList())).thenReturn(Mono.just("Resposta da IA"));
-        when(llmClient.extractEmotionalAnalysisAndMemories(anyString(), anyString()))
-                .thenReturn(Mono.just(createConsolidatedResponseJson()));
-        doAnswer(invocation -> createConsolidatedResponseMap())
-                .when(objectMapper).readValue(anyString(), any(com.fasterxml.jackson.core.type.TypeReference.class));
-        when(userInfoService.getUserInfo(anyString(), any())).thenReturn(java.util.Optional.empty());
 
         StepVerifier.create(conversationService.processConversation(request))
                 .assertNext(response -> {
@@ -122,30 +156,25 @@ class ConversationServiceTest {
                 })
                 .verifyComplete();
 
-        verify(conversationRepository, org.mockito.Mockito.atLeastOnce()).save(any(Conversation.class));
-        verify(conversationMessageRepository, org.mockito.Mockito.atLeastOnce()).save(any(ConversationMessage.class));
+        verify(conversationStore).create(userId);
+        verify(conversationStore, times(2)).saveMessage(any(ConversationMessage.class));
+        verify(conversationAnalysisPublisher).publish(any(ConversationAnalysisEvent.class));
     }
 
     @Test
     @DisplayName("processConversation - Deve usar conversação existente quando conversationId é fornecido")
     void testProcessConversationUsesExistingConversation() throws Exception {
         request.setConversationId(conversationId.toString());
-        when(conversationRepository.findByIdAndUserId(conversationId, userId)).thenReturn(Optional.of(conversation));
-        when(conversationMessageRepository.findByConversationIdOrderBySequenceNumberAsc(conversationId))
-                .thenReturn(new ArrayList<>());
-        when(conversationMessageRepository.save(any(ConversationMessage.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(emotionalAnalysisRepository.save(any(EmotionalAnalysis.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(conversationRepository.save(any(Conversation.class))).thenReturn(conversation);
+        when(conversationStore.findByIdAndUserId(conversationId, userId)).thenReturn(Mono.just(conversation));
+        when(conversationContextService.buildContext(any(Conversation.class)))
+                .thenReturn(Mono.just(new ArrayList<>()));
+        when(conversationStore.saveMessage(any(ConversationMessage.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(conversationStore.allocateSequenceNumbers(conversationId, 2)).thenReturn(Mono.just(6));
         when(memoriaService.recuperarMemoriasRelevantesAsync(anyString(), anyString()))
                 .thenReturn(Mono.just(""));
-        when(riskDetectionService.analyzeRisk(anyString(), anyString()))
-                .thenReturn(Mono.just(new RiskAnalysisResponse(false, "NONE", "No risk detected", null, 0.0)));
+        when(riskDetectionService.screen(anyString()))
+                .thenReturn(new RiskScreening(RiskScreening.Tier.SKIP, RiskKeywordMatcher.Match.NONE));
         when(llmClient.chatWithHistory(anyList())).thenReturn(Mono.just("Resposta da IA"));
-        when(llmClient.extractEmotionalAnalysisAndMemories(anyString(), anyString()))
-                .thenReturn(Mono.just(createConsolidatedResponseJson()));
-        doAnswer(invocation -> createConsolidatedResponseMap())
-                .when(objectMapper).readValue(anyString(), any(com.fasterxml.jackson.core.type.TypeReference.class));
-        when(userInfoService.getUserInfo(anyString(), any())).thenReturn(java.util.Optional.empty());
 
         StepVerifier.create(conversationService.processConversation(request))
                 .assertNext(response -> {
@@ -154,76 +183,182 @@ class ConversationServiceTest {
                 })
                 .verifyComplete();
 
-        verify(conversationRepository).findByIdAndUserId(conversationId, userId);
+        verify(conversationStore).findByIdAndUserId(conversationId, userId);
+        verify(conversationStore, never()).create(anyString());
+
+        ArgumentCaptor<ConversationMessage> messageCaptor = ArgumentCaptor.forClass(ConversationMessage.class);
+        verify(conversationStore, times(2)).saveMessage(messageCaptor.capture());
+        assertEquals(5, messageCaptor.getAllValues().get(0).getSequenceNumber());
+        assertEquals(6, messageCaptor.getAllValues().get(1).getSequenceNumber());
     }
 
     @Test
-    @DisplayName("processConversation - Deve salvar análise emocional quando extraída com sucesso")
-    void testProcessConversationSavesEmotionalAnalysis() throws Exception {
-        when(conversationRepository.save(any(Conversation.class))).thenReturn(conversation);
-        when(conversationMessageRepository.findByConversationIdOrderBySequenceNumberAsc(any(UUID.class)))
-                .thenReturn(new ArrayList<>());
-        when(conversationMessageRepository.save(any(ConversationMessage.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(emotionalAnalysisRepository.save(any(EmotionalAnalysis.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    @DisplayName("processConversation - Deve enfileirar análise emocional sem aguardar a extração")
+    void testProcessConversationPublishesAnalysisEvent() throws Exception {
+        when(conversationStore.create(userId)).thenReturn(Mono.just(conversation));
+        when(conversationStore.allocateSequenceNumbers(conversationId, 2)).thenReturn(Mono.just(2));
+        when(conversationContextService.buildContext(any(Conversation.class)))
+                .thenReturn(Mono.just(new ArrayList<>()));
+        when(conversationStore.saveMessage(any(ConversationMessage.class))).thenAnswer(invocation -> {
+            ConversationMessage message = invocation.getArgument(0);
+            message.setId(UUID.randomUUID());
+            return Mono.just(message);
+        });
         when(memoriaService.recuperarMemoriasRelevantesAsync(anyString(), anyString()))
                 .thenReturn(Mono.just(""));
-        when(riskDetectionService.analyzeRisk(anyString(), anyString()))
-                .thenReturn(Mono.just(new RiskAnalysisResponse(false, "NONE", "No risk detected", null, 0.0)));
+        when(riskDetectionService.screen(anyString()))
+                .thenReturn(new RiskScreening(RiskScreening.Tier.SKIP, RiskKeywordMatcher.Match.NONE));
         when(llmClient.chatWithHistory(anyList())).thenReturn(Mono.just("Resposta da IA"));
-        when(llmClient.extractEmotionalAnalysisAndMemories(anyString(), anyString()))
-                .thenReturn(Mono.just(createConsolidatedResponseJson()));
-        doAnswer(invocation -> createConsolidatedResponseMap())
-                .when(objectMapper).readValue(anyString(), any(com.fasterxml.jackson.core.type.TypeReference.class));
-        when(userInfoService.getUserInfo(anyString(), any())).thenReturn(java.util.Optional.empty());
 
         StepVerifier.create(conversationService.processConversation(request))
                 .assertNext(response -> {
                     assertNotNull(response);
-                    assertNotNull(response.getAnalisys());
+                    assertNull(response.getAnalisys());
+                    assertNotNull(response.getMessageId());
                 })
                 .verifyComplete();
 
-        verify(emotionalAnalysisRepository, org.mockito.Mockito.atLeastOnce()).save(any(EmotionalAnalysis.class));
+        ArgumentCaptor<ConversationAnalysisEvent> eventCaptor = ArgumentCaptor.forClass(ConversationAnalysisEvent.class);
+        verify(conversationAnalysisPublisher).publish(eventCaptor.capture());
+        assertEquals(conversationId, eventCaptor.getValue().conversationId());
+        assertEquals("Olá, como você está?", eventCaptor.getValue().userMessage());
+        assertEquals("Resposta da IA", eventCaptor.getValue().aiResponse());
+        verify(llmClient, never()).extractEmotionalAnalysisAndMemories(anyString(), anyString());
     }
 
     @Test
-    @DisplayName("processConversation - Deve usar análise emocional padrão quando extração falha")
-    void testProcessConversationUsesDefaultEmotionalAnalysis() throws Exception {
-        when(conversationRepository.save(any(Conversation.class))).thenReturn(conversation);
-        when(conversationMessageRepository.findByConversationIdOrderBySequenceNumberAsc(any(UUID.class)))
-                .thenReturn(new ArrayList<>());
-        when(conversationMessageRepository.save(any(ConversationMessage.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        lenient().when(emotionalAnalysisRepository.save(any(EmotionalAnalysis.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    @DisplayName("processConversation - Deve publicar alerta imediato quando a triagem lexical escala o risco")
+    void testProcessConversationEscalatesLexicalRisk() throws Exception {
+        RiskScreening escalated = new RiskScreening(RiskScreening.Tier.ESCALATE,
+                new RiskKeywordMatcher.Match(1.0, List.of("quero me matar"), false));
+        RiskAnalysisResponse riskAnalysis = new RiskAnalysisResponse(true, "HIGH", "Expressões de alto risco", "quero me matar", 1.0);
+
+        when(conversationStore.create(userId)).thenReturn(Mono.just(conversation));
+        when(conversationStore.allocateSequenceNumbers(conversationId, 2)).thenReturn(Mono.just(2));
+        when(conversationContextService.buildContext(any(Conversation.class)))
+                .thenReturn(Mono.just(new ArrayList<>()));
+        when(conversationStore.saveMessage(any(ConversationMessage.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         when(memoriaService.recuperarMemoriasRelevantesAsync(anyString(), anyString()))
                 .thenReturn(Mono.just(""));
-        when(riskDetectionService.analyzeRisk(anyString(), anyString()))
-                .thenReturn(Mono.just(new RiskAnalysisResponse(false, "NONE", "No risk detected", null, 0.0)));
+        when(riskDetectionService.screen(anyString())).thenReturn(escalated);
+        when(riskDetectionService.escalatedAnalysis(anyString(), eq(escalated))).thenReturn(riskAnalysis);
         when(llmClient.chatWithHistory(anyList())).thenReturn(Mono.just("Resposta da IA"));
-        when(llmClient.extractEmotionalAnalysisAndMemories(anyString(), anyString()))
-                .thenReturn(Mono.error(new RuntimeException("Extraction failed")));
-        lenient().when(userInfoService.getUserInfo(anyString(), any())).thenReturn(java.util.Optional.empty());
 
         StepVerifier.create(conversationService.processConversation(request))
-                .assertNext(response -> {
-                    assertNotNull(response);
-                    assertNotNull(response.getAnalisys());
-                    assertEquals("neutro", response.getAnalisys().getPrimaryEmotional());
+                .assertNext(response -> assertNotNull(response))
+                .verifyComplete();
+
+        verify(riskAlertPublisher, timeout(1000)).publishRiskAlert(userId, "Olá, como você está?", riskAnalysis);
+        ArgumentCaptor<ConversationAnalysisEvent> eventCaptor = ArgumentCaptor.forClass(ConversationAnalysisEvent.class);
+        verify(conversationAnalysisPublisher).publish(eventCaptor.capture());
+        assertTrue(eventCaptor.getValue().riskEscalated());
+    }
+
+    @Test
+    @DisplayName("streamConversation - Deve emitir tokens e salvar a resposta completa ao final")
+    void testStreamConversationEmitsTokensAndSavesResponse() throws Exception {
+        when(conversationStore.create(userId)).thenReturn(Mono.just(conversation));
+        when(conversationStore.allocateSequenceNumbers(conversationId, 2)).thenReturn(Mono.just(2));
+        when(conversationContextService.buildContext(any(Conversation.class)))
+                .thenReturn(Mono.just(new ArrayList<>()));
+        when(conversationStore.saveMessage(any(ConversationMessage.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(memoriaService.recuperarMemoriasRelevantesAsync(anyString(), anyString()))
+                .thenReturn(Mono.just(""));
+        when(riskDetectionService.screen(anyString()))
+                .thenReturn(new RiskScreening(RiskScreening.Tier.SKIP, RiskKeywordMatcher.Match.NONE));
+        when(llmClient.streamChatWithHistory(anyList())).thenReturn(Flux.just("Olá", ", tudo bem?"));
+
+        StepVerifier.create(conversationService.streamConversation(request))
+                .assertNext(event -> assertEquals("Olá", event.getContent()))
+                .assertNext(event -> assertEquals(", tudo bem?", event.getContent()))
+                .assertNext(event -> {
+                    assertEquals(ConversationStreamEvent.TYPE_DONE, event.getType());
+                    assertEquals("Olá, tudo bem?", event.getResponse().getAiResponse());
+                })
+                .verifyComplete();
+
+        verify(conversationAnalysisPublisher).publish(any(ConversationAnalysisEvent.class));
+    }
+
+    @Test
+    @DisplayName("streamConversation - Deve salvar a resposta parcial quando o cliente cancela o streaming")
+    void testStreamConversationPersistsPartialResponseOnCancel() throws Exception {
+        stubStreamTurn();
+        Sinks.Many<String> llmTokens = Sinks.many().unicast().onBackpressureBuffer();
+        when(llmClient.streamChatWithHistory(anyList())).thenReturn(llmTokens.asFlux());
+
+        StepVerifier.create(conversationService.streamConversation(request))
+                .then(() -> llmTokens.tryEmitNext("Olá, como"))
+                .assertNext(event -> assertEquals("Olá, como", event.getContent()))
+                .thenCancel()
+                .verify();
+
+        ArgumentCaptor<ConversationMessage> messageCaptor = ArgumentCaptor.forClass(ConversationMessage.class);
+        verify(conversationStore, times(2)).saveMessage(messageCaptor.capture());
+        assertEquals(MessageRole.ASSISTANT, messageCaptor.getAllValues().get(1).getRole());
+        assertEquals("Olá, como", messageCaptor.getAllValues().get(1).getContent());
+        verify(conversationAnalysisPublisher).publish(any(ConversationAnalysisEvent.class));
+    }
+
+    @Test
+    @DisplayName("streamConversation - Deve salvar a resposta padrão quando o cliente cancela antes do primeiro token")
+    void testStreamConversationPersistsFallbackOnCancelBeforeFirstToken() throws Exception {
+        stubStreamTurn();
+        Sinks.Many<String> llmTokens = Sinks.many().unicast().onBackpressureBuffer();
+        when(llmClient.streamChatWithHistory(anyList())).thenReturn(llmTokens.asFlux());
+
+        StepVerifier.create(conversationService.streamConversation(request))
+                .thenCancel()
+                .verify();
+
+        ArgumentCaptor<ConversationMessage> messageCaptor = ArgumentCaptor.forClass(ConversationMessage.class);
+        verify(conversationStore, times(2)).saveMessage(messageCaptor.capture());
+        assertEquals(MessageRole.ASSISTANT, messageCaptor.getAllValues().get(1).getRole());
+        assertEquals(LLMClient.FALLBACK_RESPONSE, messageCaptor.getAllValues().get(1).getContent());
+        verify(conversationAnalysisPublisher).publish(any(ConversationAnalysisEvent.class));
+    }
+
+    @Test
+    @DisplayName("streamConversation - Deve salvar a resposta parcial e concluir quando o LLM falha no meio do streaming")
+    void testStreamConversationPersistsPartialResponseOnError() throws Exception {
+        stubStreamTurn();
+        when(llmClient.streamChatWithHistory(anyList()))
+                .thenReturn(Flux.just("Olá, como").concatWith(Flux.error(new RuntimeException("conexão encerrada"))));
+
+        StepVerifier.create(conversationService.streamConversation(request))
+                .assertNext(event -> assertEquals("Olá, como", event.getContent()))
+                .assertNext(event -> {
+                    assertEquals(ConversationStreamEvent.TYPE_DONE, event.getType());
+                    assertEquals("Olá, como", event.getResponse().getAiResponse());
                 })
                 .verifyComplete();
+
+        verify(conversationStore, times(2)).saveMessage(any(ConversationMessage.class));
+        verify(conversationAnalysisPublisher).publish(any(ConversationAnalysisEvent.class));
+    }
+
+    private void stubStreamTurn() {
+        when(conversationStore.create(userId)).thenReturn(Mono.just(conversation));
+        when(conversationStore.allocateSequenceNumbers(conversationId, 2)).thenReturn(Mono.just(2));
+        when(conversationContextService.buildContext(any(Conversation.class)))
+                .thenReturn(Mono.just(new ArrayList<>()));
+        when(conversationStore.saveMessage(any(ConversationMessage.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(memoriaService.recuperarMemoriasRelevantesAsync(anyString(), anyString()))
+                .thenReturn(Mono.just(""));
+        when(riskDetectionService.screen(anyString()))
+                .thenReturn(new RiskScreening(RiskScreening.Tier.SKIP, RiskKeywordMatcher.Match.NONE));
     }
 
     @Test
     @DisplayName("getConversationHistory - Deve retornar histórico quando conversação existe")
     void testGetConversationHistorySuccess() {
-        when(conversationRepository.findByIdAndUserId(conversationId, userId))
-                .thenReturn(Optional.of(conversation));
+        when(conversationStore.findByIdAndUserId(conversationId, userId))
+                .thenReturn(Mono.just(conversation));
 
-        List<ConversationMessage> messages = new ArrayList<>();
         ConversationMessage msg = new ConversationMessage(MessageRole.USER, "Mensagem teste", 1);
-        messages.add(msg);
 
-        when(conversationMessageRepository.findByConversationIdOrderBySequenceNumberAsc(conversationId))
-                .thenReturn(messages);
+        when(conversationStore.findMessages(conversationId))
+                .thenReturn(Flux.just(msg));
 
         StepVerifier.create(conversationService.getConversationHistory(conversationId.toString(), userId))
                 .assertNext(history -> {
@@ -237,54 +372,208 @@ class ConversationServiceTest {
     @Test
     @DisplayName("getConversationHistory - Deve retornar erro quando conversação não existe")
     void testGetConversationHistoryNotFound() {
-        when(conversationRepository.findByIdAndUserId(conversationId, userId))
-                .thenReturn(Optional.empty());
+        when(conversationStore.findByIdAndUserId(conversationId, userId))
+                .thenReturn(Mono.empty());
 
         StepVerifier.create(conversationService.getConversationHistory(conversationId.toString(), userId))
                 .expectError(IllegalArgumentException.class)
                 .verify();
     }
 
+    @Test
+    @DisplayName("getConversationHistoryPage - Deve retornar as mensagens mais recentes e indicar histórico anterior")
+    void testGetConversationHistoryPageReturnsLatestMessages() {
+        when(conversationStore.findByIdAndUserId(conversationId, userId))
+                .thenReturn(Mono.just(conversation));
+        when(conversationStore.findMessagesBefore(conversationId, 10, 3))
+                .thenReturn(Flux.just(
+                        new ConversationMessage(MessageRole.USER, "Mensagem 6", 6),
+                        new ConversationMessage(MessageRole.ASSISTANT, "Mensagem 7", 7),
+                        new ConversationMessage(MessageRole.USER, "Mensagem 8", 8)
+                ));
+        when(conversationStore.findMessagesAfter(conversationId, 9, 1))
+                .thenReturn(Flux.just(new ConversationMessage(MessageRole.ASSISTANT, "Mensagem 10", 10)));
+
+        StepVerifier.create(conversationService.getConversationHistoryPage(conversationId.toString(), userId, 10, null, 2))
+                .assertNext(history -> {
+                    assertEquals(2, history.getMessages().size());
+                    assertEquals(7, history.getMessages().get(0).getSequenceNumber());
+                    assertEquals(8, history.getMessages().get(1).getSequenceNumber());
+                    assertTrue(history.isHasMoreBefore());
+                    assertTrue(history.isHasMoreAfter());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("getConversationHistoryPage - Deve consultar o histórico anterior ao paginar para frente")
+    void testGetConversationHistoryPageAfterCursorProbesOlderMessages() {
+        when(conversationStore.findByIdAndUserId(conversationId, userId))
+                .thenReturn(Mono.just(conversation));
+        when(conversationStore.findMessagesAfter(conversationId, 0, 3))
+                .thenReturn(Flux.just(
+                        new ConversationMessage(MessageRole.USER, "Mensagem 1", 1),
+                        new ConversationMessage(MessageRole.ASSISTANT, "Mensagem 2", 2)
+                ));
+        when(conversationStore.findMessagesBefore(conversationId, 1, 1))
+                .thenReturn(Flux.empty());
+
+        StepVerifier.create(conversationService.getConversationHistoryPage(conversationId.toString(), userId, null, 0, 2))
+                .assertNext(history -> {
+                    assertEquals(2, history.getMessages().size());
+                    assertFalse(history.isHasMoreBefore());
+                    assertFalse(history.isHasMoreAfter());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("exportConversation - Deve exportar as mensagens em ordem de sequência")
+    void testExportConversationStreamsMessages() {
+        when(conversationStore.findByIdAndUserId(conversationId, userId))
+                .thenReturn(Mono.just(conversation));
+        when(conversationStore.findMessagesAfter(eq(conversationId), eq(0), anyInt()))
+                .thenReturn(Flux.just(
+                        new ConversationMessage(MessageRole.USER, "Mensagem 1", 1),
+                        new ConversationMessage(MessageRole.ASSISTANT, "Mensagem 2", 2)
+                ));
+
+        StepVerifier.create(conversationService.exportConversation(conversationId.toString(), userId))
+                .assertNext(message -> assertEquals(1, message.getSequenceNumber()))
+                .assertNext(message -> assertEquals(2, message.getSequenceNumber()))
+                .verifyComplete();
+    }
+
     @Test
     @DisplayName("getUserConversations - Deve retornar lista de conversações")
     void testGetUserConversations() {
-        List<Conversation> conversations = new ArrayList<>();
-        conversations.add(conversation);
-
-        when(conversationRepository.findByUserIdOrderByCreatedAtDesc(userId))
-                .thenReturn(conversations);
-        when(conversationMessageRepository.countByConversationId(conversationId))
-                .thenReturn(5L);
-        when(conversationMessageRepository.findLastMessageByConversationId(conversationId))
+        List<ConversationSummaryResponse> summaries = new ArrayList<>();
+        summaries.add(new ConversationSummaryResponse(conversationId, userId, LocalDateTime.now(), LocalDateTime.now(), 5L, "Olá"));
+
+        when(conversationRepository.findSummariesByUserId(userId, Limit.of(21)))
+                .thenReturn(summaries);
+
+        StepVerifier.create(conversationService.getUserConversations(userId, null, 20))
+                .assertNext(page -> {
+                    assertEquals(1, page.getConversations().size());
+                    assertEquals(conversationId, page.getConversations().get(0).getConversationId());
+                    assertEquals(5L, page.getConversations().get(0).getMessageCount());
+                    assertNull(page.getNextCursor());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("getUserConversations - Deve paginar por cursor a partir da última conversa da página")
+    void testGetUserConversationsKeysetPagination() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 10, 12, 0);
+        UUID olderId = UUID.randomUUID();
+        String longMessage = "a".repeat(101);
+        List<ConversationSummaryResponse> firstPage = new ArrayList<>();
+        firstPage.add(new ConversationSummaryResponse(conversationId, userId, createdAt, createdAt, 2L, longMessage));
+        firstPage.add(new ConversationSummaryResponse(olderId, userId, createdAt.minusDays(1), createdAt, 4L, null));
+
+        when(conversationRepository.findSummariesByUserId(userId, Limit.of(2))).thenReturn(firstPage);
+        when(conversationRepository.findSummariesByUserIdBefore(userId, createdAt, conversationId, Limit.of(2)))
                 .thenReturn(new ArrayList<>());
 
-        StepVerifier.create(conversationService.getUserConversations(userId))
-                .assertNext(summary -> {
-                    assertNotNull(summary);
-                    assertEquals(conversationId, summary.getConversationId());
-                    assertEquals(5L, summary.getMessageCount());
+        ConversationSummaryPage page = conversationService.getUserConversations(userId, null, 1).block();
+
+        assertEquals(1, page.getConversations().size());
+        assertEquals("a".repeat(100) + "...", page.getConversations().get(0).getLastMessagePreview());
+        assertNotNull(page.getNextCursor());
+
+        StepVerifier.create(conversationService.getUserConversations(userId, page.getNextCursor(), 1))
+                .assertNext(next -> {
+                    assertTrue(next.getConversations().isEmpty());
+                    assertNull(next.getNextCursor());
                 })
                 .verifyComplete();
     }
 
-    private java.util.Map<String, Object> createEmotionalAnalysisMap() {
-        java.util.Map<String, Object> map = new java.util.HashMap<>();
-        map.put("primaryEmotional", "neutro");
-        map.put("intensity", 50);
-        map.put("triggers", new ArrayList<>());
-        map.put("context", "");
-        map.put("suggestion", "Continue conversando");
-        return map;
+    @Test
+    @DisplayName("getUserConversations - Deve rejeitar cursor inválido")
+    void testGetUserConversationsInvalidCursor() {
+        StepVerifier.create(conversationService.getUserConversations(userId, "cursor-invalido", 20))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("processConversation - Não deve bloquear threads não bloqueantes com o scheduler de I/O real")
+    void testProcessConversationDoesNotBlockNonBlockingThreads() {
+        Scheduler blockingScheduler = new SchedulerConfig().blockingScheduler(4, 100);
+        try {
+            stubBlockingCollaborators();
+            when(llmClient.chatWithHistory(anyList()))
+                    .thenReturn(Mono.just("Resposta da IA").publishOn(Schedulers.parallel()));
+
+            StepVerifier.create(nonBlockingService(blockingScheduler).processConversation(request)
+                            .subscribeOn(Schedulers.parallel()))
+                    .assertNext(response -> assertEquals("Resposta da IA", response.getAiResponse()))
+                    .verifyComplete();
+
+            verify(conversationAnalysisPublisher).publish(any(ConversationAnalysisEvent.class));
+            assertTrue(blockingThreads.stream().allMatch(thread -> thread.startsWith("blocking-io")));
+        } finally {
+            blockingScheduler.dispose();
+        }
+    }
+
+    @Test
+    @DisplayName("streamConversation - Não deve bloquear threads não bloqueantes com o scheduler de I/O real")
+    void testStreamConversationDoesNotBlockNonBlockingThreads() {
+        Scheduler blockingScheduler = new SchedulerConfig().blockingScheduler(4, 100);
+        try {
+            stubBlockingCollaborators();
+            when(llmClient.streamChatWithHistory(anyList()))
+                    .thenReturn(Flux.just("Olá", ", tudo bem?").publishOn(Schedulers.parallel()));
+
+            StepVerifier.create(nonBlockingService(blockingScheduler).streamConversation(request)
+                            .subscribeOn(Schedulers.parallel()))
+                    .expectNextCount(2)
+                    .assertNext(event -> assertEquals("Olá, tudo bem?", event.getResponse().getAiResponse()))
+                    .verifyComplete();
+
+            verify(conversationAnalysisPublisher).publish(any(ConversationAnalysisEvent.class));
+            assertTrue(blockingThreads.stream().allMatch(thread -> thread.startsWith("blocking-io")));
+        } finally {
+            blockingScheduler.dispose();
+        }
+    }
+
+    private ConversationService nonBlockingService(Scheduler blockingScheduler) {
+        ConversationStore store = new JpaConversationStore(conversationRepository, conversationMessageRepository,
+                emotionalAnalysisRepository, new ConversationMessageWriter(conversationRepository, conversationMessageRepository),
+                blockingScheduler);
+        ConversationContextService contextService = new ConversationContextService(
+                conversationRepository, conversationMessageRepository, store, llmClient, blockingScheduler, 6, 400, 3);
+        MemoriaService memorias = new MemoriaService(memoriaRepository, llmClient, null, null, blockingScheduler,
+                new PromptEncoder(new ObjectMapper(), new SimpleMeterRegistry(), true, "ollama", false, List.of(), List.of()));
+        return new ConversationService(llmClient, conversationRepository, store, memorias, riskDetectionService,
+                riskAlertPublisher, contextService, conversationAnalysisPublisher, blockingScheduler);
     }
 
-    private String createConsolidatedResponseJson() {
-        return "{\"analiseEmocional\":{\"primaryEmotional\":\"neutro\",\"intensity\":50,\"triggers\":[],\"context\":\"\",\"suggestion\":\"Continue conversando\"},\"memorias\":[]}";
+    private void stubBlockingCollaborators() {
+        when(conversationRepository.save(any(Conversation.class))).thenAnswer(blocking(invocation -> conversation));
+        when(conversationRepository.allocateSequenceNumbers(eq(conversationId), eq(2), any(LocalDateTime.class)))
+                .thenAnswer(blocking(invocation -> 2));
+        when(conversationRepository.recordMessage(eq(conversationId), anyString())).thenAnswer(blocking(invocation -> 1));
+        when(conversationMessageRepository.findByConversationIdOrderBySequenceNumberDesc(eq(conversationId), any(Pageable.class)))
+                .thenAnswer(blocking(invocation -> List.of()));
+        when(conversationMessageRepository.saveAndFlush(any(ConversationMessage.class)))
+                .thenAnswer(blocking(invocation -> invocation.getArgument(0)));
+        when(memoriaRepository.findMemoriasRelevantes(userId)).thenAnswer(blocking(invocation -> List.of()));
+        when(riskDetectionService.screen(anyString()))
+                .thenReturn(new RiskScreening(RiskScreening.Tier.SKIP, RiskKeywordMatcher.Match.NONE));
+        doAnswer(blocking(invocation -> null)).when(conversationAnalysisPublisher).publish(any(ConversationAnalysisEvent.class));
     }
 
-    private java.util.Map<String, Object> createConsolidatedResponseMap() {
-        java.util.Map<String, Object> consolidated = new java.util.HashMap<>();
-        consolidated.put("analiseEmocional", createEmotionalAnalysisMap());
-        consolidated.put("memorias", new ArrayList<>());
-        return consolidated;
+    private Answer<Object> blocking(Answer<Object> answer) {
+        return invocation -> {
+            Thread.sleep(5);
+            blockingThreads.add(Thread.currentThread().getName());
+            return answer.answer(invocation);
+        };
     }
 }
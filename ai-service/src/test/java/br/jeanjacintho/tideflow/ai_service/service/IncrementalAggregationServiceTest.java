@@ -0,0 +1,241 @@
+package br.jeanjacintho.tideflow.ai_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import br.jeanjacintho.tideflow.ai_service.model.CompanyEmotionalAggregate;
+import br.jeanjacintho.tideflow.ai_service.model.DepartmentEmotionalAggregate;
+import br.jeanjacintho.tideflow.ai_service.model.EmotionalAnalysis;
+import br.jeanjacintho.tideflow.ai_service.repository.CompanyEmotionalAggregateRepository;
+import br.jeanjacintho.tideflow.ai_service.repository.DepartmentEmotionalAggregateRepository;
+import br.jeanjacintho.tideflow.ai_service.repository.EmotionalAnalysisRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IncrementalAggregationService Tests")
+class IncrementalAggregationServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 3, 10);
+    private static final UUID COMPANY = UUID.randomUUID();
+    private static final UUID DEPARTMENT_A = UUID.randomUUID();
+    private static final UUID DEPARTMENT_B = UUID.randomUUID();
+
+    @Mock
+    private EmotionalAnalysisRepository emotionalAnalysisRepository;
+
+    @Mock
+    private DepartmentEmotionalAggregateRepository departmentAggregateRepository;
+
+    @Mock
+    private CompanyEmotionalAggregateRepository companyAggregateRepository;
+
+    private final List<EmotionalAnalysis> committed = new ArrayList<>();
+    private final Map<UUID, DepartmentEmotionalAggregate> departmentAggregates = new HashMap<>();
+    private CompanyEmotionalAggregate companyAggregate;
+
+    private IncrementalAggregationService incrementalAggregationService;
+    private EmotionalAggregationService emotionalAggregationService;
+
+    @BeforeEach
+    void setUp() {
+        when(emotionalAnalysisRepository.findByDepartmentIdAndDateRange(any(), any(), any()))
+                .thenAnswer(invocation -> committed.stream()
+                        .filter(a -> a.getDepartmentId().equals(invocation.getArgument(0)))
+                        .toList());
+        when(emotionalAnalysisRepository.findByCompanyIdAndDateRange(any(), any(), any()))
+                .thenAnswer(invocation -> committed.stream()
+                        .filter(a -> a.getCompanyId().equals(invocation.getArgument(0)))
+                        .toList());
+        when(departmentAggregateRepository.findByDepartmentIdAndDate(any(), any())).thenReturn(Optional.empty());
+        when(departmentAggregateRepository.save(any(DepartmentEmotionalAggregate.class))).thenAnswer(invocation -> {
+            DepartmentEmotionalAggregate aggregate = invocation.getArgument(0);
+            departmentAggregates.put(aggregate.getDepartmentId(), aggregate);
+            return aggregate;
+        });
+        when(departmentAggregateRepository.upsert(any(DepartmentEmotionalAggregate.class))).thenAnswer(invocation -> {
+            DepartmentEmotionalAggregate aggregate = invocation.getArgument(0);
+            departmentAggregates.put(aggregate.getDepartmentId(), aggregate);
+            return 1;
+        });
+        when(companyAggregateRepository.findByCompanyIdAndDate(any(), any())).thenReturn(Optional.empty());
+        when(companyAggregateRepository.save(any(CompanyEmotionalAggregate.class))).thenAnswer(invocation -> {
+            companyAggregate = invocation.getArgument(0);
+            return companyAggregate;
+        });
+        when(companyAggregateRepository.upsert(any(CompanyEmotionalAggregate.class))).thenAnswer(invocation -> {
+            companyAggregate = invocation.getArgument(0);
+            return 1;
+        });
+
+        incrementalAggregationService = new IncrementalAggregationService(
+                new FakeRedis(), emotionalAnalysisRepository, departmentAggregateRepository, companyAggregateRepository);
+        emotionalAggregationService = new EmotionalAggregationService(
+                emotionalAnalysisRepository, departmentAggregateRepository, companyAggregateRepository, incrementalAggregationService);
+    }
+
+    @Test
+    @DisplayName("apply - Deve produzir os mesmos agregados que o recálculo completo, inclusive com reentregas")
+    void testIncrementalMatchesFullAggregation() {
+        List<EmotionalAnalysis> analyses = analyses();
+        committed.addAll(analyses.subList(0, 4));
+
+        for (int i = 4; i < analyses.size(); i++) {
+            EmotionalAnalysis analysis = analyses.get(i);
+            if (i % 2 == 0) {
+                committed.add(analysis);
+                incrementalAggregationService.apply(analysis);
+            } else {
+                incrementalAggregationService.apply(analysis);
+                committed.add(analysis);
+            }
+            if (i % 5 == 0) {
+                incrementalAggregationService.apply(analysis);
+            }
+        }
+        incrementalAggregationService.apply(analyses.get(analyses.size() - 1));
+
+        DepartmentEmotionalAggregate incrementalDepartment = departmentAggregates.get(DEPARTMENT_A);
+        CompanyEmotionalAggregate incrementalCompany = companyAggregate;
+
+        DepartmentEmotionalAggregate fullDepartment = emotionalAggregationService.aggregateByDepartment(DEPARTMENT_A, DATE);
+        CompanyEmotionalAggregate fullCompany = emotionalAggregationService.aggregateByCompany(COMPANY, DATE);
+
+        assertEquals(fullDepartment.getCompanyId(), incrementalDepartment.getCompanyId());
+        assertEquals(fullDepartment.getAvgStressLevel(), incrementalDepartment.getAvgStressLevel());
+        assertEquals(fullDepartment.getAvgEmotionalIntensity(), incrementalDepartment.getAvgEmotionalIntensity());
+        assertEquals(fullDepartment.getPrimaryEmotions(), incrementalDepartment.getPrimaryEmotions());
+        assertEquals(fullDepartment.getTotalConversations(), incrementalDepartment.getTotalConversations());
+        assertEquals(fullDepartment.getTotalMessages(), incrementalDepartment.getTotalMessages());
+        assertEquals(fullDepartment.getRiskAlertsCount(), incrementalDepartment.getRiskAlertsCount());
+        assertEquals(fullDepartment.getUniqueUsersCount(), incrementalDepartment.getUniqueUsersCount());
+
+        assertEquals(fullCompany.getAvgStressLevel(), incrementalCompany.getAvgStressLevel());
+        assertEquals(fullCompany.getDepartmentBreakdown(), incrementalCompany.getDepartmentBreakdown());
+        assertEquals(fullCompany.getTotalActiveUsers(), incrementalCompany.getTotalActiveUsers());
+        assertEquals(fullCompany.getTotalConversations(), incrementalCompany.getTotalConversations());
+        assertEquals(fullCompany.getTotalMessages(), incrementalCompany.getTotalMessages());
+        assertEquals(fullCompany.getRiskAlertsCount(), incrementalCompany.getRiskAlertsCount());
+        assertEquals(analyses.size(), incrementalCompany.getTotalMessages());
+    }
+
+    private List<EmotionalAnalysis> analyses() {
+        String[] emotions = {"ansiedade", "alegria", "tristeza", "neutro"};
+        int[] intensities = {40, 85, 62, 90, 15, 70, 81, 33};
+        List<UUID> conversations = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        List<EmotionalAnalysis> analyses = new ArrayList<>();
+
+        for (int i = 0; i < 16; i++) {
+            EmotionalAnalysis analysis = new EmotionalAnalysis(emotions[i % emotions.length], intensities[i % intensities.length],
+                    List.of(), "", "");
+            analysis.setId(UUID.randomUUID());
+            analysis.setUsuarioId("user-" + (i % 7));
+            analysis.setDepartmentId(i % 7 == 6 ? DEPARTMENT_B : DEPARTMENT_A);
+            analysis.setCompanyId(COMPANY);
+            analysis.setConversationId(conversations.get(i % conversations.size()));
+            analysis.setCreatedAt(LocalDateTime.of(DATE, java.time.LocalTime.of(9, 0)).plusMinutes(i));
+            analyses.add(analysis);
+        }
+        return analyses;
+    }
+
+    private static final class FakeRedis extends StringRedisTemplate {
+
+        private final Map<String, Map<String, String>> hashes = new HashMap<>();
+        private final Map<String, Set<String>> sets = new HashMap<>();
+        private final HashOperations<String, Object, Object> hashOperations;
+        private final SetOperations<String, String> setOperations;
+
+        @SuppressWarnings("unchecked")
+        FakeRedis() {
+            hashOperations = mock(HashOperations.class);
+            setOperations = mock(SetOperations.class);
+            when(hashOperations.entries(anyString()))
+                    .thenAnswer(invocation -> new HashMap<>(hashes.getOrDefault(invocation.<String>getArgument(0), Map.of())));
+            when(setOperations.size(anyString()))
+                    .thenAnswer(invocation -> (long) set(invocation.getArgument(0)).size());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <HK, HV> HashOperations<String, HK, HV> opsForHash() {
+            return (HashOperations<String, HK, HV>) (HashOperations<String, ?, ?>) hashOperations;
+        }
+
+        @Override
+        public SetOperations<String, String> opsForSet() {
+            return setOperations;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            String stateKey = keys.get(0);
+            if (script == IncrementalAggregationService.APPLY_SCRIPT) {
+                if (!hashes.containsKey(stateKey)) {
+                    return (T) Long.valueOf(-1);
+                }
+                if (set(keys.get(1)).contains((String) args[args.length - 1])) {
+                    return (T) Long.valueOf(0);
+                }
+            } else {
+                if (hashes.containsKey(stateKey)) {
+                    return (T) Long.valueOf(0);
+                }
+                keys.subList(1, keys.size()).forEach(sets::remove);
+            }
+            update(keys, args);
+            return (T) Long.valueOf(1);
+        }
+
+        private void update(List<String> keys, Object[] args) {
+            Map<String, String> hash = hashes.computeIfAbsent(keys.get(0), k -> new HashMap<>());
+            int i = 1;
+            int increments = Integer.parseInt((String) args[i++]);
+            for (int n = 0; n < increments; n++, i += 2) {
+                hash.merge((String) args[i], (String) args[i + 1],
+                        (current, delta) -> String.valueOf(Long.parseLong(current) + Long.parseLong(delta)));
+            }
+            int defaults = Integer.parseInt((String) args[i++]);
+            for (int n = 0; n < defaults; n++, i += 2) {
+                hash.putIfAbsent((String) args[i], (String) args[i + 1]);
+            }
+            for (int k = 2; k < keys.size(); k++) {
+                int members = Integer.parseInt((String) args[i++]);
+                for (int n = 0; n < members; n++) {
+                    set(keys.get(k)).add((String) args[i++]);
+                }
+            }
+            int applied = Integer.parseInt((String) args[i++]);
+            for (int n = 0; n < applied; n++) {
+                set(keys.get(1)).add((String) args[i++]);
+            }
+        }
+
+        private Set<String> set(String key) {
+            return sets.computeIfAbsent(key, k -> new HashSet<>());
+        }
+    }
+}
@@ -10,17 +10,22 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import br.jeanjacintho.tideflow.ai_service.client.LLMClient;
+import br.jeanjacintho.tideflow.ai_service.client.PromptEncoder;
+import br.jeanjacintho.tideflow.ai_service.config.SchedulerConfig;
 import br.jeanjacintho.tideflow.ai_service.model.Memoria;
 import br.jeanjacintho.tideflow.ai_service.model.TipoMemoria;
 import br.jeanjacintho.tideflow.ai_service.repository.MemoriaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
 import java.util.ArrayList;
@@ -29,6 +34,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("MemoriaService Tests")
@@ -43,7 +49,6 @@ class MemoriaServiceTest {
     @Mock
     private TriggerService triggerService;
 
-    @InjectMocks
     private MemoriaService memoriaService;
 
     private String userId;
@@ -52,6 +57,9 @@ class MemoriaServiceTest {
 
     @BeforeEach
     void setUp() {
+        memoriaService = new MemoriaService(memoriaRepository, llmClient, null, triggerService, Schedulers.immediate(),
+                new PromptEncoder(new ObjectMapper(), new SimpleMeterRegistry(), true, "ollama", false, List.of(), List.of()));
+
         userId = "user-123";
         userMessage = "Estou me sentindo ansioso hoje";
         aiResponse = "Entendo sua ansiedade. Vamos conversar sobre isso.";
@@ -90,6 +98,36 @@ class MemoriaServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    @DisplayName("recuperarMemoriasRelevantesAsync - Não deve bloquear threads não bloqueantes com o scheduler de I/O real")
+    void testRecuperarMemoriasRelevantesAsyncDoesNotBlockNonBlockingThreads() {
+        Scheduler blockingScheduler = new SchedulerConfig().blockingScheduler(2, 10);
+        List<String> blockingThreads = new CopyOnWriteArrayList<>();
+        Memoria memoria = new Memoria(userId, "Usuário gosta de café", TipoMemoria.PREFERENCIA, "contexto", 80);
+        try {
+            when(memoriaRepository.findMemoriasRelevantes(userId)).thenAnswer(invocation -> {
+                Thread.sleep(5);
+                blockingThreads.add(Thread.currentThread().getName());
+                return List.of(memoria);
+            });
+            when(memoriaRepository.save(any(Memoria.class))).thenAnswer(invocation -> {
+                Thread.sleep(5);
+                blockingThreads.add(Thread.currentThread().getName());
+                return invocation.getArgument(0);
+            });
+            MemoriaService service = new MemoriaService(memoriaRepository, llmClient, null, triggerService, blockingScheduler,
+                    new PromptEncoder(new ObjectMapper(), new SimpleMeterRegistry(), true, "ollama", false, List.of(), List.of()));
+
+            StepVerifier.create(service.recuperarMemoriasRelevantesAsync(userId, userMessage).subscribeOn(Schedulers.parallel()))
+                    .assertNext(formatted -> assertTrue(formatted.contains("Usuário gosta de café")))
+                    .verifyComplete();
+
+            assertTrue(blockingThreads.stream().allMatch(thread -> thread.startsWith("blocking-io")));
+        } finally {
+            blockingScheduler.dispose();
+        }
+    }
+
     @Test
     @DisplayName("recuperarMemoriasRelevantes - Deve retornar memórias formatadas quando existem")
     void testRecuperarMemoriasRelevantesWithMemories() {
@@ -0,0 +1,45 @@
+package br.jeanjacintho.tideflow.ai_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+@DisplayName("PromptAssembler Tests")
+class PromptAssemblerTest {
+
+    private final List<Map<String, String>> context = List.of(
+            Map.of("role", "system", "content", "Resumo da conversa até aqui:\nFalou sobre a prova."),
+            Map.of("role", "user", "content", "Estou nervoso"),
+            Map.of("role", "assistant", "content", "O que te deixa nervoso?")
+    );
+
+    @Test
+    @DisplayName("chat - Deve manter o prefixo estável e enviar memórias apenas na última mensagem")
+    void testChatKeepsStablePrefix() {
+        List<Map<String, String>> first = PromptAssembler.chat(context, "=== MEMÓRIAS DO USUÁRIO ===\n\n- [EVENTO] Prova na sexta\n", "Amanhã é o dia");
+        List<Map<String, String>> second = PromptAssembler.chat(context, "=== MEMÓRIAS DO USUÁRIO ===\n\n- [OBJETIVO] Passar no concurso\n", "Amanhã é o dia");
+
+        assertEquals(5, first.size());
+        assertEquals(first.subList(0, 4), second.subList(0, 4));
+        assertEquals(PromptAssembler.SYSTEM_PROMPT, first.get(0).get("content"));
+
+        String lastTurn = first.get(4).get("content");
+        assertEquals("user", first.get(4).get("role"));
+        assertTrue(lastTurn.startsWith("=== MEMÓRIAS DO USUÁRIO ==="));
+        assertTrue(lastTurn.endsWith("Amanhã é o dia"));
+    }
+
+    @Test
+    @DisplayName("chat - Deve enviar apenas a mensagem quando não há memórias")
+    void testChatWithoutMemories() {
+        List<Map<String, String>> messages = PromptAssembler.chat(List.of(), "", "Oi");
+
+        assertEquals(2, messages.size());
+        assertEquals("Oi", messages.get(1).get("content"));
+    }
+}
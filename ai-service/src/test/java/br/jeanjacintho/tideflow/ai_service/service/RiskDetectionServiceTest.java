@@ -0,0 +1,88 @@
+package br.jeanjacintho.tideflow.ai_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import br.jeanjacintho.tideflow.ai_service.client.LLMClient;
+import br.jeanjacintho.tideflow.ai_service.risk.RiskLexicon;
+import br.jeanjacintho.tideflow.ai_service.risk.RiskScreening;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RiskDetectionService Tests")
+class RiskDetectionServiceTest {
+
+    @Mock
+    private LLMClient llmClient;
+
+    private RiskDetectionService riskDetectionService;
+
+    @BeforeEach
+    void setUp() {
+        RiskLexicon lexicon = new RiskLexicon(new ByteArrayResource("sem saída|0.5\n".getBytes(StandardCharsets.UTF_8)));
+        riskDetectionService = new RiskDetectionService(llmClient, new ObjectMapper(), lexicon, 0.15, 0.9);
+    }
+
+    @Test
+    @DisplayName("analyzeRisk - Deve usar a detecção lexical quando a resposta da IA não é JSON")
+    void testAnalyzeRiskFallsBackToLexicalOnInvalidResponse() {
+        when(llmClient.generateResponse(anyString())).thenReturn(Mono.just(LLMClient.FALLBACK_RESPONSE));
+
+        StepVerifier.create(riskDetectionService.analyzeRisk("Sinto que estou sem saída", "user-123"))
+                .assertNext(risk -> {
+                    assertTrue(risk.isRiskDetected());
+                    assertEquals("MEDIUM", risk.getRiskLevel());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("analyzeRisk - Deve usar a detecção lexical quando o provedor falha")
+    void testAnalyzeRiskFallsBackToLexicalOnError() {
+        when(llmClient.generateResponse(anyString())).thenReturn(Mono.error(new RuntimeException("timeout")));
+
+        StepVerifier.create(riskDetectionService.analyzeRisk("Sinto que estou sem saída", "user-123"))
+                .assertNext(risk -> assertEquals("MEDIUM", risk.getRiskLevel()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("screen - Não deve escalar sem a IA quando a frase de risco está negada ou é figurativa")
+    void testScreenRoutesHedgedPhrasesToModel() {
+        RiskDetectionService service = withShippedLexicon();
+
+        assertEquals(RiskScreening.Tier.ESCALATE, service.screen("Eu quero me matar").tier());
+        assertEquals(RiskScreening.Tier.AMBIGUOUS, service.screen("Não quero me matar, só preciso descansar").tier());
+        assertEquals(RiskScreening.Tier.AMBIGUOUS, service.screen("Quero me matar de rir com esse vídeo").tier());
+    }
+
+    @Test
+    @DisplayName("screen - Frase ambígua isolada não deve atingir o limiar de escalonamento")
+    void testScreenKeepsAmbiguousPhraseBelowEscalation() {
+        RiskDetectionService service = withShippedLexicon();
+
+        RiskScreening screening = service.screen("Hoje eu só quero morrer");
+
+        assertEquals(RiskScreening.Tier.AMBIGUOUS, screening.tier());
+        assertEquals(0.8, screening.match().score(), 1e-9);
+    }
+
+    private RiskDetectionService withShippedLexicon() {
+        return new RiskDetectionService(llmClient, new ObjectMapper(),
+                new RiskLexicon(new ClassPathResource("risk/risk-lexicon.txt")), 0.15, 0.9);
+    }
+}
@@ -39,6 +39,9 @@ public class TokenService {
 
             if (user.getCompany() != null) {
                 builder.withClaim("company_id", user.getCompany().getId().toString());
+                if (user.getCompany().getSubscriptionPlan() != null) {
+                    builder.withClaim("subscription_plan", user.getCompany().getSubscriptionPlan().getPlan());
+                }
             }
 
             if (user.getDepartment() != null) {